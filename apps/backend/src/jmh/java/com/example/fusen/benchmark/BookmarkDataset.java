@@ -0,0 +1,72 @@
+package com.example.fusen.benchmark;
+
+import java.time.LocalDateTime;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.fusen.FusenApplication;
+import com.example.fusen.service.BookmarkService;
+
+/**
+ * Boots the application against an embedded H2 database (test profile, src/test/resources/schema.sql)
+ * and seeds it with the requested number of bookmarks, each linked to two of a small set of tags.
+ */
+@State(Scope.Benchmark)
+public class BookmarkDataset {
+
+    private static final int TAG_COUNT = 50;
+
+    // Seeded bookmark N has id N and created_at SEED_EPOCH + N seconds
+    static final LocalDateTime SEED_EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    ConfigurableApplicationContext context;
+    BookmarkService bookmarkService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(FusenApplication.class)
+            .profiles("test")
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:bench" + size + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false",
+                "logging.level.com.example.fusen=WARN",
+                "logging.level.org.seasar.doma=WARN")
+            .run();
+        bookmarkService = context.getBean(BookmarkService.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Set-based inserts so that even the 1M dataset is seeded in seconds
+    private void seed(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO tags (name) SELECT CONCAT('tag-', X) FROM SYSTEM_RANGE(1, ?)", TAG_COUNT);
+        jdbc.update("""
+            INSERT INTO bookmarks (url, url_hash, title, description, created_at, updated_at)
+            SELECT u, CAST(SUBSTRING(HASH('SHA-256', u), 1, 8) AS BIGINT), CONCAT('Bookmark ', X), 'seeded',
+                   DATEADD('SECOND', X, ?), DATEADD('SECOND', X, ?)
+            FROM (SELECT X, CONCAT('https://bench.example.com/', X) AS u FROM SYSTEM_RANGE(1, ?))
+            """, SEED_EPOCH, SEED_EPOCH, size);
+        jdbc.update("""
+            INSERT INTO bookmark_tags (bookmark_id, tag_id)
+            SELECT b.id, t.id FROM bookmarks b JOIN tags t
+              ON t.id IN (MOD(b.id, ?) + 1, MOD(b.id + 1, ?) + 1)
+            """, TAG_COUNT, TAG_COUNT);
+    }
+}
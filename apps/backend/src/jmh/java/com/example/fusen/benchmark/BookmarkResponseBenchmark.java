@@ -0,0 +1,63 @@
+package com.example.fusen.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.fusen.dto.BookmarkResponse;
+import com.example.fusen.entity.Bookmark;
+import com.example.fusen.entity.Tag;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookmarkResponseBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Bookmark bookmark;
+
+    @Setup
+    public void setUp() {
+        Set<Tag> tags = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            tags.add(Tag.builder().id((long) i).name("tag-" + i).build());
+        }
+        bookmark = Bookmark.builder()
+            .id(1L)
+            .url("https://bench.example.com/articles/jmh-serialization")
+            .title("JMH serialization benchmark")
+            .description("A bookmark with a typical amount of text and five tags")
+            .tags(tags)
+            .createdAt(LocalDateTime.of(2024, 1, 1, 0, 0))
+            .updatedAt(LocalDateTime.of(2024, 1, 2, 0, 0))
+            .version(1L)
+            .build();
+    }
+
+    @Benchmark
+    public BookmarkResponse construct() {
+        return new BookmarkResponse(bookmark);
+    }
+
+    @Benchmark
+    public byte[] constructAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new BookmarkResponse(bookmark));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.fusen.benchmark;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.fusen.dto.BookmarkCursor;
+import com.example.fusen.entity.Bookmark;
+import com.example.fusen.entity.Tag;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class BookmarkServiceBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @Benchmark
+    public List<Bookmark> findAllFirstPage(BookmarkDataset dataset) {
+        return dataset.bookmarkService.findAll(PAGE_SIZE, 0);
+    }
+
+    // OFFSET cost grows with the dataset; compare against findAllAfterCursor
+    @Benchmark
+    public List<Bookmark> findAllDeepOffset(BookmarkDataset dataset) {
+        return dataset.bookmarkService.findAll(PAGE_SIZE, dataset.size / 2);
+    }
+
+    @Benchmark
+    public List<Bookmark> findAllAfterCursor(BookmarkDataset dataset) {
+        long middle = dataset.size / 2;
+        BookmarkCursor cursor = new BookmarkCursor(BookmarkDataset.SEED_EPOCH.plusSeconds(middle), middle);
+        return dataset.bookmarkService.findAllAfter(cursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Bookmark create(BookmarkDataset dataset) {
+        Bookmark bookmark = new Bookmark();
+        bookmark.setUrl("https://bench.example.com/new/" + SEQUENCE.incrementAndGet());
+        bookmark.setTitle("New bookmark");
+        bookmark.setTags(Set.of(new Tag("tag-1"), new Tag("tag-2"), new Tag("bench-new")));
+        return dataset.bookmarkService.create(bookmark);
+    }
+}
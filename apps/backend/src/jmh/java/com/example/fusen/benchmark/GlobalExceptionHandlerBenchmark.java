@@ -0,0 +1,41 @@
+package com.example.fusen.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import com.example.fusen.exception.BookmarkNotFoundException;
+import com.example.fusen.util.GlobalExceptionHandler;
+
+/**
+ * Error path cost: creating the exception (stack trace included) and building the error body
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GlobalExceptionHandlerBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> bookmarkNotFound() {
+        try {
+            throw new BookmarkNotFoundException("Bookmark not found with id: 1");
+        } catch (BookmarkNotFoundException e) {
+            return handler.handleBookmarkNotFoundException(e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.fusen.bulk;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.fusen.dto.BookmarkResponse;
+import com.example.fusen.service.BookmarkService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 全ブックマークをNDJSON / CSV / Netscape形式HTMLで書き出す。DBのカーソルから読んだ順に1件ずつ書くので、
+ * 件数によらずヒープ使用量は一定。書き込みに失敗した (クライアントが切断した) 時点で読み込みも止める。
+ */
+@Component
+public class BookmarkExporter {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+  static final int CHECKPOINT_INTERVAL = 1000;
+
+  private final BookmarkService bookmarkService;
+  private final ObjectMapper objectMapper;
+
+  @Autowired
+  public BookmarkExporter(BookmarkService bookmarkService, ObjectMapper objectMapper) {
+    this.bookmarkService = bookmarkService;
+    this.objectMapper = objectMapper;
+  }
+
+  // 書き出した件数を返す
+  public long exportTo(OutputStream body, BulkFormat format) throws IOException {
+    return exportTo(body, format, null, ExportListener.NONE);
+  }
+
+  // afterIdを指定した場合は先頭を書かずに、そのidより後のブックマークを追記する (チェックポイントからの再開用)。
+  // CHECKPOINT_INTERVAL件ごとに出力をフラッシュしてからlistenerを呼ぶ
+  public long exportTo(OutputStream body, BulkFormat format, Long afterId, ExportListener listener)
+      throws IOException {
+    BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8), BUFFER_SIZE);
+    try (BookmarkRecordWriter records = switch (format) {
+      case NDJSON -> new NdjsonBookmarkWriter(writer, objectMapper);
+      case CSV -> new CsvBookmarkWriter(writer);
+      case HTML -> new NetscapeBookmarkWriter(writer);
+    }) {
+      if (afterId == null) {
+        records.begin();
+      }
+      bookmarkService.exportAll(afterId, bookmark -> {
+        try {
+          records.write(new BookmarkResponse(bookmark));
+          if (records.written() % CHECKPOINT_INTERVAL == 0) {
+            records.flush();
+            listener.flushed(bookmark.getId(), records.written());
+          }
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+      return records.written();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+}
@@ -0,0 +1,258 @@
+package com.example.fusen.bulk;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import com.example.fusen.dto.BookmarkRequest;
+import com.example.fusen.dto.ImportError;
+import com.example.fusen.dto.ImportResult;
+import com.example.fusen.entity.Bookmark;
+import com.example.fusen.entity.Tag;
+import com.example.fusen.exception.InvalidImportException;
+import com.example.fusen.service.BookmarkService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * NDJSON / CSV / Netscape形式HTMLのリクエストボディを読みながら、一定件数ごとに別トランザクションでまとめて登録する。
+ * 保持するのは処理中の1チャンクと上限件数までのエラーだけなので、入力の大きさによらずヒープ使用量は一定。
+ * 途中で失敗した場合も、それまでにコミットしたチャンクは登録済みのまま残る。
+ */
+@Component
+public class BookmarkImporter {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final BookmarkService bookmarkService;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  private final int batchSize;
+  private final int maxErrors;
+
+  @Autowired
+  public BookmarkImporter(BookmarkService bookmarkService, ObjectMapper objectMapper, Validator validator,
+      @Value("${fusen.import.batch-size:1000}") int batchSize,
+      @Value("${fusen.import.max-errors:1000}") int maxErrors) {
+    this.bookmarkService = bookmarkService;
+    this.objectMapper = objectMapper;
+    this.validator = validator;
+    this.batchSize = batchSize;
+    this.maxErrors = maxErrors;
+  }
+
+  public ImportResult importFrom(InputStream body, BulkFormat format, boolean gzip) throws IOException {
+    return importFrom(body, format, gzip, ImportCheckpoint.START, ImportListener.NONE);
+  }
+
+  // fromまでのレコードは読み飛ばし、件数はfromの集計に足していく (チェックポイントからの再開用)
+  public ImportResult importFrom(InputStream body, BulkFormat format, boolean gzip, ImportCheckpoint from,
+      ImportListener listener) throws IOException {
+    try {
+      InputStream in = gzip ? new GZIPInputStream(body, BUFFER_SIZE) : body;
+      Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+      try (BookmarkRecordReader records = switch (format) {
+        case NDJSON -> new NdjsonBookmarkReader(reader, objectMapper);
+        case CSV -> new CsvBookmarkReader(reader);
+        case HTML -> new NetscapeBookmarkReader(reader);
+      }) {
+        return importRecords(records, from, listener);
+      }
+    } catch (ZipException e) {
+      throw new InvalidImportException("Malformed gzip body: " + e.getMessage());
+    }
+  }
+
+  private ImportResult importRecords(BookmarkRecordReader records, ImportCheckpoint from, ImportListener listener)
+      throws IOException {
+    Progress progress = new Progress(maxErrors, from);
+    // 同じチャンク内の重複URLはここで除き、チャンクをまたぐ重複はDBの登録済みURLとして検出する
+    Map<String, Long> linesByUrl = new LinkedHashMap<>();
+    List<Bookmark> chunk = new ArrayList<>(batchSize);
+    ImportRecord record;
+    long read = 0;
+    while ((record = records.next()) != null) {
+      if (++read <= from.records()) {
+        continue;
+      }
+      Bookmark bookmark = toBookmark(record, progress);
+      if (bookmark == null) {
+        continue;
+      }
+      if (linesByUrl.putIfAbsent(bookmark.getUrl(), record.line()) != null) {
+        progress.duplicate(record.line(), bookmark.getUrl());
+        continue;
+      }
+      chunk.add(bookmark);
+      if (chunk.size() >= batchSize) {
+        flush(chunk, linesByUrl, progress);
+        progress.report(read, listener);
+      }
+    }
+    flush(chunk, linesByUrl, progress);
+    progress.report(read, listener);
+    return progress.toResult();
+  }
+
+  private void flush(List<Bookmark> chunk, Map<String, Long> linesByUrl, Progress progress) {
+    if (chunk.isEmpty()) {
+      return;
+    }
+    List<Bookmark> duplicates;
+    try {
+      duplicates = bookmarkService.importBatch(chunk);
+    } catch (DuplicateKeyException e) {
+      // 確認から登録までの間に同じURLが登録されたか、別のURLとurl_hashが衝突した。
+      // チャンクのどの行かは分からないため1件ずつ登録し直し、一意制約に反した行だけを重複として記録する
+      duplicates = importOneByOne(chunk);
+    }
+    Set<Bookmark> skipped = Collections.newSetFromMap(new IdentityHashMap<>());
+    skipped.addAll(duplicates);
+    for (Bookmark bookmark : chunk) {
+      if (skipped.contains(bookmark)) {
+        progress.duplicate(linesByUrl.get(bookmark.getUrl()), bookmark.getUrl());
+      } else {
+        progress.imported++;
+      }
+    }
+    chunk.clear();
+    linesByUrl.clear();
+  }
+
+  private List<Bookmark> importOneByOne(List<Bookmark> chunk) {
+    List<Bookmark> duplicates = new ArrayList<>();
+    for (Bookmark bookmark : chunk) {
+      try {
+        duplicates.addAll(bookmarkService.importBatch(List.of(bookmark)));
+      } catch (DuplicateKeyException e) {
+        duplicates.add(bookmark);
+      }
+    }
+    return duplicates;
+  }
+
+  // 検証と正規化。登録できないレコードはエラーとして記録してnullを返す
+  private Bookmark toBookmark(ImportRecord record, Progress progress) {
+    if (record.error() != null) {
+      progress.fail(record.line(), null, "INVALID_RECORD", record.error());
+      return null;
+    }
+    BookmarkRequest request = normalize(record.request());
+    Set<ConstraintViolation<BookmarkRequest>> violations = validator.validate(request);
+    if (!violations.isEmpty()) {
+      boolean invalidUrl = violations.stream().anyMatch(v -> v.getPropertyPath().toString().equals("url"));
+      String message = violations.stream().map(ConstraintViolation::getMessage).collect(Collectors.joining(" "));
+      progress.fail(record.line(), request.getUrl(), invalidUrl ? "INVALID_URL" : "VALIDATION_ERROR", message);
+      return null;
+    }
+    if (!BookmarkService.isValidUrl(request.getUrl())) {
+      progress.fail(record.line(), request.getUrl(), "INVALID_URL", "Invalid URL format: " + request.getUrl());
+      return null;
+    }
+    LocalDateTime now = LocalDateTime.now();
+    Set<Tag> tags = new LinkedHashSet<>();
+    if (request.getTags() != null) {
+      request.getTags().forEach(name -> tags.add(new Tag(name)));
+    }
+    return Bookmark.builder()
+        .url(request.getUrl())
+        .title(request.getTitle())
+        .description(request.getDescription())
+        .tags(tags)
+        .createdAt(now)
+        .updatedAt(now)
+        .build();
+  }
+
+  private static BookmarkRequest normalize(BookmarkRequest request) {
+    BookmarkRequest normalized = new BookmarkRequest();
+    normalized.setUrl(strip(request.getUrl()));
+    normalized.setTitle(strip(request.getTitle()));
+    normalized.setDescription(strip(request.getDescription()));
+    if (request.getTags() != null) {
+      normalized.setTags(request.getTags().stream()
+          .map(BookmarkImporter::strip)
+          .filter(name -> name != null)
+          .distinct()
+          .toList());
+    }
+    return normalized;
+  }
+
+  // 前後の空白を除き、空文字はnullにする
+  private static String strip(String value) {
+    if (value == null) {
+      return null;
+    }
+    String stripped = value.strip();
+    return stripped.isEmpty() ? null : stripped;
+  }
+
+  private static class Progress {
+    private final int maxErrors;
+    private final List<ImportError> errors = new ArrayList<>();
+    private long imported;
+    private long duplicates;
+    private long failed;
+    private boolean errorsTruncated;
+    // listenerへ渡し済みのエラー件数
+    private int reported;
+
+    Progress(int maxErrors, ImportCheckpoint from) {
+      this.maxErrors = maxErrors;
+      this.imported = from.imported();
+      this.duplicates = from.duplicates();
+      this.failed = from.failed();
+    }
+
+    void report(long records, ImportListener listener) {
+      List<ImportError> newErrors = List.copyOf(errors.subList(reported, errors.size()));
+      reported = errors.size();
+      listener.committed(new ImportCheckpoint(records, imported, duplicates, failed), newErrors);
+    }
+
+    void duplicate(long line, String url) {
+      duplicates++;
+      addError(new ImportError(line, url, "DUPLICATE_URL", "Bookmark with URL already exists: " + url));
+    }
+
+    void fail(long line, String url, String errorCode, String message) {
+      failed++;
+      addError(new ImportError(line, url, errorCode, message));
+    }
+
+    private void addError(ImportError error) {
+      if (errors.size() < maxErrors) {
+        errors.add(error);
+      } else {
+        errorsTruncated = true;
+      }
+    }
+
+    ImportResult toResult() {
+      return new ImportResult(imported, duplicates, failed, List.copyOf(errors), errorsTruncated);
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package com.example.fusen.bulk;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * 入力を1レコードずつ読む。全体をメモリに載せないよう、1レコードの長さにも上限を設ける。
+ */
+abstract class BookmarkRecordReader implements Closeable {
+
+  static final int MAX_RECORD_CHARS = 64 * 1024;
+
+  private static final int BYTE_ORDER_MARK = 0xFEFF;
+
+  private final Reader reader;
+  // 次に読む文字の行番号 (1始まり)
+  private long line = 1;
+  private boolean started;
+
+  BookmarkRecordReader(Reader reader) {
+    this.reader = reader;
+  }
+
+  // 入力の終わりに達したらnull
+  abstract ImportRecord next() throws IOException;
+
+  long line() {
+    return line;
+  }
+
+  int read() throws IOException {
+    int c = reader.read();
+    if (!started) {
+      started = true;
+      if (c == BYTE_ORDER_MARK) {
+        c = reader.read();
+      }
+    }
+    if (c == '\n') {
+      line++;
+    }
+    return c;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
@@ -0,0 +1,59 @@
+package com.example.fusen.bulk;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+import com.example.fusen.dto.BookmarkResponse;
+
+/**
+ * 出力へ1レコードずつ書く。最初のレコードを書いたらフラッシュし、以降はバッファが満ちるたびに送り出す。
+ * 先頭 (ヘッダー) はbeginで書く。途中から追記して再開する場合は呼ばない。
+ */
+abstract class BookmarkRecordWriter implements Closeable {
+
+  private final Writer writer;
+  private long written;
+
+  BookmarkRecordWriter(Writer writer) {
+    this.writer = writer;
+  }
+
+  abstract void writeRecord(Writer out, BookmarkResponse bookmark) throws IOException;
+
+  // 先頭と、閉じる前に書く末尾。必要な形式だけがオーバーライドする
+  void writeHeader(Writer out) throws IOException {
+  }
+
+  void writeFooter(Writer out) throws IOException {
+  }
+
+  void begin() throws IOException {
+    writeHeader(writer);
+  }
+
+  void write(BookmarkResponse bookmark) throws IOException {
+    writeRecord(writer, bookmark);
+    // 件数が多くても最初のレコードはすぐにクライアントへ届ける
+    if (++written == 1) {
+      writer.flush();
+    }
+  }
+
+  void flush() throws IOException {
+    writer.flush();
+  }
+
+  long written() {
+    return written;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      writeFooter(writer);
+    } finally {
+      writer.close();
+    }
+  }
+}
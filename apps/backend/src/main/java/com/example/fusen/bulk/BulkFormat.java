@@ -0,0 +1,61 @@
+package com.example.fusen.bulk;
+
+import java.util.Locale;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import com.example.fusen.exception.UnsupportedFormatException;
+
+/**
+ * 一括登録・エクスポートで扱う形式。登録はContent-Type、エクスポートはformatパラメータ (名前) で指定する。
+ */
+public enum BulkFormat {
+  NDJSON(BulkFormat.NDJSON_VALUE, "ndjson"),
+  CSV(BulkFormat.CSV_VALUE, "csv"),
+  HTML(BulkFormat.HTML_VALUE, "html");
+
+  public static final String NDJSON_VALUE = "application/x-ndjson";
+  public static final String CSV_VALUE = "text/csv";
+  // ブラウザがブックマークの書き出し・読み込みに使うNetscape形式 (bookmarks.html)
+  public static final String HTML_VALUE = "text/html";
+
+  private final MediaType mediaType;
+  private final String extension;
+
+  BulkFormat(String mediaType, String extension) {
+    this.mediaType = MediaType.parseMediaType(mediaType);
+    this.extension = extension;
+  }
+
+  public MediaType mediaType() {
+    return mediaType;
+  }
+
+  public String extension() {
+    return extension;
+  }
+
+  public static BulkFormat of(String contentType) {
+    try {
+      MediaType requested = MediaType.parseMediaType(contentType);
+      for (BulkFormat format : values()) {
+        if (format.mediaType.includes(requested)) {
+          return format;
+        }
+      }
+    } catch (InvalidMediaTypeException e) {
+      // 下で例外にする
+    }
+    throw new UnsupportedFormatException("Unsupported format: " + contentType);
+  }
+
+  public static BulkFormat fromName(String name) {
+    for (BulkFormat format : values()) {
+      if (format.extension.equals(name.trim().toLowerCase(Locale.ROOT))) {
+        return format;
+      }
+    }
+    throw new UnsupportedFormatException("Unsupported format: " + name);
+  }
+}
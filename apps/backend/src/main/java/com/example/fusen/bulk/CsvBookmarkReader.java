@@ -0,0 +1,127 @@
+package com.example.fusen.bulk;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import com.example.fusen.dto.BookmarkRequest;
+import com.example.fusen.exception.InvalidImportException;
+
+/**
+ * RFC 4180形式のCSVを読む。1行目はヘッダーで、url (必須)・title・description・tags の列を名前で対応付ける。
+ * tagsはカンマ区切り (複数指定する場合はフィールド全体をダブルクォートで囲む)。その他の列は無視する。
+ */
+class CsvBookmarkReader extends BookmarkRecordReader {
+
+  private final int urlColumn;
+  private final int titleColumn;
+  private final int descriptionColumn;
+  private final int tagsColumn;
+  private final StringBuilder field = new StringBuilder();
+  private final List<String> fields = new ArrayList<>();
+  private String error;
+  private int recordChars;
+
+  CsvBookmarkReader(Reader reader) throws IOException {
+    super(reader);
+    List<String> header = readRow() ? normalize(fields) : List.of();
+    if (error != null) {
+      throw new InvalidImportException("Malformed CSV header: " + error);
+    }
+    urlColumn = header.indexOf("url");
+    titleColumn = header.indexOf("title");
+    descriptionColumn = header.indexOf("description");
+    tagsColumn = header.indexOf("tags");
+    if (!header.isEmpty() && urlColumn < 0) {
+      throw new InvalidImportException("CSV header must contain a url column: " + String.join(",", header));
+    }
+  }
+
+  @Override
+  ImportRecord next() throws IOException {
+    while (true) {
+      long start = line();
+      if (!readRow()) {
+        return null;
+      }
+      if (error != null) {
+        return ImportRecord.invalid(start, error);
+      }
+      if (fields.size() == 1 && fields.get(0).isBlank()) {
+        continue;
+      }
+      BookmarkRequest request = new BookmarkRequest();
+      request.setUrl(column(urlColumn));
+      request.setTitle(column(titleColumn));
+      request.setDescription(column(descriptionColumn));
+      String tags = column(tagsColumn);
+      request.setTags(tags == null ? null : Arrays.asList(tags.split(",")));
+      return ImportRecord.of(start, request);
+    }
+  }
+
+  // 1レコードをfieldsに読み込む。入力の終わりでレコードがなければfalse
+  private boolean readRow() throws IOException {
+    fields.clear();
+    field.setLength(0);
+    error = null;
+    recordChars = 0;
+    int c = read();
+    if (c == -1) {
+      return false;
+    }
+    boolean inQuotes = false;
+    boolean quoted = false;
+    while (true) {
+      if (c == -1) {
+        if (inQuotes) {
+          error = "Unterminated quoted field";
+        }
+        fields.add(field.toString());
+        return true;
+      }
+      if (inQuotes) {
+        if (c == '"') {
+          c = read();
+          if (c != '"') {
+            inQuotes = false;
+            continue;
+          }
+        }
+        append(c);
+      } else if (c == '"' && field.isEmpty() && !quoted) {
+        inQuotes = true;
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+        quoted = false;
+      } else if (c == '\n') {
+        fields.add(field.toString());
+        return true;
+      } else if (c != '\r') {
+        append(c);
+      }
+      c = read();
+    }
+  }
+
+  private void append(int c) {
+    if (++recordChars > MAX_RECORD_CHARS) {
+      error = "Record exceeds " + MAX_RECORD_CHARS + " characters";
+      return;
+    }
+    field.append((char) c);
+  }
+
+  private String column(int index) {
+    return index >= 0 && index < fields.size() ? fields.get(index) : null;
+  }
+
+  private static List<String> normalize(List<String> header) {
+    return header.stream().map(name -> name.strip().toLowerCase(Locale.ROOT)).toList();
+  }
+}
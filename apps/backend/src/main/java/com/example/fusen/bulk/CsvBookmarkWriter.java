@@ -0,0 +1,57 @@
+package com.example.fusen.bulk;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.example.fusen.dto.BookmarkResponse;
+
+/**
+ * RFC 4180形式のCSVを書く。1行目はヘッダーで、tagsはカンマ区切りにして1つのフィールドに入れる。
+ * 出力はそのまま一括登録 (CsvBookmarkReader) で読み込める。
+ */
+class CsvBookmarkWriter extends BookmarkRecordWriter {
+
+  static final String HEADER = "id,url,title,description,tags,created_at,updated_at";
+
+  CsvBookmarkWriter(Writer writer) {
+    super(writer);
+  }
+
+  @Override
+  void writeHeader(Writer out) throws IOException {
+    out.write(HEADER);
+    out.write("\r\n");
+  }
+
+  @Override
+  void writeRecord(Writer out, BookmarkResponse bookmark) throws IOException {
+    out.write(String.valueOf(bookmark.getId()));
+    out.write(',');
+    writeField(out, bookmark.getUrl());
+    out.write(',');
+    writeField(out, bookmark.getTitle());
+    out.write(',');
+    writeField(out, bookmark.getDescription());
+    out.write(',');
+    writeField(out, String.join(",", bookmark.getTags()));
+    out.write(',');
+    writeField(out, bookmark.getCreatedAt());
+    out.write(',');
+    writeField(out, bookmark.getUpdatedAt());
+    out.write("\r\n");
+  }
+
+  // カンマ・ダブルクォート・改行を含む場合だけダブルクォートで囲み、中のダブルクォートは二重にする
+  private static void writeField(Writer out, String value) throws IOException {
+    if (value == null || value.isEmpty()) {
+      return;
+    }
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+      out.write(value);
+      return;
+    }
+    out.write('"');
+    out.write(value.replace("\"", "\"\""));
+    out.write('"');
+  }
+}
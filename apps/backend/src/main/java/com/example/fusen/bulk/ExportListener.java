@@ -0,0 +1,17 @@
+package com.example.fusen.bulk;
+
+import java.io.IOException;
+
+/**
+ * エクスポート中、一定件数ごとに出力をフラッシュしてから呼ばれる。
+ * 例外を投げるとエクスポートはそこで中断する。
+ */
+@FunctionalInterface
+public interface ExportListener {
+
+  ExportListener NONE = (lastId, written) -> {
+  };
+
+  // lastIdまでのブックマークは出力先へ書き出し済み
+  void flushed(long lastId, long written) throws IOException;
+}
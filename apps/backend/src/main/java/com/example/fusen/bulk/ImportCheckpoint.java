@@ -0,0 +1,9 @@
+package com.example.fusen.bulk;
+
+/**
+ * 一括登録の途中経過。recordsは入力の先頭から読み終えたレコード数で、再開時はこの件数を読み飛ばす。
+ */
+public record ImportCheckpoint(long records, long imported, long duplicates, long failed) {
+
+  public static final ImportCheckpoint START = new ImportCheckpoint(0, 0, 0, 0);
+}
@@ -0,0 +1,19 @@
+package com.example.fusen.bulk;
+
+import java.util.List;
+
+import com.example.fusen.dto.ImportError;
+
+/**
+ * 一括登録のチャンクをコミットするたびと、入力を読み終えたときに呼ばれる。
+ * 例外を投げると登録はそこで中断する (コミット済みのチャンクは残る)。
+ */
+@FunctionalInterface
+public interface ImportListener {
+
+  ImportListener NONE = (checkpoint, newErrors) -> {
+  };
+
+  // newErrorsは前回の呼び出し以降に見つかったエラー (上限件数まで)
+  void committed(ImportCheckpoint checkpoint, List<ImportError> newErrors);
+}
@@ -0,0 +1,17 @@
+package com.example.fusen.bulk;
+
+import com.example.fusen.dto.BookmarkRequest;
+
+/**
+ * 入力から読み取った1レコード。読み取れなかった場合はrequestがnullでerrorに理由が入る。
+ */
+record ImportRecord(long line, BookmarkRequest request, String error) {
+
+  static ImportRecord of(long line, BookmarkRequest request) {
+    return new ImportRecord(line, request, null);
+  }
+
+  static ImportRecord invalid(long line, String error) {
+    return new ImportRecord(line, null, error);
+  }
+}
@@ -0,0 +1,57 @@
+package com.example.fusen.bulk;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import com.example.fusen.dto.BookmarkRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 1行に1つのJSONオブジェクト (POST /api/v1/bookmarks と同じ項目) を読む。空行は読み飛ばす。
+ */
+class NdjsonBookmarkReader extends BookmarkRecordReader {
+
+  private final ObjectMapper objectMapper;
+  private final StringBuilder buffer = new StringBuilder();
+
+  NdjsonBookmarkReader(Reader reader, ObjectMapper objectMapper) {
+    super(reader);
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  ImportRecord next() throws IOException {
+    while (true) {
+      long start = line();
+      buffer.setLength(0);
+      boolean tooLong = false;
+      int c;
+      while ((c = read()) != -1 && c != '\n') {
+        if (buffer.length() < MAX_RECORD_CHARS) {
+          buffer.append((char) c);
+        } else {
+          tooLong = true;
+        }
+      }
+      if (tooLong) {
+        return ImportRecord.invalid(start, "Record exceeds " + MAX_RECORD_CHARS + " characters");
+      }
+      String json = buffer.toString().strip();
+      if (!json.isEmpty()) {
+        return parse(start, json);
+      }
+      if (c == -1) {
+        return null;
+      }
+    }
+  }
+
+  private ImportRecord parse(long line, String json) {
+    try {
+      return ImportRecord.of(line, objectMapper.readValue(json, BookmarkRequest.class));
+    } catch (JsonProcessingException e) {
+      return ImportRecord.invalid(line, "Malformed JSON: " + e.getOriginalMessage());
+    }
+  }
+}
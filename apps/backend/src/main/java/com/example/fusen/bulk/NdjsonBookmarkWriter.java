@@ -0,0 +1,28 @@
+package com.example.fusen.bulk;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.example.fusen.dto.BookmarkResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * 1行に1件、GET /bookmarks/{id} と同じ形のJSONを書く。
+ */
+class NdjsonBookmarkWriter extends BookmarkRecordWriter {
+
+  private final ObjectWriter objectWriter;
+
+  NdjsonBookmarkWriter(Writer writer, ObjectMapper objectMapper) {
+    super(writer);
+    this.objectWriter = objectMapper.writerFor(BookmarkResponse.class);
+  }
+
+  @Override
+  void writeRecord(Writer out, BookmarkResponse bookmark) throws IOException {
+    // writeValue(Writer, ...) は書き込み先を閉じるため、文字列にしてから書く
+    out.write(objectWriter.writeValueAsString(bookmark));
+    out.write('\n');
+  }
+}
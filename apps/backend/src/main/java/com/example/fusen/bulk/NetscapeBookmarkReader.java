@@ -0,0 +1,296 @@
+package com.example.fusen.bulk;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.example.fusen.dto.BookmarkRequest;
+
+/**
+ * ブラウザが書き出すNetscape形式 (bookmarks.html) を読む。DOMを作らず、要素を1つずつ読み進める。
+ * {@code <A HREF>} を1件とし、囲んでいるフォルダー ({@code <H3>} の後の {@code <DL>}) の名前を外側から順にタグにする。
+ * TAGS属性があればそのタグも加え、直後の {@code <DD>} を説明として読む。
+ * ブックマークバーなどブラウザ固有のフォルダーはタグにしない。
+ */
+class NetscapeBookmarkReader extends BookmarkRecordReader {
+
+  private static final int NONE = -2;
+
+  // タグにしない (名前がブラウザごとに決まっている) フォルダーの属性
+  private static final List<String> BROWSER_FOLDER_ATTRIBUTES = List.of(
+      "PERSONAL_TOOLBAR_FOLDER", "UNFILED_BOOKMARKS_FOLDER");
+
+  // 開いているフォルダーの名前。タグにしないフォルダーは空文字
+  private final Deque<String> folders = new ArrayDeque<>();
+  private final StringBuilder text = new StringBuilder();
+  // 直前の <H3> の名前。続く <DL> でフォルダーとして開く
+  private String folderName;
+  // <DD> を待っているレコード。次の <A> か入力の終わりで返す
+  private ImportRecord pending;
+  private int pushback = NONE;
+  private boolean tooLong;
+
+  NetscapeBookmarkReader(Reader reader) {
+    super(reader);
+  }
+
+  @Override
+  ImportRecord next() throws IOException {
+    int c;
+    while ((c = nextChar()) != -1) {
+      if (c != '<') {
+        continue;
+      }
+      long start = line();
+      Element element = readElement();
+      if (element == null) {
+        continue;
+      }
+      if (element.closing()) {
+        if (element.name().equals("DL") && !folders.isEmpty()) {
+          folders.pop();
+        }
+        continue;
+      }
+      switch (element.name()) {
+        case "H3" -> {
+          String name = readText();
+          folderName = isBrowserFolder(element) ? "" : name;
+        }
+        case "DL" -> {
+          folders.push(folderName == null ? "" : folderName);
+          folderName = null;
+        }
+        case "DD" -> describe(readText());
+        case "A" -> {
+          ImportRecord previous = pending;
+          pending = anchor(start, element);
+          if (previous != null) {
+            return previous;
+          }
+        }
+        default -> {
+          // H1・TITLE・METAなどは読み飛ばす
+        }
+      }
+    }
+    ImportRecord last = pending;
+    pending = null;
+    return last;
+  }
+
+  private ImportRecord anchor(long line, Element element) throws IOException {
+    // HREFなどの属性が上限を超えた場合も、タイトルを読むとフラグが戻るので先に控える
+    boolean elementTooLong = tooLong;
+    String title = readText();
+    if (elementTooLong || tooLong) {
+      return ImportRecord.invalid(line, "Record exceeds " + MAX_RECORD_CHARS + " characters");
+    }
+    BookmarkRequest request = new BookmarkRequest();
+    request.setUrl(element.attributes().get("HREF"));
+    request.setTitle(title);
+    List<String> tags = new ArrayList<>();
+    folders.descendingIterator().forEachRemaining(folder -> {
+      if (!folder.isEmpty()) {
+        tags.add(folder);
+      }
+    });
+    String tagAttribute = element.attributes().get("TAGS");
+    if (tagAttribute != null) {
+      tags.addAll(Arrays.asList(tagAttribute.split(",")));
+    }
+    request.setTags(tags);
+    return ImportRecord.of(line, request);
+  }
+
+  private void describe(String description) {
+    if (pending == null || pending.request() == null || pending.request().getDescription() != null) {
+      return;
+    }
+    if (tooLong) {
+      pending = ImportRecord.invalid(pending.line(), "Record exceeds " + MAX_RECORD_CHARS + " characters");
+    } else {
+      pending.request().setDescription(description);
+    }
+  }
+
+  private boolean isBrowserFolder(Element element) {
+    return BROWSER_FOLDER_ATTRIBUTES.stream().anyMatch(element.attributes()::containsKey);
+  }
+
+  // 次の '<' または入力の終わりまでの文字列。文字参照を展開し、前後の空白を除く
+  private String readText() throws IOException {
+    tooLong = false;
+    text.setLength(0);
+    int c;
+    while ((c = nextChar()) != -1 && c != '<') {
+      append(text, c);
+    }
+    if (c == '<') {
+      pushback = c;
+    }
+    return decode(text).strip();
+  }
+
+  // '<' の直後から '>' までを読む。コメント・DOCTYPE (<!...>) は読み飛ばしてnullを返す
+  private Element readElement() throws IOException {
+    tooLong = false;
+    int c = nextChar();
+    if (c == '!') {
+      skipDeclaration();
+      return null;
+    }
+    boolean closing = c == '/';
+    if (closing) {
+      c = nextChar();
+    }
+    StringBuilder name = new StringBuilder();
+    while (c != -1 && c != '>' && c != '/' && !Character.isWhitespace(c)) {
+      append(name, c);
+      c = nextChar();
+    }
+    Map<String, String> attributes = new HashMap<>();
+    while (c != -1 && c != '>') {
+      if (c == '/' || Character.isWhitespace(c)) {
+        c = nextChar();
+        continue;
+      }
+      StringBuilder attributeName = new StringBuilder();
+      while (c != -1 && c != '=' && c != '>' && !Character.isWhitespace(c)) {
+        append(attributeName, c);
+        c = nextChar();
+      }
+      while (c != -1 && Character.isWhitespace(c)) {
+        c = nextChar();
+      }
+      StringBuilder value = new StringBuilder();
+      if (c == '=') {
+        c = nextChar();
+        while (c != -1 && Character.isWhitespace(c)) {
+          c = nextChar();
+        }
+        if (c == '"' || c == '\'') {
+          int quote = c;
+          while ((c = nextChar()) != -1 && c != quote) {
+            append(value, c);
+          }
+          c = nextChar();
+        } else {
+          while (c != -1 && c != '>' && !Character.isWhitespace(c)) {
+            append(value, c);
+            c = nextChar();
+          }
+        }
+      }
+      attributes.put(attributeName.toString().toUpperCase(Locale.ROOT), decode(value));
+    }
+    return new Element(name.toString().toUpperCase(Locale.ROOT), closing, attributes);
+  }
+
+  private void skipDeclaration() throws IOException {
+    int c = nextChar();
+    if (c == '-' && (c = nextChar()) == '-') {
+      // コメントは "-->" まで
+      int dashes = 0;
+      while ((c = nextChar()) != -1) {
+        if (c == '>' && dashes >= 2) {
+          return;
+        }
+        dashes = c == '-' ? dashes + 1 : 0;
+      }
+      return;
+    }
+    while (c != -1 && c != '>') {
+      c = nextChar();
+    }
+  }
+
+  private void append(StringBuilder buffer, int c) {
+    if (buffer.length() < MAX_RECORD_CHARS) {
+      buffer.append((char) c);
+    } else {
+      tooLong = true;
+    }
+  }
+
+  private int nextChar() throws IOException {
+    if (pushback != NONE) {
+      int c = pushback;
+      pushback = NONE;
+      return c;
+    }
+    return read();
+  }
+
+  // ブラウザが書き出す範囲の文字参照 (&amp; &lt; &gt; &quot; &#39; &nbsp; と数値参照) を展開する
+  static String decode(CharSequence value) {
+    int amp = indexOf(value, '&', 0);
+    if (amp < 0) {
+      return value.toString();
+    }
+    StringBuilder decoded = new StringBuilder(value.length());
+    int i = 0;
+    while (amp >= 0) {
+      decoded.append(value, i, amp);
+      int semicolon = indexOf(value, ';', amp);
+      String reference = semicolon < 0 || semicolon - amp > 10 ? null : value.subSequence(amp + 1, semicolon).toString();
+      String replacement = reference == null ? null : resolve(reference);
+      if (replacement == null) {
+        decoded.append('&');
+        i = amp + 1;
+      } else {
+        decoded.append(replacement);
+        i = semicolon + 1;
+      }
+      amp = indexOf(value, '&', i);
+    }
+    decoded.append(value, i, value.length());
+    return decoded.toString();
+  }
+
+  private static String resolve(String reference) {
+    String named = switch (reference.toLowerCase(Locale.ROOT)) {
+      case "amp" -> "&";
+      case "lt" -> "<";
+      case "gt" -> ">";
+      case "quot" -> "\"";
+      case "apos" -> "'";
+      case "nbsp" -> " ";
+      default -> null;
+    };
+    if (named != null) {
+      return named;
+    }
+    if (reference.length() < 2 || reference.charAt(0) != '#') {
+      return null;
+    }
+    try {
+      boolean hex = reference.charAt(1) == 'x' || reference.charAt(1) == 'X';
+      int codePoint = hex
+          ? Integer.parseInt(reference.substring(2), 16)
+          : Integer.parseInt(reference.substring(1));
+      return Character.isValidCodePoint(codePoint) ? Character.toString(codePoint) : null;
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static int indexOf(CharSequence value, char c, int from) {
+    for (int i = from; i < value.length(); i++) {
+      if (value.charAt(i) == c) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private record Element(String name, boolean closing, Map<String, String> attributes) {
+  }
+}
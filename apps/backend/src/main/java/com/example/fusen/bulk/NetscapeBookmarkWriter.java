@@ -0,0 +1,103 @@
+package com.example.fusen.bulk;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+
+import com.example.fusen.dto.BookmarkResponse;
+
+/**
+ * ブラウザで読み込めるNetscape形式 (bookmarks.html) を書く。タグはブックマークごとに複数あり
+ * フォルダーの木に対応しないため、フォルダーは作らずにTAGS属性 (カンマ区切り) に入れる。
+ * 出力はそのまま一括登録 (NetscapeBookmarkReader) で読み込める。
+ */
+class NetscapeBookmarkWriter extends BookmarkRecordWriter {
+
+  static final String HEADER = """
+      <!DOCTYPE NETSCAPE-Bookmark-file-1>
+      <!-- This is an automatically generated file.
+           It will be read and overwritten.
+           DO NOT EDIT! -->
+      <META HTTP-EQUIV="Content-Type" CONTENT="text/html; charset=UTF-8">
+      <TITLE>Bookmarks</TITLE>
+      <H1>Bookmarks</H1>
+      <DL><p>
+      """;
+  static final String FOOTER = "</DL><p>\n";
+
+  NetscapeBookmarkWriter(Writer writer) {
+    super(writer);
+  }
+
+  @Override
+  void writeHeader(Writer out) throws IOException {
+    out.write(HEADER);
+  }
+
+  @Override
+  void writeRecord(Writer out, BookmarkResponse bookmark) throws IOException {
+    out.write("    <DT><A HREF=\"");
+    out.write(escape(bookmark.getUrl()));
+    out.write('"');
+    writeTimestamp(out, "ADD_DATE", bookmark.getCreatedAt());
+    writeTimestamp(out, "LAST_MODIFIED", bookmark.getUpdatedAt());
+    if (!bookmark.getTags().isEmpty()) {
+      out.write(" TAGS=\"");
+      out.write(escape(String.join(",", bookmark.getTags())));
+      out.write('"');
+    }
+    out.write('>');
+    out.write(escape(bookmark.getTitle()));
+    out.write("</A>\n");
+    if (bookmark.getDescription() != null && !bookmark.getDescription().isEmpty()) {
+      out.write("    <DD>");
+      out.write(escape(bookmark.getDescription()));
+      out.write('\n');
+    }
+  }
+
+  @Override
+  void writeFooter(Writer out) throws IOException {
+    out.write(FOOTER);
+  }
+
+  // ブラウザはUNIX時間 (秒) で読む
+  private static void writeTimestamp(Writer out, String attribute, String isoDateTime) throws IOException {
+    if (isoDateTime == null) {
+      return;
+    }
+    out.write(' ');
+    out.write(attribute);
+    out.write("=\"");
+    out.write(String.valueOf(Instant.parse(isoDateTime).getEpochSecond()));
+    out.write('"');
+  }
+
+  private static String escape(String value) {
+    if (value == null) {
+      return "";
+    }
+    StringBuilder escaped = null;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      String replacement = switch (c) {
+        case '&' -> "&amp;";
+        case '<' -> "&lt;";
+        case '>' -> "&gt;";
+        case '"' -> "&quot;";
+        default -> null;
+      };
+      if (replacement != null && escaped == null) {
+        escaped = new StringBuilder(value.length() + 16).append(value, 0, i);
+      }
+      if (escaped != null) {
+        if (replacement != null) {
+          escaped.append(replacement);
+        } else {
+          escaped.append(c);
+        }
+      }
+    }
+    return escaped == null ? value : escaped.toString();
+  }
+}
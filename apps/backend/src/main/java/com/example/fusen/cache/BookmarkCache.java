@@ -0,0 +1,148 @@
+package com.example.fusen.cache;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.fusen.entity.Bookmark;
+import com.example.fusen.entity.Tag;
+
+/**
+ * タグまで組み立て済みのBookmarkをIDで引くためのプロセス内キャッシュ。推定バイト数の合計とTTLで上限を設ける。
+ * 登録・無効化はどちらもコミット後に行い、読み込み開始後に無効化があった場合は登録しない (世代番号で判定)。
+ */
+@Component
+public class BookmarkCache {
+
+  // 文字列以外のフィールドとオブジェクトヘッダの概算
+  private static final long BOOKMARK_OVERHEAD_BYTES = 160;
+  private static final long TAG_OVERHEAD_BYTES = 64;
+
+  private final BoundedCache<Long, Bookmark> cache;
+  // 無効化のたびに進める。読み込み開始時の値と比べて古い読み込み結果の登録を防ぐ
+  private final AtomicLong generation = new AtomicLong();
+  private final ReentrantLock writeLock = new ReentrantLock();
+
+  public BookmarkCache(@Value("${fusen.cache.bookmarks.max-weight-bytes:16777216}") long maxWeightBytes,
+      @Value("${fusen.cache.bookmarks.ttl:10m}") Duration ttl) {
+    this.cache = new BoundedCache<>(maxWeightBytes, BookmarkCache::weigh, ttl);
+  }
+
+  public Optional<Bookmark> get(Long id) {
+    return Optional.ofNullable(cache.get(id)).map(BookmarkCache::copy);
+  }
+
+  // 条件付きGETの判定用。複製せずにバージョンだけを返す
+  public Optional<Long> version(Long id) {
+    return Optional.ofNullable(cache.get(id)).map(Bookmark::getVersion);
+  }
+
+  // DBから読み込む前に取得し、putAfterCommitに渡す
+  public long generation() {
+    return generation.get();
+  }
+
+  public void putAfterCommit(Bookmark bookmark, long loadedAt) {
+    Bookmark copy = copy(bookmark);
+    afterCommit(() -> {
+      writeLock.lock();
+      try {
+        if (generation.get() == loadedAt) {
+          cache.put(copy.getId(), copy);
+        }
+      } finally {
+        writeLock.unlock();
+      }
+    });
+  }
+
+  public void invalidateAfterCommit(Long id) {
+    afterCommit(() -> invalidate(id));
+  }
+
+  // 他のインスタンスでコミット済みの変更を反映する (BookmarkChangePoller)
+  public void invalidate(Long id) {
+    writeLock.lock();
+    try {
+      generation.incrementAndGet();
+      cache.invalidate(id);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  public void invalidateAll() {
+    writeLock.lock();
+    try {
+      generation.incrementAndGet();
+      cache.invalidateAll();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    // ロールバックされた場合は何もしない
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  // 呼び出し側での変更がキャッシュに波及しないよう、出し入れのたびに複製する
+  private static Bookmark copy(Bookmark bookmark) {
+    Bookmark copy = Bookmark.builder()
+        .id(bookmark.getId())
+        .url(bookmark.getUrl())
+        .urlHash(bookmark.getUrlHash())
+        .title(bookmark.getTitle())
+        .description(bookmark.getDescription())
+        .createdAt(bookmark.getCreatedAt())
+        .updatedAt(bookmark.getUpdatedAt())
+        .version(bookmark.getVersion())
+        .build();
+    Set<Tag> tags = new HashSet<>();
+    for (Tag tag : bookmark.getTags()) {
+      tags.add(Tag.builder()
+          .id(tag.getId())
+          .name(tag.getName())
+          .createdAt(tag.getCreatedAt())
+          .updatedAt(tag.getUpdatedAt())
+          .build());
+    }
+    copy.setTags(tags);
+    return copy;
+  }
+
+  private static long weigh(Bookmark bookmark) {
+    long weight = BOOKMARK_OVERHEAD_BYTES + chars(bookmark.getUrl()) + chars(bookmark.getTitle())
+        + chars(bookmark.getDescription());
+    for (Tag tag : bookmark.getTags()) {
+      weight += TAG_OVERHEAD_BYTES + chars(tag.getName());
+    }
+    return weight;
+  }
+
+  // Latin-1に収まらない文字列は1文字2バイトで保持される
+  private static long chars(String value) {
+    return value == null ? 0 : 2L * value.length();
+  }
+}
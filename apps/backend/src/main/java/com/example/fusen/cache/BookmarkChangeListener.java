@@ -0,0 +1,13 @@
+package com.example.fusen.cache;
+
+import java.util.Collection;
+
+/**
+ * BookmarkChangePollerが読んだ変更 (他のインスタンスでの変更を含む) を受け取る。
+ * 例外を投げた場合、その変更は次回のポーリングで再び渡される。
+ */
+public interface BookmarkChangeListener {
+
+  // 作成・更新・削除のいずれかがコミットされたブックマーク
+  void changed(Collection<Long> bookmarkIds);
+}
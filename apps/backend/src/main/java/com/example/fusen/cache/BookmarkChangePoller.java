@@ -0,0 +1,154 @@
+package com.example.fusen.cache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import org.seasar.doma.jdbc.SelectOptions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.fusen.dao.BookmarkChangeDao;
+import com.example.fusen.dao.ScheduledLockDao;
+import com.example.fusen.entity.BookmarkChange;
+
+/**
+ * bookmark_changes を定期的に読み進め、他のインスタンスで更新・削除されたブックマークをキャッシュから追い出す。
+ * 検索索引など、変更を反映したいものにはBookmarkChangeListenerとして同じ変更を渡す。
+ *
+ * seqは採番順にコミットされるとは限らないため、欠番があればその手前で読み位置を止め、
+ * 欠番より後の行は処理済みとして覚えておく。ロールバック等で埋まらない欠番は猶予時間を過ぎたら読み飛ばす。
+ */
+@Component
+@ConditionalOnProperty(name = "fusen.changes.polling.enabled", havingValue = "true", matchIfMissing = true)
+public class BookmarkChangePoller {
+
+  private static final int BATCH_SIZE = 500;
+  static final String PRUNE_LOCK = "prune-bookmark-changes";
+
+  private final BookmarkChangeDao bookmarkChangeRepository;
+  private final ScheduledLockDao scheduledLockRepository;
+  private final BookmarkCache bookmarkCache;
+  private final List<BookmarkChangeListener> listeners;
+  private final long gapGraceNanos;
+  private final Duration retention;
+  private final Duration pruneInterval;
+  private final LongSupplier ticker;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  // この値までのseqはすべて処理済み (初回のポーリングまではnull)
+  private Long position;
+  // positionより後で処理済みのseq
+  private final Set<Long> seen = new HashSet<>();
+  // 欠番を最初に見つけた時刻 (欠番がなければnull)
+  private Long gapSince;
+
+  @Autowired
+  public BookmarkChangePoller(BookmarkChangeDao bookmarkChangeRepository, ScheduledLockDao scheduledLockRepository,
+      BookmarkCache bookmarkCache, List<BookmarkChangeListener> listeners,
+      @Value("${fusen.changes.gap-grace:10s}") Duration gapGrace,
+      @Value("${fusen.changes.retention:1d}") Duration retention,
+      @Value("${fusen.changes.prune-interval:1h}") Duration pruneInterval) {
+    this(bookmarkChangeRepository, scheduledLockRepository, bookmarkCache, listeners, gapGrace, retention,
+        pruneInterval, System::nanoTime);
+  }
+
+  BookmarkChangePoller(BookmarkChangeDao bookmarkChangeRepository, ScheduledLockDao scheduledLockRepository,
+      BookmarkCache bookmarkCache, List<BookmarkChangeListener> listeners, Duration gapGrace, Duration retention,
+      Duration pruneInterval, LongSupplier ticker) {
+    this.bookmarkChangeRepository = bookmarkChangeRepository;
+    this.scheduledLockRepository = scheduledLockRepository;
+    this.bookmarkCache = bookmarkCache;
+    this.listeners = List.copyOf(listeners);
+    this.gapGraceNanos = gapGrace.toNanos();
+    this.retention = retention;
+    this.pruneInterval = pruneInterval;
+    this.ticker = ticker;
+  }
+
+  @Scheduled(fixedDelayString = "${fusen.changes.polling.interval:1s}")
+  public void poll() {
+    lock.lock();
+    try {
+      if (position == null) {
+        // 起動時点ではキャッシュが空なので、それ以前の変更は読まなくてよい
+        position = bookmarkChangeRepository.selectMaxSeq();
+        return;
+      }
+      boolean readMore = true;
+      while (readMore) {
+        List<BookmarkChange> changes = bookmarkChangeRepository.findAfter(position,
+            SelectOptions.get().limit(BATCH_SIZE));
+        List<BookmarkChange> unseen = changes.stream()
+            .filter(change -> !seen.contains(change.getSeq()))
+            .toList();
+        Set<Long> bookmarkIds = new LinkedHashSet<>();
+        unseen.forEach(change -> bookmarkIds.add(change.getBookmarkId()));
+        bookmarkIds.forEach(bookmarkCache::invalidate);
+        if (!bookmarkIds.isEmpty()) {
+          // リスナーが失敗した場合は処理済みにせず、次回のポーリングで読み直す
+          listeners.forEach(listener -> listener.changed(bookmarkIds));
+        }
+        unseen.forEach(change -> seen.add(change.getSeq()));
+        boolean progressed = !unseen.isEmpty();
+        advance();
+        readMore = progressed && changes.size() == BATCH_SIZE;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // 保持期間を過ぎた変更履歴を削除する。スケジュールは全インスタンスにあるが、ロックを取れた1台だけが実行する。
+  // ロックの期限は間隔より少し短くし、同じインスタンスが次の実行でも取り直せるようにする
+  @Scheduled(fixedDelayString = "${fusen.changes.prune-interval:1h}")
+  public void prune() {
+    LocalDateTime now = LocalDateTime.now();
+    LocalDateTime lockedUntil = now.plus(pruneInterval.multipliedBy(9).dividedBy(10));
+    if (scheduledLockRepository.acquire(PRUNE_LOCK, now, lockedUntil) == 0) {
+      return;
+    }
+    bookmarkChangeRepository.deleteOlderThan(now.minus(retention));
+  }
+
+  public Long position() {
+    lock.lock();
+    try {
+      return position;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void advance() {
+    while (true) {
+      if (seen.remove(position + 1)) {
+        position++;
+        gapSince = null;
+        continue;
+      }
+      if (seen.isEmpty()) {
+        return;
+      }
+      long now = ticker.getAsLong();
+      if (gapSince == null) {
+        gapSince = now;
+        return;
+      }
+      if (now - gapSince < gapGraceNanos) {
+        return;
+      }
+      // 猶予時間を過ぎても埋まらない欠番は読み飛ばす
+      position++;
+      gapSince = null;
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package com.example.fusen.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 重みの合計に上限を持つLRUキャッシュ。ヒット・ミス・追い出しの件数を記録する。
+ * 重みを指定しない場合は1エントリ=1 (エントリ数の上限) として扱う。TTLを過ぎたエントリは読み出し時に破棄する。
+ * 仮想スレッドのキャリアをピン留めしないよう、synchronizedではなくReentrantLockで排他する。
+ */
+public class BoundedCache<K, V> {
+
+  private final long maxWeight;
+  private final ToLongFunction<V> weigher;
+  private final long ttlNanos;
+  private final LongSupplier ticker;
+  private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final ReentrantLock lock = new ReentrantLock();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private long totalWeight;
+
+  public BoundedCache(int maxSize) {
+    this(maxSize, value -> 1, Duration.ZERO);
+  }
+
+  // ttlがゼロの場合は期限なし
+  public BoundedCache(long maxWeight, ToLongFunction<V> weigher, Duration ttl) {
+    this(maxWeight, weigher, ttl, System::nanoTime);
+  }
+
+  BoundedCache(long maxWeight, ToLongFunction<V> weigher, Duration ttl, LongSupplier ticker) {
+    if (maxWeight <= 0) {
+      throw new IllegalArgumentException("maxWeight must be positive: " + maxWeight);
+    }
+    this.maxWeight = maxWeight;
+    this.weigher = weigher;
+    this.ttlNanos = ttl.toNanos();
+    this.ticker = ticker;
+  }
+
+  public V get(K key) {
+    V value = null;
+    lock.lock();
+    try {
+      Entry<V> entry = entries.get(key);
+      if (entry != null && isExpired(entry)) {
+        remove(key);
+        evictions.increment();
+      } else if (entry != null) {
+        value = entry.value();
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (value == null) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+    return value;
+  }
+
+  public void put(K key, V value) {
+    long weight = weigher.applyAsLong(value);
+    lock.lock();
+    try {
+      remove(key);
+      if (weight > maxWeight) {
+        // 単独で上限を超えるエントリはキャッシュしない
+        return;
+      }
+      long expiresAt = ttlNanos > 0 ? ticker.getAsLong() + ttlNanos : 0;
+      entries.put(key, new Entry<>(value, weight, expiresAt));
+      totalWeight += weight;
+      evictIfOverweight();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void invalidate(K key) {
+    lock.lock();
+    try {
+      remove(key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void invalidateAll() {
+    lock.lock();
+    try {
+      entries.clear();
+      totalWeight = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int size() {
+    lock.lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public CacheStats stats() {
+    lock.lock();
+    try {
+      return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), totalWeight);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void remove(K key) {
+    Entry<V> removed = entries.remove(key);
+    if (removed != null) {
+      totalWeight -= removed.weight();
+    }
+  }
+
+  // アクセス順の古いものから追い出す
+  private void evictIfOverweight() {
+    Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+    while (totalWeight > maxWeight && eldest.hasNext()) {
+      totalWeight -= eldest.next().getValue().weight();
+      eldest.remove();
+      evictions.increment();
+    }
+  }
+
+  private boolean isExpired(Entry<V> entry) {
+    return ttlNanos > 0 && ticker.getAsLong() - entry.expiresAt() >= 0;
+  }
+
+  private record Entry<V>(V value, long weight, long expiresAt) {
+  }
+}
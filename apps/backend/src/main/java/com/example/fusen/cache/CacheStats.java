@@ -0,0 +1,5 @@
+package com.example.fusen.cache;
+
+// weightは重みの合計 (重みを指定しないキャッシュではsizeと同じ)
+public record CacheStats(long hits, long misses, long evictions, int size, long weight) {
+}
@@ -0,0 +1,56 @@
+package com.example.fusen.cache;
+
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.fusen.entity.Tag;
+
+/**
+ * タグ名からTagを引くためのプロセス内キャッシュ。
+ * DBに確定したタグのみを保持するため、トランザクション中の登録はコミット後に反映する。
+ */
+@Component
+public class TagCache {
+
+  private final BoundedCache<String, Tag> cache;
+
+  public TagCache(@Value("${fusen.cache.tags.max-size:1000}") int maxSize) {
+    this.cache = new BoundedCache<>(maxSize);
+  }
+
+  public Optional<Tag> get(String name) {
+    return Optional.ofNullable(cache.get(name));
+  }
+
+  public void putAfterCommit(Tag tag) {
+    Tag copy = Tag.builder()
+        .id(tag.getId())
+        .name(tag.getName())
+        .createdAt(tag.getCreatedAt())
+        .updatedAt(tag.getUpdatedAt())
+        .build();
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      cache.put(copy.getName(), copy);
+      return;
+    }
+    // ロールバックされた場合は登録しない
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        cache.put(copy.getName(), copy);
+      }
+    });
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+}
@@ -1,8 +1,13 @@
 package com.example.fusen.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -11,41 +16,105 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.fusen.bulk.BookmarkExporter;
+import com.example.fusen.bulk.BookmarkImporter;
+import com.example.fusen.bulk.BulkFormat;
+import com.example.fusen.dto.BookmarkCursor;
 import com.example.fusen.dto.BookmarkRequest;
 import com.example.fusen.dto.BookmarkResponse;
+import com.example.fusen.dto.ImportResult;
+import com.example.fusen.dto.TagFilter;
 import com.example.fusen.entity.Bookmark;
+import com.example.fusen.exception.InvalidImportException;
+import com.example.fusen.exception.VersionConflictException;
+import com.example.fusen.metrics.SqlBudgetExempt;
 import com.example.fusen.service.BookmarkService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/api/v1/bookmarks")
 public class BookmarkController {
 
+  static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  static final int MAX_SEARCH_LIMIT = 100;
+
   private final BookmarkService bookmarkService;
+  private final BookmarkImporter bookmarkImporter;
+  private final BookmarkExporter bookmarkExporter;
 
   @Autowired
-  public BookmarkController(BookmarkService bookmarkService) {
+  public BookmarkController(BookmarkService bookmarkService, BookmarkImporter bookmarkImporter,
+      BookmarkExporter bookmarkExporter) {
     this.bookmarkService = bookmarkService;
+    this.bookmarkImporter = bookmarkImporter;
+    this.bookmarkExporter = bookmarkExporter;
   }
 
   @GetMapping
-  public List<BookmarkResponse> getAllBookmarks(
+  public ResponseEntity<List<BookmarkResponse>> getAllBookmarks(
       @RequestParam(defaultValue = "10") int limit,
-      @RequestParam(defaultValue = "0") int offset) {
-    return bookmarkService.findAll(limit, offset).stream()
-        .map(BookmarkResponse::new)
-        .toList();
+      @RequestParam(defaultValue = "0") int offset,
+      @RequestParam(required = false) String after,
+      @RequestParam(required = false) String tags,
+      @RequestParam(required = false) String mode,
+      @RequestParam(required = false) String exclude,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    // tags (カンマ区切り) のすべて (mode=all) またはいずれか (mode=any) を持ち、excludeのどれも持たないものに絞り込む
+    TagFilter filter = TagFilter.parse(tags, mode, exclude);
+    // カーソル指定時は新しい順のキーセットページング（空文字は先頭ページ）。不正な値はETagが一致しても400にする
+    BookmarkCursor cursor = after == null || after.isBlank() ? null : BookmarkCursor.decode(after);
+    // 一覧を読む前に取得する。読み込み中に変更があっても、古いETagなら次回は200になるだけで取りこぼさない
+    String eTag = toETag(bookmarkService.collectionVersion());
+    if (isNotModified(ifNoneMatch, eTag)) {
+      return notModified(eTag);
+    }
+    if (after == null) {
+      List<Bookmark> page = filter.isEmpty()
+          ? bookmarkService.findAll(limit, offset)
+          : bookmarkService.findByTags(filter, limit, offset);
+      return conditional(ResponseEntity.ok(), eTag).body(toResponses(page));
+    }
+    List<Bookmark> bookmarks = filter.isEmpty()
+        ? bookmarkService.findAllAfter(cursor, limit)
+        : bookmarkService.findByTagsAfter(filter, cursor, limit);
+    ResponseEntity.BodyBuilder response = conditional(ResponseEntity.ok(), eTag);
+    if (!bookmarks.isEmpty() && bookmarks.size() == limit) {
+      response.header(NEXT_CURSOR_HEADER, BookmarkCursor.of(bookmarks.get(bookmarks.size() - 1)).encode());
+    }
+    return response.body(toResponses(bookmarks));
+  }
+
+  // タイトル・説明・URLの全文検索。いずれかの語を含むブックマークを関連度 (BM25) の高い順に返す。
+  // fuzzy=trueではタイトル・URLを対象に、打ち間違いを許して近い順に返す
+  @GetMapping("/search")
+  public ResponseEntity<List<BookmarkResponse>> searchBookmarks(@RequestParam(defaultValue = "") String q,
+      @RequestParam(defaultValue = "10") int limit,
+      @RequestParam(defaultValue = "false") boolean fuzzy) {
+    int capped = Math.min(limit, MAX_SEARCH_LIMIT);
+    List<Bookmark> bookmarks = fuzzy ? bookmarkService.fuzzySearch(q, capped) : bookmarkService.search(q, capped);
+    return ResponseEntity.ok(toResponses(bookmarks));
   }
 
   @GetMapping("/{id}")
-  public BookmarkResponse getBookmarkById(@PathVariable Long id) {
-    return new BookmarkResponse(bookmarkService.findById(id));
+  public ResponseEntity<BookmarkResponse> getBookmarkById(@PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    if (ifNoneMatch != null) {
+      // バージョンだけを確認し、一致すればタグの読み込みやレスポンスの組み立てを行わない
+      String eTag = toETag(bookmarkService.findVersionById(id));
+      if (isNotModified(ifNoneMatch, eTag)) {
+        return notModified(eTag);
+      }
+    }
+    Bookmark bookmark = bookmarkService.findById(id);
+    return conditional(ResponseEntity.ok(), toETag(bookmark.getVersion())).body(new BookmarkResponse(bookmark));
   }
 
   @PostMapping
@@ -56,21 +125,119 @@ public class BookmarkController {
     bookmark.setDescription(request.getDescription());
     bookmark.setTags(bookmarkService.convertTags(request.getTags()));
     Bookmark createdBookmark = bookmarkService.create(bookmark);
-    return new ResponseEntity<>(new BookmarkResponse(createdBookmark), HttpStatus.CREATED);
+    return withETag(ResponseEntity.status(HttpStatus.CREATED), createdBookmark)
+        .body(new BookmarkResponse(createdBookmark));
+  }
+
+  // ボディはバッファせずに読みながら登録する。Content-Encoding: gzip の場合は展開しながら読む
+  @PostMapping(path = "/import", consumes = { BulkFormat.NDJSON_VALUE, BulkFormat.CSV_VALUE,
+      BulkFormat.HTML_VALUE })
+  @SqlBudgetExempt
+  public ResponseEntity<ImportResult> importBookmarks(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+      @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+      InputStream body) throws IOException {
+    boolean gzip = contentEncoding != null && contentEncoding.trim().equalsIgnoreCase("gzip");
+    if (contentEncoding != null && !gzip && !contentEncoding.trim().equalsIgnoreCase("identity")) {
+      throw new InvalidImportException("Unsupported Content-Encoding: " + contentEncoding);
+    }
+    return ResponseEntity.ok(bookmarkImporter.importFrom(body, BulkFormat.of(contentType), gzip));
+  }
+
+  // 全件をDBのカーソルから読みながら書き出す。非同期処理のタイムアウトを受けないよう、リクエストスレッドで直接書く
+  @GetMapping("/export")
+  public void exportBookmarks(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response)
+      throws IOException {
+    BulkFormat bulkFormat = BulkFormat.fromName(format);
+    response.setContentType(bulkFormat.mediaType().toString());
+    response.setCharacterEncoding("UTF-8");
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+        ContentDisposition.attachment().filename("bookmarks." + bulkFormat.extension()).build().toString());
+    bookmarkExporter.exportTo(response.getOutputStream(), bulkFormat);
   }
 
   @PutMapping("/{id}")
-  public BookmarkResponse updateBookmark(@PathVariable Long id, @Valid @RequestBody BookmarkRequest request) {
-    Bookmark existingBookmark = bookmarkService.findById(id); // Throws BookmarkNotFoundException if not found
-    existingBookmark.updateFromRequest(request.getUrl(), request.getTitle(), request.getDescription(),
+  public ResponseEntity<BookmarkResponse> updateBookmark(@PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @Valid @RequestBody BookmarkRequest request) {
+    Bookmark bookmark = new Bookmark();
+    bookmark.setId(id);
+    bookmark.setVersion(parseVersion(ifMatch));
+    bookmark.updateFromRequest(request.getUrl(), request.getTitle(), request.getDescription(),
         bookmarkService.convertTags(request.getTags()));
-    Bookmark updatedBookmark = bookmarkService.update(existingBookmark);
-    return new BookmarkResponse(updatedBookmark);
+    Bookmark updatedBookmark = bookmarkService.update(bookmark); // Throws BookmarkNotFoundException if not found
+    return withETag(ResponseEntity.ok(), updatedBookmark).body(new BookmarkResponse(updatedBookmark));
   }
 
   @DeleteMapping("/{id}")
   @ResponseStatus(HttpStatus.NO_CONTENT)
-  public void deleteBookmark(@PathVariable Long id) {
-    bookmarkService.delete(id); // Throws BookmarkNotFoundException if not found
+  public void deleteBookmark(@PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    bookmarkService.delete(id, parseVersion(ifMatch)); // Throws BookmarkNotFoundException if not found
+  }
+
+  private ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, Bookmark bookmark) {
+    String eTag = toETag(bookmark.getVersion());
+    if (eTag != null) {
+      builder.eTag(eTag);
+    }
+    return builder;
+  }
+
+  // GETのレスポンスは毎回ETagで再検証させる (変更がなければ304で本文を返さない)
+  private ResponseEntity.BodyBuilder conditional(ResponseEntity.BodyBuilder builder, String eTag) {
+    builder.cacheControl(CacheControl.noCache());
+    if (eTag != null) {
+      builder.eTag(eTag);
+    }
+    return builder;
+  }
+
+  private <T> ResponseEntity<T> notModified(String eTag) {
+    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).eTag(eTag).build();
+  }
+
+  private String toETag(Object version) {
+    return version == null ? null : "\"" + version + "\"";
+  }
+
+  // If-None-Matchは弱い比較で判定する ("*" または W/付きを含むいずれかのETagが一致すれば304)
+  private boolean isNotModified(String ifNoneMatch, String eTag) {
+    if (ifNoneMatch == null || eTag == null) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String value = candidate.trim();
+      if (value.startsWith("W/")) {
+        value = value.substring(2);
+      }
+      if (value.equals("*") || value.equals(eTag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // ETag形式 ("3" / W/"3") のIf-Matchからバージョン番号を取り出す。未指定または "*" は条件なしとして扱う
+  private Long parseVersion(String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+      return null;
+    }
+    String value = ifMatch.trim();
+    if (value.startsWith("W/")) {
+      value = value.substring(2);
+    }
+    try {
+      return Long.valueOf(value.replace("\"", ""));
+    } catch (NumberFormatException e) {
+      // サーバーが発行しない値はどのバージョンとも一致しない
+      throw new VersionConflictException("If-Match does not match the current version: " + ifMatch);
+    }
+  }
+
+  private List<BookmarkResponse> toResponses(List<Bookmark> bookmarks) {
+    return bookmarks.stream()
+        .map(BookmarkResponse::new)
+        .toList();
   }
 }
@@ -0,0 +1,113 @@
+package com.example.fusen.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.fusen.bulk.BulkFormat;
+import com.example.fusen.dto.ImportError;
+import com.example.fusen.dto.JobResponse;
+import com.example.fusen.entity.Job;
+import com.example.fusen.exception.InvalidImportException;
+import com.example.fusen.exception.JobNotCompletedException;
+import com.example.fusen.job.JobRunner;
+import com.example.fusen.service.JobService;
+
+/**
+ * 一括登録・エクスポートの非同期ジョブ。受け付けたら202と状態確認用のURL (Location) を返し、
+ * 進捗はGET /{id} で確認する。
+ */
+@RestController
+@RequestMapping("/api/v1/jobs")
+public class JobController {
+
+  private final JobRunner jobRunner;
+  private final JobService jobService;
+
+  @Autowired
+  public JobController(JobRunner jobRunner, JobService jobService) {
+    this.jobRunner = jobRunner;
+    this.jobService = jobService;
+  }
+
+  // ボディはファイルに書き出してから受け付ける。gzipは展開せずにそのまま保存し、実行時に展開する
+  @PostMapping(path = "/imports", consumes = { BulkFormat.NDJSON_VALUE, BulkFormat.CSV_VALUE,
+      BulkFormat.HTML_VALUE })
+  public ResponseEntity<JobResponse> submitImport(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+      @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+      InputStream body) throws IOException {
+    boolean gzip = contentEncoding != null && contentEncoding.trim().equalsIgnoreCase("gzip");
+    if (contentEncoding != null && !gzip && !contentEncoding.trim().equalsIgnoreCase("identity")) {
+      throw new InvalidImportException("Unsupported Content-Encoding: " + contentEncoding);
+    }
+    return accepted(jobRunner.submitImport(body, BulkFormat.of(contentType), gzip));
+  }
+
+  @PostMapping("/exports")
+  public ResponseEntity<JobResponse> submitExport(@RequestParam(defaultValue = "ndjson") String format)
+      throws IOException {
+    return accepted(jobRunner.submitExport(BulkFormat.fromName(format)));
+  }
+
+  @GetMapping("/{id}")
+  public ResponseEntity<JobResponse> getJob(@PathVariable Long id) {
+    return ResponseEntity.ok(JobResponse.from(jobService.findById(id), LocalDateTime.now()));
+  }
+
+  // 一括登録で登録しなかったレコード (行番号順)
+  @GetMapping("/{id}/errors")
+  public ResponseEntity<List<ImportError>> getJobErrors(@PathVariable Long id,
+      @RequestParam(defaultValue = "100") int limit,
+      @RequestParam(defaultValue = "0") int offset) {
+    List<ImportError> errors = jobService.findErrors(id, limit, offset).stream()
+        .map(error -> new ImportError(error.getLine(), error.getUrl(), error.getErrorCode(), error.getMessage()))
+        .toList();
+    return ResponseEntity.ok(errors);
+  }
+
+  // 実行中のジョブは次のチェックポイントで止まる。完了済みのジョブはそのまま返す
+  @PostMapping("/{id}/cancel")
+  public ResponseEntity<JobResponse> cancelJob(@PathVariable Long id) {
+    return ResponseEntity.ok(JobResponse.from(jobService.cancel(id), LocalDateTime.now()));
+  }
+
+  // 成功したエクスポートジョブの出力ファイル
+  @GetMapping("/{id}/result")
+  public ResponseEntity<Resource> getJobResult(@PathVariable Long id) {
+    Job job = jobService.findById(id);
+    if (job.getJobType() != Job.Type.EXPORT || job.getStatus() != Job.Status.SUCCEEDED) {
+      throw new JobNotCompletedException("Job has no result: " + id + " (" + job.getJobType() + ", "
+          + job.getStatus() + ")");
+    }
+    BulkFormat format = BulkFormat.valueOf(job.getFormat());
+    return ResponseEntity.ok()
+        .contentType(format.mediaType())
+        .header(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename("bookmarks." + format.extension()).build().toString())
+        .body(new FileSystemResource(Path.of(job.getFilePath())));
+  }
+
+  private ResponseEntity<JobResponse> accepted(Job job) {
+    return ResponseEntity.accepted()
+        .location(URI.create("/api/v1/jobs/" + job.getId()))
+        .body(JobResponse.from(job, LocalDateTime.now()));
+  }
+}
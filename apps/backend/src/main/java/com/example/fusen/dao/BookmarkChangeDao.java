@@ -0,0 +1,51 @@
+package com.example.fusen.dao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.seasar.doma.BatchInsert;
+import org.seasar.doma.Dao;
+import org.seasar.doma.Delete;
+import org.seasar.doma.Insert;
+import org.seasar.doma.Select;
+import org.seasar.doma.Update;
+import org.seasar.doma.boot.ConfigAutowireable;
+import org.seasar.doma.jdbc.SelectOptions;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.fusen.entity.BookmarkChange;
+
+@Dao
+@ConfigAutowireable
+public interface BookmarkChangeDao {
+  // changed_atはDBの時刻 (DEFAULT CURRENT_TIMESTAMP) を使う
+  @Insert(excludeNull = true)
+  @Transactional
+  int insert(BookmarkChange change);
+
+  // 一括登録用。changed_atはinsertと同じくDBの時刻を使う
+  @BatchInsert(sqlFile = true)
+  @Transactional
+  int[] insertAll(List<BookmarkChange> changes);
+
+  // 主キーの範囲検索のみで読むため、ポーリングしても軽い
+  @Select
+  List<BookmarkChange> findAfter(Long seq, SelectOptions options);
+
+  @Select
+  Long selectMaxSeq();
+
+  // 一覧のETag用。1行のカウンターを主キーで読む
+  @Select
+  Long selectCollectionVersion();
+
+  // 変更を記録するトランザクションの最後に呼ぶ。カウンターの行ロックはコミットまで保持されるため、
+  // 他の行のロックを取るより後にして、ロックの順序を揃えつつ保持時間を短くする
+  @Update(sqlFile = true)
+  @Transactional
+  int incrementCollectionVersion();
+
+  @Delete(sqlFile = true)
+  @Transactional
+  int deleteOlderThan(LocalDateTime changedAt);
+}
@@ -1,12 +1,17 @@
 package com.example.fusen.dao;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
+import org.seasar.doma.BatchInsert;
 import org.seasar.doma.Dao;
 import org.seasar.doma.Delete;
 import org.seasar.doma.Insert;
 import org.seasar.doma.Select;
+import org.seasar.doma.SelectType;
 import org.seasar.doma.Update;
 import org.seasar.doma.boot.ConfigAutowireable;
 import org.seasar.doma.jdbc.SelectOptions;
@@ -20,14 +25,40 @@ public interface BookmarkDao {
   @Select
   Optional<Bookmark> findById(Long id);
 
+  // 条件付きGET (If-None-Match) の判定用。タグや本文を読まずに主キーで引く
+  @Select
+  Optional<Long> findVersionById(Long id);
+
+  // 条件付き更新のレスポンス用。created_atは変わらないため、キャッシュにない場合だけ主キーで引く
+  @Select
+  Optional<LocalDateTime> findCreatedAtById(Long id);
+
   @Select
   Optional<Bookmark> findByUrl(String url);
 
+  // 検索結果の読み込みと、他のインスタンスで変更されたブックマークの索引への反映に使う (見つからないidは含まれない)
+  @Select
+  List<Bookmark> findByIds(List<Long> ids);
+
+  // 更新時の存在確認とURL重複確認を1回のクエリで行う
+  @Select
+  List<Bookmark> findByIdOrUrl(Long id, String url);
+
+  // 一括登録時の重複判定用。url_hashが一致する登録済みのurlを返し、呼び出し側でURLそのものを比較する
+  @Select
+  List<String> findUrlsByUrlHashes(List<Long> urlHashes);
+
   @Insert
   @Transactional
   int insert(Bookmark bookmark);
 
-  @Update
+  // JDBCバッチでまとめて登録する (idは各要素に設定される)
+  @BatchInsert
+  @Transactional
+  int[] insertAll(List<Bookmark> bookmarks);
+
+  // versionが指定されている場合は一致する行のみ更新し、更新件数で競合を判定する。updated_atはエンティティの値を書き込む
+  @Update(sqlFile = true, suppressOptimisticLockException = true)
   @Transactional
   int update(Bookmark bookmark);
 
@@ -35,9 +66,28 @@ public interface BookmarkDao {
   @Transactional
   int delete(Bookmark bookmark);
 
+  // bookmark_tagsはON DELETE CASCADEで削除される
+  @Delete(sqlFile = true)
+  @Transactional
+  int deleteById(Long id, Long version);
+
   @Select
   boolean existsByUrl(String url);
 
   @Select
   List<Bookmark> findAll(SelectOptions options);
+
+  @Select
+  List<Bookmark> findAllAfter(LocalDateTime createdAt, Long id, SelectOptions options);
+
+  // タグでの絞り込み。matchAllならtagIdsのタグをすべて (GROUP BY ... HAVING COUNT)、そうでなければいずれかを持ち (準結合)、
+  // excludedTagIdsのタグをどれも持たないブックマークを返す。空のリストは条件なしとして扱う。
+  // newestFirstなら新しい順で、createdAt/idを指定するとその続きを返す (キーセットページング)。そうでなければid順
+  @Select
+  List<Bookmark> findByTags(List<Long> tagIds, boolean matchAll, List<Long> excludedTagIds, boolean newestFirst,
+      LocalDateTime createdAt, Long id, SelectOptions options);
+
+  // エクスポート用。id昇順の前方カーソルで1行ずつ読む (Streamはmapperの中でのみ有効)。afterIdを指定するとその続きから読む
+  @Select(strategy = SelectType.STREAM, fetchSize = 1000)
+  <R> R streamAll(Long afterId, Function<Stream<Bookmark>, R> mapper);
 }
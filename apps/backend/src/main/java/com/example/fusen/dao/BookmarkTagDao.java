@@ -1,14 +1,19 @@
 package com.example.fusen.dao;
 
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
+import org.seasar.doma.BatchInsert;
 import org.seasar.doma.Dao;
 import org.seasar.doma.Delete;
 import org.seasar.doma.Insert;
 import org.seasar.doma.Select;
+import org.seasar.doma.SelectType;
 import org.seasar.doma.boot.ConfigAutowireable;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.fusen.entity.BookmarkTag;
 import com.example.fusen.entity.Tag;
 
 @Dao
@@ -17,11 +22,29 @@ public interface BookmarkTagDao {
   @Select
   List<Tag> findTagsByBookmarkId(Long bookmarkId);
 
+  @Select
+  List<BookmarkTag> findTagsByBookmarkIds(List<Long> bookmarkIds);
+
+  @Select
+  List<Long> findTagIdsByBookmarkId(Long bookmarkId);
+
+  // エクスポート用。bookmark_id昇順でブックマーク側のカーソルとマージ結合する
+  @Select(strategy = SelectType.STREAM, fetchSize = 1000)
+  <R> R streamAllWithTagName(Long afterId, Function<Stream<BookmarkTag>, R> mapper);
+
   @Insert
   @Transactional
   int insertBookmarkTag(Long bookmarkId, Long tagId);
 
+  @BatchInsert
+  @Transactional
+  int[] insertAll(List<BookmarkTag> bookmarkTags);
+
   @Delete
   @Transactional
   int deleteByBookmarkId(Long bookmarkId);
+
+  @Delete(sqlFile = true)
+  @Transactional
+  int deleteByBookmarkIdAndTagIds(Long bookmarkId, List<Long> tagIds);
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.example.fusen.dao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.seasar.doma.Dao;
+import org.seasar.doma.Insert;
+import org.seasar.doma.Select;
+import org.seasar.doma.Update;
+import org.seasar.doma.boot.ConfigAutowireable;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.fusen.entity.Job;
+
+// 状態を変える更新はすべて条件付きで、更新件数が0なら他のインスタンスに引き継がれたか取り消されたことを表す
+@Dao
+@ConfigAutowireable
+public interface JobDao {
+  // 件数・チェックポイントなどはDBの既定値 (0) を使う
+  @Insert(excludeNull = true)
+  @Transactional
+  int insert(Job job);
+
+  @Select
+  Optional<Job> findById(Long id);
+
+  // 担当がいない、自分が担当 (再起動前を含む)、または担当のハートビートが途絶えた未完了のジョブ
+  @Select
+  List<Job> findClaimable(String owner, LocalDateTime staleBefore);
+
+  @Update(sqlFile = true)
+  @Transactional
+  int claim(Long id, String owner, LocalDateTime now, LocalDateTime staleBefore);
+
+  // 実行器が満杯で受け付けられなかったジョブを、他のインスタンスが拾えるよう手放す
+  @Update(sqlFile = true)
+  @Transactional
+  int release(Long id, String owner);
+
+  @Update(sqlFile = true)
+  @Transactional
+  int start(Long id, String owner, LocalDateTime now);
+
+  // 取り消しが要求されている場合は更新しない
+  @Update(sqlFile = true)
+  @Transactional
+  int updateProgress(Job job);
+
+  @Update(sqlFile = true)
+  @Transactional
+  int finish(Job job);
+
+  // 待機中のジョブはその場で取り消し、実行中のジョブには次のチェックポイントで止まるよう印を付ける
+  @Update(sqlFile = true)
+  @Transactional
+  int requestCancel(Long id, LocalDateTime now);
+
+  // このインスタンスで待機中・実行中のジョブ (ids) がまだ生きていることを示す
+  @Update(sqlFile = true)
+  @Transactional
+  int heartbeat(List<Long> ids, String owner, LocalDateTime now);
+}
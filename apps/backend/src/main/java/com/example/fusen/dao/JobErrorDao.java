@@ -0,0 +1,26 @@
+package com.example.fusen.dao;
+
+import java.util.List;
+
+import org.seasar.doma.BatchInsert;
+import org.seasar.doma.Dao;
+import org.seasar.doma.Select;
+import org.seasar.doma.boot.ConfigAutowireable;
+import org.seasar.doma.jdbc.SelectOptions;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.fusen.entity.JobError;
+
+@Dao
+@ConfigAutowireable
+public interface JobErrorDao {
+  @BatchInsert
+  @Transactional
+  int[] insertAll(List<JobError> errors);
+
+  @Select
+  List<JobError> findByJobId(Long jobId, SelectOptions options);
+
+  @Select
+  long countByJobId(Long jobId);
+}
@@ -0,0 +1,17 @@
+package com.example.fusen.dao;
+
+import java.time.LocalDateTime;
+
+import org.seasar.doma.Dao;
+import org.seasar.doma.Update;
+import org.seasar.doma.boot.ConfigAutowireable;
+import org.springframework.transaction.annotation.Transactional;
+
+@Dao
+@ConfigAutowireable
+public interface ScheduledLockDao {
+  // 期限切れのロックだけを取る。1なら取得でき、lockedUntilまでは他のインスタンスが取れない
+  @Update(sqlFile = true)
+  @Transactional
+  int acquire(String name, LocalDateTime now, LocalDateTime lockedUntil);
+}
@@ -1,11 +1,13 @@
 package com.example.fusen.dao;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.seasar.doma.Dao;
 import org.seasar.doma.Insert;
 import org.seasar.doma.Select;
 import org.seasar.doma.boot.ConfigAutowireable;
+import org.seasar.doma.jdbc.SelectOptions;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.fusen.entity.Tag;
@@ -16,7 +18,15 @@ public interface TagDao {
   @Select
   Optional<Tag> findByName(String name);
 
+  @Select
+  List<Tag> findByNames(List<String> names, SelectOptions options);
+
   @Insert
   @Transactional
   int insert(Tag tag);
+
+  // 既存のタグ名は無視して未登録のタグのみをまとめて登録する
+  @Insert(sqlFile = true)
+  @Transactional
+  int insertIfAbsent(List<String> names);
 }
@@ -0,0 +1,41 @@
+package com.example.fusen.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.example.fusen.entity.Bookmark;
+import com.example.fusen.exception.InvalidCursorException;
+
+/**
+ * 一覧取得のキーセットページング用カーソル。
+ * (created_at, id) をBase64URLでエンコードした不透明な文字列としてクライアントに渡す。
+ */
+public record BookmarkCursor(LocalDateTime createdAt, Long id) {
+
+  private static final String SEPARATOR = "|";
+
+  public static BookmarkCursor of(Bookmark bookmark) {
+    return new BookmarkCursor(bookmark.getCreatedAt(), bookmark.getId());
+  }
+
+  public static BookmarkCursor decode(String value) {
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+      int index = decoded.lastIndexOf(SEPARATOR);
+      if (index < 0) {
+        throw new InvalidCursorException("Invalid cursor: " + value);
+      }
+      return new BookmarkCursor(LocalDateTime.parse(decoded.substring(0, index)),
+          Long.valueOf(decoded.substring(index + 1)));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new InvalidCursorException("Invalid cursor: " + value);
+    }
+  }
+
+  public String encode() {
+    String raw = createdAt + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -4,14 +4,17 @@ import java.util.List;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 
 public class BookmarkRequest {
   @NotBlank(message = "URLは必須です。")
   @Pattern(regexp = "^(http|https)://.*", message = "URLはhttp://またはhttps://で始まる必要があります。")
+  @Size(max = 2048, message = "URLは2048文字以内で入力してください。")
   private String url;
+  @Size(max = 255, message = "タイトルは255文字以内で入力してください。")
   private String title;
   private String description;
-  private List<String> tags;
+  private List<@Size(max = 100, message = "タグは100文字以内で入力してください。") String> tags;
 
   // Getters and Setters
   public String getUrl() {
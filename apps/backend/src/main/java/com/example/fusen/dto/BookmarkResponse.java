@@ -16,6 +16,7 @@ public class BookmarkResponse {
   private List<String> tags;
   private String createdAt; // ISO 8601形式の文字列
   private String updatedAt; // ISO 8601形式の文字列
+  private Long version;
 
   private static final DateTimeFormatter ISO_8601_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
 
@@ -29,6 +30,7 @@ public class BookmarkResponse {
         .collect(Collectors.toList());
     this.createdAt = formatLocalDateTimeToISO8601(bookmark.getCreatedAt());
     this.updatedAt = formatLocalDateTimeToISO8601(bookmark.getUpdatedAt());
+    this.version = bookmark.getVersion();
   }
 
   private String formatLocalDateTimeToISO8601(LocalDateTime dateTime) {
@@ -67,4 +69,8 @@ public class BookmarkResponse {
   public String getUpdatedAt() {
     return updatedAt;
   }
+
+  public Long getVersion() {
+    return version;
+  }
 }
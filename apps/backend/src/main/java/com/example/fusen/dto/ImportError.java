@@ -0,0 +1,7 @@
+package com.example.fusen.dto;
+
+/**
+ * 一括登録で登録しなかったレコード。lineはレコードの開始行 (1始まり)。
+ */
+public record ImportError(long line, String url, String errorCode, String message) {
+}
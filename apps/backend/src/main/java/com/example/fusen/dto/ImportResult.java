@@ -0,0 +1,10 @@
+package com.example.fusen.dto;
+
+import java.util.List;
+
+/**
+ * 一括登録の結果。errorsは先頭から上限件数までで、超えた場合はerrorsTruncatedがtrueになる (件数は全件分)。
+ */
+public record ImportResult(long imported, long duplicates, long failed, List<ImportError> errors,
+    boolean errorsTruncated) {
+}
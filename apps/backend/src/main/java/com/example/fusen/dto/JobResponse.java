@@ -0,0 +1,51 @@
+package com.example.fusen.dto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+import com.example.fusen.entity.Job;
+
+/**
+ * ジョブの状態と進捗。throughputは開始から終了 (実行中は現在) までの1秒あたりの処理件数。
+ */
+public record JobResponse(Long id, String type, String status, String format, long processed, long succeeded,
+    long duplicates, long failed, double throughput, boolean cancelRequested, String errorMessage,
+    String createdAt, String startedAt, String finishedAt) {
+
+  private static final DateTimeFormatter ISO_8601_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
+
+  public static JobResponse from(Job job, LocalDateTime now) {
+    return new JobResponse(
+        job.getId(),
+        job.getJobType().name(),
+        job.getStatus().name(),
+        job.getFormat() == null ? null : job.getFormat().toLowerCase(Locale.ROOT),
+        job.getProcessed(),
+        job.getSucceeded(),
+        job.getDuplicates(),
+        job.getFailed(),
+        throughput(job, now),
+        Boolean.TRUE.equals(job.getCancelRequested()),
+        job.getErrorMessage(),
+        format(job.getCreatedAt()),
+        format(job.getStartedAt()),
+        format(job.getFinishedAt()));
+  }
+
+  private static double throughput(Job job, LocalDateTime now) {
+    if (job.getStartedAt() == null) {
+      return 0;
+    }
+    LocalDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : now;
+    long millis = Duration.between(job.getStartedAt(), end).toMillis();
+    return millis <= 0 ? 0 : job.getProcessed() * 1000.0 / millis;
+  }
+
+  // LocalDateTimeをUTCとして扱い、ISO 8601形式にフォーマット
+  private static String format(LocalDateTime dateTime) {
+    return dateTime == null ? null : dateTime.atOffset(ZoneOffset.UTC).format(ISO_8601_FORMATTER);
+  }
+}
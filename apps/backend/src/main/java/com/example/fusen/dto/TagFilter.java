@@ -0,0 +1,60 @@
+package com.example.fusen.dto;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.example.fusen.exception.InvalidTagFilterException;
+
+/**
+ * 一覧取得のタグによる絞り込み条件。
+ * tagsのタグをすべて (ALL) またはいずれか (ANY) 持ち、excludeのタグをどれも持たないブックマークに絞り込む。
+ * タグ名はカンマ区切りで受け取り、前後の空白を除いて大文字小文字を区別せずに重複を除く (tags.nameの照合順序に合わせる)。
+ */
+public record TagFilter(List<String> tags, Mode mode, List<String> exclude) {
+
+  // 1回のクエリで扱うタグの数の上限 (IN句とHAVING COUNTの大きさを抑える)
+  public static final int MAX_TAGS = 20;
+
+  public enum Mode {
+    ALL, ANY
+  }
+
+  public static TagFilter parse(String tags, String mode, String exclude) {
+    List<String> tagNames = split(tags);
+    List<String> excludedNames = split(exclude);
+    if (tagNames.size() + excludedNames.size() > MAX_TAGS) {
+      throw new InvalidTagFilterException("Too many tags: at most " + MAX_TAGS + " tags can be specified");
+    }
+    return new TagFilter(tagNames, parseMode(mode), excludedNames);
+  }
+
+  public boolean isEmpty() {
+    return tags.isEmpty() && exclude.isEmpty();
+  }
+
+  private static Mode parseMode(String mode) {
+    if (mode == null || mode.isBlank()) {
+      return Mode.ALL;
+    }
+    for (Mode candidate : Mode.values()) {
+      if (candidate.name().equalsIgnoreCase(mode.trim())) {
+        return candidate;
+      }
+    }
+    throw new InvalidTagFilterException("Invalid mode: " + mode + " (expected all or any)");
+  }
+
+  private static List<String> split(String value) {
+    if (value == null || value.isBlank()) {
+      return List.of();
+    }
+    Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    Arrays.stream(value.split(","))
+        .map(String::trim)
+        .filter(name -> !name.isEmpty())
+        .forEach(names::add);
+    return List.copyOf(names);
+  }
+}
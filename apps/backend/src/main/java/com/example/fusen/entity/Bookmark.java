@@ -11,13 +11,14 @@ import org.seasar.doma.GenerationType;
 import org.seasar.doma.Id;
 import org.seasar.doma.Table;
 import org.seasar.doma.Transient;
+import org.seasar.doma.Version;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-@Entity
+@Entity(listener = BookmarkListener.class)
 @Table(name = "bookmarks")
 @Data
 @Builder
@@ -31,6 +32,10 @@ public class Bookmark {
   @Column(name = "url")
   private String url;
 
+  // urlのSHA-256先頭8バイト。UNIQUEインデックスとURL検索に使う (BookmarkListenerで設定)
+  @Column(name = "url_hash")
+  private Long urlHash;
+
   @Column(name = "title")
   private String title;
 
@@ -47,6 +52,11 @@ public class Bookmark {
   @Column(name = "updated_at")
   private LocalDateTime updatedAt;
 
+  // 楽観的排他制御用のバージョン番号
+  @Version
+  @Column(name = "version")
+  private Long version;
+
   public void updateFromRequest(String url, String title, String description, Set<Tag> tags) {
     this.url = url;
     this.title = title;
@@ -0,0 +1,45 @@
+package com.example.fusen.entity;
+
+import java.time.LocalDateTime;
+
+import org.seasar.doma.Column;
+import org.seasar.doma.Entity;
+import org.seasar.doma.GeneratedValue;
+import org.seasar.doma.GenerationType;
+import org.seasar.doma.Id;
+import org.seasar.doma.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ブックマークの変更履歴。書き込みと同じトランザクションで記録し、
+ * 各インスタンスはseqの昇順に読み進めてキャッシュなどを更新する。
+ */
+@Entity
+@Table(name = "bookmark_changes")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookmarkChange {
+
+  public enum Type {
+    CREATED, UPDATED, DELETED
+  }
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long seq;
+
+  @Column(name = "bookmark_id")
+  private Long bookmarkId;
+
+  @Column(name = "change_type")
+  private Type changeType;
+
+  @Column(name = "changed_at")
+  private LocalDateTime changedAt;
+}
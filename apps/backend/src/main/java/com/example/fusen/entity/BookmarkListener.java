@@ -0,0 +1,21 @@
+package com.example.fusen.entity;
+
+import org.seasar.doma.jdbc.entity.EntityListener;
+import org.seasar.doma.jdbc.entity.PreInsertContext;
+import org.seasar.doma.jdbc.entity.PreUpdateContext;
+
+import com.example.fusen.util.UrlHash;
+
+// 書き込みのたびにurlからurl_hashを計算し直す
+public class BookmarkListener implements EntityListener<Bookmark> {
+
+  @Override
+  public void preInsert(Bookmark bookmark, PreInsertContext<Bookmark> context) {
+    bookmark.setUrlHash(UrlHash.of(bookmark.getUrl()));
+  }
+
+  @Override
+  public void preUpdate(Bookmark bookmark, PreUpdateContext<Bookmark> context) {
+    bookmark.setUrlHash(UrlHash.of(bookmark.getUrl()));
+  }
+}
@@ -0,0 +1,31 @@
+package com.example.fusen.entity;
+
+import org.seasar.doma.Column;
+import org.seasar.doma.Entity;
+import org.seasar.doma.Id;
+import org.seasar.doma.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "bookmark_tags")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookmarkTag {
+  @Id
+  @Column(name = "bookmark_id")
+  private Long bookmarkId;
+
+  @Id
+  @Column(name = "tag_id")
+  private Long tagId;
+
+  // tagsテーブルとのJOIN結果でのみ設定される
+  @Column(name = "tag_name", insertable = false, updatable = false)
+  private String tagName;
+}
@@ -0,0 +1,98 @@
+package com.example.fusen.entity;
+
+import java.time.LocalDateTime;
+
+import org.seasar.doma.Column;
+import org.seasar.doma.Entity;
+import org.seasar.doma.GeneratedValue;
+import org.seasar.doma.GenerationType;
+import org.seasar.doma.Id;
+import org.seasar.doma.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 非同期ジョブ。進捗とチェックポイントはチャンクをコミットするたびに更新し、
+ * ownerのインスタンスが止まった場合は別のインスタンス (または再起動後の同じインスタンス) がcheckpointから再開する。
+ */
+@Entity
+@Table(name = "jobs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Job {
+
+  public enum Type {
+    IMPORT, EXPORT
+  }
+
+  public enum Status {
+    QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED;
+
+    public boolean isFinished() {
+      return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+    }
+  }
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "job_type")
+  private Type jobType;
+
+  @Column(name = "status")
+  private Status status;
+
+  @Column(name = "format")
+  private String format;
+
+  @Column(name = "gzip")
+  private Boolean gzip;
+
+  @Column(name = "file_path")
+  private String filePath;
+
+  @Column(name = "processed")
+  private Long processed;
+
+  @Column(name = "succeeded")
+  private Long succeeded;
+
+  @Column(name = "duplicates")
+  private Long duplicates;
+
+  @Column(name = "failed")
+  private Long failed;
+
+  @Column(name = "checkpoint")
+  private Long checkpoint;
+
+  @Column(name = "checkpoint_offset")
+  private Long checkpointOffset;
+
+  @Column(name = "error_message")
+  private String errorMessage;
+
+  @Column(name = "cancel_requested")
+  private Boolean cancelRequested;
+
+  @Column(name = "owner")
+  private String owner;
+
+  @Column(name = "heartbeat_at")
+  private LocalDateTime heartbeatAt;
+
+  @Column(name = "created_at")
+  private LocalDateTime createdAt;
+
+  @Column(name = "started_at")
+  private LocalDateTime startedAt;
+
+  @Column(name = "finished_at")
+  private LocalDateTime finishedAt;
+}
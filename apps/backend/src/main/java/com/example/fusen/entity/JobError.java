@@ -0,0 +1,43 @@
+package com.example.fusen.entity;
+
+import org.seasar.doma.Column;
+import org.seasar.doma.Entity;
+import org.seasar.doma.GeneratedValue;
+import org.seasar.doma.GenerationType;
+import org.seasar.doma.Id;
+import org.seasar.doma.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 一括登録ジョブで登録できなかったレコード。進捗と同じトランザクションで記録する。
+ */
+@Entity
+@Table(name = "job_errors")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobError {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "job_id")
+  private Long jobId;
+
+  @Column(name = "line")
+  private Long line;
+
+  @Column(name = "url")
+  private String url;
+
+  @Column(name = "error_code")
+  private String errorCode;
+
+  @Column(name = "message")
+  private String message;
+}
@@ -0,0 +1,7 @@
+package com.example.fusen.exception;
+
+public class InvalidTagFilterException extends RuntimeException {
+  public InvalidTagFilterException(String message) {
+    super(message);
+  }
+}
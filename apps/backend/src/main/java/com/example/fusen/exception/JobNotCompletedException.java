@@ -0,0 +1,7 @@
+package com.example.fusen.exception;
+
+public class JobNotCompletedException extends RuntimeException {
+  public JobNotCompletedException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package com.example.fusen.exception;
+
+public class UnsupportedFormatException extends RuntimeException {
+  public UnsupportedFormatException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package com.example.fusen.exception;
+
+public class VersionConflictException extends RuntimeException {
+  public VersionConflictException(String message) {
+    super(message);
+  }
+}
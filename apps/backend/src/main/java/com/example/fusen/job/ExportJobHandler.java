@@ -0,0 +1,71 @@
+package com.example.fusen.job;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.fusen.bulk.BookmarkExporter;
+import com.example.fusen.bulk.BulkFormat;
+import com.example.fusen.entity.Job;
+
+/**
+ * 全ブックマークをファイルへ書き出す。checkpointは書き出し済みの最後のid、checkpointOffsetはそのときのファイルサイズで、
+ * 再開時はファイルをその長さに切り詰めてから続きのidを追記する。
+ */
+@Component
+class ExportJobHandler implements JobHandler {
+
+  private final BookmarkExporter bookmarkExporter;
+
+  @Autowired
+  ExportJobHandler(BookmarkExporter bookmarkExporter) {
+    this.bookmarkExporter = bookmarkExporter;
+  }
+
+  @Override
+  public Job.Type type() {
+    return Job.Type.EXPORT;
+  }
+
+  @Override
+  public void run(Job job, JobContext context) throws IOException {
+    long offset = job.getCheckpointOffset();
+    Long afterId = offset == 0 ? null : job.getCheckpoint();
+    long base = offset == 0 ? 0 : job.getProcessed();
+    try (FileChannel channel = FileChannel.open(Path.of(job.getFilePath()), StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE)) {
+      // チェックポイントより後に書いた分は、続きとして書き直す
+      channel.truncate(offset);
+      channel.position(offset);
+      long written = bookmarkExporter.exportTo(Channels.newOutputStream(channel), BulkFormat.valueOf(job.getFormat()),
+          afterId, (lastId, count) -> {
+            job.setProcessed(base + count);
+            job.setSucceeded(base + count);
+            job.setCheckpoint(lastId);
+            job.setCheckpointOffset(channel.position());
+            context.save(List.of());
+          });
+      job.setProcessed(base + written);
+      job.setSucceeded(base + written);
+    }
+  }
+
+  @Override
+  public void cleanUp(Job job) {
+    if (job.getStatus() == Job.Status.SUCCEEDED) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(Path.of(job.getFilePath()));
+    } catch (IOException e) {
+      // 削除できなくてもジョブの結果には影響しない
+    }
+  }
+}
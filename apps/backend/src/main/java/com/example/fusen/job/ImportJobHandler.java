@@ -0,0 +1,60 @@
+package com.example.fusen.job;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.fusen.bulk.BookmarkImporter;
+import com.example.fusen.bulk.BulkFormat;
+import com.example.fusen.bulk.ImportCheckpoint;
+import com.example.fusen.entity.Job;
+
+/**
+ * 受け付け時に保存したリクエストボディを一括登録する。checkpointは読み終えたレコード数で、
+ * 再開時はその件数を読み飛ばす。最後のチェックポイントより後にコミットしたチャンクは再実行され、登録済み (重複) として数えられる。
+ */
+@Component
+class ImportJobHandler implements JobHandler {
+
+  private final BookmarkImporter bookmarkImporter;
+
+  @Autowired
+  ImportJobHandler(BookmarkImporter bookmarkImporter) {
+    this.bookmarkImporter = bookmarkImporter;
+  }
+
+  @Override
+  public Job.Type type() {
+    return Job.Type.IMPORT;
+  }
+
+  @Override
+  public void run(Job job, JobContext context) throws IOException {
+    ImportCheckpoint from = new ImportCheckpoint(job.getCheckpoint(), job.getSucceeded(), job.getDuplicates(),
+        job.getFailed());
+    try (InputStream in = Files.newInputStream(Path.of(job.getFilePath()))) {
+      bookmarkImporter.importFrom(in, BulkFormat.valueOf(job.getFormat()), job.getGzip(), from,
+          (checkpoint, newErrors) -> {
+            job.setProcessed(checkpoint.records());
+            job.setSucceeded(checkpoint.imported());
+            job.setDuplicates(checkpoint.duplicates());
+            job.setFailed(checkpoint.failed());
+            job.setCheckpoint(checkpoint.records());
+            context.save(newErrors);
+          });
+    }
+  }
+
+  @Override
+  public void cleanUp(Job job) {
+    try {
+      Files.deleteIfExists(Path.of(job.getFilePath()));
+    } catch (IOException e) {
+      // 削除できなくてもジョブの結果には影響しない
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package com.example.fusen.job;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.example.fusen.dto.ImportError;
+import com.example.fusen.entity.Job;
+import com.example.fusen.service.JobService;
+
+/**
+ * 実行中のジョブの進捗を保存する。保存のたびに取り消し要求と担当の交代を確認し、
+ * 続けられない場合はJobInterruptedExceptionを投げてハンドラーの処理を止める。
+ */
+class JobContext {
+
+  private final JobService jobService;
+  private final Job job;
+  private final int maxErrors;
+
+  JobContext(JobService jobService, Job job, int maxErrors) {
+    this.jobService = jobService;
+    this.job = job;
+    this.maxErrors = maxErrors;
+  }
+
+  // jobの件数とチェックポイントを保存する
+  void save(List<ImportError> newErrors) {
+    if (Thread.currentThread().isInterrupted()) {
+      throw new JobInterruptedException("Job " + job.getId() + " interrupted by shutdown", false);
+    }
+    job.setHeartbeatAt(LocalDateTime.now());
+    if (!jobService.saveProgress(job, newErrors, maxErrors)) {
+      boolean cancelled = Boolean.TRUE.equals(jobService.findById(job.getId()).getCancelRequested());
+      throw new JobInterruptedException(cancelled
+          ? "Job " + job.getId() + " cancelled"
+          : "Job " + job.getId() + " taken over by another instance", cancelled);
+    }
+  }
+}
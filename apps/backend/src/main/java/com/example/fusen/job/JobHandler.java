@@ -0,0 +1,18 @@
+package com.example.fusen.job;
+
+import com.example.fusen.entity.Job;
+
+/**
+ * ジョブの種類ごとの処理。jobのcheckpointから始め、チャンクごとにjobの進捗を更新してcontext.saveを呼ぶ。
+ * 正常に戻れば成功、例外を投げれば失敗として記録される。
+ */
+interface JobHandler {
+
+  Job.Type type();
+
+  void run(Job job, JobContext context) throws Exception;
+
+  // 成功・失敗・取り消しのいずれかで終わったときに呼ばれる (一時ファイルの削除など)
+  default void cleanUp(Job job) {
+  }
+}
@@ -0,0 +1,18 @@
+package com.example.fusen.job;
+
+/**
+ * 取り消しの要求、他のインスタンスへの引き継ぎ、またはシャットダウンでジョブを途中で止めるときに投げる。
+ */
+class JobInterruptedException extends RuntimeException {
+
+  private final boolean cancelled;
+
+  JobInterruptedException(String message, boolean cancelled) {
+    super(message);
+    this.cancelled = cancelled;
+  }
+
+  boolean isCancelled() {
+    return cancelled;
+  }
+}
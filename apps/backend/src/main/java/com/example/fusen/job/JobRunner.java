@@ -0,0 +1,225 @@
+package com.example.fusen.job;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.fusen.bulk.BulkFormat;
+import com.example.fusen.dao.JobDao;
+import com.example.fusen.entity.Job;
+import com.example.fusen.service.JobService;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * ジョブを受け付け、スレッド数と待ち行列の長さに上限のある実行器で動かす。
+ *
+ * 受け付けたジョブはまずjobsテーブルに保存し、担当 (owner) のインスタンスが実行する。実行器が満杯なら担当を外して待機させ、
+ * 定期的なsweepで空きのあるインスタンスが拾う。担当のハートビートがstale-afterより長く途絶えたジョブ
+ * (インスタンスの停止) や、再起動前の自分が担当していたジョブも、sweepで拾ってチェックポイントから再開する。
+ * 入出力のファイルはfusen.jobs.dirに置くため、複数インスタンスで動かす場合は共有のディレクトリを指定する。
+ */
+@Component
+public class JobRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(JobRunner.class);
+
+  private final JobService jobService;
+  private final JobDao jobRepository;
+  private final Map<Job.Type, JobHandler> handlers = new EnumMap<>(Job.Type.class);
+  private final Path directory;
+  private final String owner;
+  private final Duration staleAfter;
+  private final int maxErrors;
+  private final ThreadPoolExecutor executor;
+  // このインスタンスで待機中・実行中のジョブ
+  private final Set<Long> active = ConcurrentHashMap.newKeySet();
+  private volatile boolean stopping;
+
+  @Autowired
+  public JobRunner(JobService jobService, JobDao jobRepository, List<JobHandler> handlers,
+      @Value("${fusen.jobs.dir:${java.io.tmpdir}/fusen-jobs}") Path directory,
+      @Value("${fusen.jobs.node-id:}") String nodeId,
+      @Value("${fusen.jobs.threads:2}") int threads,
+      @Value("${fusen.jobs.queue-capacity:100}") int queueCapacity,
+      @Value("${fusen.jobs.stale-after:1m}") Duration staleAfter,
+      @Value("${fusen.import.max-errors:1000}") int maxErrors) {
+    this.jobService = jobService;
+    this.jobRepository = jobRepository;
+    handlers.forEach(handler -> this.handlers.put(handler.type(), handler));
+    this.directory = directory;
+    this.owner = nodeId.isBlank() ? defaultNodeId() : nodeId;
+    this.staleAfter = staleAfter;
+    this.maxErrors = maxErrors;
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("fusen-job-", 1).factory());
+  }
+
+  // ボディはファイルへ書き出してから受け付ける。再開や他のインスタンスでの実行もこのファイルを読む
+  public Job submitImport(InputStream body, BulkFormat format, boolean gzip) throws IOException {
+    Files.createDirectories(directory);
+    Path file = directory.resolve("import-" + UUID.randomUUID() + ".upload");
+    try {
+      Files.copy(body, file);
+      return submit(Job.builder()
+          .jobType(Job.Type.IMPORT)
+          .format(format.name())
+          .gzip(gzip)
+          .filePath(file.toString())
+          .build());
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(file);
+      throw e;
+    }
+  }
+
+  public Job submitExport(BulkFormat format) throws IOException {
+    Files.createDirectories(directory);
+    Path file = directory.resolve("export-" + UUID.randomUUID() + "." + format.extension());
+    return submit(Job.builder()
+        .jobType(Job.Type.EXPORT)
+        .format(format.name())
+        .gzip(false)
+        .filePath(file.toString())
+        .build());
+  }
+
+  // 担当のいないジョブや、ハートビートの途絶えたジョブを拾う。起動直後の初回実行で、再起動前に担当していたジョブも再開する
+  @Scheduled(fixedDelayString = "${fusen.jobs.sweep-interval:10s}")
+  public void sweep() {
+    if (stopping) {
+      return;
+    }
+    LocalDateTime now = LocalDateTime.now();
+    if (!active.isEmpty()) {
+      jobRepository.heartbeat(List.copyOf(active), owner, now);
+    }
+    LocalDateTime staleBefore = now.minus(staleAfter);
+    for (Job job : jobRepository.findClaimable(owner, staleBefore)) {
+      if (active.contains(job.getId()) || executor.getQueue().remainingCapacity() == 0) {
+        continue;
+      }
+      if (jobRepository.claim(job.getId(), owner, now, staleBefore) == 1) {
+        dispatch(job.getId());
+      }
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() throws InterruptedException {
+    // 実行中のジョブは完了扱いにせずに止め、再起動後か他のインスタンスでチェックポイントから再開する
+    stopping = true;
+    executor.shutdownNow();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+  }
+
+  String owner() {
+    return owner;
+  }
+
+  private Job submit(Job job) {
+    job.setStatus(Job.Status.QUEUED);
+    job.setOwner(owner);
+    job.setHeartbeatAt(LocalDateTime.now());
+    Job created = jobService.create(job);
+    dispatch(created.getId());
+    return created;
+  }
+
+  private void dispatch(Long id) {
+    if (!active.add(id)) {
+      return;
+    }
+    try {
+      executor.execute(() -> run(id));
+    } catch (RejectedExecutionException e) {
+      active.remove(id);
+      jobRepository.release(id, owner);
+    }
+  }
+
+  void run(Long id) {
+    try {
+      Job job = jobService.findById(id);
+      if (job.getStatus().isFinished()) {
+        // 待機中に取り消されたジョブは、受け付けたときのファイルだけを片付ける
+        handlers.get(job.getJobType()).cleanUp(job);
+        return;
+      }
+      if (jobRepository.start(id, owner, LocalDateTime.now()) == 0) {
+        // 実行前に取り消されたか、他のインスタンスに引き継がれた
+        job = jobService.findById(id);
+        if (Boolean.TRUE.equals(job.getCancelRequested()) && owner.equals(job.getOwner())
+            && !job.getStatus().isFinished()) {
+          finish(job, Job.Status.CANCELLED, null);
+        }
+        return;
+      }
+      execute(jobService.findById(id));
+    } catch (RuntimeException e) {
+      log.error("Failed to run job {}", id, e);
+    } finally {
+      active.remove(id);
+    }
+  }
+
+  private void execute(Job job) {
+    JobHandler handler = handlers.get(job.getJobType());
+    try {
+      handler.run(job, new JobContext(jobService, job, maxErrors));
+      finish(job, Job.Status.SUCCEEDED, null);
+    } catch (JobInterruptedException e) {
+      log.info(e.getMessage());
+      if (e.isCancelled()) {
+        finish(job, Job.Status.CANCELLED, null);
+      }
+    } catch (Exception e) {
+      if (stopping) {
+        // シャットダウンの割り込みによる失敗。状態は実行中のまま残し、続きは再開時に行う
+        log.info("Job {} interrupted by shutdown", job.getId());
+        return;
+      }
+      log.warn("Job {} failed", job.getId(), e);
+      finish(job, Job.Status.FAILED, e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+    }
+  }
+
+  private void finish(Job job, Job.Status status, String errorMessage) {
+    job.setStatus(status);
+    job.setErrorMessage(errorMessage);
+    job.setFinishedAt(LocalDateTime.now());
+    if (jobService.finish(job)) {
+      handlers.get(job.getJobType()).cleanUp(job);
+    }
+  }
+
+  private static String defaultNodeId() {
+    try {
+      return InetAddress.getLocalHost().getHostName();
+    } catch (UnknownHostException e) {
+      return UUID.randomUUID().toString();
+    }
+  }
+}
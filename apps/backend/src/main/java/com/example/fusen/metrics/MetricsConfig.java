@@ -0,0 +1,69 @@
+package com.example.fusen.metrics;
+
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.fusen.cache.BookmarkCache;
+import com.example.fusen.cache.CacheStats;
+import com.example.fusen.cache.TagCache;
+import com.example.fusen.search.BookmarkSearchIndex;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Configuration
+public class MetricsConfig {
+
+  // DomaのConfigはこのJdbcLoggerを使う (doma-spring-boot-starterはJdbcLoggerのBeanがあればそれを優先する)
+  @Bean
+  public MetricsJdbcLogger metricsJdbcLogger(MeterRegistry registry) {
+    return new MetricsJdbcLogger(registry);
+  }
+
+  @Bean
+  public FilterRegistrationBean<SqlStatementMetricsFilter> sqlStatementMetricsFilter(MetricsJdbcLogger jdbcLogger,
+      MeterRegistry registry,
+      @Value("${fusen.sql.budget.max-statements:20}") int maxStatements,
+      @Value("${fusen.sql.budget.max-repeats:3}") int maxRepeats,
+      @Value("${fusen.sql.budget.fail-on-violation:false}") boolean failOnViolation,
+      @Value("${fusen.sql.debug-headers:false}") boolean debugHeaders) {
+    FilterRegistrationBean<SqlStatementMetricsFilter> registration = new FilterRegistrationBean<>(
+        new SqlStatementMetricsFilter(jdbcLogger, registry, maxStatements, maxRepeats, failOnViolation,
+            debugHeaders));
+    registration.addUrlPatterns("/api/*");
+    return registration;
+  }
+
+  // キャッシュのヒット・ミス・追い出し件数と使用量
+  @Bean
+  public MeterBinder cacheMetrics(TagCache tagCache, BookmarkCache bookmarkCache) {
+    return registry -> {
+      bindCache(registry, "tags", tagCache::stats);
+      bindCache(registry, "bookmarks", bookmarkCache::stats);
+    };
+  }
+
+  // 検索索引の文書数と語の数 (メモリ使用量の目安)
+  @Bean
+  public MeterBinder searchIndexMetrics(BookmarkSearchIndex bookmarkSearchIndex) {
+    return registry -> {
+      Gauge.builder("fusen.search.documents", bookmarkSearchIndex, BookmarkSearchIndex::size).register(registry);
+      Gauge.builder("fusen.search.terms", bookmarkSearchIndex, BookmarkSearchIndex::terms).register(registry);
+    };
+  }
+
+  private static void bindCache(MeterRegistry registry, String name, Supplier<CacheStats> stats) {
+    FunctionCounter.builder("fusen.cache.hits", stats, s -> s.get().hits()).tag("cache", name).register(registry);
+    FunctionCounter.builder("fusen.cache.misses", stats, s -> s.get().misses()).tag("cache", name).register(registry);
+    FunctionCounter.builder("fusen.cache.evictions", stats, s -> s.get().evictions()).tag("cache", name)
+        .register(registry);
+    Gauge.builder("fusen.cache.size", stats, s -> s.get().size()).tag("cache", name).register(registry);
+    Gauge.builder("fusen.cache.weight", stats, s -> s.get().weight()).tag("cache", name).register(registry);
+  }
+}
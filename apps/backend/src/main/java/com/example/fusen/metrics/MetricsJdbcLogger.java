@@ -0,0 +1,117 @@
+package com.example.fusen.metrics;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.seasar.doma.jdbc.Sql;
+import org.seasar.doma.jdbc.UtilLoggingJdbcLogger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Domaのログ出力フックでDAOメソッドの処理時間とSQL発行数を計測するJdbcLogger。
+ * ログ出力自体は従来どおりUtilLoggingJdbcLoggerに任せる。
+ */
+public class MetricsJdbcLogger extends UtilLoggingJdbcLogger {
+
+  static final String DAO_TIMER = "fusen.dao.calls";
+  static final String SQL_COUNTER = "fusen.sql.statements";
+
+  // DAOメソッドの開始時刻 (呼び出しのたびに積み、終了時に取り出す)
+  private final ThreadLocal<Deque<Long>> daoStartTimes = ThreadLocal.withInitial(ArrayDeque::new);
+  // リクエスト中に発行したSQLの集計。リクエスト外では null
+  private final ThreadLocal<RequestSqlStats> requestStats = new ThreadLocal<>();
+
+  private final MeterRegistry registry;
+
+  public MetricsJdbcLogger(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  @Override
+  public void logDaoMethodEntering(String callerClassName, String callerMethodName, Object... args) {
+    daoStartTimes.get().push(System.nanoTime());
+    RequestSqlStats stats = requestStats.get();
+    if (stats != null) {
+      stats.beginDaoCall();
+    }
+    super.logDaoMethodEntering(callerClassName, callerMethodName, args);
+  }
+
+  @Override
+  public void logDaoMethodExiting(String callerClassName, String callerMethodName, Object result) {
+    record(callerClassName, callerMethodName, "success");
+    super.logDaoMethodExiting(callerClassName, callerMethodName, result);
+  }
+
+  @Override
+  public void logDaoMethodThrowing(String callerClassName, String callerMethodName, RuntimeException e) {
+    record(callerClassName, callerMethodName, "error");
+    super.logDaoMethodThrowing(callerClassName, callerMethodName, e);
+  }
+
+  @Override
+  public void logSql(String callerClassName, String callerMethodName, Sql<?> sql) {
+    Counter.builder(SQL_COUNTER)
+        .tag("dao", daoName(callerClassName))
+        .tag("method", callerMethodName)
+        .tag("kind", sql.getKind().name())
+        .register(registry)
+        .increment();
+    RequestSqlStats stats = requestStats.get();
+    if (stats != null) {
+      stats.onStatement(sql);
+    }
+    super.logSql(callerClassName, callerMethodName, sql);
+  }
+
+  public RequestSqlStats beginRequest() {
+    return beginRequest(() -> false);
+  }
+
+  // repeatsExemptがtrueを返すリクエストでは、同一SQLの繰り返しを数えない
+  public RequestSqlStats beginRequest(BooleanSupplier repeatsExempt) {
+    RequestSqlStats stats = new RequestSqlStats(repeatsExempt);
+    requestStats.set(stats);
+    return stats;
+  }
+
+  // beginRequest以降の集計を返し、計測を終了する
+  public RequestSqlStats endRequest() {
+    RequestSqlStats stats = requestStats.get();
+    requestStats.remove();
+    return stats == null ? new RequestSqlStats() : stats;
+  }
+
+  private void record(String callerClassName, String callerMethodName, String outcome) {
+    Deque<Long> startTimes = daoStartTimes.get();
+    if (startTimes.isEmpty()) {
+      return;
+    }
+    long elapsed = System.nanoTime() - startTimes.pop();
+    if (startTimes.isEmpty()) {
+      daoStartTimes.remove();
+      RequestSqlStats stats = requestStats.get();
+      if (stats != null) {
+        stats.addDaoTime(elapsed);
+      }
+    }
+    Timer.builder(DAO_TIMER)
+        .tag("dao", daoName(callerClassName))
+        .tag("method", callerMethodName)
+        .tag("outcome", outcome)
+        .publishPercentileHistogram()
+        .register(registry)
+        .record(elapsed, TimeUnit.NANOSECONDS);
+  }
+
+  // com.example.fusen.dao.BookmarkDaoImpl -> BookmarkDao
+  private static String daoName(String callerClassName) {
+    String simpleName = callerClassName.substring(callerClassName.lastIndexOf('.') + 1);
+    return simpleName.endsWith("Impl") ? simpleName.substring(0, simpleName.length() - 4) : simpleName;
+  }
+}
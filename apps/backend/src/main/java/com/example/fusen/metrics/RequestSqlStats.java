@@ -0,0 +1,104 @@
+package com.example.fusen.metrics;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import org.seasar.doma.jdbc.Sql;
+import org.seasar.doma.jdbc.SqlParameter;
+
+/**
+ * 1リクエスト内で発行したSQLの件数・DAO処理時間・同一SQLの繰り返し回数。
+ * 同一SQLはSQLファイルのパス (自動生成SQLの場合はSQL文) で識別し、バインドパラメータの異なる実行だけを繰り返しとして数える
+ * (パラメータを変えて1件ずつ読むのがN+1で、同じ値での再実行はN+1ではない)。
+ * 一括登録のように件数に比例してSQLを発行してもメモリを一定に保つため、パラメータの組はハッシュ値だけを
+ * SQLごとに {@link #MAX_PARAMETER_SETS} 組まで記録する。
+ */
+public class RequestSqlStats {
+
+  static final int MAX_PARAMETER_SETS = 1000;
+
+  private int statements;
+  private long daoNanos;
+  // SQLごとの、実行に使われたバインドパラメータの組のハッシュ値
+  private final Map<String, Set<Integer>> parameterSets = new HashMap<>();
+  // バッチはDomaが1件ずつログを出すため、DAO呼び出し1回につき1文として数える
+  private boolean batchCounted;
+  // 繰り返しを数えないハンドラか。最初のSQLの時点で判定する (ハンドラはその前に決まっている)
+  private final BooleanSupplier repeatsExempt;
+  private Boolean tracksRepeats;
+  private boolean checked;
+
+  public RequestSqlStats() {
+    this(() -> false);
+  }
+
+  public RequestSqlStats(BooleanSupplier repeatsExempt) {
+    this.repeatsExempt = repeatsExempt;
+  }
+
+  void beginDaoCall() {
+    batchCounted = false;
+  }
+
+  void addDaoTime(long nanos) {
+    daoNanos += nanos;
+  }
+
+  void onStatement(Sql<?> sql) {
+    if (sql.getKind().name().startsWith("BATCH_")) {
+      if (batchCounted) {
+        return;
+      }
+      batchCounted = true;
+    }
+    statements++;
+    if (tracksRepeats == null) {
+      tracksRepeats = !repeatsExempt.getAsBoolean();
+    }
+    if (!tracksRepeats) {
+      return;
+    }
+    String key = sql.getSqlFilePath() != null ? sql.getSqlFilePath() : sql.getRawSql();
+    Set<Integer> hashes = parameterSets.computeIfAbsent(key, k -> new HashSet<>());
+    if (hashes.size() < MAX_PARAMETER_SETS) {
+      hashes.add(parameterHash(sql));
+    }
+  }
+
+  // レスポンスのコミット前の処理 (ヘッダーと予算の判定) は1回だけ行う。初回のみtrue
+  boolean markChecked() {
+    if (checked) {
+      return false;
+    }
+    checked = true;
+    return true;
+  }
+
+  public int getStatements() {
+    return statements;
+  }
+
+  public long getDaoMillis() {
+    return daoNanos / 1_000_000;
+  }
+
+  // 最も多くの異なるパラメータで実行されたSQLとその組数 (MAX_PARAMETER_SETSで頭打ち)
+  public Optional<Map.Entry<String, Integer>> mostRepeated() {
+    return parameterSets.entrySet().stream()
+        .map(entry -> Map.entry(entry.getKey(), entry.getValue().size()))
+        .max(Map.Entry.comparingByValue());
+  }
+
+  private static int parameterHash(Sql<?> sql) {
+    int hash = 1;
+    for (SqlParameter parameter : sql.getParameters()) {
+      hash = 31 * hash + Objects.hashCode(parameter.getValue());
+    }
+    return hash;
+  }
+}
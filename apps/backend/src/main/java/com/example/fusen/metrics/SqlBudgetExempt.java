@@ -0,0 +1,17 @@
+package com.example.fusen.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 件数に比例してSQLを発行することが前提のハンドラ (一括登録など) をSQL予算の判定から外す。
+ * 同一SQLの繰り返しも数えない (パラメータの組を記録しない)。メトリクスとレスポンスヘッダーは通常どおり記録する。
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudgetExempt {
+}
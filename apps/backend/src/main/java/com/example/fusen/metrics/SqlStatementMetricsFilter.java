@@ -0,0 +1,117 @@
+package com.example.fusen.metrics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.example.fusen.exception.SqlBudgetExceededException;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 1リクエストあたりのSQL発行数をエンドポイント (HTTPメソッド + URIテンプレート) 別に記録し、
+ * SQLの件数と同一SQLをパラメータだけ変えて繰り返した回数 (N+1の兆候) が上限を超えたら警告する (テストでは失敗させる)。
+ * 予算の判定とデバッグ用のSQL件数ヘッダーはレスポンスのコミット前に行う。ボディのあるレスポンスは
+ * SqlStatsResponseBodyAdviceが書き込みの直前に、それ以外はこのフィルターの終わりに行う。
+ */
+@Slf4j
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+  static final String REQUEST_SQL_SUMMARY = "fusen.http.sql.statements";
+  public static final String SQL_COUNT_HEADER = "X-Sql-Count";
+  public static final String SQL_TIME_HEADER = "X-Sql-Time-Ms";
+  // 値はコミット前の処理を行うRunnable
+  static final String BEFORE_COMMIT_ATTRIBUTE = SqlStatementMetricsFilter.class.getName() + ".beforeCommit";
+
+  private final MetricsJdbcLogger jdbcLogger;
+  private final MeterRegistry registry;
+  private final int maxStatements;
+  private final int maxRepeats;
+  private final boolean failOnViolation;
+  private final boolean debugHeaders;
+
+  public SqlStatementMetricsFilter(MetricsJdbcLogger jdbcLogger, MeterRegistry registry, int maxStatements,
+      int maxRepeats, boolean failOnViolation, boolean debugHeaders) {
+    this.jdbcLogger = jdbcLogger;
+    this.registry = registry;
+    this.maxStatements = maxStatements;
+    this.maxRepeats = maxRepeats;
+    this.failOnViolation = failOnViolation;
+    this.debugHeaders = debugHeaders;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    RequestSqlStats stats = jdbcLogger.beginRequest(() -> isExempt(request));
+    request.setAttribute(BEFORE_COMMIT_ATTRIBUTE, (Runnable) () -> beforeCommit(request, response, stats));
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      jdbcLogger.endRequest();
+      Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      DistributionSummary.builder(REQUEST_SQL_SUMMARY)
+          .baseUnit("statements")
+          .tag("method", request.getMethod())
+          .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+          .publishPercentileHistogram()
+          .register(registry)
+          .record(stats.getStatements());
+    }
+    if (!response.isCommitted()) {
+      beforeCommit(request, response, stats);
+    } else if (stats.markChecked()) {
+      // Adviceを通らずにボディを書き込み済み (ストリーミングなど)。失敗させられないので警告に留める
+      checkBudget(request, stats, false);
+    }
+  }
+
+  private void beforeCommit(HttpServletRequest request, HttpServletResponse response, RequestSqlStats stats) {
+    if (!stats.markChecked()) {
+      return;
+    }
+    if (debugHeaders) {
+      response.setHeader(SQL_COUNT_HEADER, String.valueOf(stats.getStatements()));
+      response.setHeader(SQL_TIME_HEADER, String.valueOf(stats.getDaoMillis()));
+    }
+    checkBudget(request, stats, failOnViolation);
+  }
+
+  private static boolean isExempt(HttpServletRequest request) {
+    return request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler
+        && handler.hasMethodAnnotation(SqlBudgetExempt.class);
+  }
+
+  private void checkBudget(HttpServletRequest request, RequestSqlStats stats, boolean fail) {
+    if (isExempt(request)) {
+      return;
+    }
+    List<String> violations = new ArrayList<>();
+    if (stats.getStatements() > maxStatements) {
+      violations.add(stats.getStatements() + " SQL statements exceed the budget of " + maxStatements);
+    }
+    stats.mostRepeated()
+        .filter(entry -> entry.getValue() > maxRepeats)
+        .ifPresent(entry -> violations.add("the same SQL ran with "
+            + (entry.getValue() >= RequestSqlStats.MAX_PARAMETER_SETS ? "at least " : "") + entry.getValue()
+            + " different parameter sets (possible N+1): " + entry.getKey()));
+    if (violations.isEmpty()) {
+      return;
+    }
+    String message = request.getMethod() + " " + request.getRequestURI() + ": " + String.join("; ", violations);
+    if (fail) {
+      throw new SqlBudgetExceededException(message);
+    }
+    log.warn(message);
+  }
+}
@@ -0,0 +1,35 @@
+package com.example.fusen.metrics;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * ボディを書き込むとレスポンスがコミットされるため、その直前にSQL件数ヘッダーの設定とSQL予算の判定を行う。
+ * 予算超過の例外は通常の例外処理でエラーレスポンスになる。
+ */
+@ControllerAdvice
+public class SqlStatsResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+  @Override
+  public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+    return true;
+  }
+
+  @Override
+  public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+      Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+      ServerHttpResponse response) {
+    if (request instanceof ServletServerHttpRequest servletRequest
+        && servletRequest.getServletRequest()
+            .getAttribute(SqlStatementMetricsFilter.BEFORE_COMMIT_ATTRIBUTE) instanceof Runnable beforeCommit) {
+      beforeCommit.run();
+    }
+    return body;
+  }
+}
@@ -0,0 +1,474 @@
+package com.example.fusen.search;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.seasar.doma.jdbc.SelectOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.fusen.cache.BookmarkChangeListener;
+import com.example.fusen.cache.BookmarkChangePoller;
+import com.example.fusen.dao.BookmarkChangeDao;
+import com.example.fusen.dao.BookmarkDao;
+import com.example.fusen.entity.Bookmark;
+import com.example.fusen.entity.BookmarkChange;
+
+/**
+ * タイトル・説明・URLのプロセス内全文検索索引と、タイトル・URLのあいまい検索索引 (TrigramIndex)。起動時に全件をカーソルで読んで構築し、
+ * このインスタンスでの変更はコミット後に、他のインスタンスでの変更はBookmarkChangePoller経由で反映する。
+ *
+ * 検索は読み取りロック、反映は書き込みロックで行う。語への分割はロックの外で済ませる。
+ * 構築はApplicationReadyEventの中で行うため、終わるまでReadinessはACCEPTING_TRAFFICにならない。
+ *
+ * fusen.search.dirを指定すると、索引をセグメント (Segment) としてファイルに書き出し、次の起動ではそれをメモリマップして使う。
+ * セグメントにはどこまでの変更 (bookmark_changes.seq) を反映したかを記録しておき、起動時はその後の変更だけをDBから読み直す。
+ * そのため起動時間は文書数ではなく、停止中の変更の数で決まる。セグメントの作成後の変更はヒープ上の差分に持ち、
+ * 差分が大きくなったらバックグラウンドで基底と差分を新しいセグメントにまとめて差し替える (merge)。
+ * 変更履歴は保持期間を過ぎると消えるため、保持期間の半分より古いセグメントや、DBより先の変更を反映済みのセグメント
+ * (DBを作り直した場合など) は使わずに全件から構築し直す。
+ */
+@Component
+public class BookmarkSearchIndex implements BookmarkChangeListener {
+
+  private static final Logger log = LoggerFactory.getLogger(BookmarkSearchIndex.class);
+
+  private static final int REFRESH_BATCH_SIZE = 500;
+
+  private final BookmarkDao bookmarkRepository;
+  private final BookmarkChangeDao bookmarkChangeRepository;
+  private final ObjectProvider<BookmarkChangePoller> changePoller;
+  // セグメントを置くディレクトリ (nullなら書き出さず、起動のたびに全件から構築する)
+  private final Path directory;
+  private final int mergeThreshold;
+  private final Duration retention;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  // mergeどうしの排他。ファイルの書き出し中も持ち続けるが、検索・反映はこのロックを取らない
+  private final ReentrantLock mergeLock = new ReentrantLock();
+  private InvertedIndex index = new InvertedIndex();
+  private TrigramIndex trigrams = new TrigramIndex();
+  // 基底のセグメント (まだなければnull)
+  private Segment segment;
+  // 最後にセグメントを書き出してから反映した変更の数
+  private int pendingChanges;
+  // セグメントの書き出し中に反映した変更。書き出したセグメントに差し替えた後、同じ順で当て直す (書き出し中以外はnull)
+  private List<Change> journal;
+  private volatile boolean built;
+  // 構築中に削除されたid。構築のカーソルが削除前の行を読んでも索引に戻さない (構築中以外はnull)
+  private Set<Long> removedDuringBuild;
+
+  @Autowired
+  public BookmarkSearchIndex(BookmarkDao bookmarkRepository, BookmarkChangeDao bookmarkChangeRepository,
+      ObjectProvider<BookmarkChangePoller> changePoller,
+      @Value("${fusen.search.dir:}") String directory,
+      @Value("${fusen.search.merge-threshold:10000}") int mergeThreshold,
+      @Value("${fusen.changes.retention:1d}") Duration retention) {
+    this.bookmarkRepository = bookmarkRepository;
+    this.bookmarkChangeRepository = bookmarkChangeRepository;
+    this.changePoller = changePoller;
+    this.directory = directory == null || directory.isBlank() ? null : Path.of(directory);
+    this.mergeThreshold = mergeThreshold;
+    this.retention = retention;
+  }
+
+  // ファイルに書き出さない索引 (負荷試験など)
+  public BookmarkSearchIndex(BookmarkDao bookmarkRepository) {
+    this(bookmarkRepository, null, null, null, Integer.MAX_VALUE, Duration.ZERO);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void build() {
+    long start = System.nanoTime();
+    if (restore()) {
+      built = true;
+      log.info("Restored {} bookmarks from {} in {} ms", size(), segment.file(),
+          (System.nanoTime() - start) / 1_000_000);
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      removedDuringBuild = new HashSet<>();
+    } finally {
+      lock.writeLock().unlock();
+    }
+    try {
+      // 構築中の変更も並行して反映される。古い行で上書きしないよう、putはversionで新旧を判定する
+      long count = bookmarkRepository.streamAll(null, bookmarks -> {
+        long indexed = 0;
+        for (Iterator<Bookmark> iterator = bookmarks.iterator(); iterator.hasNext(); indexed++) {
+          put(iterator.next(), true);
+        }
+        return indexed;
+      });
+      log.info("Indexed {} bookmarks in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+    } finally {
+      lock.writeLock().lock();
+      try {
+        removedDuringBuild = null;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+    built = true;
+    // 次の起動に備えてすぐに書き出し、全件分の差分をヒープから降ろす
+    merge();
+  }
+
+  /**
+   * 基底のセグメントと差分を新しいセグメントに書き出し、それを基底とする索引に差し替える。
+   * 差分が閾値を超えたとき、または変更履歴の保持期間の4分の1より古くなったとき (変更が少なくても使えるうちに更新する) に行う。
+   * 書き出しの間は差分を固定して読むだけなので、検索も反映も止めない。書き込みロックは固定と差し替えの間だけ取る。
+   */
+  @Scheduled(fixedDelayString = "${fusen.search.merge-interval:1m}")
+  public void merge() {
+    if (directory == null || !built) {
+      return;
+    }
+    mergeLock.lock();
+    try {
+      mergeSegment();
+    } finally {
+      mergeLock.unlock();
+    }
+  }
+
+  // mergeLockを持って呼ぶ
+  private void mergeSegment() {
+    // ロックの外で読む (ポーラーは変更を反映し終えてから読み位置を進めるため、このseqまでの変更は索引に入っている)
+    Long checkpoint = checkpoint();
+    if (checkpoint == null) {
+      return;
+    }
+    InvertedIndex.Snapshot invertedSnapshot;
+    TrigramIndex.Snapshot trigramSnapshot;
+    lock.writeLock().lock();
+    try {
+      boolean stale = segment == null
+          || segment.createdAt().isBefore(Instant.now().minus(retention.dividedBy(4)));
+      if (!stale && pendingChanges < mergeThreshold) {
+        return;
+      }
+      invertedSnapshot = index.snapshot();
+      trigramSnapshot = trigrams.snapshot();
+      journal = new ArrayList<>();
+    } finally {
+      lock.writeLock().unlock();
+    }
+    long start = System.nanoTime();
+    Segment merged;
+    try {
+      Files.createDirectories(directory);
+      merged = Segment.open(SegmentWriter.write(directory, checkpoint, invertedSnapshot, trigramSnapshot));
+    } catch (IOException | RuntimeException e) {
+      log.warn("Failed to write a search segment to {}", directory, e);
+      lock.writeLock().lock();
+      try {
+        journal = null;
+        index.resumeCompaction();
+        trigrams.resumeCompaction();
+      } finally {
+        lock.writeLock().unlock();
+      }
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      List<Change> changes = journal;
+      journal = null;
+      attach(merged);
+      changes.forEach(this::apply);
+      pendingChanges = changes.size();
+    } finally {
+      lock.writeLock().unlock();
+    }
+    deleteSegmentsExcept(merged.file());
+    log.info("Wrote {} bookmarks to {} in {} ms", merged.documents(), merged.file(),
+        (System.nanoTime() - start) / 1_000_000);
+  }
+
+  // 関連度の高い順にブックマークのidを返す
+  public List<Long> search(String query, int limit) {
+    List<String> terms = TextAnalyzer.analyze(query);
+    if (terms.isEmpty()) {
+      return List.of();
+    }
+    List<InvertedIndex.Hit> hits;
+    lock.readLock().lock();
+    try {
+      hits = index.search(terms, limit);
+    } finally {
+      lock.readLock().unlock();
+    }
+    return hits.stream().map(InvertedIndex.Hit::bookmarkId).toList();
+  }
+
+  // タイトル・URLのうろ覚えや打ち間違いを許して、近い順にブックマークのidを返す
+  public List<Long> fuzzySearch(String query, int limit) {
+    List<TrigramIndex.Hit> hits;
+    lock.readLock().lock();
+    try {
+      hits = trigrams.search(query, limit);
+    } finally {
+      lock.readLock().unlock();
+    }
+    return hits.stream().map(TrigramIndex.Hit::bookmarkId).toList();
+  }
+
+  // 呼び出し時点の内容を、トランザクションのコミット後に反映する (ロールバックされた場合は反映しない)
+  public void indexAfterCommit(Collection<Bookmark> bookmarks) {
+    List<Document> documents = bookmarks.stream().map(BookmarkSearchIndex::document).toList();
+    afterCommit(() -> documents.forEach(document -> put(document, false)));
+  }
+
+  public void removeAfterCommit(Long bookmarkId) {
+    afterCommit(() -> remove(bookmarkId));
+  }
+
+  // 他のインスタンスでの変更を、DBから読み直して反映する。見つからないidは削除されたものとして索引から除く
+  @Override
+  public void changed(Collection<Long> bookmarkIds) {
+    List<Long> ids = List.copyOf(bookmarkIds);
+    for (int from = 0; from < ids.size(); from += REFRESH_BATCH_SIZE) {
+      List<Long> batch = ids.subList(from, Math.min(from + REFRESH_BATCH_SIZE, ids.size()));
+      Set<Long> missing = new HashSet<>(batch);
+      for (Bookmark bookmark : bookmarkRepository.findByIds(batch)) {
+        missing.remove(bookmark.getId());
+        put(bookmark, false);
+      }
+      missing.forEach(this::remove);
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return index.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int terms() {
+    lock.readLock().lock();
+    try {
+      return index.terms();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void put(Bookmark bookmark, boolean fromBuild) {
+    long version = bookmark.getVersion() == null ? 0 : bookmark.getVersion();
+    lock.readLock().lock();
+    try {
+      // 反映済みの版なら語への分割も省く (このインスタンスでの変更はポーリングでもう一度届く)
+      if (index.isCurrent(bookmark.getId(), version)) {
+        return;
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    put(document(bookmark), fromBuild);
+  }
+
+  private void put(Document document, boolean fromBuild) {
+    lock.writeLock().lock();
+    try {
+      if (fromBuild && removedDuringBuild != null && removedDuringBuild.contains(document.bookmarkId())) {
+        return;
+      }
+      apply(new Change(document.bookmarkId(), document));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void remove(Long bookmarkId) {
+    lock.writeLock().lock();
+    try {
+      apply(new Change(bookmarkId, null));
+      if (removedDuringBuild != null) {
+        removedDuringBuild.add(bookmarkId);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // 書き込みロックを持って呼ぶ
+  private void apply(Change change) {
+    Document document = change.document();
+    boolean applied;
+    if (document == null) {
+      applied = index.remove(change.bookmarkId());
+      trigrams.remove(change.bookmarkId());
+    } else {
+      applied = index.put(document.bookmarkId(), document.version(), document.tokens());
+      if (applied) {
+        trigrams.put(document.bookmarkId(), document.fuzzyText());
+      }
+    }
+    if (applied) {
+      pendingChanges++;
+      if (journal != null) {
+        journal.add(change);
+      }
+    }
+  }
+
+  // 書き込みロックを持って呼ぶ (構築前は呼び出し元だけが触れる)
+  private void attach(Segment base) {
+    segment = base;
+    index = new InvertedIndex(base);
+    trigrams = new TrigramIndex(base);
+    pendingChanges = 0;
+  }
+
+  // 最新のセグメントを開き、その後の変更をbookmark_changesから読み直す。使えるセグメントがなければfalse
+  private boolean restore() {
+    if (directory == null || changePoller.getIfAvailable() == null) {
+      return false;
+    }
+    Segment latest = latestSegment();
+    if (latest == null) {
+      return false;
+    }
+    Long maxSeq = bookmarkChangeRepository.selectMaxSeq();
+    if (latest.checkpoint() > (maxSeq == null ? 0 : maxSeq)) {
+      log.warn("Search segment {} is ahead of bookmark_changes (seq {} > {}); rebuilding", latest.file(),
+          latest.checkpoint(), maxSeq);
+      return false;
+    }
+    if (latest.createdAt().isBefore(Instant.now().minus(retention.dividedBy(2)))) {
+      log.info("Search segment {} is too old to catch up from bookmark_changes; rebuilding", latest.file());
+      return false;
+    }
+    lock.writeLock().lock();
+    try {
+      attach(latest);
+    } finally {
+      lock.writeLock().unlock();
+    }
+    // ポーラーの読み位置が決まってから読み直す。読み直しの後、読み位置が決まるまでの間の変更を取りこぼさないため
+    checkpoint();
+    long position = latest.checkpoint();
+    long replayed = 0;
+    while (true) {
+      List<BookmarkChange> changes = bookmarkChangeRepository.findAfter(position,
+          SelectOptions.get().limit(REFRESH_BATCH_SIZE));
+      if (changes.isEmpty()) {
+        break;
+      }
+      changed(changes.stream().map(BookmarkChange::getBookmarkId).distinct().toList());
+      position = changes.get(changes.size() - 1).getSeq();
+      replayed += changes.size();
+    }
+    log.info("Replayed {} bookmark changes after seq {}", replayed, latest.checkpoint());
+    return true;
+  }
+
+  // ポーラーの読み位置 (このseqまでの変更は索引に反映済み)。ポーラーがなければnull
+  private Long checkpoint() {
+    BookmarkChangePoller poller = changePoller.getIfAvailable();
+    if (poller == null) {
+      return null;
+    }
+    if (poller.position() == null) {
+      // 初回のポーリングは読み位置を決めるだけ
+      poller.poll();
+    }
+    return poller.position();
+  }
+
+  // 名前の新しい順に開き、最初に開けたものを返す
+  private Segment latestSegment() {
+    if (!Files.isDirectory(directory)) {
+      return null;
+    }
+    List<Path> files;
+    try (Stream<Path> listing = Files.list(directory)) {
+      files = listing.filter(file -> file.getFileName().toString().endsWith(SegmentWriter.SUFFIX))
+          .sorted(Comparator.reverseOrder())
+          .toList();
+    } catch (IOException e) {
+      log.warn("Failed to list search segments in {}", directory, e);
+      return null;
+    }
+    for (Path file : files) {
+      try {
+        return Segment.open(file);
+      } catch (IOException e) {
+        log.warn("Skipping unreadable search segment {}", file, e);
+      }
+    }
+    return null;
+  }
+
+  // 使わなくなったセグメントと書きかけの一時ファイルを消す (マップ中のファイルも、Linuxではマップが外れるまで中身が残る)
+  private void deleteSegmentsExcept(Path keep) {
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : files.filter(file -> !file.equals(keep)).toList()) {
+        String name = file.getFileName().toString();
+        if (name.startsWith("segment-")) {
+          Files.deleteIfExists(file);
+        }
+      }
+    } catch (IOException e) {
+      log.warn("Failed to delete old search segments in {}", directory, e);
+    }
+  }
+
+  private static Document document(Bookmark bookmark) {
+    List<String> tokens = new ArrayList<>();
+    TextAnalyzer.analyze(bookmark.getTitle(), tokens);
+    TextAnalyzer.analyze(bookmark.getDescription(), tokens);
+    TextAnalyzer.analyzeUrl(bookmark.getUrl(), tokens);
+    String url = TextAnalyzer.stripUrl(bookmark.getUrl());
+    String fuzzyText = TextAnalyzer.normalize(Objects.toString(bookmark.getTitle(), "") + " " + Objects.toString(url, ""));
+    return new Document(bookmark.getId(), bookmark.getVersion() == null ? 0 : bookmark.getVersion(), tokens,
+        fuzzyText);
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  private record Document(long bookmarkId, long version, List<String> tokens, String fuzzyText) {
+  }
+
+  // 反映した変更 (documentがnullなら削除)
+  private record Change(long bookmarkId, Document document) {
+  }
+}
@@ -0,0 +1,470 @@
+package com.example.fusen.search;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * 語からブックマークを引く転置索引。BM25で順位付けし、上位k件だけを有界ヒープに残す。
+ *
+ * 文書には追加順の連番 (ordinal) を振り、各語のポスティングは連番の昇順に並ぶ。更新は古い連番の削除と新しい連番の追加で表し、
+ * 削除した連番は生存ビットを落として検索時に読み飛ばす。削除済みの連番が生存数を超えたら全体を詰め直す。
+ * ポスティングは連番の差分と出現回数を可変長整数で詰めたbyte配列で持つ (多くは1件1バイト)。
+ * IDFの文書頻度と文書数は削除済みの連番も含めて数える。詰め直しまでの近似で、検索のたびにポスティングを数え直さずに済む。
+ *
+ * 書き出したセグメント (Segment) を基底に持つ場合、基底の文書は連番 [0, 基底の文書数) をそのまま使い、
+ * その後に追加した文書 (差分) はヒープに持って基底の文書数から続く連番を振る。基底の文書の更新・削除は基底側の削除ビットで表す。
+ * 基底と差分は定期的にSegmentWriterで1つのセグメントにまとめ直す (BookmarkSearchIndex.merge)。
+ * スレッドセーフではない (BookmarkSearchIndexが読み書きロックで守る)。
+ */
+final class InvertedIndex {
+
+  static final double K1 = 1.2;
+  static final double B = 0.75;
+
+  // 詰め直しは全ポスティングを書き換えるため、削除済みが少ないうちは行わない
+  private static final int MIN_DEAD_TO_COMPACT = 1024;
+  private static final int INITIAL_CAPACITY = 1024;
+
+  // 順位の低い (スコアが低い、同点なら古い) ものが先頭に来る順序
+  private static final Comparator<Hit> WORST_FIRST = Comparator.comparingDouble(Hit::score)
+      .thenComparingLong(Hit::bookmarkId);
+
+  // 基底のセグメント (なければnull) と、その中で更新・削除された連番
+  private final Segment base;
+  private final int baseCount;
+  private final BitSet baseDeleted = new BitSet();
+  private int baseLiveCount;
+  private long baseTotalLength;
+
+  // 差分。ordinalsとポスティングの連番は差分の中での番号 (検索では基底の文書数を足す)
+  private final Map<String, Postings> postings = new HashMap<>();
+  private final Map<Long, Integer> ordinals = new HashMap<>();
+  private final BitSet live = new BitSet();
+  private long[] bookmarkIds = new long[INITIAL_CAPACITY];
+  private long[] versions = new long[INITIAL_CAPACITY];
+  private int[] lengths = new int[INITIAL_CAPACITY];
+  private int next;
+  private int liveCount;
+  private long totalLength;
+  // セグメントへの書き出し中は差分の配列を書き換えない (snapshot参照)
+  private boolean compactionSuspended;
+
+  record Hit(long bookmarkId, double score) {
+  }
+
+  /**
+   * セグメントへ書き出すための、ある時点の内容。差分の配列は追記しかされず、書き出し中は詰め直しも止めるため、複製せずに共有する。
+   * 連番はsearchと同じく基底から通しで数える。
+   */
+  record Snapshot(Segment base, BitSet baseDeleted, BitSet live, int next, long[] bookmarkIds, long[] versions,
+      int[] lengths, Map<String, Postings> postings) {
+
+    int documents() {
+      return baseCount(base) + next;
+    }
+
+    boolean isLive(int ordinal) {
+      int baseCount = baseCount(base);
+      return ordinal < baseCount ? !baseDeleted.get(ordinal) : live.get(ordinal - baseCount);
+    }
+
+    long bookmarkId(int ordinal) {
+      int baseCount = baseCount(base);
+      return ordinal < baseCount ? base.bookmarkId(ordinal) : bookmarkIds[ordinal - baseCount];
+    }
+
+    long version(int ordinal) {
+      int baseCount = baseCount(base);
+      return ordinal < baseCount ? base.version(ordinal) : versions[ordinal - baseCount];
+    }
+
+    int length(int ordinal) {
+      int baseCount = baseCount(base);
+      return ordinal < baseCount ? base.length(ordinal) : lengths[ordinal - baseCount];
+    }
+  }
+
+  InvertedIndex() {
+    this(null);
+  }
+
+  InvertedIndex(Segment base) {
+    this.base = base;
+    this.baseCount = baseCount(base);
+    if (base != null) {
+      baseLiveCount = base.documents();
+      baseTotalLength = base.totalLength();
+    }
+  }
+
+  int size() {
+    return baseLiveCount + liveCount;
+  }
+
+  // 基底と差分の両方にある語は2回数える
+  int terms() {
+    return (base == null ? 0 : base.terms()) + postings.size();
+  }
+
+  // 索引中の文書がversion以降のものか。0以下のversionは不明として扱い、常に置き換える
+  boolean isCurrent(long bookmarkId, long version) {
+    if (version <= 0) {
+      return false;
+    }
+    Integer ordinal = ordinals.get(bookmarkId);
+    if (ordinal != null) {
+      return versions[ordinal] >= version;
+    }
+    int baseOrdinal = baseOrdinalOf(bookmarkId);
+    return baseOrdinal >= 0 && base.version(baseOrdinal) >= version;
+  }
+
+  // 同じidの文書は置き換える。索引中の文書のほうが新しければ何もせずfalseを返す
+  boolean put(long bookmarkId, long version, List<String> tokens) {
+    if (isCurrent(bookmarkId, version)) {
+      return false;
+    }
+    Integer current = ordinals.get(bookmarkId);
+    if (current != null) {
+      kill(current);
+    } else {
+      killBase(baseOrdinalOf(bookmarkId));
+    }
+    if (next == bookmarkIds.length) {
+      int capacity = next + (next >> 1);
+      bookmarkIds = Arrays.copyOf(bookmarkIds, capacity);
+      versions = Arrays.copyOf(versions, capacity);
+      lengths = Arrays.copyOf(lengths, capacity);
+    }
+    int ordinal = next++;
+    Map<String, Integer> frequencies = new HashMap<>();
+    for (String token : tokens) {
+      frequencies.merge(token, 1, Integer::sum);
+    }
+    frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, key -> new Postings())
+        .add(ordinal, frequency));
+    bookmarkIds[ordinal] = bookmarkId;
+    versions[ordinal] = version;
+    lengths[ordinal] = tokens.size();
+    live.set(ordinal);
+    liveCount++;
+    totalLength += tokens.size();
+    ordinals.put(bookmarkId, ordinal);
+    compactIfSparse();
+    return true;
+  }
+
+  boolean remove(long bookmarkId) {
+    Integer ordinal = ordinals.remove(bookmarkId);
+    if (ordinal == null) {
+      return killBase(baseOrdinalOf(bookmarkId));
+    }
+    kill(ordinal);
+    compactIfSparse();
+    return true;
+  }
+
+  Snapshot snapshot() {
+    compactionSuspended = true;
+    Map<String, Postings> frozen = new HashMap<>();
+    postings.forEach((term, list) -> frozen.put(term, list.frozen()));
+    return new Snapshot(base, (BitSet) baseDeleted.clone(), (BitSet) live.clone(), next, bookmarkIds, versions,
+        lengths, frozen);
+  }
+
+  // 書き出しに失敗し、この索引を使い続ける場合に詰め直しを再開する
+  void resumeCompaction() {
+    compactionSuspended = false;
+    compactIfSparse();
+  }
+
+  // いずれかの語を含む文書をスコアの高い順にk件まで返す
+  List<Hit> search(List<String> terms, int k) {
+    int size = size();
+    if (k <= 0 || size == 0) {
+      return List.of();
+    }
+    // 基底と差分の文書は重ならないため、同じ語の2つのポスティングは別々のカーソルとして進めればよい
+    List<Cursor> cursors = new ArrayList<>();
+    for (String term : new LinkedHashSet<>(terms)) {
+      Postings list = postings.get(term);
+      int entry = base == null ? -1 : base.findTerm(term);
+      int baseFrequency = entry < 0 ? 0 : base.documentFrequency(entry);
+      int documentFrequency = baseFrequency + (list == null ? 0 : list.size);
+      if (documentFrequency == 0) {
+        continue;
+      }
+      double idf = Math.log(1 + (baseCount + next - documentFrequency + 0.5) / (documentFrequency + 0.5));
+      if (entry >= 0) {
+        addCursor(cursors, new Cursor(base.buffer(), base.postingsOffset(entry), baseFrequency, 0, idf));
+      }
+      if (list != null) {
+        addCursor(cursors, new Cursor(list, baseCount, idf));
+      }
+    }
+    if (cursors.isEmpty()) {
+      return List.of();
+    }
+    double averageLength = (double) (baseTotalLength + totalLength) / size;
+    PriorityQueue<Hit> top = new PriorityQueue<>(Math.min(k, size) + 1, WORST_FIRST);
+    // 連番の昇順に全語のポスティングを同時に進め、1文書ずつスコアを確定させる
+    while (!cursors.isEmpty()) {
+      int document = Integer.MAX_VALUE;
+      for (Cursor cursor : cursors) {
+        document = Math.min(document, cursor.document);
+      }
+      double norm = K1 * (1 - B + B * length(document) / averageLength);
+      double score = 0;
+      for (int i = cursors.size() - 1; i >= 0; i--) {
+        Cursor cursor = cursors.get(i);
+        if (cursor.document == document) {
+          int frequency = cursor.frequency;
+          score += cursor.idf * frequency * (K1 + 1) / (frequency + norm);
+          if (!advance(cursor)) {
+            cursors.remove(i);
+          }
+        }
+      }
+      offer(top, bookmarkId(document), score, k);
+    }
+    List<Hit> hits = new ArrayList<>(top);
+    hits.sort(WORST_FIRST.reversed());
+    return hits;
+  }
+
+  private void addCursor(List<Cursor> cursors, Cursor cursor) {
+    if (advance(cursor)) {
+      cursors.add(cursor);
+    }
+  }
+
+  // 次の生存している文書へ進める。末尾に達したらfalse
+  private boolean advance(Cursor cursor) {
+    while (cursor.next()) {
+      if (isLive(cursor.document)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isLive(int ordinal) {
+    return ordinal < baseCount ? !baseDeleted.get(ordinal) : live.get(ordinal - baseCount);
+  }
+
+  private int length(int ordinal) {
+    return ordinal < baseCount ? base.length(ordinal) : lengths[ordinal - baseCount];
+  }
+
+  private long bookmarkId(int ordinal) {
+    return ordinal < baseCount ? base.bookmarkId(ordinal) : bookmarkIds[ordinal - baseCount];
+  }
+
+  // 基底にあって更新・削除されていない文書の連番。なければ-1
+  private int baseOrdinalOf(long bookmarkId) {
+    if (base == null) {
+      return -1;
+    }
+    int ordinal = base.ordinalOf(bookmarkId);
+    return ordinal >= 0 && !baseDeleted.get(ordinal) ? ordinal : -1;
+  }
+
+  private static int baseCount(Segment base) {
+    return base == null ? 0 : base.documents();
+  }
+
+  private static void offer(PriorityQueue<Hit> top, long bookmarkId, double score, int k) {
+    if (top.size() < k) {
+      top.add(new Hit(bookmarkId, score));
+      return;
+    }
+    Hit worst = top.peek();
+    if (score > worst.score() || (score == worst.score() && bookmarkId > worst.bookmarkId())) {
+      top.poll();
+      top.add(new Hit(bookmarkId, score));
+    }
+  }
+
+  private void kill(int ordinal) {
+    live.clear(ordinal);
+    liveCount--;
+    totalLength -= lengths[ordinal];
+  }
+
+  private boolean killBase(int ordinal) {
+    if (ordinal < 0) {
+      return false;
+    }
+    baseDeleted.set(ordinal);
+    baseLiveCount--;
+    baseTotalLength -= base.length(ordinal);
+    return true;
+  }
+
+  private void compactIfSparse() {
+    int dead = next - liveCount;
+    if (compactionSuspended || dead < MIN_DEAD_TO_COMPACT || dead <= liveCount) {
+      return;
+    }
+    int[] remap = new int[next];
+    int size = 0;
+    for (int ordinal = 0; ordinal < next; ordinal++) {
+      if (!live.get(ordinal)) {
+        remap[ordinal] = -1;
+        continue;
+      }
+      remap[ordinal] = size;
+      bookmarkIds[size] = bookmarkIds[ordinal];
+      versions[size] = versions[ordinal];
+      lengths[size] = lengths[ordinal];
+      size++;
+    }
+    postings.values().removeIf(list -> list.compact(remap) == 0);
+    ordinals.replaceAll((bookmarkId, ordinal) -> remap[ordinal]);
+    live.clear();
+    live.set(0, size);
+    next = size;
+  }
+
+  /**
+   * 1語分の (連番, 出現回数) の列。連番は昇順で、直前の連番との差分を可変長整数 (7ビットずつ、上位ビットが継続) で書く。
+   * 出現回数はほとんどが1のため、差分の最下位ビットを「出現回数が1」の印にし、1以外のときだけ続けて書く。
+   * セグメントにも同じ形式で書き出す。
+   */
+  static final class Postings {
+    private byte[] data = new byte[4];
+    private int length;
+    private int size;
+    private int last;
+
+    int size() {
+      return size;
+    }
+
+    int length() {
+      return length;
+    }
+
+    byte[] data() {
+      return data;
+    }
+
+    // 現時点の長さで固定した写し。追記は末尾より後にしか書かないため、配列はそのまま共有できる
+    Postings frozen() {
+      Postings frozen = new Postings();
+      frozen.data = data;
+      frozen.length = length;
+      frozen.size = size;
+      frozen.last = last;
+      return frozen;
+    }
+
+    void add(int ordinal, int frequency) {
+      if (length + 10 > data.length) {
+        data = Arrays.copyOf(data, Math.max(length + 10, length + (length >> 1)));
+      }
+      int delta = ordinal - last;
+      if (frequency == 1) {
+        writeVarint(delta << 1 | 1);
+      } else {
+        writeVarint(delta << 1);
+        writeVarint(frequency);
+      }
+      last = ordinal;
+      size++;
+    }
+
+    // 削除済みを除いて連番を振り直す。残った件数を返す
+    int compact(int[] remap) {
+      Cursor cursor = new Cursor(this, 0, 0);
+      Postings compacted = new Postings();
+      while (cursor.next()) {
+        int ordinal = remap[cursor.document];
+        if (ordinal >= 0) {
+          compacted.add(ordinal, cursor.frequency);
+        }
+      }
+      data = Arrays.copyOf(compacted.data, compacted.length);
+      length = compacted.length;
+      size = compacted.size;
+      last = compacted.last;
+      return size;
+    }
+
+    // 連番の差分は2^31未満のため、1ビットずらしても符号なし32ビットに収まる
+    private void writeVarint(int value) {
+      while ((value & ~0x7F) != 0) {
+        data[length++] = (byte) (value & 0x7F | 0x80);
+        value >>>= 7;
+      }
+      data[length++] = (byte) value;
+    }
+  }
+
+  // ポスティングを先頭から読む位置。next() のたびにdocumentとfrequencyが次の組になる。documentは最初の連番 (first) から数える
+  static final class Cursor {
+    // 差分のポスティングはdata、セグメントのポスティングはbufferから読む (もう一方はnull)
+    private final byte[] data;
+    private final ByteBuffer buffer;
+    private final double idf;
+    private int offset;
+    private int remaining;
+    private int document;
+    private int frequency;
+
+    Cursor(Postings postings, int first, double idf) {
+      this(postings.data, null, 0, postings.size, first, idf);
+    }
+
+    Cursor(ByteBuffer buffer, int offset, int size, int first, double idf) {
+      this(null, buffer, offset, size, first, idf);
+    }
+
+    private Cursor(byte[] data, ByteBuffer buffer, int offset, int size, int first, double idf) {
+      this.data = data;
+      this.buffer = buffer;
+      this.offset = offset;
+      this.remaining = size;
+      this.document = first;
+      this.idf = idf;
+    }
+
+    int document() {
+      return document;
+    }
+
+    int frequency() {
+      return frequency;
+    }
+
+    boolean next() {
+      if (remaining == 0) {
+        return false;
+      }
+      remaining--;
+      int value = readVarint();
+      document += value >>> 1;
+      frequency = (value & 1) != 0 ? 1 : readVarint();
+      return true;
+    }
+
+    private int readVarint() {
+      int value = 0;
+      for (int shift = 0; ; shift += 7) {
+        byte b = data != null ? data[offset++] : buffer.get(offset++);
+        value |= (b & 0x7F) << shift;
+        if (b >= 0) {
+          return value;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,265 @@
+package com.example.fusen.search;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * 検索索引をファイルに書き出したもの (セグメント)。書き出した後は変更せず、全体をメモリマップして読む。
+ * 開くときはヘッダを確かめるだけで、文書表・辞書・ポスティングは検索で触れた部分だけがページキャッシュから読まれる。
+ * そのため開く時間は文書数によらない。
+ *
+ * 形式 (整数はビッグエンディアン。書き出しはSegmentWriter):
+ *   ヘッダ: 識別子, 形式の版, チェックポイント (反映済みのbookmark_changes.seq), 作成日時, 文書数, 語数, trigram数, 総語数, 各部の開始位置
+ *   文書表: 連番ごとのブックマークid・version・語数と、あいまい検索用の文字列 (UTF-8)
+ *   id表: (id, 連番) をidの昇順に並べたもの
+ *   語のポスティング (InvertedIndexと同じ可変長整数の列) と、語のUTF-8の昇順に並べた辞書 (語の位置, ポスティングの位置, 文書頻度)
+ *   trigramのポスティング (連番の昇順のint) と、同様の辞書 (trigramの位置, ポスティングの位置)
+ * 辞書は末尾に終端の1件を持ち、次の件の位置で長さを表す。1つのMappedByteBufferに収まる2GB未満のファイルだけを扱う。
+ * 絶対位置での読み出ししか行わないため、複数のスレッドから同時に読んでよい。
+ */
+final class Segment {
+
+  static final int MAGIC = 0x46534547;
+  static final int FORMAT_VERSION = 1;
+  static final int HEADER_SIZE = 128;
+
+  // ヘッダ中の位置
+  static final int CHECKPOINT = 8;
+  static final int CREATED_AT = 16;
+  static final int DOCUMENTS = 24;
+  static final int TERMS = 28;
+  static final int TRIGRAMS = 32;
+  static final int TOTAL_LENGTH = 40;
+  static final int SECTIONS = 48;
+
+  // 各部の番号 (ヘッダのSECTIONSから順にintで開始位置を持つ。ENDはファイルの長さ)
+  static final int BOOKMARK_IDS = 0;
+  static final int VERSIONS = 1;
+  static final int LENGTHS = 2;
+  static final int TEXTS = 3;
+  static final int TEXT_OFFSETS = 4;
+  static final int ID_TABLE = 5;
+  static final int POSTINGS = 6;
+  static final int TERM_ENTRIES = 7;
+  static final int TERM_BYTES = 8;
+  static final int TRIGRAM_POSTINGS = 9;
+  static final int TRIGRAM_ENTRIES = 10;
+  static final int TRIGRAM_BYTES = 11;
+  static final int END = 12;
+
+  static final int ID_ENTRY_SIZE = 12;
+  static final int TERM_ENTRY_SIZE = 12;
+  static final int TRIGRAM_ENTRY_SIZE = 8;
+
+  private final Path file;
+  private final ByteBuffer buffer;
+  private final int[] sections = new int[END + 1];
+  private final int documents;
+  private final int terms;
+  private final int trigrams;
+
+  private Segment(Path file, ByteBuffer buffer) throws IOException {
+    this.file = file;
+    this.buffer = buffer;
+    if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+      throw new IOException("Not a search segment of version " + FORMAT_VERSION + ": " + file);
+    }
+    documents = buffer.getInt(DOCUMENTS);
+    terms = buffer.getInt(TERMS);
+    trigrams = buffer.getInt(TRIGRAMS);
+    int previous = HEADER_SIZE;
+    for (int section = 0; section <= END; section++) {
+      sections[section] = buffer.getInt(SECTIONS + section * 4);
+      if (sections[section] < previous) {
+        throw new IOException("Corrupt search segment: " + file);
+      }
+      previous = sections[section];
+    }
+    // 書き出しは一時ファイルへの書き込みと改名で行うため、途中まで書かれたファイルは長さの不一致でしか現れない
+    if (sections[END] != buffer.capacity()
+        || sections[VERSIONS] - sections[BOOKMARK_IDS] != documents * Long.BYTES
+        || sections[TERM_BYTES] - sections[TERM_ENTRIES] != (terms + 1) * TERM_ENTRY_SIZE
+        || sections[TRIGRAM_BYTES] - sections[TRIGRAM_ENTRIES] != (trigrams + 1) * TRIGRAM_ENTRY_SIZE) {
+      throw new IOException("Corrupt search segment: " + file);
+    }
+  }
+
+  static Segment open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+        throw new IOException("Not a search segment: " + file);
+      }
+      // マップはチャネルを閉じても有効なまま残る
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      return new Segment(file, buffer);
+    }
+  }
+
+  Path file() {
+    return file;
+  }
+
+  long checkpoint() {
+    return buffer.getLong(CHECKPOINT);
+  }
+
+  Instant createdAt() {
+    return Instant.ofEpochMilli(buffer.getLong(CREATED_AT));
+  }
+
+  int documents() {
+    return documents;
+  }
+
+  int terms() {
+    return terms;
+  }
+
+  int trigrams() {
+    return trigrams;
+  }
+
+  long totalLength() {
+    return buffer.getLong(TOTAL_LENGTH);
+  }
+
+  ByteBuffer buffer() {
+    return buffer;
+  }
+
+  long bookmarkId(int ordinal) {
+    return buffer.getLong(sections[BOOKMARK_IDS] + ordinal * Long.BYTES);
+  }
+
+  long version(int ordinal) {
+    return buffer.getLong(sections[VERSIONS] + ordinal * Long.BYTES);
+  }
+
+  int length(int ordinal) {
+    return buffer.getInt(sections[LENGTHS] + ordinal * Integer.BYTES);
+  }
+
+  String text(int ordinal) {
+    return new String(textBytes(ordinal), StandardCharsets.UTF_8);
+  }
+
+  byte[] textBytes(int ordinal) {
+    int offsets = sections[TEXT_OFFSETS] + ordinal * Integer.BYTES;
+    int start = buffer.getInt(offsets);
+    byte[] bytes = new byte[buffer.getInt(offsets + Integer.BYTES) - start];
+    buffer.get(sections[TEXTS] + start, bytes);
+    return bytes;
+  }
+
+  // id表のi番目 (idの昇順)
+  long idAt(int index) {
+    return buffer.getLong(sections[ID_TABLE] + index * ID_ENTRY_SIZE);
+  }
+
+  int ordinalAt(int index) {
+    return buffer.getInt(sections[ID_TABLE] + index * ID_ENTRY_SIZE + Long.BYTES);
+  }
+
+  // idの連番。含まれなければ-1
+  int ordinalOf(long bookmarkId) {
+    int low = 0;
+    int high = documents - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      long id = idAt(middle);
+      if (id < bookmarkId) {
+        low = middle + 1;
+      } else if (id > bookmarkId) {
+        high = middle - 1;
+      } else {
+        return ordinalAt(middle);
+      }
+    }
+    return -1;
+  }
+
+  // 語の辞書の番号。含まれなければ-1
+  int findTerm(String term) {
+    return find(term, terms, sections[TERM_ENTRIES], TERM_ENTRY_SIZE, sections[TERM_BYTES]);
+  }
+
+  byte[] termBytes(int entry) {
+    return key(entry, sections[TERM_ENTRIES], TERM_ENTRY_SIZE, sections[TERM_BYTES]);
+  }
+
+  // 語のポスティングの、buffer中の開始位置
+  int postingsOffset(int entry) {
+    return sections[POSTINGS] + buffer.getInt(sections[TERM_ENTRIES] + entry * TERM_ENTRY_SIZE + Integer.BYTES);
+  }
+
+  int documentFrequency(int entry) {
+    return buffer.getInt(sections[TERM_ENTRIES] + entry * TERM_ENTRY_SIZE + 2 * Integer.BYTES);
+  }
+
+  int findTrigram(String trigram) {
+    return find(trigram, trigrams, sections[TRIGRAM_ENTRIES], TRIGRAM_ENTRY_SIZE, sections[TRIGRAM_BYTES]);
+  }
+
+  byte[] trigramBytes(int entry) {
+    return key(entry, sections[TRIGRAM_ENTRIES], TRIGRAM_ENTRY_SIZE, sections[TRIGRAM_BYTES]);
+  }
+
+  // trigramのポスティングの、buffer中の開始位置 (連番をintで並べたもの)
+  int trigramOffset(int entry) {
+    return sections[TRIGRAM_POSTINGS] + trigramStart(entry) * Integer.BYTES;
+  }
+
+  int trigramSize(int entry) {
+    return trigramStart(entry + 1) - trigramStart(entry);
+  }
+
+  private int trigramStart(int entry) {
+    return buffer.getInt(sections[TRIGRAM_ENTRIES] + entry * TRIGRAM_ENTRY_SIZE + Integer.BYTES);
+  }
+
+  // 辞書をキーのUTF-8 (符号なしのバイト順) で二分探索する
+  private int find(String key, int count, int entries, int entrySize, int keys) {
+    byte[] target = key.getBytes(StandardCharsets.UTF_8);
+    int low = 0;
+    int high = count - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int start = keys + buffer.getInt(entries + middle * entrySize);
+      int end = keys + buffer.getInt(entries + (middle + 1) * entrySize);
+      int comparison = compare(start, end, target);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  private int compare(int start, int end, byte[] target) {
+    int length = Math.min(end - start, target.length);
+    for (int i = 0; i < length; i++) {
+      int comparison = Integer.compare(buffer.get(start + i) & 0xFF, target[i] & 0xFF);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return Integer.compare(end - start, target.length);
+  }
+
+  private byte[] key(int entry, int entries, int entrySize, int keys) {
+    int start = buffer.getInt(entries + entry * entrySize);
+    byte[] bytes = new byte[buffer.getInt(entries + (entry + 1) * entrySize) - start];
+    buffer.get(keys + start, bytes);
+    return bytes;
+  }
+}
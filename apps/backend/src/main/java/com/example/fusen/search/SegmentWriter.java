@@ -0,0 +1,386 @@
+package com.example.fusen.search;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 索引の基底のセグメントと差分を、削除済みの文書を除いて1つのセグメントに書き出す (形式はSegmentを参照)。
+ * 生存している文書に基底・差分の順で連番を振り直すため、どちらの連番も順序を保ったまま詰まる。
+ * 語・trigramは基底の辞書 (並び済み) と差分を並べたものを併合しながら、1つずつポスティングを書く。
+ *
+ * 一時ファイルに書いてfsyncしてから改名するため、途中で止まってもディレクトリには完全なセグメントしか残らない。
+ */
+final class SegmentWriter {
+
+  static final String SUFFIX = ".seg";
+  private static final String TEMPORARY_SUFFIX = ".tmp";
+
+  private SegmentWriter() {
+  }
+
+  // checkpointは、スナップショットに反映済みのbookmark_changes.seq。書き出したファイルのパスを返す
+  static Path write(Path directory, long checkpoint, InvertedIndex.Snapshot inverted, TrigramIndex.Snapshot trigrams)
+      throws IOException {
+    if (inverted.base() != trigrams.base()) {
+      throw new IllegalArgumentException("Snapshots must share the same base segment");
+    }
+    // 名前の順が作成順になるよう、作成時刻を桁をそろえて使う (同じミリ秒に書いたものとは重ならないようにずらす)
+    long createdAt = System.currentTimeMillis();
+    while (Files.exists(directory.resolve(name(createdAt) + SUFFIX))) {
+      createdAt++;
+    }
+    Path temporary = directory.resolve(name(createdAt) + TEMPORARY_SUFFIX);
+    Path file = directory.resolve(name(createdAt) + SUFFIX);
+    try {
+      write(temporary, checkpoint, createdAt, inverted, trigrams);
+      Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+    return file;
+  }
+
+  private static String name(long createdAt) {
+    return String.format("segment-%015d", createdAt);
+  }
+
+  private static void write(Path path, long checkpoint, long createdAt, InvertedIndex.Snapshot inverted,
+      TrigramIndex.Snapshot trigrams) throws IOException {
+    int[] sections = new int[Segment.END + 1];
+    int documents;
+    int terms;
+    int trigramCount;
+    long totalLength = 0;
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+      out.write(new byte[Segment.HEADER_SIZE]);
+
+      // 新しい連番。生存している文書を基底・差分の順に詰める
+      int[] remap = new int[inverted.documents()];
+      documents = 0;
+      for (int ordinal = 0; ordinal < remap.length; ordinal++) {
+        remap[ordinal] = inverted.isLive(ordinal) ? documents++ : -1;
+      }
+      int baseCount = inverted.base() == null ? 0 : inverted.base().documents();
+      int[] trigramRemap = trigramRemap(inverted, trigrams, remap);
+      // 差分の文書の文字列を新しい連番の順に並べる (基底の文書はセグメントから写す)
+      int firstDelta = 0;
+      for (int ordinal = 0; ordinal < baseCount; ordinal++) {
+        firstDelta += remap[ordinal] >= 0 ? 1 : 0;
+      }
+      String[] deltaTexts = new String[documents - firstDelta];
+      for (int ordinal = baseCount; ordinal < trigramRemap.length; ordinal++) {
+        if (trigramRemap[ordinal] >= 0) {
+          deltaTexts[trigramRemap[ordinal] - firstDelta] = trigrams.text(ordinal);
+        }
+      }
+
+      sections[Segment.BOOKMARK_IDS] = out.size();
+      for (int ordinal = 0; ordinal < remap.length; ordinal++) {
+        if (remap[ordinal] >= 0) {
+          out.writeLong(inverted.bookmarkId(ordinal));
+        }
+      }
+      sections[Segment.VERSIONS] = out.size();
+      for (int ordinal = 0; ordinal < remap.length; ordinal++) {
+        if (remap[ordinal] >= 0) {
+          out.writeLong(inverted.version(ordinal));
+        }
+      }
+      sections[Segment.LENGTHS] = out.size();
+      for (int ordinal = 0; ordinal < remap.length; ordinal++) {
+        if (remap[ordinal] >= 0) {
+          out.writeInt(inverted.length(ordinal));
+          totalLength += inverted.length(ordinal);
+        }
+      }
+      sections[Segment.TEXTS] = out.size();
+      int[] textOffsets = new int[documents + 1];
+      for (int ordinal = 0; ordinal < remap.length; ordinal++) {
+        int target = remap[ordinal];
+        if (target < 0) {
+          continue;
+        }
+        textOffsets[target] = out.size() - sections[Segment.TEXTS];
+        if (ordinal < baseCount) {
+          out.write(trigramRemap[ordinal] >= 0 ? inverted.base().textBytes(ordinal) : new byte[0]);
+        } else if (deltaTexts[target - firstDelta] != null) {
+          out.write(deltaTexts[target - firstDelta].getBytes(StandardCharsets.UTF_8));
+        }
+      }
+      textOffsets[documents] = out.size() - sections[Segment.TEXTS];
+      deltaTexts = null;
+      sections[Segment.TEXT_OFFSETS] = out.size();
+      for (int offset : textOffsets) {
+        out.writeInt(offset);
+      }
+
+      sections[Segment.ID_TABLE] = out.size();
+      writeIdTable(out, inverted, remap);
+
+      sections[Segment.POSTINGS] = out.size();
+      terms = writePostings(out, inverted, remap, sections);
+
+      sections[Segment.TRIGRAM_POSTINGS] = out.size();
+      trigramCount = writeTrigrams(out, trigrams, trigramRemap, sections);
+
+      sections[Segment.END] = out.size();
+      if (out.size() == Integer.MAX_VALUE) {
+        throw new IOException("Search segment exceeds 2GB");
+      }
+    }
+
+    ByteBuffer header = ByteBuffer.allocate(Segment.HEADER_SIZE);
+    header.putInt(0, Segment.MAGIC);
+    header.putInt(4, Segment.FORMAT_VERSION);
+    header.putLong(Segment.CHECKPOINT, checkpoint);
+    header.putLong(Segment.CREATED_AT, createdAt);
+    header.putInt(Segment.DOCUMENTS, documents);
+    header.putInt(Segment.TERMS, terms);
+    header.putInt(Segment.TRIGRAMS, trigramCount);
+    header.putLong(Segment.TOTAL_LENGTH, totalLength);
+    for (int section = 0; section <= Segment.END; section++) {
+      header.putInt(Segment.SECTIONS + section * 4, sections[section]);
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+      while (header.hasRemaining()) {
+        channel.write(header, header.position());
+      }
+      channel.force(true);
+    }
+  }
+
+  // trigram索引の連番から新しい連番への対応。基底は共通なので同じ対応を使い、差分はidで突き合わせる
+  private static int[] trigramRemap(InvertedIndex.Snapshot inverted, TrigramIndex.Snapshot trigrams, int[] remap) {
+    int baseCount = inverted.base() == null ? 0 : inverted.base().documents();
+    Map<Long, Integer> deltaOrdinals = new HashMap<>();
+    for (int ordinal = baseCount; ordinal < remap.length; ordinal++) {
+      if (remap[ordinal] >= 0) {
+        deltaOrdinals.put(inverted.bookmarkId(ordinal), remap[ordinal]);
+      }
+    }
+    int[] trigramRemap = new int[baseCount + trigrams.next()];
+    for (int ordinal = 0; ordinal < trigramRemap.length; ordinal++) {
+      if (!trigrams.isLive(ordinal)) {
+        trigramRemap[ordinal] = -1;
+      } else if (ordinal < baseCount) {
+        trigramRemap[ordinal] = remap[ordinal];
+      } else {
+        trigramRemap[ordinal] = deltaOrdinals.getOrDefault(trigrams.bookmarkId(ordinal), -1);
+      }
+    }
+    return trigramRemap;
+  }
+
+  // 基底のid表 (並び済み) と、差分のidを並べたものを併合する
+  private static void writeIdTable(DataOutputStream out, InvertedIndex.Snapshot inverted, int[] remap)
+      throws IOException {
+    Segment base = inverted.base();
+    int baseCount = base == null ? 0 : base.documents();
+    int deltaCount = 0;
+    long[] deltaIds = new long[remap.length - baseCount];
+    Map<Long, Integer> deltaOrdinals = new HashMap<>();
+    for (int ordinal = baseCount; ordinal < remap.length; ordinal++) {
+      if (remap[ordinal] >= 0) {
+        deltaIds[deltaCount++] = inverted.bookmarkId(ordinal);
+        deltaOrdinals.put(inverted.bookmarkId(ordinal), remap[ordinal]);
+      }
+    }
+    Arrays.sort(deltaIds, 0, deltaCount);
+    int i = 0;
+    int j = 0;
+    while (i < baseCount || j < deltaCount) {
+      if (i < baseCount && remap[base.ordinalAt(i)] < 0) {
+        i++;
+        continue;
+      }
+      if (j >= deltaCount || (i < baseCount && base.idAt(i) < deltaIds[j])) {
+        out.writeLong(base.idAt(i));
+        out.writeInt(remap[base.ordinalAt(i)]);
+        i++;
+      } else {
+        out.writeLong(deltaIds[j]);
+        out.writeInt(deltaOrdinals.get(deltaIds[j]));
+        j++;
+      }
+    }
+  }
+
+  private static int writePostings(DataOutputStream out, InvertedIndex.Snapshot inverted, int[] remap,
+      int[] sections) throws IOException {
+    Segment base = inverted.base();
+    int baseCount = base == null ? 0 : base.documents();
+    int baseTerms = base == null ? 0 : base.terms();
+    List<Key<InvertedIndex.Postings>> delta = sortedKeys(inverted.postings());
+    Entries entries = new Entries(3);
+    ByteArrayOutputStream keys = new ByteArrayOutputStream();
+    int start = out.size();
+    int i = 0;
+    int j = 0;
+    while (i < baseTerms || j < delta.size()) {
+      byte[] baseKey = i < baseTerms ? base.termBytes(i) : null;
+      int comparison = baseKey == null ? 1
+          : j == delta.size() ? -1 : Arrays.compareUnsigned(baseKey, delta.get(j).bytes());
+      InvertedIndex.Postings merged = new InvertedIndex.Postings();
+      if (comparison <= 0) {
+        copy(new InvertedIndex.Cursor(base.buffer(), base.postingsOffset(i), base.documentFrequency(i), 0, 0), remap,
+            merged);
+      }
+      if (comparison >= 0) {
+        copy(new InvertedIndex.Cursor(delta.get(j).postings(), baseCount, 0), remap, merged);
+      }
+      byte[] key = comparison <= 0 ? baseKey : delta.get(j).bytes();
+      i += comparison <= 0 ? 1 : 0;
+      j += comparison >= 0 ? 1 : 0;
+      if (merged.size() > 0) {
+        entries.add(keys.size(), out.size() - start, merged.size());
+        keys.write(key);
+        out.write(merged.data(), 0, merged.length());
+      }
+    }
+    entries.add(keys.size(), out.size() - start, 0);
+    sections[Segment.TERM_ENTRIES] = out.size();
+    entries.writeTo(out);
+    sections[Segment.TERM_BYTES] = out.size();
+    keys.writeTo(out);
+    return entries.size() - 1;
+  }
+
+  private static void copy(InvertedIndex.Cursor cursor, int[] remap, InvertedIndex.Postings merged) {
+    while (cursor.next()) {
+      int ordinal = remap[cursor.document()];
+      if (ordinal >= 0) {
+        merged.add(ordinal, cursor.frequency());
+      }
+    }
+  }
+
+  private static int writeTrigrams(DataOutputStream out, TrigramIndex.Snapshot trigrams, int[] remap,
+      int[] sections) throws IOException {
+    Segment base = trigrams.base();
+    int baseCount = base == null ? 0 : base.documents();
+    int baseTrigrams = base == null ? 0 : base.trigrams();
+    List<Key<TrigramIndex.Postings>> delta = sortedKeys(trigrams.postings());
+    Entries entries = new Entries(2);
+    ByteArrayOutputStream keys = new ByteArrayOutputStream();
+    int written = 0;
+    int[] merged = new int[16];
+    int i = 0;
+    int j = 0;
+    while (i < baseTrigrams || j < delta.size()) {
+      byte[] baseKey = i < baseTrigrams ? base.trigramBytes(i) : null;
+      int comparison = baseKey == null ? 1
+          : j == delta.size() ? -1 : Arrays.compareUnsigned(baseKey, delta.get(j).bytes());
+      int size = 0;
+      if (comparison <= 0) {
+        int offset = base.trigramOffset(i);
+        int count = base.trigramSize(i);
+        merged = ensureCapacity(merged, count);
+        for (int k = 0; k < count; k++) {
+          int ordinal = remap[base.buffer().getInt(offset + k * Integer.BYTES)];
+          if (ordinal >= 0) {
+            merged[size++] = ordinal;
+          }
+        }
+      }
+      if (comparison >= 0) {
+        TrigramIndex.Postings postings = delta.get(j).postings();
+        merged = ensureCapacity(merged, size + postings.size());
+        int deltaStart = size;
+        for (int k = 0; k < postings.size(); k++) {
+          int ordinal = remap[baseCount + postings.get(k)];
+          if (ordinal >= 0) {
+            merged[size++] = ordinal;
+          }
+        }
+        // 差分の連番はidで突き合わせて振り直すため、昇順が崩れていれば並べ直す
+        if (!isSorted(merged, deltaStart, size)) {
+          Arrays.sort(merged, deltaStart, size);
+        }
+      }
+      byte[] key = comparison <= 0 ? baseKey : delta.get(j).bytes();
+      i += comparison <= 0 ? 1 : 0;
+      j += comparison >= 0 ? 1 : 0;
+      if (size > 0) {
+        entries.add(keys.size(), written);
+        keys.write(key);
+        for (int k = 0; k < size; k++) {
+          out.writeInt(merged[k]);
+        }
+        written += size;
+      }
+    }
+    entries.add(keys.size(), written);
+    sections[Segment.TRIGRAM_ENTRIES] = out.size();
+    entries.writeTo(out);
+    sections[Segment.TRIGRAM_BYTES] = out.size();
+    keys.writeTo(out);
+    return entries.size() - 1;
+  }
+
+  private static <P> List<Key<P>> sortedKeys(Map<String, P> postings) {
+    List<Key<P>> keys = new ArrayList<>(postings.size());
+    postings.forEach((key, list) -> keys.add(new Key<>(key.getBytes(StandardCharsets.UTF_8), list)));
+    keys.sort((a, b) -> Arrays.compareUnsigned(a.bytes(), b.bytes()));
+    return keys;
+  }
+
+  private static int[] ensureCapacity(int[] array, int capacity) {
+    return capacity <= array.length ? array : Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+  }
+
+  private static boolean isSorted(int[] array, int from, int to) {
+    for (int i = from + 1; i < to; i++) {
+      if (array[i - 1] > array[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private record Key<P>(byte[] bytes, P postings) {
+  }
+
+  // 辞書の各件 (intをwidth個ずつ) を、件数が決まるまでためておく
+  private static final class Entries {
+    private final int width;
+    private int[] values = new int[1024];
+    private int length;
+
+    Entries(int width) {
+      this.width = width;
+    }
+
+    void add(int... entry) {
+      if (length + width > values.length) {
+        values = Arrays.copyOf(values, values.length * 2);
+      }
+      System.arraycopy(entry, 0, values, length, width);
+      length += width;
+    }
+
+    int size() {
+      return length / width;
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+      for (int i = 0; i < length; i++) {
+        out.writeInt(values[i]);
+      }
+    }
+  }
+}
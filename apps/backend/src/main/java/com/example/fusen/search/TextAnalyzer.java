@@ -0,0 +1,128 @@
+package com.example.fusen.search;
+
+import java.lang.Character.UnicodeScript;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 検索用に文字列を語へ分割する。NFKCで正規化 (全角英数・半角カナをそろえる) してから小文字にし、
+ * 漢字・かな・ハングルの連続は隣り合う2文字ずつ (bigram) に、それ以外の文字と数字の連続は1語にする。
+ * 日本語は空白で区切られないため、語ではなく2文字の組で引く ("東京のカフェ" は 東京/京の/のカ/カフ/フェ)。
+ * 1文字だけの連続はその1文字を語とする。
+ * URLはスキームと先頭の "www." を除いてから同じ規則で分割する (ホスト名やパスの各部分が1語になる)。
+ */
+final class TextAnalyzer {
+
+  // base64やハッシュ値など、検索語になりえない長い語は索引に入れない
+  static final int MAX_TOKEN_LENGTH = 64;
+
+  private static final int NONE = 0;
+  private static final int WORD = 1;
+  private static final int CJK = 2;
+
+  private TextAnalyzer() {
+  }
+
+  static List<String> analyze(String text) {
+    List<String> tokens = new ArrayList<>();
+    analyze(text, tokens);
+    return tokens;
+  }
+
+  static void analyze(String text, List<String> tokens) {
+    if (text == null) {
+      return;
+    }
+    String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    int start = 0;
+    int kind = NONE;
+    for (int i = 0; i <= normalized.length(); ) {
+      int codePoint = i < normalized.length() ? normalized.codePointAt(i) : -1;
+      int next = kindOf(codePoint);
+      if (next != kind) {
+        emit(normalized, start, i, kind, tokens);
+        start = i;
+        kind = next;
+      }
+      i += codePoint == -1 ? 1 : Character.charCount(codePoint);
+    }
+  }
+
+  static void analyzeUrl(String url, List<String> tokens) {
+    analyze(stripUrl(url), tokens);
+  }
+
+  // あいまい検索用。analyzeと同じく正規化して小文字にし、文字と数字以外の連続を1つの空白に置き換える
+  static String normalize(String text) {
+    if (text == null) {
+      return "";
+    }
+    String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    StringBuilder words = new StringBuilder(normalized.length());
+    for (int i = 0; i < normalized.length(); ) {
+      int codePoint = normalized.codePointAt(i);
+      if (kindOf(codePoint) != NONE) {
+        words.appendCodePoint(codePoint);
+      } else if (!words.isEmpty() && words.charAt(words.length() - 1) != ' ') {
+        words.append(' ');
+      }
+      i += Character.charCount(codePoint);
+    }
+    if (!words.isEmpty() && words.charAt(words.length() - 1) == ' ') {
+      words.setLength(words.length() - 1);
+    }
+    return words.toString();
+  }
+
+  // スキームと先頭の "www." を除く
+  static String stripUrl(String url) {
+    if (url == null) {
+      return null;
+    }
+    int scheme = url.indexOf("://");
+    String rest = scheme < 0 ? url : url.substring(scheme + 3);
+    if (rest.regionMatches(true, 0, "www.", 0, 4)) {
+      rest = rest.substring(4);
+    }
+    return rest;
+  }
+
+  private static void emit(String text, int start, int end, int kind, List<String> tokens) {
+    if (kind == WORD) {
+      if (end - start <= MAX_TOKEN_LENGTH) {
+        tokens.add(text.substring(start, end));
+      }
+    } else if (kind == CJK) {
+      int second = text.offsetByCodePoints(start, 1);
+      if (second == end) {
+        tokens.add(text.substring(start, end));
+        return;
+      }
+      for (int first = start; second < end; ) {
+        int third = second + Character.charCount(text.codePointAt(second));
+        tokens.add(text.substring(first, third));
+        first = second;
+        second = third;
+      }
+    }
+  }
+
+  private static int kindOf(int codePoint) {
+    if (codePoint == -1) {
+      return NONE;
+    }
+    // 長音符 (ー) は文字ではなく記号扱いのスクリプト (COMMON) だが、カタカナ語の一部として扱う
+    if (codePoint == 'ー') {
+      return CJK;
+    }
+    if (!Character.isLetterOrDigit(codePoint)) {
+      return NONE;
+    }
+    return switch (UnicodeScript.of(codePoint)) {
+      case HAN, HIRAGANA, KATAKANA, HANGUL -> CJK;
+      default -> WORD;
+    };
+  }
+}
@@ -0,0 +1,531 @@
+package com.example.fusen.search;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * 3文字の組 (trigram) からブックマークを引く、うろ覚え・打ち間違い向けのあいまい検索索引。
+ *
+ * 文書はTextAnalyzer.normalizeでそろえた文字列を前後に空白を足して3文字ずつ区切り、各trigramのポスティング (連番の昇順のint配列) に入れる。
+ * 検索語と文書の部分文字列との編集距離が上限以内のものを、距離の小さい順 (同じなら共有するtrigramの多い順、
+ * それも同じなら新しく索引に入った順) に上位k件まで返す。
+ *
+ * 編集1回で壊れる検索語のtrigramは高々3つのため、距離d以内の文書は検索語のT個のtrigramのうち T - 3d 個以上を含む (q-gram lemma)。
+ * この下限をmとすると、該当する文書は短いほうから T - m + 1 本のポスティングのどれかに必ず現れる。
+ * 候補はその短いポスティングの併合だけで集め、残りの長いポスティングには二分探索で含まれるかを確かめる。
+ * 下限を満たした候補だけ編集距離を計算する。
+ * ポスティングは連番の降順 (新しい順) にたどる。共有数から距離の下限がわかるため、上位k件に入りえない候補は編集距離を計算せず、
+ * 残りのどの文書も上位k件を上回れなくなった時点で打ち切る。
+ * 短い検索語では T - 3d が1未満になり下限が効かないため、trigramを1つも共有しない文書 (どの3文字にも編集が入ったもの) は返さない。
+ *
+ * 連番・生存ビット・詰め直しと、基底のセグメントと差分の扱いはInvertedIndexと同じ。
+ * 基底のポスティングは差分より前の連番のため、2つをつないだものを1本のポスティングとして扱う。
+ * スレッドセーフではない (BookmarkSearchIndexが読み書きロックで守る)。
+ */
+final class TrigramIndex {
+
+  static final int MAX_EDITS = 3;
+
+  private static final int MIN_DEAD_TO_COMPACT = 1024;
+  private static final int INITIAL_CAPACITY = 1024;
+
+  // 順位の低い (距離が大きい、共有するtrigramが少ない、同点なら連番が小さい) ものが先頭に来る順序
+  private static final Comparator<Candidate> WORST_FIRST = Comparator.comparingInt(Candidate::distance).reversed()
+      .thenComparingInt(Candidate::shared)
+      .thenComparingInt(Candidate::ordinal);
+
+  private final Segment base;
+  private final int baseCount;
+  private final BitSet baseDeleted = new BitSet();
+  private int baseLiveCount;
+
+  private final Map<String, Postings> postings = new HashMap<>();
+  private final Map<Long, Integer> ordinals = new HashMap<>();
+  private final BitSet live = new BitSet();
+  private long[] bookmarkIds = new long[INITIAL_CAPACITY];
+  // 編集距離の確認に使う、正規化済みの文字列
+  private String[] texts = new String[INITIAL_CAPACITY];
+  private int next;
+  private int liveCount;
+  private boolean compactionSuspended;
+
+  record Hit(long bookmarkId, int distance, int shared) {
+  }
+
+  private record Candidate(int ordinal, int distance, int shared) {
+  }
+
+  // セグメントへ書き出すための、ある時点の内容 (InvertedIndex.Snapshotと同じ)。削除で消える文字列の配列だけは複製する
+  record Snapshot(Segment base, BitSet baseDeleted, BitSet live, int next, long[] bookmarkIds, String[] texts,
+      Map<String, Postings> postings) {
+
+    boolean isLive(int ordinal) {
+      int baseCount = baseCount(base);
+      return ordinal < baseCount ? !baseDeleted.get(ordinal) : live.get(ordinal - baseCount);
+    }
+
+    long bookmarkId(int ordinal) {
+      int baseCount = baseCount(base);
+      return ordinal < baseCount ? base.bookmarkId(ordinal) : bookmarkIds[ordinal - baseCount];
+    }
+
+    String text(int ordinal) {
+      int baseCount = baseCount(base);
+      return ordinal < baseCount ? base.text(ordinal) : texts[ordinal - baseCount];
+    }
+  }
+
+  TrigramIndex() {
+    this(null);
+  }
+
+  TrigramIndex(Segment base) {
+    this.base = base;
+    this.baseCount = baseCount(base);
+    this.baseLiveCount = baseCount;
+  }
+
+  int size() {
+    return baseLiveCount + liveCount;
+  }
+
+  // 基底と差分の両方にあるtrigramは2回数える
+  int terms() {
+    return (base == null ? 0 : base.trigrams()) + postings.size();
+  }
+
+  // 許す編集距離。短い検索語ほど少なくし、ほとんど何にでも一致するのを防ぐ
+  static int maxEdits(int length) {
+    return Math.min(MAX_EDITS, Math.max(1, length / 4));
+  }
+
+  // textはTextAnalyzer.normalize済みのもの。同じidの文書は置き換える (新旧の判定は呼び出し側で行う)
+  void put(long bookmarkId, String text) {
+    Integer current = ordinals.get(bookmarkId);
+    if (current != null) {
+      kill(current);
+    } else {
+      killBase(baseOrdinalOf(bookmarkId));
+    }
+    if (next == bookmarkIds.length) {
+      int capacity = next + (next >> 1);
+      bookmarkIds = Arrays.copyOf(bookmarkIds, capacity);
+      texts = Arrays.copyOf(texts, capacity);
+    }
+    int ordinal = next++;
+    for (String trigram : trigrams(" " + text + " ")) {
+      postings.computeIfAbsent(trigram, key -> new Postings()).add(ordinal);
+    }
+    bookmarkIds[ordinal] = bookmarkId;
+    texts[ordinal] = text;
+    live.set(ordinal);
+    liveCount++;
+    ordinals.put(bookmarkId, ordinal);
+    compactIfSparse();
+  }
+
+  boolean remove(long bookmarkId) {
+    Integer ordinal = ordinals.remove(bookmarkId);
+    if (ordinal == null) {
+      return killBase(baseOrdinalOf(bookmarkId));
+    }
+    kill(ordinal);
+    compactIfSparse();
+    return true;
+  }
+
+  Snapshot snapshot() {
+    compactionSuspended = true;
+    Map<String, Postings> frozen = new HashMap<>();
+    postings.forEach((trigram, list) -> frozen.put(trigram, list.frozen()));
+    return new Snapshot(base, (BitSet) baseDeleted.clone(), (BitSet) live.clone(), next, bookmarkIds,
+        Arrays.copyOf(texts, next), frozen);
+  }
+
+  void resumeCompaction() {
+    compactionSuspended = false;
+    compactIfSparse();
+  }
+
+  // queryに近い部分を含む文書を、編集距離の小さい順にk件まで返す。3文字未満の検索語では何も返さない
+  List<Hit> search(String query, int k) {
+    String pattern = TextAnalyzer.normalize(query);
+    if (k <= 0 || pattern.length() < 3 || size() == 0) {
+      return List.of();
+    }
+    int maxEdits = maxEdits(pattern.length());
+    Set<String> queryTrigrams = trigrams(pattern);
+    int minShared = Math.max(1, queryTrigrams.size() - 3 * maxEdits);
+    List<PostingsView> lists = new ArrayList<>();
+    for (String trigram : queryTrigrams) {
+      Postings list = postings.get(trigram);
+      int entry = base == null ? -1 : base.findTrigram(trigram);
+      if (list != null || entry >= 0) {
+        lists.add(new PostingsView(entry < 0 ? null : base, entry, list, baseCount));
+      }
+    }
+    if (lists.size() < minShared) {
+      return List.of();
+    }
+    lists.sort(Comparator.comparingInt(list -> list.size));
+    // 候補を集める短いポスティング [0, candidateLists) と、含まれるかだけを確かめる長いポスティング
+    int candidateLists = lists.size() - minShared + 1;
+    // 残りの文書が取りうる最良の順位 (全ポスティングに現れ、距離が共有数から決まる下限に等しい)
+    int bestDistance = lowerBound(queryTrigrams.size(), lists.size());
+    int[] positions = new int[lists.size()];
+    for (int i = 0; i < positions.length; i++) {
+      positions[i] = lists.get(i).size - 1;
+    }
+    PatternMask mask = pattern.length() <= Long.SIZE ? new PatternMask(pattern) : null;
+    PriorityQueue<Candidate> top = new PriorityQueue<>(k + 1, WORST_FIRST);
+    while (true) {
+      if (top.size() == k && top.peek().distance() <= bestDistance && top.peek().shared() >= lists.size()) {
+        break;
+      }
+      int document = -1;
+      for (int i = 0; i < candidateLists; i++) {
+        if (positions[i] >= 0) {
+          document = Math.max(document, lists.get(i).get(positions[i]));
+        }
+      }
+      if (document < 0) {
+        break;
+      }
+      int shared = 0;
+      for (int i = 0; i < candidateLists; i++) {
+        if (positions[i] >= 0 && lists.get(i).get(positions[i]) == document) {
+          positions[i]--;
+          shared++;
+        }
+      }
+      if (!isLive(document)) {
+        continue;
+      }
+      // 候補は連番の降順に現れるため、長いポスティングも前回の位置より手前だけを探せばよい
+      for (int i = candidateLists; i < lists.size() && shared + lists.size() - i >= minShared; i++) {
+        int found = lists.get(i).binarySearch(positions[i] + 1, document);
+        if (found >= 0) {
+          positions[i] = found - 1;
+          shared++;
+        } else {
+          positions[i] = -found - 2;
+        }
+      }
+      if (shared < minShared) {
+        continue;
+      }
+      int lowerBound = lowerBound(queryTrigrams.size(), shared);
+      if (top.size() == k && !canBeat(lowerBound, shared, top.peek())) {
+        continue;
+      }
+      int distance = distance(pattern, mask, text(document), maxEdits);
+      if (distance <= maxEdits) {
+        offer(top, new Candidate(document, distance, shared), k);
+      }
+    }
+    List<Candidate> candidates = new ArrayList<>(top);
+    candidates.sort(WORST_FIRST.reversed());
+    return candidates.stream()
+        .map(candidate -> new Hit(bookmarkId(candidate.ordinal()), candidate.distance(), candidate.shared()))
+        .toList();
+  }
+
+  // T個のtrigramのうちshared個を共有する文書の、編集距離の下限
+  private static int lowerBound(int trigrams, int shared) {
+    return (trigrams - shared + 2) / 3;
+  }
+
+  // 距離の下限と共有数から、上位k件の最下位を上回る余地があるか。同点なら連番の大きい最下位が勝つ
+  private static boolean canBeat(int lowerBound, int shared, Candidate worst) {
+    return lowerBound < worst.distance() || (lowerBound == worst.distance() && shared > worst.shared());
+  }
+
+  /**
+   * patternとtextのいずれかの部分文字列との編集距離の最小値。maxEditsを超える場合はmaxEdits + 1を返す。
+   * 64文字以内のpatternはビット並列 (Myers) で、textの1文字あたり定数回の演算で求める。
+   */
+  static int substringDistance(String pattern, String text, int maxEdits) {
+    PatternMask mask = pattern.length() <= Long.SIZE ? new PatternMask(pattern) : null;
+    return distance(pattern, mask, text, maxEdits);
+  }
+
+  private static int distance(String pattern, PatternMask mask, String text, int maxEdits) {
+    int distance = mask != null ? bitParallelDistance(mask, text) : tableDistance(pattern, text);
+    return Math.min(distance, maxEdits + 1);
+  }
+
+  // Myersの方法。patternの各位置について、表の縦方向の差分 (+1/-1) をビット列Pv/Mvで持ち、textの1文字ごとにまとめて更新する
+  private static int bitParallelDistance(PatternMask mask, String text) {
+    int length = mask.length;
+    if (length == 0) {
+      return 0;
+    }
+    long last = 1L << (length - 1);
+    long pv = -1L;
+    long mv = 0;
+    int score = length;
+    int best = length;
+    for (int j = 0; j < text.length() && best > 0; j++) {
+      long eq = mask.of(text.charAt(j));
+      long xv = eq | mv;
+      long xh = (((eq & pv) + pv) ^ pv) | eq;
+      long ph = mv | ~(xh | pv);
+      long mh = pv & xh;
+      if ((ph & last) != 0) {
+        score++;
+      } else if ((mh & last) != 0) {
+        score--;
+      }
+      // 部分文字列はtextのどこから始めてもよいので、先頭行の差分は常に0 (シフトで入るビットは0のまま)
+      ph <<= 1;
+      mh <<= 1;
+      pv = mh | ~(xv | ph);
+      mv = ph & xv;
+      best = Math.min(best, score);
+    }
+    return best;
+  }
+
+  // 表を1列ずつ埋める方法 (Sellers)。ビット列に収まらない長いpattern用
+  private static int tableDistance(String pattern, String text) {
+    int length = pattern.length();
+    // row[i]: patternの先頭i文字と、textの現在位置で終わる部分文字列との編集距離の最小値
+    int[] row = new int[length + 1];
+    for (int i = 0; i <= length; i++) {
+      row[i] = i;
+    }
+    int best = length;
+    for (int j = 0; j < text.length() && best > 0; j++) {
+      char c = text.charAt(j);
+      // 部分文字列はtextのどこから始めてもよいので、row[0] は常に0
+      int diagonal = 0;
+      for (int i = 1; i <= length; i++) {
+        int above = row[i];
+        int substitution = diagonal + (pattern.charAt(i - 1) == c ? 0 : 1);
+        row[i] = Math.min(substitution, Math.min(above, row[i - 1]) + 1);
+        diagonal = above;
+      }
+      best = Math.min(best, row[length]);
+    }
+    return best;
+  }
+
+  private static Set<String> trigrams(String text) {
+    Set<String> trigrams = new LinkedHashSet<>();
+    for (int i = 0; i + 3 <= text.length(); i++) {
+      trigrams.add(text.substring(i, i + 3));
+    }
+    return trigrams;
+  }
+
+  private static void offer(PriorityQueue<Candidate> top, Candidate candidate, int k) {
+    if (top.size() < k) {
+      top.add(candidate);
+    } else if (WORST_FIRST.compare(candidate, top.peek()) > 0) {
+      top.poll();
+      top.add(candidate);
+    }
+  }
+
+  private boolean isLive(int ordinal) {
+    return ordinal < baseCount ? !baseDeleted.get(ordinal) : live.get(ordinal - baseCount);
+  }
+
+  private long bookmarkId(int ordinal) {
+    return ordinal < baseCount ? base.bookmarkId(ordinal) : bookmarkIds[ordinal - baseCount];
+  }
+
+  private String text(int ordinal) {
+    return ordinal < baseCount ? base.text(ordinal) : texts[ordinal - baseCount];
+  }
+
+  private int baseOrdinalOf(long bookmarkId) {
+    if (base == null) {
+      return -1;
+    }
+    int ordinal = base.ordinalOf(bookmarkId);
+    return ordinal >= 0 && !baseDeleted.get(ordinal) ? ordinal : -1;
+  }
+
+  private static int baseCount(Segment base) {
+    return base == null ? 0 : base.documents();
+  }
+
+  private void kill(int ordinal) {
+    live.clear(ordinal);
+    liveCount--;
+    texts[ordinal] = null;
+  }
+
+  private boolean killBase(int ordinal) {
+    if (ordinal < 0) {
+      return false;
+    }
+    baseDeleted.set(ordinal);
+    baseLiveCount--;
+    return true;
+  }
+
+  private void compactIfSparse() {
+    int dead = next - liveCount;
+    if (compactionSuspended || dead < MIN_DEAD_TO_COMPACT || dead <= liveCount) {
+      return;
+    }
+    int[] remap = new int[next];
+    int size = 0;
+    for (int ordinal = 0; ordinal < next; ordinal++) {
+      if (!live.get(ordinal)) {
+        remap[ordinal] = -1;
+        continue;
+      }
+      remap[ordinal] = size;
+      bookmarkIds[size] = bookmarkIds[ordinal];
+      texts[size] = texts[ordinal];
+      size++;
+    }
+    Arrays.fill(texts, size, next, null);
+    postings.values().removeIf(list -> list.compact(remap) == 0);
+    ordinals.replaceAll((bookmarkId, ordinal) -> remap[ordinal]);
+    live.clear();
+    live.set(0, size);
+    next = size;
+  }
+
+  // 文字ごとの、patternでその文字が現れる位置のビット列。ASCIIは表で、それ以外はpatternに現れる文字だけを並べて引く
+  private static final class PatternMask {
+    private final int length;
+    private final long[] ascii = new long[128];
+    private final char[] others;
+    private final long[] otherMasks;
+    private int otherCount;
+
+    PatternMask(String pattern) {
+      length = pattern.length();
+      others = new char[pattern.length()];
+      otherMasks = new long[pattern.length()];
+      for (int i = 0; i < pattern.length(); i++) {
+        char c = pattern.charAt(i);
+        if (c < 128) {
+          ascii[c] |= 1L << i;
+          continue;
+        }
+        int index = indexOf(c);
+        if (index < 0) {
+          index = otherCount++;
+          others[index] = c;
+        }
+        otherMasks[index] |= 1L << i;
+      }
+    }
+
+    long of(char c) {
+      if (c < 128) {
+        return ascii[c];
+      }
+      int index = indexOf(c);
+      return index < 0 ? 0 : otherMasks[index];
+    }
+
+    private int indexOf(char c) {
+      for (int i = 0; i < otherCount; i++) {
+        if (others[i] == c) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
+
+  // 1つのtrigramを含む文書の連番。昇順に並び、二分探索できるようにint配列のまま持つ
+  static final class Postings {
+    private int[] documents = new int[2];
+    private int size;
+
+    int size() {
+      return size;
+    }
+
+    int get(int index) {
+      return documents[index];
+    }
+
+    // 現時点の長さで固定した写し (InvertedIndex.Postings.frozenと同じ)
+    Postings frozen() {
+      Postings frozen = new Postings();
+      frozen.documents = documents;
+      frozen.size = size;
+      return frozen;
+    }
+
+    void add(int ordinal) {
+      if (size == documents.length) {
+        documents = Arrays.copyOf(documents, size + (size >> 1) + 1);
+      }
+      documents[size++] = ordinal;
+    }
+
+    // 削除済みを除いて連番を振り直す。残った件数を返す
+    int compact(int[] remap) {
+      int kept = 0;
+      for (int i = 0; i < size; i++) {
+        int ordinal = remap[documents[i]];
+        if (ordinal >= 0) {
+          documents[kept++] = ordinal;
+        }
+      }
+      size = kept;
+      documents = Arrays.copyOf(documents, Math.max(kept, 1));
+      return kept;
+    }
+  }
+
+  // 1つのtrigramの、基底のポスティング (セグメント上のint) と差分のポスティングを連番の昇順につないだもの
+  private static final class PostingsView {
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int baseSize;
+    private final int[] documents;
+    private final int first;
+    private final int size;
+
+    PostingsView(Segment base, int entry, Postings delta, int first) {
+      this.buffer = base == null ? null : base.buffer();
+      this.offset = base == null ? 0 : base.trigramOffset(entry);
+      this.baseSize = base == null ? 0 : base.trigramSize(entry);
+      this.documents = delta == null ? null : delta.documents;
+      this.first = first;
+      this.size = baseSize + (delta == null ? 0 : delta.size);
+    }
+
+    int get(int index) {
+      return index < baseSize ? buffer.getInt(offset + index * Integer.BYTES) : documents[index - baseSize] + first;
+    }
+
+    // Arrays.binarySearchと同じく、[0, to) にdocumentがあればその位置を、なければ -(挿入位置) - 1 を返す
+    int binarySearch(int to, int document) {
+      int low = 0;
+      int high = to - 1;
+      while (low <= high) {
+        int middle = (low + high) >>> 1;
+        int value = get(middle);
+        if (value < document) {
+          low = middle + 1;
+        } else if (value > document) {
+          high = middle - 1;
+        } else {
+          return middle;
+        }
+      }
+      return -(low + 1);
+    }
+  }
+}
@@ -2,25 +2,48 @@ package com.example.fusen.service;
 
 import java.net.MalformedURLException;
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.seasar.doma.jdbc.SelectOptions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.fusen.cache.BookmarkCache;
+import com.example.fusen.cache.TagCache;
+import com.example.fusen.dao.BookmarkChangeDao;
 import com.example.fusen.dao.BookmarkDao;
 import com.example.fusen.dao.BookmarkTagDao;
 import com.example.fusen.dao.TagDao;
+import com.example.fusen.dto.BookmarkCursor;
+import com.example.fusen.dto.TagFilter;
 import com.example.fusen.entity.Bookmark;
+import com.example.fusen.entity.BookmarkChange;
+import com.example.fusen.entity.BookmarkTag;
 import com.example.fusen.entity.Tag;
 import com.example.fusen.exception.BookmarkNotFoundException;
 import com.example.fusen.exception.DuplicateUrlException;
 import com.example.fusen.exception.InvalidUrlException;
+import com.example.fusen.exception.VersionConflictException;
+import com.example.fusen.search.BookmarkSearchIndex;
+import com.example.fusen.util.UrlHash;
 
 @Service
 @Transactional
@@ -29,76 +52,254 @@ public class BookmarkService {
   private final BookmarkDao bookmarkRepository;
   private final TagDao tagRepository;
   private final BookmarkTagDao bookmarkTagRepository;
+  private final TagCache tagCache;
+  private final BookmarkCache bookmarkCache;
+  private final BookmarkChangeDao bookmarkChangeRepository;
+  private final BookmarkSearchIndex bookmarkSearchIndex;
 
   @Autowired
-  public BookmarkService(BookmarkDao bookmarkRepository, TagDao tagRepository, BookmarkTagDao bookmarkTagRepository) {
+  public BookmarkService(BookmarkDao bookmarkRepository, TagDao tagRepository, BookmarkTagDao bookmarkTagRepository,
+      TagCache tagCache, BookmarkCache bookmarkCache, BookmarkChangeDao bookmarkChangeRepository,
+      BookmarkSearchIndex bookmarkSearchIndex) {
     this.bookmarkRepository = bookmarkRepository;
     this.tagRepository = tagRepository;
     this.bookmarkTagRepository = bookmarkTagRepository;
+    this.tagCache = tagCache;
+    this.bookmarkCache = bookmarkCache;
+    this.bookmarkChangeRepository = bookmarkChangeRepository;
+    this.bookmarkSearchIndex = bookmarkSearchIndex;
   }
 
   public List<Bookmark> findAll(int limit, int offset) {
     SelectOptions options = SelectOptions.get().limit(limit).offset(offset);
     List<Bookmark> bookmarks = bookmarkRepository.findAll(options);
-    // Load tags for each bookmark
-    for (Bookmark bookmark : bookmarks) {
-      List<Tag> tags = bookmarkTagRepository.findTagsByBookmarkId(bookmark.getId());
-      bookmark.setTags(new HashSet<>(tags));
+    loadTags(bookmarks);
+    return bookmarks;
+  }
+
+  public List<Bookmark> findAllAfter(BookmarkCursor after, int limit) {
+    SelectOptions options = SelectOptions.get().limit(limit);
+    List<Bookmark> bookmarks = after == null
+        ? bookmarkRepository.findAllAfter(null, null, options)
+        : bookmarkRepository.findAllAfter(after.createdAt(), after.id(), options);
+    loadTags(bookmarks);
+    return bookmarks;
+  }
+
+  public List<Bookmark> findByTags(TagFilter filter, int limit, int offset) {
+    Optional<TagIds> tagIds = resolveTagIds(filter);
+    if (tagIds.isEmpty()) {
+      return List.of();
     }
+    List<Bookmark> bookmarks = bookmarkRepository.findByTags(tagIds.get().required(), tagIds.get().matchAll(),
+        tagIds.get().excluded(), false, null, null, SelectOptions.get().limit(limit).offset(offset));
+    loadTags(bookmarks);
+    return bookmarks;
+  }
+
+  public List<Bookmark> findByTagsAfter(TagFilter filter, BookmarkCursor after, int limit) {
+    Optional<TagIds> tagIds = resolveTagIds(filter);
+    if (tagIds.isEmpty()) {
+      return List.of();
+    }
+    List<Bookmark> bookmarks = bookmarkRepository.findByTags(tagIds.get().required(), tagIds.get().matchAll(),
+        tagIds.get().excluded(), true, after == null ? null : after.createdAt(), after == null ? null : after.id(),
+        SelectOptions.get().limit(limit));
+    loadTags(bookmarks);
     return bookmarks;
   }
 
   public Bookmark findById(Long id) {
+    Optional<Bookmark> cached = bookmarkCache.get(id);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+    long generation = bookmarkCache.generation();
     Bookmark bookmark = bookmarkRepository.findById(id)
         .orElseThrow(() -> new BookmarkNotFoundException("Bookmark not found with id: " + id));
     // Load tags for the bookmark
     List<Tag> tags = bookmarkTagRepository.findTagsByBookmarkId(bookmark.getId());
     bookmark.setTags(new HashSet<>(tags));
+    bookmarkCache.putAfterCommit(bookmark, generation);
     return bookmark;
   }
 
+  public List<Bookmark> search(String query, int limit) {
+    return findRanked(bookmarkSearchIndex.search(query, limit));
+  }
+
+  public List<Bookmark> fuzzySearch(String query, int limit) {
+    return findRanked(bookmarkSearchIndex.fuzzySearch(query, limit));
+  }
+
+  // Loads the ids ranked by the search index, from the cache where possible and the rest in one query, in rank order
+  private List<Bookmark> findRanked(List<Long> ids) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    Map<Long, Bookmark> found = new HashMap<>();
+    List<Long> missing = new ArrayList<>();
+    for (Long id : ids) {
+      bookmarkCache.get(id).ifPresentOrElse(bookmark -> found.put(id, bookmark), () -> missing.add(id));
+    }
+    if (!missing.isEmpty()) {
+      long generation = bookmarkCache.generation();
+      List<Bookmark> loaded = bookmarkRepository.findByIds(missing);
+      loadTags(loaded);
+      for (Bookmark bookmark : loaded) {
+        bookmarkCache.putAfterCommit(bookmark, generation);
+        found.put(bookmark.getId(), bookmark);
+      }
+    }
+    // Between a delete commit and its removal from the index, an id may exist only in the index
+    return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+  }
+
+  // Only the version, so that an ETag match skips loading tags and building the response
+  public Long findVersionById(Long id) {
+    Optional<Long> cached = bookmarkCache.version(id);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+    return bookmarkRepository.findVersionById(id)
+        .orElseThrow(() -> new BookmarkNotFoundException("Bookmark not found with id: " + id));
+  }
+
+  // Counter bumped by every create, update and delete (the list ETag); unaffected by pruning the change log
+  public Long collectionVersion() {
+    return bookmarkChangeRepository.selectCollectionVersion();
+  }
+
+  // Passes every bookmark to the sink one at a time. Bookmarks and tags are read through two cursors ordered by
+  // bookmark_id and merge-joined, so memory use does not grow with the row count. Both cursors share one read-only
+  // transaction. With afterId, only later ids are passed (to resume an interrupted export)
+  @Transactional(readOnly = true)
+  public void exportAll(Long afterId, Consumer<Bookmark> sink) {
+    bookmarkRepository.streamAll(afterId, bookmarks -> bookmarkTagRepository.streamAllWithTagName(afterId,
+        bookmarkTags -> mergeTags(bookmarks, bookmarkTags, sink)));
+  }
+
   public Bookmark create(Bookmark bookmark) {
     validateUrl(bookmark.getUrl());
-    if (bookmarkRepository.existsByUrl(bookmark.getUrl())) {
+    // The unique constraint on url_hash is the duplicate check; no pre-check query, no race between check and insert
+    try {
+      bookmarkRepository.insert(bookmark);
+    } catch (DuplicateKeyException e) {
       throw new DuplicateUrlException("Bookmark with URL already exists: " + bookmark.getUrl());
     }
     Set<Tag> managedTags = getOrCreateTags(bookmark.getTags());
     bookmark.setTags(managedTags);
-    bookmarkRepository.insert(bookmark);
-    
+
     // Save bookmark-tag relationships
     saveBookmarkTagRelationships(bookmark.getId(), managedTags);
+    recordChange(bookmark.getId(), BookmarkChange.Type.CREATED);
+    bookmarkSearchIndex.indexAfterCommit(List.of(bookmark));
     return bookmark;
   }
 
+  /**
+   * Bulk import of one chunk in one transaction. URLs must be valid and unique within the chunk.
+   * Bookmarks whose URL is already registered are skipped and returned; the rest are written with JDBC batches.
+   */
+  public List<Bookmark> importBatch(List<Bookmark> bookmarks) {
+    if (bookmarks.isEmpty()) {
+      return List.of();
+    }
+    List<Long> urlHashes = bookmarks.stream().map(bookmark -> UrlHash.of(bookmark.getUrl())).toList();
+    // Compare the URLs themselves; a URL whose hash collides with another one is rejected by the unique index
+    Set<String> registered = new HashSet<>(bookmarkRepository.findUrlsByUrlHashes(urlHashes));
+    List<Bookmark> duplicates = new ArrayList<>();
+    List<Bookmark> fresh = new ArrayList<>();
+    for (Bookmark bookmark : bookmarks) {
+      (registered.contains(bookmark.getUrl()) ? duplicates : fresh).add(bookmark);
+    }
+    if (fresh.isEmpty()) {
+      return duplicates;
+    }
+    bookmarkRepository.insertAll(fresh);
+
+    // Resolve the tags of the whole chunk at once
+    Set<Tag> requestedTags = new HashSet<>();
+    fresh.forEach(bookmark -> requestedTags.addAll(bookmark.getTags()));
+    // Case-insensitive like the tags.name collation in MySQL
+    Map<String, Tag> tagsByName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    getOrCreateTags(requestedTags).forEach(tag -> tagsByName.putIfAbsent(tag.getName(), tag));
+    List<BookmarkTag> links = new ArrayList<>();
+    List<BookmarkChange> changes = new ArrayList<>(fresh.size());
+    for (Bookmark bookmark : fresh) {
+      Set<Tag> managedTags = new HashSet<>();
+      for (Tag tag : bookmark.getTags()) {
+        Tag managed = tagsByName.get(tag.getName());
+        if (managedTags.add(managed)) {
+          links.add(BookmarkTag.builder().bookmarkId(bookmark.getId()).tagId(managed.getId()).build());
+        }
+      }
+      bookmark.setTags(managedTags);
+      changes.add(BookmarkChange.builder().bookmarkId(bookmark.getId()).changeType(BookmarkChange.Type.CREATED).build());
+    }
+    if (!links.isEmpty()) {
+      bookmarkTagRepository.insertAll(links);
+    }
+    bookmarkChangeRepository.insertAll(changes);
+    bookmarkChangeRepository.incrementCollectionVersion();
+    bookmarkSearchIndex.indexAfterCommit(fresh);
+    return duplicates;
+  }
+
   public Bookmark update(Bookmark bookmark) {
-    if (bookmarkRepository.findById(bookmark.getId()).isEmpty()) {
+    validateUrl(bookmark.getUrl());
+    if (bookmark.getVersion() != null) {
+      return updateIfVersionMatches(bookmark);
+    }
+    // Check existence and URL conflicts in one query
+    Bookmark current = null;
+    boolean duplicateUrl = false;
+    for (Bookmark found : bookmarkRepository.findByIdOrUrl(bookmark.getId(), bookmark.getUrl())) {
+      if (found.getId().equals(bookmark.getId())) {
+        current = found;
+      } else {
+        duplicateUrl = true;
+      }
+    }
+    if (current == null) {
       throw new BookmarkNotFoundException("Bookmark not found with id: " + bookmark.getId());
     }
-    validateUrl(bookmark.getUrl());
-    // Check for duplicate URL only if the URL is changed and it's not the current
-    // bookmark's URL
-    Optional<Bookmark> existingBookmarkWithUrl = bookmarkRepository.findByUrl(bookmark.getUrl());
-    if (existingBookmarkWithUrl.isPresent() && !existingBookmarkWithUrl.get().getId().equals(bookmark.getId())) {
+    if (duplicateUrl) {
       throw new DuplicateUrlException("Bookmark with URL already exists: " + bookmark.getUrl());
     }
 
     Set<Tag> managedTags = getOrCreateTags(bookmark.getTags());
+    Set<Long> currentTagIds = new HashSet<>(bookmarkTagRepository.findTagIdsByBookmarkId(bookmark.getId()));
+
     bookmark.setTags(managedTags);
-    bookmarkRepository.update(bookmark);
-    
-    // Update bookmark-tag relationships
-    bookmarkTagRepository.deleteByBookmarkId(bookmark.getId());
-    saveBookmarkTagRelationships(bookmark.getId(), managedTags);
+    bookmark.setCreatedAt(current.getCreatedAt());
+    bookmark.setVersion(current.getVersion());
+    if (!hasChanges(current, bookmark) && currentTagIds.equals(tagIds(managedTags))) {
+      // Nothing changed: skip all writes
+      bookmark.setUpdatedAt(current.getUpdatedAt());
+      return bookmark;
+    }
+
+    // The version read above guards against edits made since the read
+    if (updateOrThrowDuplicate(bookmark) == 0) {
+      throw new VersionConflictException("Bookmark has been modified by another request: " + bookmark.getId());
+    }
+    bookmark.setVersion(current.getVersion() + 1);
+    reconcileTags(bookmark.getId(), managedTags, currentTagIds);
+    recordChange(bookmark.getId(), BookmarkChange.Type.UPDATED);
+    bookmarkSearchIndex.indexAfterCommit(List.of(bookmark));
     return bookmark;
   }
 
-  public void delete(Long id) {
-    Bookmark bookmark = bookmarkRepository.findById(id)
-        .orElseThrow(() -> new BookmarkNotFoundException("Bookmark not found with id: " + id));
-    // Delete bookmark-tag relationships first
-    bookmarkTagRepository.deleteByBookmarkId(id);
-    bookmarkRepository.delete(bookmark);
+  public void delete(Long id, Long version) {
+    // Conditional delete in one statement; bookmark_tags rows are removed by ON DELETE CASCADE
+    if (bookmarkRepository.deleteById(id, version) == 0) {
+      throw version == null
+          ? new BookmarkNotFoundException("Bookmark not found with id: " + id)
+          : notFoundOrConflict(id);
+    }
+    recordChange(id, BookmarkChange.Type.DELETED);
+    bookmarkSearchIndex.removeAfterCommit(id);
   }
 
   public Set<Tag> convertTags(List<String> tagNames) {
@@ -111,34 +312,189 @@ public class BookmarkService {
         .collect(Collectors.toSet());
   }
 
+  // Write first; read only when the conditional UPDATE matched no row, or for createdAt on a cache miss
+  private Bookmark updateIfVersionMatches(Bookmark bookmark) {
+    if (updateOrThrowDuplicate(bookmark) == 0) {
+      throw notFoundOrConflict(bookmark.getId());
+    }
+    // The UPDATE wrote updatedAt and bumped the version; createdAt never changes, so a cached copy is still accurate
+    bookmark.setVersion(bookmark.getVersion() + 1);
+    bookmark.setCreatedAt(bookmarkCache.get(bookmark.getId()).map(Bookmark::getCreatedAt)
+        .orElseGet(() -> bookmarkRepository.findCreatedAtById(bookmark.getId()).orElse(null)));
+    Set<Tag> managedTags = getOrCreateTags(bookmark.getTags());
+    Set<Long> currentTagIds = new HashSet<>(bookmarkTagRepository.findTagIdsByBookmarkId(bookmark.getId()));
+    bookmark.setTags(managedTags);
+    reconcileTags(bookmark.getId(), managedTags, currentTagIds);
+    recordChange(bookmark.getId(), BookmarkChange.Type.UPDATED);
+    bookmarkSearchIndex.indexAfterCommit(List.of(bookmark));
+    return bookmark;
+  }
+
+  // The unique index on url_hash also catches a URL registered after the check in the unversioned path
+  private int updateOrThrowDuplicate(Bookmark bookmark) {
+    bookmark.setUpdatedAt(LocalDateTime.now());
+    try {
+      return bookmarkRepository.update(bookmark);
+    } catch (DuplicateKeyException e) {
+      throw new DuplicateUrlException("Bookmark with URL already exists: " + bookmark.getUrl());
+    }
+  }
+
+  // Committed together with the write; other instances pick it up through BookmarkChangePoller
+  // Must be the last write of the transaction: the collection counter row stays locked until commit
+  private void recordChange(Long bookmarkId, BookmarkChange.Type type) {
+    bookmarkChangeRepository.insert(BookmarkChange.builder().bookmarkId(bookmarkId).changeType(type).build());
+    bookmarkChangeRepository.incrementCollectionVersion();
+    if (type != BookmarkChange.Type.CREATED) {
+      bookmarkCache.invalidateAfterCommit(bookmarkId);
+    }
+  }
+
+  private RuntimeException notFoundOrConflict(Long id) {
+    if (bookmarkRepository.findById(id).isEmpty()) {
+      return new BookmarkNotFoundException("Bookmark not found with id: " + id);
+    }
+    return new VersionConflictException("Bookmark has been modified by another request: " + id);
+  }
+
+  // Only touch the tag links that actually changed
+  private void reconcileTags(Long bookmarkId, Set<Tag> managedTags, Set<Long> currentTagIds) {
+    Set<Long> newTagIds = tagIds(managedTags);
+    Set<Long> removedTagIds = new HashSet<>(currentTagIds);
+    removedTagIds.removeAll(newTagIds);
+    if (!removedTagIds.isEmpty()) {
+      bookmarkTagRepository.deleteByBookmarkIdAndTagIds(bookmarkId, List.copyOf(removedTagIds));
+    }
+    Set<Tag> addedTags = managedTags.stream()
+        .filter(tag -> !currentTagIds.contains(tag.getId()))
+        .collect(Collectors.toSet());
+    saveBookmarkTagRelationships(bookmarkId, addedTags);
+  }
+
+  private Set<Long> tagIds(Set<Tag> tags) {
+    return tags.stream().map(Tag::getId).collect(Collectors.toSet());
+  }
+
+  private boolean hasChanges(Bookmark current, Bookmark updated) {
+    return !Objects.equals(current.getUrl(), updated.getUrl())
+        || !Objects.equals(current.getTitle(), updated.getTitle())
+        || !Objects.equals(current.getDescription(), updated.getDescription());
+  }
+
   private void validateUrl(String url) {
+    if (!isValidUrl(url)) {
+      throw new InvalidUrlException("Invalid URL format: " + url);
+    }
+  }
+
+  // Static so that bulk callers can check records without going through the transactional proxy
+  public static boolean isValidUrl(String url) {
     try {
       URI.create(url).toURL();
+      return true;
     } catch (IllegalArgumentException | MalformedURLException e) {
-      throw new InvalidUrlException("Invalid URL format: " + url);
+      return false;
     }
   }
 
   private Set<Tag> getOrCreateTags(Set<Tag> tags) {
     Set<Tag> managedTags = new HashSet<>();
-    if (tags != null) {
-      for (Tag tag : tags) {
-        Optional<Tag> existingTag = tagRepository.findByName(tag.getName());
-        Tag managedTag = existingTag.orElseGet(() -> {
-          tagRepository.insert(tag);
-          return tag;
-        });
-        managedTags.add(managedTag);
+    if (tags == null || tags.isEmpty()) {
+      return managedTags;
+    }
+    // Sorted so that concurrent writers lock tag rows in the same order
+    SortedSet<String> missingNames = new TreeSet<>();
+    for (Tag tag : tags) {
+      tagCache.get(tag.getName()).ifPresentOrElse(managedTags::add, () -> missingNames.add(tag.getName()));
+    }
+    if (!missingNames.isEmpty()) {
+      List<String> names = List.copyOf(missingNames);
+      tagRepository.insertIfAbsent(names);
+      // Locking read so that tags committed by concurrent transactions are visible
+      for (Tag tag : tagRepository.findByNames(names, SelectOptions.get().forUpdate())) {
+        tagCache.putAfterCommit(tag);
+        managedTags.add(tag);
       }
     }
     return managedTags;
   }
 
-  private void saveBookmarkTagRelationships(Long bookmarkId, Set<Tag> tags) {
-    for (Tag tag : tags) {
-      if (tag.getId() != null) {
-        bookmarkTagRepository.insertBookmarkTag(bookmarkId, tag.getId());
+  private record TagIds(List<Long> required, boolean matchAll, List<Long> excluded) {
+  }
+
+  // Resolves the filter's tag names to ids. Returns empty, without running the list query, when nothing can match
+  // (ALL with an unknown tag, or ANY with only unknown tags). Unknown excluded tags are dropped from the filter
+  private Optional<TagIds> resolveTagIds(TagFilter filter) {
+    Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    names.addAll(filter.tags());
+    names.addAll(filter.exclude());
+    // Case-insensitive like the tags.name collation in MySQL
+    Map<String, Long> idsByName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    List<String> missingNames = new ArrayList<>();
+    for (String name : names) {
+      tagCache.get(name).ifPresentOrElse(tag -> idsByName.put(name, tag.getId()), () -> missingNames.add(name));
+    }
+    // Cache misses of both lists are resolved with one query
+    if (!missingNames.isEmpty()) {
+      for (Tag tag : tagRepository.findByNames(missingNames, SelectOptions.get())) {
+        tagCache.putAfterCommit(tag);
+        idsByName.putIfAbsent(tag.getName(), tag.getId());
       }
     }
+    List<Long> required = filter.tags().stream().map(idsByName::get).filter(Objects::nonNull).distinct().toList();
+    if (filter.mode() == TagFilter.Mode.ALL ? required.size() < filter.tags().size()
+        : required.isEmpty() && !filter.tags().isEmpty()) {
+      return Optional.empty();
+    }
+    List<Long> excluded = filter.exclude().stream().map(idsByName::get).filter(Objects::nonNull).distinct().toList();
+    // With a single tag ALL and ANY match the same rows, so use the semi-join that needs no aggregation
+    return Optional.of(new TagIds(required, filter.mode() == TagFilter.Mode.ALL && required.size() > 1, excluded));
+  }
+
+  // Both streams are ordered by bookmark_id, so reading one tag row ahead is enough to pair them
+  private Void mergeTags(Stream<Bookmark> bookmarks, Stream<BookmarkTag> bookmarkTags, Consumer<Bookmark> sink) {
+    Iterator<BookmarkTag> tagIterator = bookmarkTags.iterator();
+    BookmarkTag next = tagIterator.hasNext() ? tagIterator.next() : null;
+    for (Iterator<Bookmark> iterator = bookmarks.iterator(); iterator.hasNext();) {
+      Bookmark bookmark = iterator.next();
+      Set<Tag> tags = new LinkedHashSet<>();
+      // Skip tag rows without a matching bookmark, e.g. left by a concurrent delete
+      while (next != null && next.getBookmarkId() <= bookmark.getId()) {
+        if (next.getBookmarkId().equals(bookmark.getId())) {
+          tags.add(Tag.builder().id(next.getTagId()).name(next.getTagName()).build());
+        }
+        next = tagIterator.hasNext() ? tagIterator.next() : null;
+      }
+      bookmark.setTags(tags);
+      sink.accept(bookmark);
+    }
+    return null;
+  }
+
+  // Load tags for all bookmarks on the page in a single query
+  private void loadTags(List<Bookmark> bookmarks) {
+    if (bookmarks.isEmpty()) {
+      return;
+    }
+    List<Long> bookmarkIds = bookmarks.stream().map(Bookmark::getId).toList();
+    Map<Long, Set<Tag>> tagsByBookmarkId = new HashMap<>();
+    for (BookmarkTag bookmarkTag : bookmarkTagRepository.findTagsByBookmarkIds(bookmarkIds)) {
+      Tag tag = Tag.builder().id(bookmarkTag.getTagId()).name(bookmarkTag.getTagName()).build();
+      tagsByBookmarkId.computeIfAbsent(bookmarkTag.getBookmarkId(), key -> new HashSet<>()).add(tag);
+    }
+    for (Bookmark bookmark : bookmarks) {
+      bookmark.setTags(tagsByBookmarkId.getOrDefault(bookmark.getId(), new HashSet<>()));
+    }
+  }
+
+  private void saveBookmarkTagRelationships(Long bookmarkId, Set<Tag> tags) {
+    List<BookmarkTag> bookmarkTags = tags.stream()
+        .filter(tag -> tag.getId() != null)
+        .map(tag -> BookmarkTag.builder().bookmarkId(bookmarkId).tagId(tag.getId()).build())
+        .toList();
+    // Insert all relationships as one JDBC batch
+    if (!bookmarkTags.isEmpty()) {
+      bookmarkTagRepository.insertAll(bookmarkTags);
+    }
   }
 }
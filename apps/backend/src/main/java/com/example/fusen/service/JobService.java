@@ -0,0 +1,100 @@
+package com.example.fusen.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.seasar.doma.jdbc.SelectOptions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.fusen.dao.JobDao;
+import com.example.fusen.dao.JobErrorDao;
+import com.example.fusen.dto.ImportError;
+import com.example.fusen.entity.Job;
+import com.example.fusen.entity.JobError;
+import com.example.fusen.exception.JobNotFoundException;
+
+/**
+ * jobs / job_errors の読み書き。ブックマークの登録・更新はジョブの中でもBookmarkServiceを通す。
+ */
+@Service
+@Transactional
+public class JobService {
+
+  private static final int MAX_URL_LENGTH = 2048;
+  private static final int MAX_MESSAGE_LENGTH = 1024;
+
+  private final JobDao jobRepository;
+  private final JobErrorDao jobErrorRepository;
+
+  @Autowired
+  public JobService(JobDao jobRepository, JobErrorDao jobErrorRepository) {
+    this.jobRepository = jobRepository;
+    this.jobErrorRepository = jobErrorRepository;
+  }
+
+  public Job create(Job job) {
+    jobRepository.insert(job);
+    return findById(job.getId());
+  }
+
+  public Job findById(Long id) {
+    return jobRepository.findById(id)
+        .orElseThrow(() -> new JobNotFoundException("Job not found with id: " + id));
+  }
+
+  public List<JobError> findErrors(Long id, int limit, int offset) {
+    findById(id);
+    return jobErrorRepository.findByJobId(id, SelectOptions.get().limit(limit).offset(offset));
+  }
+
+  // 完了済みのジョブはそのまま返す
+  public Job cancel(Long id) {
+    Job job = findById(id);
+    if (!job.getStatus().isFinished()) {
+      jobRepository.requestCancel(id, LocalDateTime.now());
+      job = findById(id);
+    }
+    return job;
+  }
+
+  // 進捗とエラーを1つのトランザクションで保存する。エクスポートの読み取り専用トランザクションの中からも呼ばれるため、
+  // 常に新しいトランザクションで書く。取り消し要求があるか担当が替わっていればfalse
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public boolean saveProgress(Job job, List<ImportError> newErrors, int maxErrors) {
+    if (jobRepository.updateProgress(job) == 0) {
+      return false;
+    }
+    if (!newErrors.isEmpty()) {
+      long stored = jobErrorRepository.countByJobId(job.getId());
+      List<JobError> errors = newErrors.stream()
+          .limit(Math.max(0, maxErrors - stored))
+          .map(error -> JobError.builder()
+              .jobId(job.getId())
+              .line(error.line())
+              .url(truncate(error.url(), MAX_URL_LENGTH))
+              .errorCode(error.errorCode())
+              .message(truncate(error.message(), MAX_MESSAGE_LENGTH))
+              .build())
+          .toList();
+      if (!errors.isEmpty()) {
+        jobErrorRepository.insertAll(errors);
+      }
+    }
+    return true;
+  }
+
+  // 担当が替わっていればfalse
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public boolean finish(Job job) {
+    job.setErrorMessage(truncate(job.getErrorMessage(), MAX_MESSAGE_LENGTH));
+    return jobRepository.finish(job) == 1;
+  }
+
+  // 列の長さに収める (登録できなかった理由が長すぎるURLである場合など)
+  private static String truncate(String value, int maxLength) {
+    return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+  }
+}
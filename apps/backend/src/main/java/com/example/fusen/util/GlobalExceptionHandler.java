@@ -3,18 +3,30 @@ package com.example.fusen.util;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import com.example.fusen.exception.BookmarkNotFoundException;
 import com.example.fusen.exception.DuplicateUrlException;
+import com.example.fusen.exception.InvalidCursorException;
+import com.example.fusen.exception.InvalidImportException;
+import com.example.fusen.exception.InvalidTagFilterException;
 import com.example.fusen.exception.InvalidUrlException;
+import com.example.fusen.exception.JobNotCompletedException;
+import com.example.fusen.exception.JobNotFoundException;
+import com.example.fusen.exception.UnsupportedFormatException;
+import com.example.fusen.exception.VersionConflictException;
 
+// Spring MVC自体の例外 (415, 405, パラメータの型不正など) はResponseEntityExceptionHandlerが本来のステータスに対応付ける
 @ControllerAdvice
-public class GlobalExceptionHandler {
+public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
   @ExceptionHandler(BookmarkNotFoundException.class)
   public ResponseEntity<Map<String, String>> handleBookmarkNotFoundException(BookmarkNotFoundException ex) {
@@ -32,6 +44,14 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
   }
 
+  @ExceptionHandler(VersionConflictException.class)
+  public ResponseEntity<Map<String, String>> handleVersionConflictException(VersionConflictException ex) {
+    Map<String, String> errorResponse = new HashMap<>();
+    errorResponse.put("errorCode", "VERSION_CONFLICT");
+    errorResponse.put("message", ex.getMessage());
+    return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+  }
+
   @ExceptionHandler(InvalidUrlException.class)
   public ResponseEntity<Map<String, String>> handleInvalidUrlException(InvalidUrlException ex) {
     Map<String, String> errorResponse = new HashMap<>();
@@ -40,8 +60,57 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
   }
 
-  @ExceptionHandler(MethodArgumentNotValidException.class)
-  public ResponseEntity<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException ex) {
+  @ExceptionHandler(InvalidCursorException.class)
+  public ResponseEntity<Map<String, String>> handleInvalidCursorException(InvalidCursorException ex) {
+    Map<String, String> errorResponse = new HashMap<>();
+    errorResponse.put("errorCode", "INVALID_CURSOR");
+    errorResponse.put("message", ex.getMessage());
+    return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+  }
+
+  @ExceptionHandler(InvalidTagFilterException.class)
+  public ResponseEntity<Map<String, String>> handleInvalidTagFilterException(InvalidTagFilterException ex) {
+    Map<String, String> errorResponse = new HashMap<>();
+    errorResponse.put("errorCode", "INVALID_TAG_FILTER");
+    errorResponse.put("message", ex.getMessage());
+    return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+  }
+
+  @ExceptionHandler(InvalidImportException.class)
+  public ResponseEntity<Map<String, String>> handleInvalidImportException(InvalidImportException ex) {
+    Map<String, String> errorResponse = new HashMap<>();
+    errorResponse.put("errorCode", "INVALID_IMPORT");
+    errorResponse.put("message", ex.getMessage());
+    return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+  }
+
+  @ExceptionHandler(UnsupportedFormatException.class)
+  public ResponseEntity<Map<String, String>> handleUnsupportedFormatException(UnsupportedFormatException ex) {
+    Map<String, String> errorResponse = new HashMap<>();
+    errorResponse.put("errorCode", "UNSUPPORTED_FORMAT");
+    errorResponse.put("message", ex.getMessage());
+    return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+  }
+
+  @ExceptionHandler(JobNotFoundException.class)
+  public ResponseEntity<Map<String, String>> handleJobNotFoundException(JobNotFoundException ex) {
+    Map<String, String> errorResponse = new HashMap<>();
+    errorResponse.put("errorCode", "JOB_NOT_FOUND");
+    errorResponse.put("message", ex.getMessage());
+    return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+  }
+
+  @ExceptionHandler(JobNotCompletedException.class)
+  public ResponseEntity<Map<String, String>> handleJobNotCompletedException(JobNotCompletedException ex) {
+    Map<String, String> errorResponse = new HashMap<>();
+    errorResponse.put("errorCode", "JOB_NOT_COMPLETED");
+    errorResponse.put("message", ex.getMessage());
+    return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+  }
+
+  @Override
+  protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex,
+      HttpHeaders headers, HttpStatusCode status, WebRequest request) {
     Map<String, String> errors = new HashMap<>();
     ex.getBindingResult().getFieldErrors().forEach(error -> errors.put(error.getField(), error.getDefaultMessage()));
     Map<String, String> errorResponse = new HashMap<>();
@@ -50,6 +119,21 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
   }
 
+  // ProblemDetailではなく他のエラーと同じ形式で返す。errorCodeはステータス名 (例: UNSUPPORTED_MEDIA_TYPE)
+  @Override
+  protected ResponseEntity<Object> handleExceptionInternal(Exception ex, Object body, HttpHeaders headers,
+      HttpStatusCode statusCode, WebRequest request) {
+    ResponseEntity<Object> response = super.handleExceptionInternal(ex, body, headers, statusCode, request);
+    if (response == null) {
+      // レスポンスがコミット済み
+      return null;
+    }
+    Map<String, String> errorResponse = new HashMap<>();
+    errorResponse.put("errorCode", HttpStatus.valueOf(response.getStatusCode().value()).name());
+    errorResponse.put("message", ex.getMessage());
+    return new ResponseEntity<>(errorResponse, response.getHeaders(), response.getStatusCode());
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<Map<String, String>> handleGenericException(Exception ex) {
     Map<String, String> errorResponse = new HashMap<>();
@@ -0,0 +1,26 @@
+package com.example.fusen.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * bookmarks.url_hash の計算。SHA-256 (UTF-8) の先頭8バイトを符号付き64bit整数として扱う。
+ * マイグレーションのバックフィル (CONV(LEFT(SHA2(url, 256), 16), 16, -10)) と同じ値になる。
+ */
+public final class UrlHash {
+
+  private UrlHash() {
+  }
+
+  public static long of(String url) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+      return ByteBuffer.wrap(digest).getLong();
+    } catch (NoSuchAlgorithmException e) {
+      // SHA-256 is required to be available on every Java platform
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,3 @@
+DELETE FROM bookmark_changes
+WHERE
+    changed_at < /* changedAt */'2025-01-01 00:00:00'
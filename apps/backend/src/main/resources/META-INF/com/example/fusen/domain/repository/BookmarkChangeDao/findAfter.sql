@@ -0,0 +1,11 @@
+SELECT
+    seq,
+    bookmark_id,
+    change_type,
+    changed_at
+FROM
+    bookmark_changes
+WHERE
+    seq > /* seq */0
+ORDER BY
+    seq
@@ -0,0 +1,6 @@
+UPDATE
+    bookmark_collection_version
+SET
+    version = version + 1
+WHERE
+    id = 1
\ No newline at end of file
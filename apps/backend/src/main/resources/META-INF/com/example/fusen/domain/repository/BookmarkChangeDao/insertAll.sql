@@ -0,0 +1,9 @@
+INSERT INTO bookmark_changes (
+    bookmark_id,
+    change_type,
+    changed_at
+) VALUES (
+    /* changes.bookmarkId */1,
+    /* changes.changeType */'CREATED',
+    CURRENT_TIMESTAMP
+)
\ No newline at end of file
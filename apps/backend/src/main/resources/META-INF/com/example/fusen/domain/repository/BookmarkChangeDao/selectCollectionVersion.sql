@@ -0,0 +1,6 @@
+SELECT
+    version
+FROM
+    bookmark_collection_version
+WHERE
+    id = 1
\ No newline at end of file
@@ -0,0 +1,4 @@
+SELECT
+    COALESCE(MAX(seq), 0)
+FROM
+    bookmark_changes
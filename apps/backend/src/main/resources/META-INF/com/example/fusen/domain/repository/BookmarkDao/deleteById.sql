@@ -0,0 +1,6 @@
+DELETE FROM bookmarks
+WHERE
+    id = /* id */1
+/*%if version != null */
+    AND version = /* version */1
+/*%end*/
@@ -3,4 +3,5 @@ SELECT
 FROM
     bookmarks
 WHERE
-    url = /* url */'example'
\ No newline at end of file
+    url_hash = /* @com.example.fusen.util.UrlHash@of(url) */0
+    AND url = /* url */'example'
\ No newline at end of file
@@ -4,7 +4,8 @@ SELECT
     title,
     description,
     created_at,
-    updated_at
+    updated_at,
+    version
 FROM
     bookmarks
 ORDER BY
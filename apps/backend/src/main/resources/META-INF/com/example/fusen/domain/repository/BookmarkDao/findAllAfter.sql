@@ -0,0 +1,18 @@
+SELECT
+    id,
+    url,
+    title,
+    description,
+    created_at,
+    updated_at,
+    version
+FROM
+    bookmarks
+WHERE
+/*%if createdAt != null */
+    created_at < /* createdAt */'2025-01-01 00:00:00'
+    OR (created_at = /* createdAt */'2025-01-01 00:00:00' AND id < /* id */1)
+/*%end*/
+ORDER BY
+    created_at DESC,
+    id DESC
@@ -0,0 +1,13 @@
+SELECT
+    id,
+    url,
+    title,
+    description,
+    created_at,
+    updated_at,
+    version
+FROM
+    bookmarks
+WHERE
+    id = /* id */1
+    OR (url_hash = /* @com.example.fusen.util.UrlHash@of(url) */0 AND url = /* url */'example')
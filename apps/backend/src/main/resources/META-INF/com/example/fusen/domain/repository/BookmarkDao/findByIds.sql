@@ -0,0 +1,12 @@
+SELECT
+    id,
+    url,
+    title,
+    description,
+    created_at,
+    updated_at,
+    version
+FROM
+    bookmarks
+WHERE
+    id IN /* ids */(1, 2, 3)
\ No newline at end of file
@@ -0,0 +1,41 @@
+SELECT
+    b.id,
+    b.url,
+    b.title,
+    b.description,
+    b.created_at,
+    b.updated_at,
+    b.version
+FROM
+    bookmarks b
+WHERE
+/*%if matchAll && !tagIds.isEmpty() */
+    b.id IN (
+        SELECT bt.bookmark_id FROM bookmark_tags bt
+        WHERE bt.tag_id IN /* tagIds */(1, 2)
+        GROUP BY bt.bookmark_id
+        HAVING COUNT(*) = /* tagIds.size() */2
+    )
+/*%elseif !tagIds.isEmpty() */
+    b.id IN (
+        SELECT bt.bookmark_id FROM bookmark_tags bt
+        WHERE bt.tag_id IN /* tagIds */(1, 2)
+    )
+/*%end*/
+/*%if !excludedTagIds.isEmpty() */
+    AND NOT EXISTS (
+        SELECT 1 FROM bookmark_tags ex
+        WHERE ex.bookmark_id = b.id AND ex.tag_id IN /* excludedTagIds */(3)
+    )
+/*%end*/
+/*%if createdAt != null */
+    AND (b.created_at < /* createdAt */'2025-01-01 00:00:00'
+        OR (b.created_at = /* createdAt */'2025-01-01 00:00:00' AND b.id < /* id */1))
+/*%end*/
+ORDER BY
+/*%if newestFirst */
+    b.created_at DESC,
+    b.id DESC
+/*%else*/
+    b.id
+/*%end*/
\ No newline at end of file
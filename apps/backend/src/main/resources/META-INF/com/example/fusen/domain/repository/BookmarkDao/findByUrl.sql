@@ -4,8 +4,10 @@ SELECT
     title,
     description,
     created_at,
-    updated_at
+    updated_at,
+    version
 FROM
     bookmarks
 WHERE
-    url = /* url */'example'
+    url_hash = /* @com.example.fusen.util.UrlHash@of(url) */0
+    AND url = /* url */'example'
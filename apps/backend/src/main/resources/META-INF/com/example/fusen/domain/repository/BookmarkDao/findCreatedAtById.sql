@@ -0,0 +1,6 @@
+SELECT
+    created_at
+FROM
+    bookmarks
+WHERE
+    id = /* id */1
\ No newline at end of file
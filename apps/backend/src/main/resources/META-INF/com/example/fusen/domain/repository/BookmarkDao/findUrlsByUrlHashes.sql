@@ -0,0 +1,6 @@
+SELECT
+    url
+FROM
+    bookmarks
+WHERE
+    url_hash IN /* urlHashes */(1, 2)
\ No newline at end of file
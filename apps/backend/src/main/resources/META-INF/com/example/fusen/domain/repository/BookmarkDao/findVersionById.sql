@@ -0,0 +1,6 @@
+SELECT
+    version
+FROM
+    bookmarks
+WHERE
+    id = /* id */1
\ No newline at end of file
@@ -1,13 +0,0 @@
-INSERT INTO bookmarks (
-    url,
-    title,
-    description,
-    created_at,
-    updated_at
-) VALUES (
-    /* bookmark.url */'example',
-    /* bookmark.title */'title',
-    /* bookmark.description */'description',
-    NOW(),
-    NOW()
-)
\ No newline at end of file
@@ -0,0 +1,16 @@
+SELECT
+    id,
+    url,
+    title,
+    description,
+    created_at,
+    updated_at,
+    version
+FROM
+    bookmarks
+WHERE
+/*%if afterId != null */
+    id > /* afterId */0
+/*%end*/
+ORDER BY
+    id
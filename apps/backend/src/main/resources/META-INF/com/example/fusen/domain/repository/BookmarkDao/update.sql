@@ -1,8 +1,13 @@
 UPDATE bookmarks
 SET
     url = /* bookmark.url */'example',
+    url_hash = /* bookmark.urlHash */0,
     title = /* bookmark.title */'title',
     description = /* bookmark.description */'description',
-    updated_at = NOW()
+    updated_at = /* bookmark.updatedAt */'2025-01-01 00:00:00',
+    version = version + 1
 WHERE
-    id = /* bookmark.id */1
\ No newline at end of file
+    id = /* bookmark.id */1
+/*%if bookmark.version != null */
+    AND version = /* bookmark.version */1
+/*%end*/
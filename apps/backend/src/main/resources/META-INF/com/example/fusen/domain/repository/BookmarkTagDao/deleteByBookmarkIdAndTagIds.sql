@@ -0,0 +1,4 @@
+DELETE FROM bookmark_tags
+WHERE
+    bookmark_id = /* bookmarkId */1
+    AND tag_id IN /* tagIds */(1, 2)
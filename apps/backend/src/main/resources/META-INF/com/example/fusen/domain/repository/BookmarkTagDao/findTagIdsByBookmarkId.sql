@@ -0,0 +1,6 @@
+SELECT
+    tag_id
+FROM
+    bookmark_tags
+WHERE
+    bookmark_id = /* bookmarkId */1
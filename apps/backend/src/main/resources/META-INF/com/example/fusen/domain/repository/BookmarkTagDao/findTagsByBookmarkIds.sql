@@ -0,0 +1,9 @@
+SELECT
+    bt.bookmark_id,
+    t.id AS tag_id,
+    t.name AS tag_name
+FROM
+    bookmark_tags bt
+    INNER JOIN tags t ON t.id = bt.tag_id
+WHERE
+    bt.bookmark_id IN /* bookmarkIds */(1, 2, 3)
@@ -0,0 +1,14 @@
+SELECT
+    bt.bookmark_id,
+    t.id AS tag_id,
+    t.name AS tag_name
+FROM
+    bookmark_tags bt
+    INNER JOIN tags t ON t.id = bt.tag_id
+WHERE
+/*%if afterId != null */
+    bt.bookmark_id > /* afterId */0
+/*%end*/
+ORDER BY
+    bt.bookmark_id,
+    t.name
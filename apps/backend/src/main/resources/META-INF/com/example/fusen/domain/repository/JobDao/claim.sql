@@ -0,0 +1,12 @@
+UPDATE jobs
+SET
+    owner = /* owner */'node',
+    heartbeat_at = /* now */'2025-01-01 00:00:00'
+WHERE
+    id = /* id */1
+    AND status IN ('QUEUED', 'RUNNING')
+    AND (
+        owner IS NULL
+        OR owner = /* owner */'node'
+        OR heartbeat_at < /* staleBefore */'2025-01-01 00:00:00'
+    )
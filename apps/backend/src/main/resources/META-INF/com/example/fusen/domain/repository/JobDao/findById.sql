@@ -0,0 +1,24 @@
+SELECT
+    id,
+    job_type,
+    status,
+    format,
+    gzip,
+    file_path,
+    processed,
+    succeeded,
+    duplicates,
+    failed,
+    checkpoint,
+    checkpoint_offset,
+    error_message,
+    cancel_requested,
+    owner,
+    heartbeat_at,
+    created_at,
+    started_at,
+    finished_at
+FROM
+    jobs
+WHERE
+    id = /* id */1
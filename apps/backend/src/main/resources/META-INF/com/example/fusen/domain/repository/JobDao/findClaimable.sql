@@ -0,0 +1,31 @@
+SELECT
+    id,
+    job_type,
+    status,
+    format,
+    gzip,
+    file_path,
+    processed,
+    succeeded,
+    duplicates,
+    failed,
+    checkpoint,
+    checkpoint_offset,
+    error_message,
+    cancel_requested,
+    owner,
+    heartbeat_at,
+    created_at,
+    started_at,
+    finished_at
+FROM
+    jobs
+WHERE
+    status IN ('QUEUED', 'RUNNING')
+    AND (
+        owner IS NULL
+        OR owner = /* owner */'node'
+        OR heartbeat_at < /* staleBefore */'2025-01-01 00:00:00'
+    )
+ORDER BY
+    id
@@ -0,0 +1,14 @@
+UPDATE jobs
+SET
+    status = /* job.status */'SUCCEEDED',
+    processed = /* job.processed */0,
+    succeeded = /* job.succeeded */0,
+    duplicates = /* job.duplicates */0,
+    failed = /* job.failed */0,
+    error_message = /* job.errorMessage */'message',
+    heartbeat_at = /* job.finishedAt */'2025-01-01 00:00:00',
+    finished_at = /* job.finishedAt */'2025-01-01 00:00:00'
+WHERE
+    id = /* job.id */1
+    AND owner = /* job.owner */'node'
+    AND status IN ('QUEUED', 'RUNNING')
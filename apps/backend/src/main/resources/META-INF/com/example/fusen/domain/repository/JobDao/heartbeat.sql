@@ -0,0 +1,7 @@
+UPDATE jobs
+SET
+    heartbeat_at = /* now */'2025-01-01 00:00:00'
+WHERE
+    id IN /* ids */(1, 2, 3)
+    AND owner = /* owner */'node'
+    AND status IN ('QUEUED', 'RUNNING')
@@ -0,0 +1,7 @@
+UPDATE jobs
+SET
+    owner = NULL
+WHERE
+    id = /* id */1
+    AND owner = /* owner */'node'
+    AND status IN ('QUEUED', 'RUNNING')
@@ -0,0 +1,9 @@
+UPDATE jobs
+SET
+    -- MySQLは左から順に代入し、後の式は更新後の値を参照するため、statusより先にfinished_atを決める
+    finished_at = CASE WHEN status = 'QUEUED' THEN /* now */'2025-01-01 00:00:00' ELSE finished_at END,
+    status = CASE WHEN status = 'QUEUED' THEN 'CANCELLED' ELSE status END,
+    cancel_requested = TRUE
+WHERE
+    id = /* id */1
+    AND status IN ('QUEUED', 'RUNNING')
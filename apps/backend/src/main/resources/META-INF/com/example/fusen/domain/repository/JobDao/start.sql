@@ -0,0 +1,10 @@
+UPDATE jobs
+SET
+    status = 'RUNNING',
+    started_at = COALESCE(started_at, /* now */'2025-01-01 00:00:00'),
+    heartbeat_at = /* now */'2025-01-01 00:00:00'
+WHERE
+    id = /* id */1
+    AND owner = /* owner */'node'
+    AND status IN ('QUEUED', 'RUNNING')
+    AND cancel_requested = FALSE
@@ -0,0 +1,14 @@
+UPDATE jobs
+SET
+    processed = /* job.processed */0,
+    succeeded = /* job.succeeded */0,
+    duplicates = /* job.duplicates */0,
+    failed = /* job.failed */0,
+    checkpoint = /* job.checkpoint */0,
+    checkpoint_offset = /* job.checkpointOffset */0,
+    heartbeat_at = /* job.heartbeatAt */'2025-01-01 00:00:00'
+WHERE
+    id = /* job.id */1
+    AND owner = /* job.owner */'node'
+    AND status = 'RUNNING'
+    AND cancel_requested = FALSE
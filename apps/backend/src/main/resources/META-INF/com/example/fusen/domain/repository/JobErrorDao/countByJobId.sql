@@ -0,0 +1,6 @@
+SELECT
+    COUNT(*)
+FROM
+    job_errors
+WHERE
+    job_id = /* jobId */1
@@ -0,0 +1,13 @@
+SELECT
+    id,
+    job_id,
+    line,
+    url,
+    error_code,
+    message
+FROM
+    job_errors
+WHERE
+    job_id = /* jobId */1
+ORDER BY
+    id
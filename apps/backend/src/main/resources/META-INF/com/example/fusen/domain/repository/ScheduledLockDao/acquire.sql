@@ -0,0 +1,6 @@
+UPDATE scheduled_locks
+SET
+    locked_until = /* lockedUntil */'2025-01-01 01:00:00'
+WHERE
+    name = /* name */'prune-bookmark-changes'
+    AND locked_until <= /* now */'2025-01-01 00:00:00'
\ No newline at end of file
@@ -0,0 +1,9 @@
+SELECT
+    id,
+    name,
+    created_at,
+    updated_at
+FROM
+    tags
+WHERE
+    name IN /* names */('example')
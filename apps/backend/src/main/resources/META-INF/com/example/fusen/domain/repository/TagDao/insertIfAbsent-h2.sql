@@ -0,0 +1,15 @@
+MERGE INTO tags t
+USING (
+    SELECT
+        v.C1 AS name
+    FROM
+        (VALUES
+/*%for name : names */
+            (/* name */'example')
+/*%if name_has_next */,/*%end*/
+/*%end*/
+        ) v
+) s
+ON t.name = s.name
+WHEN NOT MATCHED THEN
+    INSERT (name, created_at, updated_at) VALUES (s.name, NOW(), NOW())
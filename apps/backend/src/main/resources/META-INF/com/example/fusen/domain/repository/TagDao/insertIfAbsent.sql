@@ -0,0 +1,11 @@
+INSERT INTO tags (
+    name,
+    created_at,
+    updated_at
+) VALUES
+/*%for name : names */
+    (/* name */'example', NOW(), NOW())
+/*%if name_has_next */,/*%end*/
+/*%end*/
+ON DUPLICATE KEY UPDATE
+    id = id
@@ -0,0 +1,28 @@
+package com.example.fusen;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.seasar.doma.jdbc.Sql;
+import org.seasar.doma.jdbc.UtilLoggingJdbcLogger;
+
+/**
+ * JdbcLogger that counts the SQL statements issued through Doma
+ */
+public class SqlCountingJdbcLogger extends UtilLoggingJdbcLogger {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public void logSql(String callerClassName, String callerMethodName, Sql<?> sql) {
+        count.incrementAndGet();
+        super.logSql(callerClassName, callerMethodName, sql);
+    }
+
+    public int getCount() {
+        return count.get();
+    }
+
+    public void reset() {
+        count.set(0);
+    }
+}
@@ -20,6 +20,7 @@ public class TestDataBuilder {
         private Set<Tag> tags = new HashSet<>();
         private LocalDateTime createdAt = LocalDateTime.now();
         private LocalDateTime updatedAt = LocalDateTime.now();
+        private Long version;
 
         public BookmarkBuilder id(Long id) {
             this.id = id;
@@ -61,6 +62,11 @@ public class TestDataBuilder {
             return this;
         }
 
+        public BookmarkBuilder version(Long version) {
+            this.version = version;
+            return this;
+        }
+
         public Bookmark build() {
             return Bookmark.builder()
                 .id(id)
@@ -70,6 +76,7 @@ public class TestDataBuilder {
                 .tags(tags)
                 .createdAt(createdAt)
                 .updatedAt(updatedAt)
+                .version(version)
                 .build();
         }
     }
@@ -0,0 +1,114 @@
+package com.example.fusen.bulk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.fusen.BaseTest;
+import com.example.fusen.TestDataBuilder;
+import com.example.fusen.entity.Bookmark;
+import com.example.fusen.service.BookmarkService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("BookmarkExporter Integration Tests")
+class BookmarkExporterTest extends BaseTest {
+
+    private static final String URL_PREFIX = "https://export-";
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private BookmarkExporter exporter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Bookmark withTags;
+    private Bookmark withoutTags;
+    private Bookmark withOneTag;
+
+    @BeforeEach
+    void setUp() {
+        // Interleave bookmarks with and without tags so the merge join has to skip ahead correctly
+        withTags = bookmarkService.create(TestDataBuilder.bookmark()
+            .url(URL_PREFIX + "1.example.com")
+            .addTag(TestDataBuilder.tag().name("export-spring").build())
+            .addTag(TestDataBuilder.tag().name("export-java").build())
+            .build());
+        withoutTags = bookmarkService.create(TestDataBuilder.bookmark()
+            .url(URL_PREFIX + "2.example.com")
+            .build());
+        withOneTag = bookmarkService.create(TestDataBuilder.bookmark()
+            .url(URL_PREFIX + "3.example.com")
+            .addTag(TestDataBuilder.tag().name("export-java").build())
+            .build());
+    }
+
+    @Test
+    @DisplayName("Should write every bookmark as NDJSON in id order with its own tags")
+    void shouldWriteEveryBookmarkAsNdjsonInIdOrderWithItsOwnTags() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long written = exporter.exportTo(out, BulkFormat.NDJSON);
+
+        // Then
+        List<JsonNode> exported = Arrays.stream(out.toString(StandardCharsets.UTF_8).split("\n"))
+            .map(this::readTree)
+            .filter(node -> node.get("url").asText().startsWith(URL_PREFIX))
+            .toList();
+        assertThat(written).isGreaterThanOrEqualTo(3);
+        assertThat(exported).extracting(node -> node.get("id").asLong())
+            .containsExactly(withTags.getId(), withoutTags.getId(), withOneTag.getId());
+        assertThat(exported.get(0).get("tags")).extracting(JsonNode::asText)
+            .containsExactly("export-java", "export-spring");
+        assertThat(exported.get(1).get("tags")).isEmpty();
+        assertThat(exported.get(2).get("tags")).extracting(JsonNode::asText).containsExactly("export-java");
+    }
+
+    @Test
+    @DisplayName("Should write a CSV header followed by one row per bookmark")
+    void shouldWriteACsvHeaderFollowedByOneRowPerBookmark() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long written = exporter.exportTo(out, BulkFormat.CSV);
+
+        // Then
+        List<String> lines = Arrays.asList(out.toString(StandardCharsets.UTF_8).split("\r\n"));
+        assertThat(lines).hasSize((int) written + 1);
+        assertThat(lines.get(0)).isEqualTo(CsvBookmarkWriter.HEADER);
+        assertThat(lines).anySatisfy(line -> assertThat(line).startsWith(
+            withTags.getId() + "," + URL_PREFIX + "1.example.com,Example Title,Example Description,"
+                + "\"export-java,export-spring\","));
+        assertThat(lines).anySatisfy(line -> assertThat(line).startsWith(
+            withoutTags.getId() + "," + URL_PREFIX + "2.example.com,Example Title,Example Description,,"));
+    }
+
+    private JsonNode readTree(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
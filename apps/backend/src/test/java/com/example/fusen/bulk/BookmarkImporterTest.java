@@ -0,0 +1,212 @@
+package com.example.fusen.bulk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.fusen.BaseTest;
+import com.example.fusen.TestDataBuilder;
+import com.example.fusen.dao.BookmarkDao;
+import com.example.fusen.dao.BookmarkTagDao;
+import com.example.fusen.dto.ImportError;
+import com.example.fusen.dto.ImportResult;
+import com.example.fusen.entity.Bookmark;
+import com.example.fusen.entity.Tag;
+import com.example.fusen.service.BookmarkService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.Validator;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("BookmarkImporter Integration Tests")
+class BookmarkImporterTest extends BaseTest {
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private BookmarkDao bookmarkDao;
+
+    @Autowired
+    private BookmarkTagDao bookmarkTagDao;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    private BookmarkImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        // Small chunks so that a handful of records spans several transactions
+        importer = new BookmarkImporter(bookmarkService, objectMapper, validator, 2, 10);
+    }
+
+    @Test
+    @DisplayName("Should import valid records in chunks and report the rest per line")
+    void shouldImportValidRecordsInChunksAndReportTheRestPerLine() throws IOException {
+        // Given
+        bookmarkDao.insert(TestDataBuilder.bookmark().url("https://import-existing.example.com").build());
+        String ndjson = String.join("\n",
+            "{\"url\":\" https://import-1.example.com \",\"title\":\"One\",\"tags\":[\"import-java\",\" \"]}",
+            "{\"url\":\"ftp://import-invalid.example.com\"}",
+            "{\"url\":\"https://import-2.example.com\",\"tags\":[\"import-java\",\"import-spring\"]}",
+            "{\"url\":\"https://import-1.example.com\"}",
+            "not json",
+            "{\"url\":\"https://import-existing.example.com\"}",
+            "{\"url\":\"https://import-3.example.com\"}");
+
+        // When
+        ImportResult result = importer.importFrom(stream(ndjson), BulkFormat.NDJSON, false);
+
+        // Then
+        assertThat(result.imported()).isEqualTo(3);
+        assertThat(result.duplicates()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(2);
+        assertThat(result.errors()).extracting(ImportError::line, ImportError::errorCode)
+            .containsExactlyInAnyOrder(
+                tuple(2L, "INVALID_URL"),
+                tuple(4L, "DUPLICATE_URL"),
+                tuple(5L, "INVALID_RECORD"),
+                tuple(6L, "DUPLICATE_URL"));
+
+        Bookmark first = bookmarkDao.findByUrl("https://import-1.example.com").orElseThrow();
+        assertThat(first.getTitle()).isEqualTo("One");
+        assertThat(bookmarkTagDao.findTagsByBookmarkId(first.getId())).extracting(Tag::getName)
+            .containsExactly("import-java");
+        Bookmark second = bookmarkDao.findByUrl("https://import-2.example.com").orElseThrow();
+        assertThat(bookmarkTagDao.findTagsByBookmarkId(second.getId())).extracting(Tag::getName)
+            .containsExactlyInAnyOrder("import-java", "import-spring");
+        assertThat(bookmarkDao.findByUrl("https://import-3.example.com")).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should read gzip-compressed CSV")
+    void shouldReadGzipCompressedCsv() throws IOException {
+        // Given
+        String csv = "url,title,tags\n"
+            + "https://import-csv-1.example.com,CSV One,\"import-csv,import-java\"\n"
+            + "https://import-csv-2.example.com,CSV Two,\n";
+
+        // When
+        ImportResult result = importer.importFrom(gzip(csv), BulkFormat.CSV, true);
+
+        // Then
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.errors()).isEmpty();
+        Bookmark first = bookmarkDao.findByUrl("https://import-csv-1.example.com").orElseThrow();
+        assertThat(first.getTitle()).isEqualTo("CSV One");
+        assertThat(bookmarkTagDao.findTagsByBookmarkId(first.getId())).extracting(Tag::getName)
+            .containsExactlyInAnyOrder("import-csv", "import-java");
+    }
+
+    @Test
+    @DisplayName("Should cap the error list but keep counting")
+    void shouldCapTheErrorListButKeepCounting() throws IOException {
+        // Given
+        importer = new BookmarkImporter(bookmarkService, objectMapper, validator, 2, 1);
+        String ndjson = "bad\nbad\nbad\n";
+
+        // When
+        ImportResult result = importer.importFrom(stream(ndjson), BulkFormat.NDJSON, false);
+
+        // Then
+        assertThat(result.failed()).isEqualTo(3);
+        assertThat(result.errors()).hasSize(1);
+        assertThat(result.errorsTruncated()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should resume after the checkpointed records and report each committed chunk")
+    void shouldResumeAfterTheCheckpointedRecordsAndReportEachCommittedChunk() throws IOException {
+        // Given: the first two records were committed before the previous run stopped
+        String ndjson = String.join("\n",
+            "{\"url\":\"https://import-resume-1.example.com\"}",
+            "{\"url\":\"https://import-resume-2.example.com\"}",
+            "{\"url\":\"https://import-resume-3.example.com\"}",
+            "not json",
+            "{\"url\":\"https://import-resume-4.example.com\"}");
+        List<ImportCheckpoint> checkpoints = new ArrayList<>();
+        List<ImportError> reportedErrors = new ArrayList<>();
+
+        // When
+        ImportResult result = importer.importFrom(stream(ndjson), BulkFormat.NDJSON, false,
+            new ImportCheckpoint(2, 2, 0, 0), (checkpoint, newErrors) -> {
+                checkpoints.add(checkpoint);
+                reportedErrors.addAll(newErrors);
+            });
+
+        // Then
+        assertThat(result.imported()).isEqualTo(4);
+        assertThat(result.failed()).isEqualTo(1);
+        assertThat(checkpoints).last().isEqualTo(new ImportCheckpoint(5, 4, 0, 1));
+        assertThat(checkpoints).extracting(ImportCheckpoint::records).isSorted();
+        assertThat(reportedErrors).extracting(ImportError::line).containsExactly(4L);
+        assertThat(bookmarkDao.findByUrl("https://import-resume-1.example.com")).isEmpty();
+        assertThat(bookmarkDao.findByUrl("https://import-resume-3.example.com")).isPresent();
+        assertThat(bookmarkDao.findByUrl("https://import-resume-4.example.com")).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should register a conflicting chunk one by one and report only the conflicting line")
+    void shouldRegisterAConflictingChunkOneByOneAndReportOnlyTheConflictingLine() throws IOException {
+        // Given: the second URL is registered by another request between the check and the insert
+        BookmarkService racingService = mock(BookmarkService.class);
+        when(racingService.importBatch(argThat(chunk -> chunk != null && chunk.size() == 2)))
+            .thenThrow(new DuplicateKeyException("duplicate"));
+        when(racingService.importBatch(argThat(chunk -> chunk != null && chunk.size() == 1
+            && chunk.get(0).getUrl().equals("https://import-race-1.example.com")))).thenReturn(List.of());
+        when(racingService.importBatch(argThat(chunk -> chunk != null && chunk.size() == 1
+            && chunk.get(0).getUrl().equals("https://import-race-2.example.com"))))
+            .thenThrow(new DuplicateKeyException("duplicate"));
+        importer = new BookmarkImporter(racingService, objectMapper, validator, 2, 10);
+        String ndjson = String.join("\n",
+            "{\"url\":\"https://import-race-1.example.com\"}",
+            "{\"url\":\"https://import-race-2.example.com\"}");
+
+        // When
+        ImportResult result = importer.importFrom(stream(ndjson), BulkFormat.NDJSON, false);
+
+        // Then
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.duplicates()).isEqualTo(1);
+        assertThat(result.errors()).extracting(ImportError::line, ImportError::errorCode)
+            .containsExactly(tuple(2L, "DUPLICATE_URL"));
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream gzip(String body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+}
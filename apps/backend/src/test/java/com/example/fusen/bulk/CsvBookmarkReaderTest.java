@@ -0,0 +1,106 @@
+package com.example.fusen.bulk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.fusen.exception.InvalidImportException;
+
+@DisplayName("CsvBookmarkReader Tests")
+class CsvBookmarkReaderTest {
+
+    @Test
+    @DisplayName("Should map columns by header name and split quoted tags")
+    void shouldMapColumnsByHeaderNameAndSplitQuotedTags() throws IOException {
+        // Given
+        String csv = "\uFEFFTags,URL,Title\r\n"
+            + "\"java,spring\",https://a.example.com,A\r\n"
+            + "news,https://b.example.com,\"Say \"\"hi\"\"\"\r\n";
+
+        try (CsvBookmarkReader reader = new CsvBookmarkReader(new StringReader(csv))) {
+            // When
+            ImportRecord first = reader.next();
+            ImportRecord second = reader.next();
+
+            // Then
+            assertThat(first.line()).isEqualTo(2);
+            assertThat(first.request().getUrl()).isEqualTo("https://a.example.com");
+            assertThat(first.request().getTitle()).isEqualTo("A");
+            assertThat(first.request().getDescription()).isNull();
+            assertThat(first.request().getTags()).containsExactly("java", "spring");
+            assertThat(second.request().getTitle()).isEqualTo("Say \"hi\"");
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep line numbers across quoted line breaks and blank lines")
+    void shouldKeepLineNumbersAcrossQuotedLineBreaksAndBlankLines() throws IOException {
+        // Given
+        String csv = "url,description\n"
+            + "https://a.example.com,\"first\nsecond\"\n"
+            + "\n"
+            + "https://b.example.com,\n";
+
+        try (CsvBookmarkReader reader = new CsvBookmarkReader(new StringReader(csv))) {
+            // When
+            ImportRecord first = reader.next();
+            ImportRecord second = reader.next();
+
+            // Then
+            assertThat(first.request().getDescription()).isEqualTo("first\nsecond");
+            assertThat(second.line()).isEqualTo(5);
+            assertThat(second.request().getUrl()).isEqualTo("https://b.example.com");
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("Should report an unterminated quote as an invalid record")
+    void shouldReportUnterminatedQuoteAsInvalidRecord() throws IOException {
+        // Given
+        String csv = "url,title\nhttps://a.example.com,\"open";
+
+        try (CsvBookmarkReader reader = new CsvBookmarkReader(new StringReader(csv))) {
+            // When
+            ImportRecord record = reader.next();
+
+            // Then
+            assertThat(record.request()).isNull();
+            assertThat(record.line()).isEqualTo(2);
+            assertThat(record.error()).contains("Unterminated");
+        }
+    }
+
+    @Test
+    @DisplayName("Should report a record longer than the limit without buffering it")
+    void shouldReportRecordLongerThanTheLimit() throws IOException {
+        // Given
+        String csv = "url\nhttps://a.example.com/" + "x".repeat(BookmarkRecordReader.MAX_RECORD_CHARS) + "\n"
+            + "https://b.example.com\n";
+
+        try (CsvBookmarkReader reader = new CsvBookmarkReader(new StringReader(csv))) {
+            // When
+            ImportRecord tooLong = reader.next();
+            ImportRecord next = reader.next();
+
+            // Then
+            assertThat(tooLong.error()).contains("exceeds");
+            assertThat(next.request().getUrl()).isEqualTo("https://b.example.com");
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a header without a url column")
+    void shouldRejectHeaderWithoutUrlColumn() {
+        // When & Then
+        assertThatThrownBy(() -> new CsvBookmarkReader(new StringReader("title,tags\nA,java\n")))
+            .isInstanceOf(InvalidImportException.class)
+            .hasMessageContaining("url column");
+    }
+}
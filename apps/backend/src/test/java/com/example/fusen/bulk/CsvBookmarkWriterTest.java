@@ -0,0 +1,82 @@
+package com.example.fusen.bulk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.fusen.TestDataBuilder;
+import com.example.fusen.dto.BookmarkResponse;
+import com.example.fusen.entity.Bookmark;
+
+@DisplayName("CsvBookmarkWriter Tests")
+class CsvBookmarkWriterTest {
+
+    @Test
+    @DisplayName("Should quote only fields that need it and join tags into one field")
+    void shouldQuoteOnlyFieldsThatNeedItAndJoinTagsIntoOneField() throws IOException {
+        // Given
+        Bookmark bookmark = TestDataBuilder.bookmark()
+            .id(7L)
+            .url("https://a.example.com")
+            .title("Say \"hi\", world")
+            .description("line1\nline2")
+            .tags(new LinkedHashSet<>(List.of(
+                TestDataBuilder.tag().name("java").build(),
+                TestDataBuilder.tag().name("spring").build())))
+            .createdAt(LocalDateTime.of(2023, 1, 1, 10, 0, 0))
+            .updatedAt(LocalDateTime.of(2023, 1, 2, 10, 0, 0))
+            .build();
+        StringWriter out = new StringWriter();
+
+        // When
+        try (CsvBookmarkWriter writer = new CsvBookmarkWriter(out)) {
+            writer.begin();
+            writer.write(new BookmarkResponse(bookmark));
+        }
+
+        // Then
+        assertThat(out.toString()).isEqualTo(CsvBookmarkWriter.HEADER + "\r\n"
+            + "7,https://a.example.com,\"Say \"\"hi\"\", world\",\"line1\nline2\",\"java,spring\","
+            + "2023-01-01T10:00:00Z,2023-01-02T10:00:00Z\r\n");
+    }
+
+    @Test
+    @DisplayName("Should write output that the CSV importer reads back")
+    void shouldWriteOutputThatTheCsvImporterReadsBack() throws IOException {
+        // Given
+        Bookmark bookmark = TestDataBuilder.bookmark()
+            .id(1L)
+            .url("https://roundtrip.example.com")
+            .title("Title, with comma")
+            .description(null)
+            .tags(new LinkedHashSet<>(List.of(
+                TestDataBuilder.tag().name("a").build(),
+                TestDataBuilder.tag().name("b").build())))
+            .build();
+        StringWriter out = new StringWriter();
+        try (CsvBookmarkWriter writer = new CsvBookmarkWriter(out)) {
+            writer.begin();
+            writer.write(new BookmarkResponse(bookmark));
+        }
+
+        // When
+        try (CsvBookmarkReader reader = new CsvBookmarkReader(new StringReader(out.toString()))) {
+            ImportRecord record = reader.next();
+
+            // Then
+            assertThat(record.request().getUrl()).isEqualTo("https://roundtrip.example.com");
+            assertThat(record.request().getTitle()).isEqualTo("Title, with comma");
+            assertThat(record.request().getDescription()).isNullOrEmpty();
+            assertThat(record.request().getTags()).containsExactly("a", "b");
+            assertThat(reader.next()).isNull();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.fusen.bulk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@DisplayName("NdjsonBookmarkReader Tests")
+class NdjsonBookmarkReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should read one bookmark per line and skip blank lines")
+    void shouldReadOneBookmarkPerLineAndSkipBlankLines() throws IOException {
+        // Given
+        String ndjson = "{\"url\":\"https://a.example.com\",\"tags\":[\"java\"]}\r\n"
+            + "\n"
+            + "{\"url\":\"https://b.example.com\",\"title\":\"B\"}";
+
+        try (NdjsonBookmarkReader reader = new NdjsonBookmarkReader(new StringReader(ndjson), objectMapper)) {
+            // When
+            ImportRecord first = reader.next();
+            ImportRecord second = reader.next();
+
+            // Then
+            assertThat(first.line()).isEqualTo(1);
+            assertThat(first.request().getTags()).containsExactly("java");
+            assertThat(second.line()).isEqualTo(3);
+            assertThat(second.request().getTitle()).isEqualTo("B");
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("Should report malformed JSON and continue with the next line")
+    void shouldReportMalformedJsonAndContinueWithTheNextLine() throws IOException {
+        // Given
+        String ndjson = "{\"url\": \n{\"url\":\"https://b.example.com\"}\n";
+
+        try (NdjsonBookmarkReader reader = new NdjsonBookmarkReader(new StringReader(ndjson), objectMapper)) {
+            // When
+            ImportRecord malformed = reader.next();
+            ImportRecord next = reader.next();
+
+            // Then
+            assertThat(malformed.request()).isNull();
+            assertThat(malformed.error()).startsWith("Malformed JSON");
+            assertThat(next.line()).isEqualTo(2);
+            assertThat(next.request().getUrl()).isEqualTo("https://b.example.com");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.fusen.bulk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("NetscapeBookmarkReader Tests")
+class NetscapeBookmarkReaderTest {
+
+    private static final String BOOKMARKS_HTML = """
+        <!DOCTYPE NETSCAPE-Bookmark-file-1>
+        <!-- This is an automatically generated file.
+             It will be read and overwritten. -->
+        <META HTTP-EQUIV="Content-Type" CONTENT="text/html; charset=UTF-8">
+        <TITLE>Bookmarks</TITLE>
+        <H1>Bookmarks</H1>
+        <DL><p>
+            <DT><H3 ADD_DATE="1700000000" PERSONAL_TOOLBAR_FOLDER="true">Bookmarks bar</H3>
+            <DL><p>
+                <DT><H3>Dev</H3>
+                <DL><p>
+                    <DT><H3>Java &amp; JVM</H3>
+                    <DL><p>
+                        <DT><A HREF="https://a.example.com/?q=1&amp;r=2" ADD_DATE="1700000000" TAGS="spring,boot">A &lt;1&gt;</A>
+                        <DD>First line
+        second line
+                    </DL><p>
+                    <DT><A href='https://b.example.com'>B</A>
+                </DL><p>
+            </DL><p>
+            <DT><A HREF="https://c.example.com">&#x65E5;&#26412; &unknown; caf&eacute</A>
+        </DL><p>
+        """;
+
+    @Test
+    @DisplayName("Should map enclosing folders to tags and read the description after each link")
+    void shouldMapEnclosingFoldersToTagsAndReadTheDescriptionAfterEachLink() throws IOException {
+        try (NetscapeBookmarkReader reader = new NetscapeBookmarkReader(new StringReader(BOOKMARKS_HTML))) {
+            // When
+            ImportRecord first = reader.next();
+            ImportRecord second = reader.next();
+            ImportRecord third = reader.next();
+
+            // Then
+            assertThat(first.line()).isEqualTo(14);
+            assertThat(first.request().getUrl()).isEqualTo("https://a.example.com/?q=1&r=2");
+            assertThat(first.request().getTitle()).isEqualTo("A <1>");
+            assertThat(first.request().getDescription()).isEqualTo("First line\nsecond line");
+            assertThat(first.request().getTags()).containsExactly("Dev", "Java & JVM", "spring", "boot");
+            assertThat(second.request().getUrl()).isEqualTo("https://b.example.com");
+            assertThat(second.request().getDescription()).isNull();
+            assertThat(second.request().getTags()).containsExactly("Dev");
+            assertThat(third.request().getTitle()).isEqualTo("日本 &unknown; caf&eacute");
+            assertThat(third.request().getTags()).isEmpty();
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("Should report an oversized link as an invalid record and keep reading")
+    void shouldReportAnOversizedLinkAsAnInvalidRecordAndKeepReading() throws IOException {
+        // Given
+        String html = "<DL><p>\n<DT><A HREF=\"https://long.example.com\">"
+            + "x".repeat(BookmarkRecordReader.MAX_RECORD_CHARS + 1) + "</A>\n"
+            + "<DT><A HREF=\"https://next.example.com\">Next</A>\n</DL><p>\n";
+
+        try (NetscapeBookmarkReader reader = new NetscapeBookmarkReader(new StringReader(html))) {
+            // When
+            ImportRecord first = reader.next();
+            ImportRecord second = reader.next();
+
+            // Then
+            assertThat(first.line()).isEqualTo(2);
+            assertThat(first.request()).isNull();
+            assertThat(first.error()).contains("exceeds");
+            assertThat(second.request().getUrl()).isEqualTo("https://next.example.com");
+            assertThat(reader.next()).isNull();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.fusen.bulk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.fusen.TestDataBuilder;
+import com.example.fusen.dto.BookmarkResponse;
+import com.example.fusen.entity.Bookmark;
+
+@DisplayName("NetscapeBookmarkWriter Tests")
+class NetscapeBookmarkWriterTest {
+
+    @Test
+    @DisplayName("Should write escaped links with timestamps and tags between header and footer")
+    void shouldWriteEscapedLinksWithTimestampsAndTagsBetweenHeaderAndFooter() throws IOException {
+        // Given
+        Bookmark bookmark = TestDataBuilder.bookmark()
+            .url("https://a.example.com/?q=1&r=2")
+            .title("A <\"1\">")
+            .description("Notes")
+            .tags(new LinkedHashSet<>(List.of(
+                TestDataBuilder.tag().name("java").build(),
+                TestDataBuilder.tag().name("spring").build())))
+            .createdAt(LocalDateTime.of(2023, 11, 14, 22, 13, 20))
+            .updatedAt(LocalDateTime.of(2023, 11, 14, 22, 13, 21))
+            .build();
+        StringWriter out = new StringWriter();
+
+        // When
+        try (NetscapeBookmarkWriter writer = new NetscapeBookmarkWriter(out)) {
+            writer.begin();
+            writer.write(new BookmarkResponse(bookmark));
+        }
+
+        // Then
+        assertThat(out.toString()).isEqualTo(NetscapeBookmarkWriter.HEADER
+            + "    <DT><A HREF=\"https://a.example.com/?q=1&amp;r=2\" ADD_DATE=\"1700000000\""
+            + " LAST_MODIFIED=\"1700000001\" TAGS=\"java,spring\">A &lt;&quot;1&quot;&gt;</A>\n"
+            + "    <DD>Notes\n"
+            + NetscapeBookmarkWriter.FOOTER);
+    }
+
+    @Test
+    @DisplayName("Should write output that the HTML importer reads back")
+    void shouldWriteOutputThatTheHtmlImporterReadsBack() throws IOException {
+        // Given
+        Bookmark bookmark = TestDataBuilder.bookmark()
+            .url("https://roundtrip.example.com/?a=1&b=2")
+            .title("Fish & <Chips>")
+            .description(null)
+            .tags(new LinkedHashSet<>(List.of(
+                TestDataBuilder.tag().name("a").build(),
+                TestDataBuilder.tag().name("b").build())))
+            .build();
+        StringWriter out = new StringWriter();
+        try (NetscapeBookmarkWriter writer = new NetscapeBookmarkWriter(out)) {
+            writer.begin();
+            writer.write(new BookmarkResponse(bookmark));
+        }
+
+        // When
+        try (NetscapeBookmarkReader reader = new NetscapeBookmarkReader(new StringReader(out.toString()))) {
+            ImportRecord record = reader.next();
+
+            // Then
+            assertThat(record.request().getUrl()).isEqualTo("https://roundtrip.example.com/?a=1&b=2");
+            assertThat(record.request().getTitle()).isEqualTo("Fish & <Chips>");
+            assertThat(record.request().getDescription()).isNull();
+            assertThat(record.request().getTags()).containsExactly("a", "b");
+            assertThat(reader.next()).isNull();
+        }
+    }
+}
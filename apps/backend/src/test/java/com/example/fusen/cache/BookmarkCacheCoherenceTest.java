@@ -0,0 +1,81 @@
+package com.example.fusen.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.fusen.FusenApplication;
+import com.example.fusen.TestDataBuilder;
+import com.example.fusen.entity.Bookmark;
+import com.example.fusen.service.BookmarkService;
+
+/**
+ * Two application contexts share one H2 database, standing in for two instances behind a load balancer
+ */
+@DisplayName("Bookmark Cache Coherence Tests")
+class BookmarkCacheCoherenceTest {
+
+    // DB_CLOSE_DELAY=-1 keeps the database for the life of the JVM, so every run gets its own,
+    // and only instance A runs schema.sql against it
+    private static final String DATABASE_URL =
+        "--spring.datasource.url=jdbc:h2:mem:coherence-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+
+    private static ConfigurableApplicationContext instanceA;
+    private static ConfigurableApplicationContext instanceB;
+
+    @BeforeAll
+    static void startInstances() {
+        instanceA = start("--spring.sql.init.mode=always");
+        instanceB = start("--spring.sql.init.mode=never");
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        instanceB.close();
+        instanceA.close();
+    }
+
+    @Test
+    @DisplayName("Should drop a cached bookmark once another instance's update is polled")
+    void shouldDropCachedBookmarkOnceAnotherInstancesUpdateIsPolled() {
+        // Given
+        BookmarkService serviceA = instanceA.getBean(BookmarkService.class);
+        BookmarkService serviceB = instanceB.getBean(BookmarkService.class);
+        BookmarkChangePoller pollerA = instanceA.getBean(BookmarkChangePoller.class);
+        Bookmark created = serviceB.create(TestDataBuilder.bookmark()
+            .url("https://coherence.example.com")
+            .title("Before")
+            .build());
+        pollerA.poll();
+        serviceA.findById(created.getId());
+
+        // When
+        Bookmark edited = serviceB.findById(created.getId());
+        edited.setTitle("After");
+        serviceB.update(edited);
+
+        // Then: A keeps serving its cached copy until it polls
+        assertThat(serviceA.findById(created.getId()).getTitle()).isEqualTo("Before");
+
+        // When
+        pollerA.poll();
+
+        // Then
+        assertThat(serviceA.findById(created.getId()).getTitle()).isEqualTo("After");
+    }
+
+    private static ConfigurableApplicationContext start(String sqlInitMode) {
+        return new SpringApplicationBuilder(FusenApplication.class)
+            .web(WebApplicationType.NONE)
+            .profiles("test")
+            .run(DATABASE_URL, sqlInitMode, "--spring.jpa.hibernate.ddl-auto=none");
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.fusen.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.fusen.TestDataBuilder;
+import com.example.fusen.entity.Bookmark;
+
+@DisplayName("BookmarkCache Tests")
+class BookmarkCacheTest {
+
+    private final BookmarkCache bookmarkCache = new BookmarkCache(1_000_000, Duration.ofMinutes(10));
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should return copies so callers cannot change cached entries")
+    void shouldReturnCopiesSoCallersCannotChangeCachedEntries() {
+        // Given
+        Bookmark bookmark = TestDataBuilder.bookmark().id(1L).title("Original").build();
+        bookmarkCache.putAfterCommit(bookmark, bookmarkCache.generation());
+
+        // When
+        bookmark.setTitle("Changed after put");
+        bookmarkCache.get(1L).get().setTitle("Changed after get");
+
+        // Then
+        assertThat(bookmarkCache.get(1L)).get().extracting(Bookmark::getTitle).isEqualTo("Original");
+    }
+
+    @Test
+    @DisplayName("Should invalidate only after the transaction commits")
+    void shouldInvalidateOnlyAfterTheTransactionCommits() {
+        // Given
+        bookmarkCache.putAfterCommit(TestDataBuilder.bookmark().id(1L).build(), bookmarkCache.generation());
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        bookmarkCache.invalidateAfterCommit(1L);
+
+        // Then
+        assertThat(bookmarkCache.get(1L)).isPresent();
+
+        // When
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Then
+        assertThat(bookmarkCache.get(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not cache a read that started before an invalidation")
+    void shouldNotCacheReadThatStartedBeforeInvalidation() {
+        // Given
+        long loadedAt = bookmarkCache.generation();
+        bookmarkCache.invalidateAfterCommit(1L);
+
+        // When
+        bookmarkCache.putAfterCommit(TestDataBuilder.bookmark().id(1L).build(), loadedAt);
+
+        // Then
+        assertThat(bookmarkCache.get(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should evict by estimated size")
+    void shouldEvictByEstimatedSize() {
+        // Given
+        BookmarkCache small = new BookmarkCache(1_000, Duration.ofMinutes(10));
+        String description = "x".repeat(200);
+
+        // When
+        small.putAfterCommit(TestDataBuilder.bookmark().id(1L).description(description).build(), small.generation());
+        small.putAfterCommit(TestDataBuilder.bookmark().id(2L).description(description).build(), small.generation());
+
+        // Then
+        assertThat(small.get(1L)).isEmpty();
+        assertThat(small.get(2L)).isPresent();
+        assertThat(small.stats().evictions()).isEqualTo(1);
+        assertThat(small.stats().weight()).isLessThanOrEqualTo(1_000);
+    }
+}
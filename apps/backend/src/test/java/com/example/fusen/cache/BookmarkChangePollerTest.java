@@ -0,0 +1,191 @@
+package com.example.fusen.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.seasar.doma.jdbc.SelectOptions;
+
+import com.example.fusen.dao.BookmarkChangeDao;
+import com.example.fusen.dao.ScheduledLockDao;
+import com.example.fusen.entity.BookmarkChange;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BookmarkChangePoller Tests")
+class BookmarkChangePollerTest {
+
+    private static final Duration GAP_GRACE = Duration.ofSeconds(10);
+
+    @Mock
+    private BookmarkChangeDao bookmarkChangeDao;
+
+    @Mock
+    private ScheduledLockDao scheduledLockDao;
+
+    @Mock
+    private BookmarkCache bookmarkCache;
+
+    @Mock
+    private BookmarkChangeListener listener;
+
+    private final AtomicLong now = new AtomicLong();
+
+    private BookmarkChangePoller poller;
+
+    @BeforeEach
+    void setUp() {
+        poller = new BookmarkChangePoller(bookmarkChangeDao, scheduledLockDao, bookmarkCache, List.of(listener),
+            GAP_GRACE, Duration.ofDays(1), Duration.ofHours(1), now::get);
+        when(bookmarkChangeDao.selectMaxSeq()).thenReturn(10L);
+        poller.poll();
+    }
+
+    @Test
+    @DisplayName("Should start after the changes that existed at startup")
+    void shouldStartAfterTheChangesThatExistedAtStartup() {
+        // Then
+        assertThat(poller.position()).isEqualTo(10L);
+        verify(bookmarkChangeDao, never()).findAfter(anyLong(), any(SelectOptions.class));
+        verify(bookmarkCache, never()).invalidate(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should invalidate changed bookmarks and advance the position")
+    void shouldInvalidateChangedBookmarksAndAdvanceThePosition() {
+        // Given
+        when(bookmarkChangeDao.findAfter(eq(10L), any(SelectOptions.class)))
+            .thenReturn(List.of(change(11L, 1L), change(12L, 2L)));
+
+        // When
+        poller.poll();
+
+        // Then
+        assertThat(poller.position()).isEqualTo(12L);
+        verify(bookmarkCache).invalidate(1L);
+        verify(bookmarkCache).invalidate(2L);
+    }
+
+    @Test
+    @DisplayName("Should wait at a gap and invalidate the late commit once it appears")
+    void shouldWaitAtGapAndInvalidateTheLateCommitOnceItAppears() {
+        // Given: seq 11 is still uncommitted while 12 is already visible
+        when(bookmarkChangeDao.findAfter(eq(10L), any(SelectOptions.class)))
+            .thenReturn(List.of(change(12L, 2L)))
+            .thenReturn(List.of(change(11L, 1L), change(12L, 2L)));
+
+        // When
+        poller.poll();
+
+        // Then
+        assertThat(poller.position()).isEqualTo(10L);
+        verify(bookmarkCache).invalidate(2L);
+
+        // When
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        poller.poll();
+
+        // Then
+        assertThat(poller.position()).isEqualTo(12L);
+        verify(bookmarkCache).invalidate(1L);
+        verify(bookmarkCache, times(1)).invalidate(2L);
+    }
+
+    @Test
+    @DisplayName("Should skip a gap that stays empty past the grace period")
+    void shouldSkipGapThatStaysEmptyPastTheGracePeriod() {
+        // Given: seq 11 was rolled back
+        when(bookmarkChangeDao.findAfter(eq(10L), any(SelectOptions.class)))
+            .thenReturn(List.of(change(12L, 2L)));
+
+        // When
+        poller.poll();
+        now.addAndGet(GAP_GRACE.toNanos());
+        poller.poll();
+
+        // Then
+        assertThat(poller.position()).isEqualTo(12L);
+        verify(bookmarkCache, times(1)).invalidate(2L);
+    }
+
+    @Test
+    @DisplayName("Should pass changed bookmarks to listeners and retry them when a listener fails")
+    void shouldPassChangedBookmarksToListenersAndRetryThemWhenAListenerFails() {
+        // Given
+        when(bookmarkChangeDao.findAfter(eq(10L), any(SelectOptions.class)))
+            .thenReturn(List.of(change(11L, 1L), change(12L, 1L), change(13L, 2L)));
+        doThrow(new IllegalStateException("database unavailable")).doNothing().when(listener).changed(any());
+
+        // When
+        assertThatThrownBy(poller::poll).isInstanceOf(IllegalStateException.class);
+
+        // Then
+        assertThat(poller.position()).isEqualTo(10L);
+
+        // When
+        poller.poll();
+
+        // Then
+        assertThat(poller.position()).isEqualTo(13L);
+        verify(listener, times(2)).changed(Set.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Should prune old changes only when the prune lock is acquired")
+    void shouldPruneOldChangesOnlyWhenThePruneLockIsAcquired() {
+        // Given
+        when(scheduledLockDao.acquire(eq(BookmarkChangePoller.PRUNE_LOCK), any(LocalDateTime.class),
+            any(LocalDateTime.class))).thenReturn(1, 0);
+
+        // When
+        poller.prune();
+        poller.prune();
+
+        // Then
+        verify(bookmarkChangeDao, times(1)).deleteOlderThan(any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should hold the prune lock for slightly less than the interval")
+    void shouldHoldThePruneLockForSlightlyLessThanTheInterval() {
+        // Given
+        ArgumentCaptor<LocalDateTime> lockedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> lockedUntil = ArgumentCaptor.forClass(LocalDateTime.class);
+
+        // When
+        poller.prune();
+
+        // Then
+        verify(scheduledLockDao).acquire(eq(BookmarkChangePoller.PRUNE_LOCK), lockedAt.capture(),
+            lockedUntil.capture());
+        assertThat(Duration.between(lockedAt.getValue(), lockedUntil.getValue())).isEqualTo(Duration.ofMinutes(54));
+        verify(bookmarkChangeDao, never()).deleteOlderThan(any(LocalDateTime.class));
+    }
+
+    private static BookmarkChange change(Long seq, Long bookmarkId) {
+        return BookmarkChange.builder()
+            .seq(seq)
+            .bookmarkId(bookmarkId)
+            .changeType(BookmarkChange.Type.UPDATED)
+            .build();
+    }
+}
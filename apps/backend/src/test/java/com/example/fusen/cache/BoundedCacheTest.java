@@ -0,0 +1,106 @@
+package com.example.fusen.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("BoundedCache Tests")
+class BoundedCacheTest {
+
+    @Test
+    @DisplayName("Should count hits and misses")
+    void shouldCountHitsAndMisses() {
+        // Given
+        BoundedCache<String, String> cache = new BoundedCache<>(10);
+        cache.put("a", "A");
+
+        // When
+        String hit = cache.get("a");
+        String miss = cache.get("b");
+
+        // Then
+        assertThat(hit).isEqualTo("A");
+        assertThat(miss).isNull();
+        assertThat(cache.stats()).isEqualTo(new CacheStats(1, 1, 0, 1, 1));
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used entry when full")
+    void shouldEvictLeastRecentlyUsedEntryWhenFull() {
+        // Given
+        BoundedCache<String, String> cache = new BoundedCache<>(2);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.get("a");
+
+        // When
+        cache.put("c", "C");
+
+        // Then
+        assertThat(cache.get("a")).isEqualTo("A");
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isEqualTo("C");
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should remove invalidated entries")
+    void shouldRemoveInvalidatedEntries() {
+        // Given
+        BoundedCache<String, String> cache = new BoundedCache<>(10);
+        cache.put("a", "A");
+        cache.put("b", "B");
+
+        // When
+        cache.invalidate("a");
+
+        // Then
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isEqualTo("B");
+
+        // When
+        cache.invalidateAll();
+
+        // Then
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should evict by weight and expire after TTL")
+    void shouldEvictByWeightAndExpireAfterTtl() {
+        // Given
+        AtomicLong now = new AtomicLong();
+        BoundedCache<String, String> cache = new BoundedCache<>(10, String::length, Duration.ofSeconds(1), now::get);
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+
+        // When
+        cache.put("c", "cccc");
+
+        // Then
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.stats().weight()).isEqualTo(8);
+
+        // When
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        // Then
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isNull();
+        assertThat(cache.stats().evictions()).isEqualTo(3);
+        assertThat(cache.stats().weight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive max size")
+    void shouldRejectNonPositiveMaxSize() {
+        assertThatThrownBy(() -> new BoundedCache<String, String>(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
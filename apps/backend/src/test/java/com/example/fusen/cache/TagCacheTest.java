@@ -0,0 +1,75 @@
+package com.example.fusen.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.fusen.TestDataBuilder;
+import com.example.fusen.entity.Tag;
+
+@DisplayName("TagCache Tests")
+class TagCacheTest {
+
+    private final TagCache tagCache = new TagCache(10);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should put immediately outside of a transaction")
+    void shouldPutImmediatelyOutsideOfTransaction() {
+        // Given
+        Tag tag = TestDataBuilder.tag().id(1L).name("java").build();
+
+        // When
+        tagCache.putAfterCommit(tag);
+
+        // Then
+        assertThat(tagCache.get("java")).contains(tag);
+    }
+
+    @Test
+    @DisplayName("Should put only after the transaction commits")
+    void shouldPutOnlyAfterTheTransactionCommits() {
+        // Given
+        Tag tag = TestDataBuilder.tag().id(1L).name("java").build();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        tagCache.putAfterCommit(tag);
+
+        // Then
+        assertThat(tagCache.get("java")).isEmpty();
+
+        // When
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Then
+        assertThat(tagCache.get("java")).contains(tag);
+    }
+
+    @Test
+    @DisplayName("Should not put when the transaction rolls back")
+    void shouldNotPutWhenTheTransactionRollsBack() {
+        // Given
+        Tag tag = TestDataBuilder.tag().id(1L).name("java").build();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        tagCache.putAfterCommit(tag);
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Then
+        assertThat(tagCache.get("java")).isEmpty();
+        assertThat(tagCache.stats().size()).isZero();
+    }
+}
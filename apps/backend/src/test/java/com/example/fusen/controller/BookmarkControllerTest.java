@@ -3,9 +3,15 @@ package com.example.fusen.controller;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -13,9 +19,13 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -34,11 +44,19 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.example.fusen.TestDataBuilder;
+import com.example.fusen.bulk.BookmarkExporter;
+import com.example.fusen.bulk.BookmarkImporter;
+import com.example.fusen.bulk.BulkFormat;
+import com.example.fusen.dto.BookmarkCursor;
+import com.example.fusen.dto.ImportError;
+import com.example.fusen.dto.ImportResult;
+import com.example.fusen.dto.TagFilter;
 import com.example.fusen.entity.Bookmark;
 import com.example.fusen.entity.Tag;
 import com.example.fusen.exception.BookmarkNotFoundException;
 import com.example.fusen.exception.DuplicateUrlException;
 import com.example.fusen.exception.InvalidUrlException;
+import com.example.fusen.exception.VersionConflictException;
 import com.example.fusen.service.BookmarkService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -53,6 +71,12 @@ class BookmarkControllerTest {
     @MockBean
     private BookmarkService bookmarkService;
 
+    @MockBean
+    private BookmarkImporter bookmarkImporter;
+
+    @MockBean
+    private BookmarkExporter bookmarkExporter;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -73,6 +97,7 @@ class BookmarkControllerTest {
             .tags(tags)
             .createdAt(LocalDateTime.of(2023, 1, 1, 10, 0, 0))
             .updatedAt(LocalDateTime.of(2023, 1, 1, 10, 0, 0))
+            .version(1L)
             .build();
     }
 
@@ -120,6 +145,165 @@ class BookmarkControllerTest {
             verify(bookmarkService).findAll(5, 10);
         }
 
+        @Test
+        @DisplayName("Should return first cursor page with next cursor header")
+        void shouldReturnFirstCursorPageWithNextCursorHeader() throws Exception {
+            // Given
+            when(bookmarkService.findAllAfter(null, 1)).thenReturn(Arrays.asList(testBookmark));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookmarks")
+                .param("limit", "1")
+                .param("after", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(header().string("X-Next-Cursor", BookmarkCursor.of(testBookmark).encode()));
+
+            verify(bookmarkService).findAllAfter(null, 1);
+        }
+
+        @Test
+        @DisplayName("Should decode cursor and omit next cursor on last page")
+        void shouldDecodeCursorAndOmitNextCursorOnLastPage() throws Exception {
+            // Given
+            BookmarkCursor cursor = BookmarkCursor.of(testBookmark);
+            when(bookmarkService.findAllAfter(cursor, 10)).thenReturn(Arrays.asList());
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookmarks")
+                .param("after", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+            verify(bookmarkService).findAllAfter(cursor, 10);
+        }
+
+        @Test
+        @DisplayName("Should return 400 for malformed cursor")
+        void shouldReturn400ForMalformedCursor() throws Exception {
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookmarks")
+                .param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode", is("INVALID_CURSOR")));
+        }
+
+        @Test
+        @DisplayName("Should return 400 for malformed cursor even when the collection ETag matches")
+        void shouldReturn400ForMalformedCursorEvenWhenTheCollectionETagMatches() throws Exception {
+            // Given
+            when(bookmarkService.collectionVersion()).thenReturn(42L);
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookmarks")
+                .param("after", "not-a-cursor")
+                .header("If-None-Match", "\"42\""))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode", is("INVALID_CURSOR")));
+        }
+
+        @Test
+        @DisplayName("Should return 400 for invalid tag filter even when the collection ETag matches")
+        void shouldReturn400ForInvalidTagFilterEvenWhenTheCollectionETagMatches() throws Exception {
+            // Given
+            when(bookmarkService.collectionVersion()).thenReturn(42L);
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookmarks")
+                .param("tags", "java")
+                .param("mode", "none")
+                .header("If-None-Match", "\"42\""))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode", is("INVALID_TAG_FILTER")));
+        }
+
+        @Test
+        @DisplayName("Should return collection ETag with the page")
+        void shouldReturnCollectionETagWithThePage() throws Exception {
+            // Given
+            when(bookmarkService.collectionVersion()).thenReturn(42L);
+            when(bookmarkService.findAll(10, 0)).thenReturn(Arrays.asList(testBookmark));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookmarks"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"42\""))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+        }
+
+        @Test
+        @DisplayName("Should return 304 without loading the page when collection is unchanged")
+        void shouldReturn304WithoutLoadingThePageWhenCollectionIsUnchanged() throws Exception {
+            // Given
+            when(bookmarkService.collectionVersion()).thenReturn(42L);
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookmarks")
+                .header("If-None-Match", "\"41\", W/\"42\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"42\""))
+                .andExpect(content().string(""));
+
+            verify(bookmarkService, never()).findAll(anyInt(), anyInt());
+            verify(bookmarkService, never()).findAllAfter(any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should filter by tags with offset pagination")
+        void shouldFilterByTagsWithOffsetPagination() throws Exception {
+            // Given
+            TagFilter filter = new TagFilter(List.of("java", "spring"), TagFilter.Mode.ANY, List.of("kotlin"));
+            when(bookmarkService.findByTags(filter, 5, 10)).thenReturn(Arrays.asList(testBookmark));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookmarks")
+                .param("tags", "spring, java,,Java")
+                .param("mode", "any")
+                .param("exclude", "kotlin")
+                .param("limit", "5")
+                .param("offset", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].tags[0]", is("java")));
+
+            verify(bookmarkService).findByTags(filter, 5, 10);
+            verify(bookmarkService, never()).findAll(anyInt(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should filter by tags with cursor pagination")
+        void shouldFilterByTagsWithCursorPagination() throws Exception {
+            // Given
+            TagFilter filter = new TagFilter(List.of(), TagFilter.Mode.ALL, List.of("kotlin"));
+            when(bookmarkService.findByTagsAfter(filter, null, 1)).thenReturn(Arrays.asList(testBookmark));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookmarks")
+                .param("exclude", "kotlin")
+                .param("limit", "1")
+                .param("after", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string("X-Next-Cursor", BookmarkCursor.of(testBookmark).encode()));
+
+            verify(bookmarkService, never()).findAllAfter(any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should return 400 for an unknown tag filter mode")
+        void shouldReturn400ForAnUnknownTagFilterMode() throws Exception {
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookmarks")
+                .param("tags", "java")
+                .param("mode", "none"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode", is("INVALID_TAG_FILTER")));
+
+            verify(bookmarkService, never()).findByTags(any(), anyInt(), anyInt());
+        }
+
         @Test
         @DisplayName("Should return empty list when no bookmarks exist")
         void shouldReturnEmptyListWhenNoBookmarksExist() throws Exception {
@@ -133,6 +317,54 @@ class BookmarkControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /api/v1/bookmarks/search Tests")
+    class SearchBookmarksTests {
+
+        @Test
+        @DisplayName("Should return matching bookmarks in ranked order")
+        void shouldReturnMatchingBookmarksInRankedOrder() throws Exception {
+            // Given
+            when(bookmarkService.search("test title", 10)).thenReturn(List.of(testBookmark));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookmarks/search").param("q", "test title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].tags[0]", is("java")));
+        }
+
+        @Test
+        @DisplayName("Should cap the limit")
+        void shouldCapTheLimit() throws Exception {
+            // Given
+            when(bookmarkService.search("java", BookmarkController.MAX_SEARCH_LIMIT)).thenReturn(List.of());
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookmarks/search").param("q", "java").param("limit", "100000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+            verify(bookmarkService).search("java", BookmarkController.MAX_SEARCH_LIMIT);
+        }
+
+        @Test
+        @DisplayName("Should use the fuzzy search when requested")
+        void shouldUseTheFuzzySearchWhenRequested() throws Exception {
+            // Given
+            when(bookmarkService.fuzzySearch("tset", 10)).thenReturn(List.of(testBookmark));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookmarks/search").param("q", "tset").param("fuzzy", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)));
+
+            verify(bookmarkService, never()).search(anyString(), anyInt());
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/v1/bookmarks/{id} Tests")
     class GetBookmarkByIdTests {
@@ -152,11 +384,44 @@ class BookmarkControllerTest {
                 .andExpect(jsonPath("$.title", is("Test Title")))
                 .andExpect(jsonPath("$.description", is("Test Description")))
                 .andExpect(jsonPath("$.tags", hasSize(1)))
-                .andExpect(jsonPath("$.tags[0]", is("java")));
+                .andExpect(jsonPath("$.tags[0]", is("java")))
+                .andExpect(header().string("ETag", "\"1\""));
 
             verify(bookmarkService).findById(1L);
         }
 
+        @Test
+        @DisplayName("Should return 304 without loading the bookmark when ETag matches")
+        void shouldReturn304WithoutLoadingTheBookmarkWhenETagMatches() throws Exception {
+            // Given
+            when(bookmarkService.findVersionById(1L)).thenReturn(1L);
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookmarks/1")
+                .header("If-None-Match", "\"1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(content().string(""));
+
+            verify(bookmarkService, never()).findById(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should return bookmark when If-None-Match is stale")
+        void shouldReturnBookmarkWhenIfNoneMatchIsStale() throws Exception {
+            // Given
+            testBookmark.setVersion(2L);
+            when(bookmarkService.findVersionById(1L)).thenReturn(2L);
+            when(bookmarkService.findById(1L)).thenReturn(testBookmark);
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookmarks/1")
+                .header("If-None-Match", "\"1\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(header().string("ETag", "\"2\""));
+        }
+
         @Test
         @DisplayName("Should return 404 when bookmark not found")
         void shouldReturn404WhenBookmarkNotFound() throws Exception {
@@ -313,13 +578,13 @@ class BookmarkControllerTest {
                 .url("https://updated-example.com")
                 .title("Updated Title")
                 .description("Updated Description")
+                .version(2L)
                 .build();
 
             Set<Tag> convertedTags = new HashSet<>();
             convertedTags.add(TestDataBuilder.tag().name("java").build());
             convertedTags.add(TestDataBuilder.tag().name("updated").build());
 
-            when(bookmarkService.findById(1L)).thenReturn(testBookmark);
             when(bookmarkService.convertTags(Arrays.asList("java", "updated"))).thenReturn(convertedTags);
             when(bookmarkService.update(any(Bookmark.class))).thenReturn(updatedBookmark);
 
@@ -332,11 +597,14 @@ class BookmarkControllerTest {
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.url", is("https://updated-example.com")))
                 .andExpect(jsonPath("$.title", is("Updated Title")))
-                .andExpect(jsonPath("$.description", is("Updated Description")));
+                .andExpect(jsonPath("$.description", is("Updated Description")))
+                .andExpect(jsonPath("$.version", is(2)))
+                .andExpect(header().string("ETag", "\"2\""));
 
-            verify(bookmarkService).findById(1L);
+            verify(bookmarkService, never()).findById(anyLong());
             verify(bookmarkService).convertTags(Arrays.asList("java", "updated"));
-            verify(bookmarkService).update(any(Bookmark.class));
+            verify(bookmarkService).update(argThat(bookmark -> bookmark.getId().equals(1L)
+                && bookmark.getUrl().equals("https://updated-example.com")));
         }
 
         @Test
@@ -350,7 +618,8 @@ class BookmarkControllerTest {
                 }
                 """;
 
-            when(bookmarkService.findById(999L))
+            when(bookmarkService.convertTags(any())).thenReturn(new HashSet<>());
+            when(bookmarkService.update(any(Bookmark.class)))
                 .thenThrow(new BookmarkNotFoundException("Bookmark not found with id: 999"));
 
             // When & Then
@@ -359,7 +628,78 @@ class BookmarkControllerTest {
                 .content(requestJson))
                 .andExpect(status().isNotFound());
 
-            verify(bookmarkService).findById(999L);
+            verify(bookmarkService).update(any(Bookmark.class));
+        }
+
+        @Test
+        @DisplayName("Should pass If-Match version to service")
+        void shouldPassIfMatchVersionToService() throws Exception {
+            // Given
+            String requestJson = """
+                {
+                    "url": "https://example.com",
+                    "title": "Test Title"
+                }
+                """;
+
+            when(bookmarkService.convertTags(any())).thenReturn(new HashSet<>());
+            when(bookmarkService.update(any(Bookmark.class))).thenReturn(testBookmark);
+
+            // When & Then
+            mockMvc.perform(put("/api/v1/bookmarks/1")
+                .header("If-Match", "W/\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestJson))
+                .andExpect(status().isOk());
+
+            verify(bookmarkService).update(argThat(bookmark -> Long.valueOf(3L).equals(bookmark.getVersion())));
+        }
+
+        @Test
+        @DisplayName("Should return 409 when version conflicts")
+        void shouldReturn409WhenVersionConflicts() throws Exception {
+            // Given
+            String requestJson = """
+                {
+                    "url": "https://example.com",
+                    "title": "Test Title"
+                }
+                """;
+
+            when(bookmarkService.convertTags(any())).thenReturn(new HashSet<>());
+            when(bookmarkService.update(any(Bookmark.class)))
+                .thenThrow(new VersionConflictException("Bookmark has been modified by another request: 1"));
+
+            // When & Then
+            mockMvc.perform(put("/api/v1/bookmarks/1")
+                .header("If-Match", "\"1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestJson))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errorCode", is("VERSION_CONFLICT")));
+        }
+
+        @Test
+        @DisplayName("Should return 409 for malformed If-Match")
+        void shouldReturn409ForMalformedIfMatch() throws Exception {
+            // Given
+            String requestJson = """
+                {
+                    "url": "https://example.com",
+                    "title": "Test Title"
+                }
+                """;
+
+            when(bookmarkService.convertTags(any())).thenReturn(new HashSet<>());
+
+            // When & Then
+            mockMvc.perform(put("/api/v1/bookmarks/1")
+                .header("If-Match", "\"abc\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestJson))
+                .andExpect(status().isConflict());
+
+            verify(bookmarkService, never()).update(any(Bookmark.class));
         }
 
         @Test
@@ -381,6 +721,132 @@ class BookmarkControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST /api/v1/bookmarks/import Tests")
+    class ImportBookmarksTests {
+
+        @Test
+        @DisplayName("Should stream the body to the importer and return the summary")
+        void shouldStreamTheBodyToTheImporterAndReturnTheSummary() throws Exception {
+            // Given
+            ImportResult result = new ImportResult(1, 1, 0,
+                List.of(new ImportError(2, "https://example.com", "DUPLICATE_URL", "duplicate")), false);
+            when(bookmarkImporter.importFrom(any(InputStream.class), eq(BulkFormat.CSV), eq(true)))
+                .thenReturn(result);
+
+            // When & Then
+            mockMvc.perform(post("/api/v1/bookmarks/import")
+                .contentType("text/csv; charset=UTF-8")
+                .header("Content-Encoding", "gzip")
+                .content(new byte[] { 1, 2, 3 }))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.duplicates", is(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(2)))
+                .andExpect(jsonPath("$.errors[0].errorCode", is("DUPLICATE_URL")));
+        }
+
+        @Test
+        @DisplayName("Should accept a Netscape bookmark HTML body")
+        void shouldAcceptANetscapeBookmarkHtmlBody() throws Exception {
+            // Given
+            when(bookmarkImporter.importFrom(any(InputStream.class), eq(BulkFormat.HTML), eq(false)))
+                .thenReturn(new ImportResult(1, 0, 0, List.of(), false));
+
+            // When & Then
+            mockMvc.perform(post("/api/v1/bookmarks/import")
+                .contentType(MediaType.TEXT_HTML)
+                .content("<DL><p><DT><A HREF=\"https://example.com\">Example</A></DL><p>"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)));
+        }
+
+        @Test
+        @DisplayName("Should return 415 for unsupported content type")
+        void shouldReturn415ForUnsupportedContentType() throws Exception {
+            // When & Then
+            mockMvc.perform(post("/api/v1/bookmarks/import")
+                .contentType(MediaType.APPLICATION_XML)
+                .content("<bookmarks/>"))
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(jsonPath("$.errorCode", is("UNSUPPORTED_MEDIA_TYPE")));
+
+            verify(bookmarkImporter, never()).importFrom(any(), any(), anyBoolean());
+        }
+
+        @Test
+        @DisplayName("Should return 400 for unsupported content encoding")
+        void shouldReturn400ForUnsupportedContentEncoding() throws Exception {
+            // When & Then
+            mockMvc.perform(post("/api/v1/bookmarks/import")
+                .contentType(BulkFormat.NDJSON_VALUE)
+                .header("Content-Encoding", "br")
+                .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode", is("INVALID_IMPORT")));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/bookmarks/export Tests")
+    class ExportBookmarksTests {
+
+        @Test
+        @DisplayName("Should stream NDJSON as an attachment by default")
+        void shouldStreamNdjsonAsAnAttachmentByDefault() throws Exception {
+            // Given
+            doAnswer(invocation -> {
+                invocation.getArgument(0, OutputStream.class)
+                    .write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+                return 1L;
+            }).when(bookmarkExporter).exportTo(any(OutputStream.class), eq(BulkFormat.NDJSON));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookmarks/export"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"bookmarks.ndjson\""))
+                .andExpect(content().string("{\"id\":1}\n"));
+        }
+
+        @Test
+        @DisplayName("Should export CSV when requested by format")
+        void shouldExportCsvWhenRequestedByFormat() throws Exception {
+            // Given
+            when(bookmarkExporter.exportTo(any(OutputStream.class), eq(BulkFormat.CSV))).thenReturn(0L);
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookmarks/export").param("format", "CSV"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"bookmarks.csv\""));
+        }
+
+        @Test
+        @DisplayName("Should export Netscape bookmark HTML when requested by format")
+        void shouldExportNetscapeBookmarkHtmlWhenRequestedByFormat() throws Exception {
+            // Given
+            when(bookmarkExporter.exportTo(any(OutputStream.class), eq(BulkFormat.HTML))).thenReturn(0L);
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookmarks/export").param("format", "html"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/html;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"bookmarks.html\""));
+        }
+
+        @Test
+        @DisplayName("Should return 400 for unsupported format")
+        void shouldReturn400ForUnsupportedFormat() throws Exception {
+            // When & Then
+            mockMvc.perform(get("/api/v1/bookmarks/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode", is("UNSUPPORTED_FORMAT")));
+
+            verify(bookmarkExporter, never()).exportTo(any(), any());
+        }
+    }
+
     @Nested
     @DisplayName("DELETE /api/v1/bookmarks/{id} Tests")
     class DeleteBookmarkTests {
@@ -392,7 +858,18 @@ class BookmarkControllerTest {
             mockMvc.perform(delete("/api/v1/bookmarks/1"))
                 .andExpect(status().isNoContent());
 
-            verify(bookmarkService).delete(1L);
+            verify(bookmarkService).delete(1L, null);
+        }
+
+        @Test
+        @DisplayName("Should pass If-Match version to delete")
+        void shouldPassIfMatchVersionToDelete() throws Exception {
+            // When & Then
+            mockMvc.perform(delete("/api/v1/bookmarks/1")
+                .header("If-Match", "\"4\""))
+                .andExpect(status().isNoContent());
+
+            verify(bookmarkService).delete(1L, 4L);
         }
 
         @Test
@@ -400,13 +877,13 @@ class BookmarkControllerTest {
         void shouldReturn404WhenBookmarkNotFoundForDeletion() throws Exception {
             // Given
             doThrow(new BookmarkNotFoundException("Bookmark not found with id: 999"))
-                .when(bookmarkService).delete(999L);
+                .when(bookmarkService).delete(999L, null);
 
             // When & Then
             mockMvc.perform(delete("/api/v1/bookmarks/999"))
                 .andExpect(status().isNotFound());
 
-            verify(bookmarkService).delete(999L);
+            verify(bookmarkService).delete(999L, null);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,205 @@
+package com.example.fusen.controller;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.fusen.bulk.BulkFormat;
+import com.example.fusen.entity.Job;
+import com.example.fusen.entity.JobError;
+import com.example.fusen.exception.JobNotFoundException;
+import com.example.fusen.job.JobRunner;
+import com.example.fusen.service.JobService;
+
+@WebMvcTest(JobController.class)
+@ActiveProfiles("test")
+@DisplayName("JobController Integration Tests")
+class JobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private JobRunner jobRunner;
+
+    @MockBean
+    private JobService jobService;
+
+    @TempDir
+    Path tempDir;
+
+    @Nested
+    @DisplayName("POST /api/v1/jobs/imports Tests")
+    class SubmitImportTests {
+
+        @Test
+        @DisplayName("Should accept the body as a queued job")
+        void shouldAcceptTheBodyAsAQueuedJob() throws Exception {
+            // Given
+            when(jobRunner.submitImport(any(InputStream.class), eq(BulkFormat.CSV), eq(true)))
+                .thenReturn(job(1L, Job.Type.IMPORT, Job.Status.QUEUED, BulkFormat.CSV));
+
+            // When & Then
+            mockMvc.perform(post("/api/v1/jobs/imports")
+                .contentType("text/csv; charset=UTF-8")
+                .header("Content-Encoding", "gzip")
+                .content(new byte[] { 1, 2, 3 }))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/jobs/1"))
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.type", is("IMPORT")))
+                .andExpect(jsonPath("$.status", is("QUEUED")))
+                .andExpect(jsonPath("$.format", is("csv")))
+                .andExpect(jsonPath("$.startedAt", nullValue()));
+        }
+
+        @Test
+        @DisplayName("Should return 400 for unsupported content encoding")
+        void shouldReturn400ForUnsupportedContentEncoding() throws Exception {
+            // When & Then
+            mockMvc.perform(post("/api/v1/jobs/imports")
+                .contentType(BulkFormat.NDJSON_VALUE)
+                .header("Content-Encoding", "br")
+                .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode", is("INVALID_IMPORT")));
+
+            verify(jobRunner, never()).submitImport(any(), any(), anyBoolean());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/jobs/{id} Tests")
+    class GetJobTests {
+
+        @Test
+        @DisplayName("Should return progress and throughput")
+        void shouldReturnProgressAndThroughput() throws Exception {
+            // Given
+            Job job = job(2L, Job.Type.IMPORT, Job.Status.SUCCEEDED, BulkFormat.NDJSON);
+            job.setProcessed(1000L);
+            job.setSucceeded(990L);
+            job.setFailed(10L);
+            job.setStartedAt(LocalDateTime.of(2025, 1, 1, 0, 0, 0));
+            job.setFinishedAt(LocalDateTime.of(2025, 1, 1, 0, 0, 10));
+            when(jobService.findById(2L)).thenReturn(job);
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/jobs/2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("SUCCEEDED")))
+                .andExpect(jsonPath("$.processed", is(1000)))
+                .andExpect(jsonPath("$.failed", is(10)))
+                .andExpect(jsonPath("$.throughput", is(100.0)))
+                .andExpect(jsonPath("$.finishedAt", is("2025-01-01T00:00:10Z")));
+        }
+
+        @Test
+        @DisplayName("Should return 404 for an unknown job")
+        void shouldReturn404ForAnUnknownJob() throws Exception {
+            // Given
+            when(jobService.findById(99L)).thenThrow(new JobNotFoundException("Job not found with id: 99"));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/jobs/99"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.errorCode", is("JOB_NOT_FOUND")));
+        }
+
+        @Test
+        @DisplayName("Should list rejected records")
+        void shouldListRejectedRecords() throws Exception {
+            // Given
+            when(jobService.findErrors(2L, 100, 0)).thenReturn(List.of(JobError.builder()
+                .jobId(2L)
+                .line(3L)
+                .url("ftp://example.com")
+                .errorCode("INVALID_URL")
+                .message("Invalid URL")
+                .build()));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/jobs/2/errors"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].line", is(3)))
+                .andExpect(jsonPath("$[0].errorCode", is("INVALID_URL")));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/jobs/{id}/result Tests")
+    class GetJobResultTests {
+
+        @Test
+        @DisplayName("Should download the file of a succeeded export")
+        void shouldDownloadTheFileOfASucceededExport() throws Exception {
+            // Given
+            Path file = Files.writeString(tempDir.resolve("export.csv"), "id,url\n");
+            Job job = job(3L, Job.Type.EXPORT, Job.Status.SUCCEEDED, BulkFormat.CSV);
+            job.setFilePath(file.toString());
+            when(jobService.findById(3L)).thenReturn(job);
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/jobs/3/result"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.parseMediaType("text/csv")))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"bookmarks.csv\""))
+                .andExpect(content().string("id,url\n"));
+        }
+
+        @Test
+        @DisplayName("Should return 409 while the export is running")
+        void shouldReturn409WhileTheExportIsRunning() throws Exception {
+            // Given
+            when(jobService.findById(4L)).thenReturn(job(4L, Job.Type.EXPORT, Job.Status.RUNNING, BulkFormat.CSV));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/jobs/4/result"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errorCode", is("JOB_NOT_COMPLETED")));
+        }
+    }
+
+    private static Job job(Long id, Job.Type type, Job.Status status, BulkFormat format) {
+        return Job.builder()
+            .id(id)
+            .jobType(type)
+            .status(status)
+            .format(format.name())
+            .processed(0L)
+            .succeeded(0L)
+            .duplicates(0L)
+            .failed(0L)
+            .cancelRequested(false)
+            .createdAt(LocalDateTime.of(2025, 1, 1, 0, 0, 0))
+            .build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.fusen.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.seasar.doma.jdbc.SelectOptions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.fusen.BaseTest;
+import com.example.fusen.entity.BookmarkChange;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("BookmarkChangeDao Integration Tests")
+class BookmarkChangeDaoTest extends BaseTest {
+
+    @Autowired
+    private BookmarkChangeDao bookmarkChangeDao;
+
+    @Test
+    @DisplayName("Should find changes after a sequence number in order")
+    void shouldFindChangesAfterSequenceNumberInOrder() {
+        // Given
+        BookmarkChange first = change(1L, BookmarkChange.Type.CREATED);
+        BookmarkChange second = change(1L, BookmarkChange.Type.UPDATED);
+        BookmarkChange third = change(2L, BookmarkChange.Type.DELETED);
+        bookmarkChangeDao.insert(first);
+        bookmarkChangeDao.insert(second);
+        bookmarkChangeDao.insert(third);
+
+        // When
+        List<BookmarkChange> result = bookmarkChangeDao.findAfter(first.getSeq(), SelectOptions.get().limit(10));
+
+        // Then
+        assertThat(result).extracting(BookmarkChange::getSeq).containsExactly(second.getSeq(), third.getSeq());
+        assertThat(result).extracting(BookmarkChange::getChangeType)
+            .containsExactly(BookmarkChange.Type.UPDATED, BookmarkChange.Type.DELETED);
+        assertThat(result).allSatisfy(change -> assertThat(change.getChangedAt()).isNotNull());
+        assertThat(bookmarkChangeDao.selectMaxSeq()).isEqualTo(third.getSeq());
+    }
+
+    @Test
+    @DisplayName("Should increment collection version")
+    void shouldIncrementCollectionVersion() {
+        // Given
+        Long before = bookmarkChangeDao.selectCollectionVersion();
+
+        // When
+        int updated = bookmarkChangeDao.incrementCollectionVersion();
+
+        // Then
+        assertThat(updated).isEqualTo(1);
+        assertThat(bookmarkChangeDao.selectCollectionVersion()).isEqualTo(before + 1);
+    }
+
+    @Test
+    @DisplayName("Should keep collection version when old changes are deleted")
+    void shouldKeepCollectionVersionWhenOldChangesAreDeleted() {
+        // Given
+        BookmarkChange old = change(1L, BookmarkChange.Type.CREATED);
+        old.setChangedAt(LocalDateTime.now().minusDays(2));
+        bookmarkChangeDao.insert(old);
+        bookmarkChangeDao.incrementCollectionVersion();
+        Long before = bookmarkChangeDao.selectCollectionVersion();
+
+        // When
+        bookmarkChangeDao.deleteOlderThan(LocalDateTime.now().minusDays(1));
+
+        // Then
+        assertThat(bookmarkChangeDao.selectCollectionVersion()).isEqualTo(before);
+    }
+
+    @Test
+    @DisplayName("Should delete only changes older than the retention boundary")
+    void shouldDeleteOnlyChangesOlderThanRetentionBoundary() {
+        // Given
+        BookmarkChange old = change(1L, BookmarkChange.Type.CREATED);
+        old.setChangedAt(LocalDateTime.now().minusDays(2));
+        BookmarkChange recent = change(1L, BookmarkChange.Type.UPDATED);
+        bookmarkChangeDao.insert(old);
+        bookmarkChangeDao.insert(recent);
+
+        // When
+        int deleted = bookmarkChangeDao.deleteOlderThan(LocalDateTime.now().minusDays(1));
+
+        // Then
+        assertThat(deleted).isEqualTo(1);
+        assertThat(bookmarkChangeDao.findAfter(old.getSeq() - 1, SelectOptions.get().limit(10)))
+            .extracting(BookmarkChange::getSeq)
+            .containsExactly(recent.getSeq());
+    }
+
+    private static BookmarkChange change(Long bookmarkId, BookmarkChange.Type type) {
+        return BookmarkChange.builder().bookmarkId(bookmarkId).changeType(type).build();
+    }
+}
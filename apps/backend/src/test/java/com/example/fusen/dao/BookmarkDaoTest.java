@@ -1,7 +1,9 @@
 package com.example.fusen.dao;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,12 +13,15 @@ import org.junit.jupiter.api.Test;
 import org.seasar.doma.jdbc.SelectOptions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.fusen.BaseTest;
 import com.example.fusen.TestDataBuilder;
 import com.example.fusen.entity.Bookmark;
+import com.example.fusen.entity.Tag;
+import com.example.fusen.util.UrlHash;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -27,6 +32,12 @@ class BookmarkDaoTest extends BaseTest {
     @Autowired
     private BookmarkDao bookmarkDao;
 
+    @Autowired
+    private TagDao tagDao;
+
+    @Autowired
+    private BookmarkTagDao bookmarkTagDao;
+
     private Bookmark testBookmark;
 
     @BeforeEach
@@ -77,6 +88,21 @@ class BookmarkDaoTest extends BaseTest {
         assertThat(result.get().getDescription()).isEqualTo("Test bookmark for DAO layer");
     }
 
+    @Test
+    @DisplayName("Should find only the version by ID")
+    void shouldFindOnlyTheVersionById() {
+        // Given
+        bookmarkDao.insert(testBookmark);
+
+        // When
+        Optional<Long> version = bookmarkDao.findVersionById(testBookmark.getId());
+        Optional<Long> missing = bookmarkDao.findVersionById(999L);
+
+        // Then
+        assertThat(version).contains(1L);
+        assertThat(missing).isEmpty();
+    }
+
     @Test
     @DisplayName("Should return empty when bookmark not found by ID")
     void shouldReturnEmptyWhenBookmarkNotFoundById() {
@@ -144,6 +170,79 @@ class BookmarkDaoTest extends BaseTest {
         assertThat(updated.get().getUrl()).isEqualTo("https://updated-dao.com");
         assertThat(updated.get().getTitle()).isEqualTo("Updated DAO Test Bookmark");
         assertThat(updated.get().getDescription()).isEqualTo("Updated description");
+        assertThat(bookmarkDao.findByUrl("https://updated-dao.com")).isPresent();
+        assertThat(bookmarkDao.findByUrl("https://test-dao.com")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject duplicate URL through the url_hash unique index")
+    void shouldRejectDuplicateUrlThroughUrlHashUniqueIndex() {
+        // Given
+        bookmarkDao.insert(testBookmark);
+        Bookmark duplicate = TestDataBuilder.bookmark().url("https://test-dao.com").build();
+
+        // When & Then
+        assertThatThrownBy(() -> bookmarkDao.insert(duplicate))
+            .isInstanceOf(DuplicateKeyException.class);
+        assertThat(testBookmark.getUrlHash()).isEqualTo(UrlHash.of("https://test-dao.com"));
+    }
+
+    @Test
+    @DisplayName("Should find registered URLs by url_hash")
+    void shouldFindRegisteredUrlsByUrlHash() {
+        // Given
+        bookmarkDao.insert(testBookmark);
+        bookmarkDao.insert(TestDataBuilder.bookmark().url("https://other-dao.com").build());
+
+        // When
+        List<String> urls = bookmarkDao.findUrlsByUrlHashes(
+            List.of(UrlHash.of("https://test-dao.com"), UrlHash.of("https://unregistered-dao.com")));
+
+        // Then
+        assertThat(urls).containsExactly("https://test-dao.com");
+    }
+
+    @Test
+    @DisplayName("Should increment version on update and reject stale version")
+    void shouldIncrementVersionOnUpdateAndRejectStaleVersion() {
+        // Given
+        bookmarkDao.insert(testBookmark);
+        Long bookmarkId = testBookmark.getId();
+        assertThat(bookmarkDao.findById(bookmarkId).get().getVersion()).isEqualTo(1L);
+
+        // When
+        testBookmark.setTitle("First Update");
+        int first = bookmarkDao.update(testBookmark);
+        Bookmark stale = bookmarkDao.findById(bookmarkId).get();
+        stale.setVersion(1L);
+        stale.setTitle("Stale Update");
+        int second = bookmarkDao.update(stale);
+
+        // Then
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        Bookmark current = bookmarkDao.findById(bookmarkId).get();
+        assertThat(current.getVersion()).isEqualTo(2L);
+        assertThat(current.getTitle()).isEqualTo("First Update");
+    }
+
+    @Test
+    @DisplayName("Should delete by ID only when version matches")
+    void shouldDeleteByIdOnlyWhenVersionMatches() {
+        // Given
+        bookmarkDao.insert(testBookmark);
+        Long bookmarkId = testBookmark.getId();
+
+        // When
+        int stale = bookmarkDao.deleteById(bookmarkId, 2L);
+        int matched = bookmarkDao.deleteById(bookmarkId, 1L);
+        int missing = bookmarkDao.deleteById(bookmarkId, null);
+
+        // Then
+        assertThat(stale).isZero();
+        assertThat(matched).isEqualTo(1);
+        assertThat(missing).isZero();
+        assertThat(bookmarkDao.findById(bookmarkId)).isEmpty();
     }
 
     @Test
@@ -203,4 +302,130 @@ class BookmarkDaoTest extends BaseTest {
         // Then
         assertThat(result).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should find bookmarks newest first after cursor")
+    void shouldFindBookmarksNewestFirstAfterCursor() {
+        // Given
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+        Bookmark oldest = TestDataBuilder.bookmark().url("https://cursor-1.com").createdAt(base).build();
+        Bookmark sameTimeA = TestDataBuilder.bookmark().url("https://cursor-2.com").createdAt(base.plusHours(1)).build();
+        Bookmark sameTimeB = TestDataBuilder.bookmark().url("https://cursor-3.com").createdAt(base.plusHours(1)).build();
+        Bookmark newest = TestDataBuilder.bookmark().url("https://cursor-4.com").createdAt(base.plusHours(2)).build();
+        bookmarkDao.insert(oldest);
+        bookmarkDao.insert(sameTimeA);
+        bookmarkDao.insert(sameTimeB);
+        bookmarkDao.insert(newest);
+
+        // When
+        List<Bookmark> firstPage = bookmarkDao.findAllAfter(null, null, SelectOptions.get().limit(2));
+        Bookmark last = firstPage.get(firstPage.size() - 1);
+        List<Bookmark> secondPage = bookmarkDao.findAllAfter(last.getCreatedAt(), last.getId(),
+            SelectOptions.get().limit(2));
+
+        // Then
+        assertThat(firstPage).extracting(Bookmark::getId)
+            .containsExactly(newest.getId(), sameTimeB.getId());
+        assertThat(secondPage).extracting(Bookmark::getId)
+            .containsExactly(sameTimeA.getId(), oldest.getId());
+    }
+
+    @Test
+    @DisplayName("Should find bookmarks matching either ID or URL")
+    void shouldFindBookmarksMatchingEitherIdOrUrl() {
+        // Given
+        bookmarkDao.insert(testBookmark);
+        Bookmark other = TestDataBuilder.bookmark().url("https://test-dao-other.com").build();
+        bookmarkDao.insert(other);
+
+        // When
+        List<Bookmark> sameBookmark = bookmarkDao.findByIdOrUrl(testBookmark.getId(), "https://test-dao.com");
+        List<Bookmark> conflict = bookmarkDao.findByIdOrUrl(testBookmark.getId(), "https://test-dao-other.com");
+        List<Bookmark> none = bookmarkDao.findByIdOrUrl(999L, "https://nonexistent.com");
+
+        // Then
+        assertThat(sameBookmark).extracting(Bookmark::getId).containsExactly(testBookmark.getId());
+        assertThat(conflict).extracting(Bookmark::getId)
+            .containsExactlyInAnyOrder(testBookmark.getId(), other.getId());
+        assertThat(none).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should filter by all, any and excluded tags")
+    void shouldFilterByAllAnyAndExcludedTags() {
+        // Given
+        Long java = insertTag("java");
+        Long spring = insertTag("spring");
+        Long kotlin = insertTag("kotlin");
+        Bookmark javaOnly = insertTagged("https://tags-1.com", java);
+        Bookmark javaSpring = insertTagged("https://tags-2.com", java, spring);
+        Bookmark javaSpringKotlin = insertTagged("https://tags-3.com", java, spring, kotlin);
+        Bookmark kotlinOnly = insertTagged("https://tags-4.com", kotlin);
+        SelectOptions options = SelectOptions.get().limit(10);
+
+        // When
+        List<Bookmark> all = bookmarkDao.findByTags(List.of(java, spring), true, List.of(), false, null, null,
+            options);
+        List<Bookmark> any = bookmarkDao.findByTags(List.of(spring, kotlin), false, List.of(), false, null, null,
+            options);
+        List<Bookmark> allExcluding = bookmarkDao.findByTags(List.of(java, spring), true, List.of(kotlin), false,
+            null, null, options);
+        List<Bookmark> excludingOnly = bookmarkDao.findByTags(List.of(), false, List.of(spring), false, null, null,
+            options);
+
+        // Then
+        assertThat(all).extracting(Bookmark::getId)
+            .containsExactly(javaSpring.getId(), javaSpringKotlin.getId());
+        assertThat(any).extracting(Bookmark::getId)
+            .containsExactly(javaSpring.getId(), javaSpringKotlin.getId(), kotlinOnly.getId());
+        assertThat(allExcluding).extracting(Bookmark::getId).containsExactly(javaSpring.getId());
+        assertThat(excludingOnly).extracting(Bookmark::getId).contains(javaOnly.getId(), kotlinOnly.getId())
+            .doesNotContain(javaSpring.getId(), javaSpringKotlin.getId());
+    }
+
+    @Test
+    @DisplayName("Should page tag-filtered bookmarks by offset and by cursor")
+    void shouldPageTagFilteredBookmarksByOffsetAndByCursor() {
+        // Given
+        Long java = insertTag("java");
+        Long spring = insertTag("spring");
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+        Bookmark oldest = insertTagged("https://tags-page-1.com", base, java, spring);
+        insertTagged("https://tags-page-2.com", base.plusHours(1), java);
+        Bookmark middle = insertTagged("https://tags-page-3.com", base.plusHours(2), java, spring);
+        Bookmark newest = insertTagged("https://tags-page-4.com", base.plusHours(3), spring, java);
+
+        // When
+        List<Bookmark> secondByOffset = bookmarkDao.findByTags(List.of(java, spring), true, List.of(), false,
+            null, null, SelectOptions.get().limit(2).offset(2));
+        List<Bookmark> firstPage = bookmarkDao.findByTags(List.of(java, spring), true, List.of(), true, null, null,
+            SelectOptions.get().limit(2));
+        Bookmark last = firstPage.get(firstPage.size() - 1);
+        List<Bookmark> secondPage = bookmarkDao.findByTags(List.of(java, spring), true, List.of(), true,
+            last.getCreatedAt(), last.getId(), SelectOptions.get().limit(2));
+
+        // Then
+        assertThat(secondByOffset).extracting(Bookmark::getId).containsExactly(newest.getId());
+        assertThat(firstPage).extracting(Bookmark::getId).containsExactly(newest.getId(), middle.getId());
+        assertThat(secondPage).extracting(Bookmark::getId).containsExactly(oldest.getId());
+    }
+
+    private Long insertTag(String name) {
+        Tag tag = TestDataBuilder.tag().name(name).build();
+        tagDao.insert(tag);
+        return tag.getId();
+    }
+
+    private Bookmark insertTagged(String url, Long... tagIds) {
+        return insertTagged(url, LocalDateTime.of(2024, 1, 1, 10, 0, 0), tagIds);
+    }
+
+    private Bookmark insertTagged(String url, LocalDateTime createdAt, Long... tagIds) {
+        Bookmark bookmark = TestDataBuilder.bookmark().url(url).createdAt(createdAt).build();
+        bookmarkDao.insert(bookmark);
+        for (Long tagId : tagIds) {
+            bookmarkTagDao.insertBookmarkTag(bookmark.getId(), tagId);
+        }
+        return bookmark;
+    }
+}
@@ -15,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 import com.example.fusen.BaseTest;
 import com.example.fusen.TestDataBuilder;
 import com.example.fusen.entity.Bookmark;
+import com.example.fusen.entity.BookmarkTag;
 import com.example.fusen.entity.Tag;
 
 @SpringBootTest
@@ -68,6 +69,22 @@ class BookmarkTagDaoTest extends BaseTest {
         assertThat(tags.get(0).getName()).isEqualTo("java");
     }
 
+    @Test
+    @DisplayName("Should insert bookmark-tag relationships in batch")
+    void shouldInsertBookmarkTagRelationshipsInBatch() {
+        // When
+        int[] result = bookmarkTagDao.insertAll(List.of(
+            BookmarkTag.builder().bookmarkId(testBookmark.getId()).tagId(testTag1.getId()).build(),
+            BookmarkTag.builder().bookmarkId(testBookmark.getId()).tagId(testTag2.getId()).build()));
+
+        // Then
+        assertThat(result).hasSize(2);
+
+        List<Tag> tags = bookmarkTagDao.findTagsByBookmarkId(testBookmark.getId());
+        assertThat(tags).extracting(Tag::getName)
+            .containsExactlyInAnyOrder("java", "spring");
+    }
+
     @Test
     @DisplayName("Should find tags by bookmark ID")
     void shouldFindTagsByBookmarkId() {
@@ -192,4 +209,52 @@ class BookmarkTagDaoTest extends BaseTest {
                 result2.stream().map(Tag::getName).toList()
             );
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should find tags for multiple bookmarks in one query")
+    void shouldFindTagsForMultipleBookmarksInOneQuery() {
+        // Given
+        Bookmark bookmark2 = TestDataBuilder.bookmark()
+            .url("https://test-bookmark-tag-3.com")
+            .title("Third Bookmark")
+            .build();
+        bookmarkDao.insert(bookmark2);
+
+        bookmarkTagDao.insertBookmarkTag(testBookmark.getId(), testTag1.getId());
+        bookmarkTagDao.insertBookmarkTag(testBookmark.getId(), testTag2.getId());
+        bookmarkTagDao.insertBookmarkTag(bookmark2.getId(), testTag1.getId());
+
+        // When
+        List<BookmarkTag> result = bookmarkTagDao.findTagsByBookmarkIds(
+            List.of(testBookmark.getId(), bookmark2.getId(), 999L));
+
+        // Then
+        assertThat(result).hasSize(3);
+        assertThat(result)
+            .filteredOn(bookmarkTag -> bookmarkTag.getBookmarkId().equals(testBookmark.getId()))
+            .extracting(BookmarkTag::getTagName)
+            .containsExactlyInAnyOrder("java", "spring");
+        assertThat(result)
+            .filteredOn(bookmarkTag -> bookmarkTag.getBookmarkId().equals(bookmark2.getId()))
+            .extracting(BookmarkTag::getTagId)
+            .containsExactly(testTag1.getId());
+    }
+
+    @Test
+    @DisplayName("Should find tag IDs and delete only the given relationships")
+    void shouldFindTagIdsAndDeleteOnlyTheGivenRelationships() {
+        // Given
+        bookmarkTagDao.insertBookmarkTag(testBookmark.getId(), testTag1.getId());
+        bookmarkTagDao.insertBookmarkTag(testBookmark.getId(), testTag2.getId());
+
+        // When
+        List<Long> tagIds = bookmarkTagDao.findTagIdsByBookmarkId(testBookmark.getId());
+        int deleted = bookmarkTagDao.deleteByBookmarkIdAndTagIds(testBookmark.getId(), List.of(testTag2.getId()));
+
+        // Then
+        assertThat(tagIds).containsExactlyInAnyOrder(testTag1.getId(), testTag2.getId());
+        assertThat(deleted).isEqualTo(1);
+        assertThat(bookmarkTagDao.findTagIdsByBookmarkId(testBookmark.getId()))
+            .containsExactly(testTag1.getId());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.fusen.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.fusen.BaseTest;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("ScheduledLockDao Integration Tests")
+class ScheduledLockDaoTest extends BaseTest {
+
+    private static final String LOCK = "prune-bookmark-changes";
+
+    @Autowired
+    private ScheduledLockDao scheduledLockDao;
+
+    @Test
+    @DisplayName("Should acquire an expired lock only once until it expires again")
+    void shouldAcquireAnExpiredLockOnlyOnceUntilItExpiresAgain() {
+        // Given
+        LocalDateTime now = LocalDateTime.now().plusMinutes(1);
+
+        // When
+        int first = scheduledLockDao.acquire(LOCK, now, now.plusHours(1));
+        int second = scheduledLockDao.acquire(LOCK, now.plusMinutes(30), now.plusMinutes(90));
+        int afterExpiry = scheduledLockDao.acquire(LOCK, now.plusHours(1), now.plusHours(2));
+
+        // Then
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        assertThat(afterExpiry).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not acquire an unknown lock")
+    void shouldNotAcquireAnUnknownLock() {
+        // When
+        int acquired = scheduledLockDao.acquire("unknown", LocalDateTime.now(), LocalDateTime.now().plusHours(1));
+
+        // Then
+        assertThat(acquired).isZero();
+    }
+}
@@ -2,11 +2,13 @@ package com.example.fusen.dao;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.seasar.doma.jdbc.SelectOptions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
@@ -110,4 +112,38 @@ class TagDaoTest extends BaseTest {
         assertThat(tagDao.findByName("spring")).isPresent();
         assertThat(tagDao.findByName("doma")).isPresent();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should insert only absent tags and find them by names")
+    void shouldInsertOnlyAbsentTagsAndFindThemByNames() {
+        // Given
+        tagDao.insert(testTag);
+        List<String> names = List.of("new-tag-1", "new-tag-2", "test-tag-dao");
+
+        // When
+        tagDao.insertIfAbsent(names);
+        List<Tag> result = tagDao.findByNames(names, SelectOptions.get());
+
+        // Then
+        assertThat(result).hasSize(3);
+        assertThat(result).extracting(Tag::getName)
+            .containsExactlyInAnyOrder("new-tag-1", "new-tag-2", "test-tag-dao");
+        assertThat(result).filteredOn(tag -> tag.getName().equals("test-tag-dao"))
+            .extracting(Tag::getId)
+            .containsExactly(testTag.getId());
+    }
+
+    @Test
+    @DisplayName("Should be idempotent when inserting the same tags twice")
+    void shouldBeIdempotentWhenInsertingTheSameTagsTwice() {
+        // Given
+        List<String> names = List.of("idempotent-1", "idempotent-2");
+
+        // When
+        tagDao.insertIfAbsent(names);
+        tagDao.insertIfAbsent(names);
+
+        // Then
+        assertThat(tagDao.findByNames(names, SelectOptions.get().forUpdate())).hasSize(2);
+    }
+}
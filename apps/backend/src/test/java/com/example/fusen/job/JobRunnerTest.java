@@ -0,0 +1,184 @@
+package com.example.fusen.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.fusen.TestDataBuilder;
+import com.example.fusen.bulk.BulkFormat;
+import com.example.fusen.dao.BookmarkDao;
+import com.example.fusen.dao.JobDao;
+import com.example.fusen.entity.Bookmark;
+import com.example.fusen.entity.Job;
+import com.example.fusen.entity.JobError;
+import com.example.fusen.service.BookmarkService;
+import com.example.fusen.service.JobService;
+
+/**
+ * Runs without a test-managed transaction because jobs commit on the runner's own threads
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("JobRunner Integration Tests")
+class JobRunnerTest {
+
+    private static final List<String> URLS = List.of(
+        "https://job-import-1.example.com",
+        "https://job-import-2.example.com",
+        "https://job-resume-1.example.com",
+        "https://job-resume-2.example.com",
+        "https://job-export.example.com");
+
+    @Autowired
+    private JobRunner jobRunner;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private JobDao jobDao;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private BookmarkDao bookmarkDao;
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        URLS.forEach(url -> bookmarkDao.findByUrl(url)
+            .ifPresent(bookmark -> bookmarkDao.deleteById(bookmark.getId(), null)));
+    }
+
+    @Test
+    @DisplayName("Should import the submitted body and record rejected lines")
+    void shouldImportTheSubmittedBodyAndRecordRejectedLines() throws Exception {
+        // Given
+        String ndjson = String.join("\n",
+            "{\"url\":\"https://job-import-1.example.com\"}",
+            "not json",
+            "{\"url\":\"https://job-import-2.example.com\"}");
+
+        // When
+        Job submitted = jobRunner.submitImport(
+            new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), BulkFormat.NDJSON, false);
+        Job job = awaitFinished(submitted.getId());
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo(Job.Status.SUCCEEDED);
+        assertThat(job.getProcessed()).isEqualTo(3);
+        assertThat(job.getSucceeded()).isEqualTo(2);
+        assertThat(job.getFailed()).isEqualTo(1);
+        assertThat(jobService.findErrors(job.getId(), 10, 0)).extracting(JobError::getLine).containsExactly(2L);
+        assertThat(bookmarkDao.findByUrl("https://job-import-2.example.com")).isPresent();
+        assertThat(Path.of(job.getFilePath())).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Should resume a job abandoned by a stopped instance from its checkpoint")
+    void shouldResumeAJobAbandonedByAStoppedInstanceFromItsCheckpoint() throws Exception {
+        // Given: another instance stopped after committing the first record
+        Path upload = tempDir.resolve("resume.upload");
+        Files.writeString(upload, "{\"url\":\"https://job-resume-1.example.com\"}\n"
+            + "{\"url\":\"https://job-resume-2.example.com\"}\n");
+        LocalDateTime stale = LocalDateTime.now().minusMinutes(5);
+        Job abandoned = Job.builder()
+            .jobType(Job.Type.IMPORT)
+            .status(Job.Status.RUNNING)
+            .format(BulkFormat.NDJSON.name())
+            .gzip(false)
+            .filePath(upload.toString())
+            .processed(1L)
+            .succeeded(1L)
+            .checkpoint(1L)
+            .owner("stopped-node")
+            .heartbeatAt(stale)
+            .startedAt(stale)
+            .build();
+        jobDao.insert(abandoned);
+
+        // When
+        jobRunner.sweep();
+        Job job = awaitFinished(abandoned.getId());
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo(Job.Status.SUCCEEDED);
+        assertThat(job.getOwner()).isEqualTo(jobRunner.owner());
+        assertThat(job.getProcessed()).isEqualTo(2);
+        assertThat(job.getSucceeded()).isEqualTo(2);
+        assertThat(bookmarkDao.findByUrl("https://job-resume-1.example.com")).isEmpty();
+        assertThat(bookmarkDao.findByUrl("https://job-resume-2.example.com")).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should export all bookmarks to a result file")
+    void shouldExportAllBookmarksToAResultFile() throws Exception {
+        // Given
+        Bookmark bookmark = bookmarkService.create(TestDataBuilder.bookmark()
+            .url("https://job-export.example.com")
+            .build());
+
+        // When
+        Job job = awaitFinished(jobRunner.submitExport(BulkFormat.CSV).getId());
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo(Job.Status.SUCCEEDED);
+        assertThat(job.getSucceeded()).isPositive();
+        String csv = Files.readString(Path.of(job.getFilePath()));
+        assertThat(csv).startsWith("id,url,title,description,tags,created_at,updated_at\n");
+        assertThat(csv).contains(bookmark.getId() + ",https://job-export.example.com,");
+        Files.delete(Path.of(job.getFilePath()));
+    }
+
+    @Test
+    @DisplayName("Should cancel a queued job without running it")
+    void shouldCancelAQueuedJobWithoutRunningIt() {
+        // Given: queued on a live instance whose executor is busy
+        Job queued = Job.builder()
+            .jobType(Job.Type.EXPORT)
+            .status(Job.Status.QUEUED)
+            .format(BulkFormat.NDJSON.name())
+            .filePath(tempDir.resolve("cancelled.ndjson").toString())
+            .owner("busy-node")
+            .heartbeatAt(LocalDateTime.now())
+            .build();
+        jobDao.insert(queued);
+
+        // When
+        Job cancelled = jobService.cancel(queued.getId());
+        jobRunner.sweep();
+
+        // Then
+        assertThat(cancelled.getStatus()).isEqualTo(Job.Status.CANCELLED);
+        assertThat(cancelled.getCancelRequested()).isTrue();
+        assertThat(cancelled.getFinishedAt()).isNotNull();
+        assertThat(jobService.findById(queued.getId()).getOwner()).isEqualTo("busy-node");
+    }
+
+    private Job awaitFinished(Long id) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            Job job = jobService.findById(id);
+            if (job.getStatus().isFinished()) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Job " + id + " did not finish: " + jobService.findById(id));
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.fusen.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.fusen.entity.Bookmark;
+import com.example.fusen.search.BookmarkSearchIndex;
+
+/**
+ * Measures fuzzy search latency against collection size (10k, 100k and 1M bookmarks by default).
+ * Titles are four pseudo-words of 4-9 letters drawn from a Zipf distribution, and URLs carry two more.
+ * Each query is 1-2 words from outside the 100 most frequent ones with one character replaced.
+ *
+ * Run with: ./mvnw test -Dtest=FuzzySearchLoadTest -Dfusen.loadtest=true
+ * Sizes can be overridden with -Dfusen.loadtest.sizes=10000,100000
+ */
+@EnabledIfSystemProperty(named = "fusen.loadtest", matches = "true")
+@DisplayName("Fuzzy Search Load Test")
+class FuzzySearchLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FuzzySearchLoadTest.class);
+
+    private static final String SIZES = System.getProperty("fusen.loadtest.sizes", "10000,100000,1000000");
+    private static final int VOCABULARY = 50_000;
+    private static final int QUERIES = 1_000;
+    private static final int STOP_WORDS = 100;
+
+    @Test
+    @DisplayName("Should keep fuzzy search latency low as the collection grows")
+    void shouldKeepFuzzySearchLatencyLowAsTheCollectionGrows() {
+        double[] cumulative = zipf(VOCABULARY);
+        List<String> rows = new ArrayList<>();
+        for (String size : SIZES.split(",")) {
+            // Given
+            int bookmarks = Integer.parseInt(size.trim());
+            SplittableRandom random = new SplittableRandom(42);
+            BookmarkSearchIndex index = new BookmarkSearchIndex(null);
+            long buildStart = System.nanoTime();
+            List<Bookmark> batch = new ArrayList<>(10_000);
+            for (long id = 1; id <= bookmarks; id++) {
+                batch.add(Bookmark.builder()
+                    .id(id)
+                    .version(1L)
+                    .url("https://" + word(rank(random, cumulative)) + ".example.com/" + word(rank(random, cumulative)))
+                    .title(word(rank(random, cumulative)) + " " + word(rank(random, cumulative)) + " "
+                        + word(rank(random, cumulative)) + " " + word(rank(random, cumulative)))
+                    .build());
+                if (batch.size() == 10_000) {
+                    index.indexAfterCommit(batch);
+                    batch.clear();
+                }
+            }
+            index.indexAfterCommit(batch);
+            long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+            // When
+            long[] latencies = new long[QUERIES];
+            int hits = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                String query = misspell(random, queryWords(random, cumulative, 1 + random.nextInt(2)));
+                long start = System.nanoTime();
+                hits += index.fuzzySearch(query, 10).size();
+                latencies[i] = System.nanoTime() - start;
+            }
+
+            // Then
+            Arrays.sort(latencies);
+            double p50 = latencies[QUERIES / 2] / 1_000_000.0;
+            double p99 = latencies[QUERIES * 99 / 100] / 1_000_000.0;
+            rows.add(String.format("%,10d bookmarks: built in %6d ms; fuzzy p50 %6.2f ms, p99 %6.2f ms, %d hits",
+                bookmarks, buildMillis, p50, p99, hits));
+            assertThat(hits).isPositive();
+            assertThat(p99).isLessThan(50.0);
+        }
+        rows.forEach(log::info);
+    }
+
+    private static double[] zipf(int size) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            sum += 1.0 / rank;
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int rank(SplittableRandom random, double[] cumulative) {
+        int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+        return rank < 0 ? -rank - 1 : rank;
+    }
+
+    // 4-9 letters, fixed per rank
+    private static String word(int rank) {
+        SplittableRandom random = new SplittableRandom(rank);
+        StringBuilder word = new StringBuilder();
+        for (int length = 4 + random.nextInt(6); length > 0; length--) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+
+    private static String queryWords(SplittableRandom random, double[] cumulative, int count) {
+        StringBuilder text = new StringBuilder();
+        while (count > 0) {
+            int rank = rank(random, cumulative);
+            if (rank >= STOP_WORDS) {
+                text.append(text.isEmpty() ? "" : " ").append(word(rank));
+                count--;
+            }
+        }
+        return text.toString();
+    }
+
+    private static String misspell(SplittableRandom random, String query) {
+        StringBuilder misspelled = new StringBuilder(query);
+        misspelled.setCharAt(random.nextInt(misspelled.length()), (char) ('a' + random.nextInt(26)));
+        return misspelled.toString();
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.fusen.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.fusen.FusenApplication;
+import com.example.fusen.bulk.BookmarkExporter;
+import com.example.fusen.bulk.BookmarkImporter;
+import com.example.fusen.bulk.BulkFormat;
+import com.example.fusen.dto.ImportResult;
+
+/**
+ * Imports a generated 100k-entry bookmarks.html with nested folders and exports it again,
+ * reporting throughput and the peak heap used by each direction.
+ * The fixture is written to a temporary file rather than checked in (about 10 MB).
+ *
+ * Run with: ./mvnw test -Dtest=NetscapeBookmarkLoadTest -Dfusen.loadtest=true
+ */
+@EnabledIfSystemProperty(named = "fusen.loadtest", matches = "true")
+@DisplayName("Netscape Bookmark Load Test")
+class NetscapeBookmarkLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(NetscapeBookmarkLoadTest.class);
+
+    private static final int ENTRIES = Integer.getInteger("fusen.loadtest.entries", 100_000);
+    private static final int FOLDERS = 100;
+    private static final int SUBFOLDERS = 10;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should import and export 100k entries with bounded heap")
+    void shouldImportAndExport100kEntriesWithBoundedHeap() throws Exception {
+        // Given
+        Path fixture = tempDir.resolve("bookmarks.html");
+        writeFixture(fixture);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(FusenApplication.class)
+                .profiles("test")
+                .properties(
+                    "server.port=0",
+                    "spring.datasource.url=jdbc:h2:mem:netscape-load;DB_CLOSE_DELAY=-1",
+                    "spring.jpa.show-sql=false",
+                    "logging.level.com.example.fusen=WARN",
+                    "logging.level.com.example.fusen.load=INFO",
+                    "logging.level.org.seasar.doma=WARN")
+                .run()) {
+            BookmarkImporter importer = context.getBean(BookmarkImporter.class);
+            BookmarkExporter exporter = context.getBean(BookmarkExporter.class);
+
+            // When
+            resetPeakHeap();
+            long importStart = System.nanoTime();
+            ImportResult imported;
+            try (InputStream in = Files.newInputStream(fixture)) {
+                imported = importer.importFrom(in, BulkFormat.HTML, false);
+            }
+            Run importRun = new Run("import", ENTRIES, System.nanoTime() - importStart, Files.size(fixture),
+                peakHeap());
+
+            resetPeakHeap();
+            CountingOutputStream out = new CountingOutputStream();
+            long exportStart = System.nanoTime();
+            long exported = exporter.exportTo(out, BulkFormat.HTML);
+            Run exportRun = new Run("export", exported, System.nanoTime() - exportStart, out.count, peakHeap());
+
+            // Then
+            log.info("fixture: {} entries, {} bytes", ENTRIES, Files.size(fixture));
+            log.info("{}", importRun);
+            log.info("{}", exportRun);
+            assertThat(imported.imported()).isEqualTo(ENTRIES);
+            assertThat(imported.failed()).isZero();
+            assertThat(exported).isEqualTo(ENTRIES);
+        }
+    }
+
+    // FOLDERS x SUBFOLDERS nested folders, each holding an equal share of the entries
+    private void writeFixture(Path path) throws IOException {
+        int perFolder = ENTRIES / (FOLDERS * SUBFOLDERS);
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("<!DOCTYPE NETSCAPE-Bookmark-file-1>\n<TITLE>Bookmarks</TITLE>\n<H1>Bookmarks</H1>\n<DL><p>\n");
+            int n = 0;
+            for (int folder = 0; folder < FOLDERS; folder++) {
+                writer.write("  <DT><H3>folder-" + folder + "</H3>\n  <DL><p>\n");
+                for (int subfolder = 0; subfolder < SUBFOLDERS; subfolder++) {
+                    writer.write("    <DT><H3>sub-" + subfolder + "</H3>\n    <DL><p>\n");
+                    int count = folder == FOLDERS - 1 && subfolder == SUBFOLDERS - 1 ? ENTRIES - n : perFolder;
+                    for (int i = 0; i < count; i++, n++) {
+                        writer.write("      <DT><A HREF=\"https://load-" + n + ".example.com/page?a=1&amp;b=2\""
+                            + " ADD_DATE=\"1700000000\">Entry " + n + "</A>\n");
+                        writer.write("      <DD>Description of entry " + n + "\n");
+                    }
+                    writer.write("    </DL><p>\n");
+                }
+                writer.write("  </DL><p>\n");
+            }
+            writer.write("</DL><p>\n");
+        }
+    }
+
+    private static void resetPeakHeap() {
+        System.gc();
+        ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    // Sum of per-pool peaks, an upper bound on the heap in use at any one moment
+    private static long peakHeap() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .mapToLong(pool -> pool.getPeakUsage().getUsed())
+            .sum();
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    private record Run(String name, long entries, long nanos, long bytes, long peakHeapBytes) {
+        @Override
+        public String toString() {
+            double seconds = nanos / 1_000_000_000.0;
+            return String.format("%s: %d entries in %.1fs (%.0f entries/s, %.1f MB/s), peak heap %d MB",
+                name, entries, seconds, entries / seconds, bytes / seconds / 1_000_000, peakHeapBytes >> 20);
+        }
+    }
+}
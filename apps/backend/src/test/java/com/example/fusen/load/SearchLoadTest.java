@@ -0,0 +1,143 @@
+package com.example.fusen.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.fusen.entity.Bookmark;
+import com.example.fusen.search.BookmarkSearchIndex;
+
+/**
+ * Indexes 1M synthetic bookmarks whose words follow a Zipf distribution and measures search latency.
+ * Queries draw 1-3 words from outside the 100 most frequent ones, which behave like stop words.
+ * The Japanese run writes 2-4 kanji words without spaces, so the index holds bigrams that cross word boundaries.
+ *
+ * Run with: ./mvnw test -Dtest=SearchLoadTest -Dfusen.loadtest=true
+ */
+@EnabledIfSystemProperty(named = "fusen.loadtest", matches = "true")
+@DisplayName("Search Load Test")
+class SearchLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchLoadTest.class);
+
+    private static final int BOOKMARKS = Integer.getInteger("fusen.loadtest.entries", 1_000_000);
+    private static final int VOCABULARY = 50_000;
+    private static final int QUERIES = 2_000;
+    private static final int STOP_WORDS = 100;
+
+    @Test
+    @DisplayName("Should answer searches over 1M bookmarks in single-digit milliseconds")
+    void shouldAnswerSearchesOver1mBookmarksInSingleDigitMilliseconds() {
+        run(rank -> "w" + rank, " ");
+    }
+
+    @Test
+    @DisplayName("Should answer Japanese searches over 1M bookmarks in single-digit milliseconds")
+    void shouldAnswerJapaneseSearchesOver1mBookmarksInSingleDigitMilliseconds() {
+        run(SearchLoadTest::japaneseWord, "");
+    }
+
+    private void run(IntFunction<String> vocabulary, String separator) {
+        // Given
+        SplittableRandom random = new SplittableRandom(42);
+        double[] cumulative = zipf(VOCABULARY);
+        BookmarkSearchIndex index = new BookmarkSearchIndex(null);
+        long buildStart = System.nanoTime();
+        List<Bookmark> batch = new ArrayList<>(10_000);
+        for (long id = 1; id <= BOOKMARKS; id++) {
+            batch.add(Bookmark.builder()
+                .id(id)
+                .version(1L)
+                .url("https://h" + rank(random, cumulative) + ".example.com/" + rank(random, cumulative))
+                .title(words(random, cumulative, vocabulary, separator, 5))
+                .description(words(random, cumulative, vocabulary, separator, 15))
+                .build());
+            if (batch.size() == 10_000) {
+                index.indexAfterCommit(batch);
+                batch.clear();
+            }
+        }
+        index.indexAfterCommit(batch);
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        // When
+        long[] latencies = new long[QUERIES];
+        int hits = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            String query = queryWords(random, cumulative, vocabulary, 1 + random.nextInt(3));
+            long start = System.nanoTime();
+            hits += index.search(query, 10).size();
+            latencies[i] = System.nanoTime() - start;
+        }
+
+        // Then
+        Arrays.sort(latencies);
+        double p50 = latencies[QUERIES / 2] / 1_000_000.0;
+        double p99 = latencies[QUERIES * 99 / 100] / 1_000_000.0;
+        log.info(String.format("indexed %d bookmarks (%d terms) in %d ms; search p50 %.2f ms, p99 %.2f ms",
+            index.size(), index.terms(), buildMillis, p50, p99));
+        assertThat(index.size()).isEqualTo(BOOKMARKS);
+        assertThat(hits).isPositive();
+        assertThat(p99).isLessThan(10.0);
+    }
+
+    private static double[] zipf(int size) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            sum += 1.0 / rank;
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int rank(SplittableRandom random, double[] cumulative) {
+        int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+        return rank < 0 ? -rank - 1 : rank;
+    }
+
+    private static String words(SplittableRandom random, double[] cumulative, IntFunction<String> vocabulary,
+            String separator, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(i == 0 ? "" : separator).append(vocabulary.apply(rank(random, cumulative)));
+        }
+        return text.toString();
+    }
+
+    private static String queryWords(SplittableRandom random, double[] cumulative, IntFunction<String> vocabulary,
+            int count) {
+        StringBuilder text = new StringBuilder();
+        while (count > 0) {
+            int rank = rank(random, cumulative);
+            if (rank >= STOP_WORDS) {
+                text.append(text.isEmpty() ? "" : " ").append(vocabulary.apply(rank));
+                count--;
+            }
+        }
+        return text.toString();
+    }
+
+    // 2-4 characters drawn from the first 2,000 CJK ideographs, fixed per rank
+    private static String japaneseWord(int rank) {
+        SplittableRandom random = new SplittableRandom(rank);
+        StringBuilder word = new StringBuilder();
+        for (int length = 2 + random.nextInt(3); length > 0; length--) {
+            word.appendCodePoint(0x4E00 + random.nextInt(2_000));
+        }
+        return word.toString();
+    }
+}
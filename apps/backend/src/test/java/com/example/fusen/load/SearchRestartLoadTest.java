@@ -0,0 +1,138 @@
+package com.example.fusen.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.example.fusen.cache.BookmarkChangePoller;
+import com.example.fusen.dao.BookmarkChangeDao;
+import com.example.fusen.dao.BookmarkDao;
+import com.example.fusen.entity.Bookmark;
+import com.example.fusen.search.BookmarkSearchIndex;
+
+/**
+ * Measures how long a restart takes to restore the search index from its segment file, against collection size
+ * (10k, 100k and 1M bookmarks by default). The first instance builds from a full scan and writes the segment;
+ * the second one maps it and replays no changes. Titles are four words drawn uniformly from 50,000 pseudo-words.
+ *
+ * Run with: ./mvnw test -Dtest=SearchRestartLoadTest -Dfusen.loadtest=true
+ * Sizes can be overridden with -Dfusen.loadtest.sizes=10000,100000
+ */
+@EnabledIfSystemProperty(named = "fusen.loadtest", matches = "true")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Search Restart Load Test")
+class SearchRestartLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchRestartLoadTest.class);
+
+    private static final String SIZES = System.getProperty("fusen.loadtest.sizes", "10000,100000,1000000");
+    private static final int VOCABULARY = 50_000;
+
+    @Mock
+    private BookmarkDao bookmarkDao;
+
+    @Mock
+    private BookmarkChangeDao bookmarkChangeDao;
+
+    @Mock
+    private BookmarkChangePoller changePoller;
+
+    @Mock
+    private ObjectProvider<BookmarkChangePoller> changePollerProvider;
+
+    @TempDir
+    private Path directory;
+
+    private int bookmarks;
+    private int fullScans;
+
+    @Test
+    @DisplayName("Should restore the index in a time independent of the collection size")
+    void shouldRestoreTheIndexInATimeIndependentOfTheCollectionSize() {
+        when(bookmarkDao.<Long>streamAll(any(), any())).thenAnswer(invocation -> {
+            fullScans++;
+            Function<Stream<Bookmark>, Long> mapper = invocation.getArgument(1);
+            return mapper.apply(LongStream.rangeClosed(1, bookmarks).mapToObj(SearchRestartLoadTest::bookmark));
+        });
+        when(bookmarkChangeDao.selectMaxSeq()).thenReturn(1L);
+        when(bookmarkChangeDao.findAfter(anyLong(), any())).thenReturn(List.of());
+        when(changePoller.position()).thenReturn(1L);
+        when(changePollerProvider.getIfAvailable()).thenReturn(changePoller);
+
+        List<String> rows = new ArrayList<>();
+        for (String size : SIZES.split(",")) {
+            // Given
+            bookmarks = Integer.parseInt(size.trim());
+            Path segments = directory.resolve(size.trim());
+            long buildStart = System.nanoTime();
+            index(segments).build();
+            long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+            int scans = fullScans;
+
+            // When
+            long restoreStart = System.nanoTime();
+            BookmarkSearchIndex restored = index(segments);
+            restored.build();
+            long restoreMillis = (System.nanoTime() - restoreStart) / 1_000_000;
+            long queryStart = System.nanoTime();
+            List<Long> hits = restored.search(bookmark(bookmarks).getTitle(), 10);
+            double firstQueryMillis = (System.nanoTime() - queryStart) / 1_000_000.0;
+
+            // Then
+            rows.add(String.format("%,10d bookmarks: built and written in %6d ms; restored in %4d ms, first query %6.2f ms",
+                bookmarks, buildMillis, restoreMillis, firstQueryMillis));
+            assertThat(fullScans).isEqualTo(scans);
+            assertThat(restored.size()).isEqualTo(bookmarks);
+            assertThat(hits).isNotEmpty();
+            assertThat(restoreMillis).isLessThan(1_000);
+        }
+        rows.forEach(log::info);
+    }
+
+    private BookmarkSearchIndex index(Path segments) {
+        return new BookmarkSearchIndex(bookmarkDao, bookmarkChangeDao, changePollerProvider, segments.toString(),
+            10_000, Duration.ofDays(1));
+    }
+
+    private static Bookmark bookmark(long id) {
+        SplittableRandom random = new SplittableRandom(id);
+        return Bookmark.builder()
+            .id(id)
+            .version(1L)
+            .url("https://" + word(random.nextInt(VOCABULARY)) + ".example.com/" + id)
+            .title(word(random.nextInt(VOCABULARY)) + " " + word(random.nextInt(VOCABULARY)) + " "
+                + word(random.nextInt(VOCABULARY)) + " " + word(random.nextInt(VOCABULARY)))
+            .build();
+    }
+
+    // 4-9 letters, fixed per rank
+    private static String word(int rank) {
+        SplittableRandom random = new SplittableRandom(rank);
+        StringBuilder word = new StringBuilder();
+        for (int length = 4 + random.nextInt(6); length > 0; length--) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+}
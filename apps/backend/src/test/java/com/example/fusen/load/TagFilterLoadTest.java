@@ -0,0 +1,237 @@
+package com.example.fusen.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.fusen.FusenApplication;
+import com.example.fusen.dto.BookmarkCursor;
+import com.example.fusen.dto.TagFilter;
+import com.example.fusen.entity.Bookmark;
+import com.example.fusen.service.BookmarkService;
+import com.example.fusen.util.UrlHash;
+
+/**
+ * Measures tag-filtered list pages (GET /api/v1/bookmarks?tags=&mode=&exclude=) over 1M bookmark_tags rows:
+ * 200k bookmarks with 5 distinct tags each, drawn from 1,000 tags with a Zipf distribution, so that the
+ * filters range from tags on most bookmarks to tags on a few hundred. Each page goes through BookmarkService,
+ * so the timings include resolving the tag names and the batched tag load of the page.
+ * The first page of every filter is checked against a scan of the generated data.
+ *
+ * Run with: ./mvnw test -Dtest=TagFilterLoadTest -Dfusen.loadtest=true
+ * The size can be overridden with -Dfusen.loadtest.bookmarks=20000
+ */
+@EnabledIfSystemProperty(named = "fusen.loadtest", matches = "true")
+@DisplayName("Tag Filter Load Test")
+class TagFilterLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TagFilterLoadTest.class);
+
+    private static final int BOOKMARKS = Integer.getInteger("fusen.loadtest.bookmarks", 200_000);
+    private static final int TAGS_PER_BOOKMARK = 5;
+    private static final int TAGS = 1_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int ITERATIONS = 50;
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0, 0);
+
+    private int[][] tagsByBookmark;
+
+    @Test
+    @DisplayName("Should serve tag-filtered pages over 1M bookmark_tags rows")
+    void shouldServeTagFilteredPagesOver1MBookmarkTagsRows() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(FusenApplication.class)
+                .profiles("test")
+                .properties(
+                    "server.port=0",
+                    "spring.datasource.url=jdbc:h2:mem:tag-filter-load;DB_CLOSE_DELAY=-1",
+                    "doma.sql-file-repository=GREEDY_CACHE",
+                    "spring.jpa.show-sql=false",
+                    "logging.level.com.example.fusen=WARN",
+                    "logging.level.com.example.fusen.load=INFO",
+                    "logging.level.org.seasar.doma=WARN")
+                .run()) {
+            // Given
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            long loadStart = System.nanoTime();
+            int rows = load(jdbcTemplate);
+            log.info(String.format("Loaded %,d bookmarks and %,d bookmark_tags rows in %d ms", BOOKMARKS, rows,
+                (System.nanoTime() - loadStart) / 1_000_000));
+            BookmarkService bookmarkService = context.getBean(BookmarkService.class);
+
+            List<String> results = new ArrayList<>();
+            for (Case filterCase : cases()) {
+                // When
+                TagFilter filter = TagFilter.parse(filterCase.tags(), filterCase.mode(), filterCase.exclude());
+                List<Bookmark> firstPage = bookmarkService.findByTags(filter, PAGE_SIZE, 0);
+                long[] nanos = new long[ITERATIONS];
+                for (int i = 0; i < ITERATIONS; i++) {
+                    long start = System.nanoTime();
+                    bookmarkService.findByTags(filter, PAGE_SIZE, 0);
+                    nanos[i] = System.nanoTime() - start;
+                }
+
+                // Then
+                assertThat(firstPage).extracting(Bookmark::getId).as(filterCase.name())
+                    .containsExactlyElementsOf(expected(filterCase, Comparator.naturalOrder(), PAGE_SIZE));
+                results.add(report(filterCase.name(), nanos));
+            }
+
+            // When: walk ten pages deep by cursor, newest first
+            Case deep = new Case("all, popular, by cursor", "tag-1,tag-2", "all", null);
+            TagFilter filter = TagFilter.parse(deep.tags(), deep.mode(), deep.exclude());
+            List<Long> walked = new ArrayList<>();
+            long[] nanos = new long[10];
+            BookmarkCursor cursor = null;
+            for (int page = 0; page < nanos.length; page++) {
+                long start = System.nanoTime();
+                List<Bookmark> bookmarks = bookmarkService.findByTagsAfter(filter, cursor, PAGE_SIZE);
+                nanos[page] = System.nanoTime() - start;
+                bookmarks.forEach(bookmark -> walked.add(bookmark.getId()));
+                cursor = BookmarkCursor.of(bookmarks.get(bookmarks.size() - 1));
+            }
+
+            // Then
+            Comparator<Long> newestFirst = Comparator.<Long, LocalDateTime>comparing(TagFilterLoadTest::createdAt)
+                .reversed();
+            assertThat(walked).containsExactlyElementsOf(expected(deep, newestFirst, PAGE_SIZE * nanos.length));
+            results.add(report(deep.name(), nanos));
+
+            results.forEach(log::info);
+            jdbcTemplate.queryForList(
+                "EXPLAIN SELECT b.id FROM bookmarks b WHERE b.id IN (SELECT bt.bookmark_id FROM bookmark_tags bt"
+                    + " WHERE bt.tag_id IN (1, 2) GROUP BY bt.bookmark_id HAVING COUNT(*) = 2) ORDER BY b.id LIMIT 20",
+                String.class).forEach(log::info);
+        }
+    }
+
+    private static List<Case> cases() {
+        return List.of(
+            new Case("all, two popular tags", "tag-1,tag-2", "all", null),
+            new Case("all, popular and rare tag", "tag-1,tag-500", "all", null),
+            new Case("all, one tag", "tag-10", "all", null),
+            new Case("any, three tags", "tag-50,tag-51,tag-52", "any", null),
+            new Case("any, rare tags", "tag-900,tag-901", "any", null),
+            new Case("all with exclusion", "tag-1,tag-2", "all", "tag-3"),
+            new Case("exclusion only", null, null, "tag-1"));
+    }
+
+    private int load(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.batchUpdate("INSERT INTO tags (id, name) VALUES (?, ?)",
+            IntStream.rangeClosed(1, TAGS).mapToObj(rank -> new Object[] { rank, "tag-" + rank }).toList());
+        double[] cumulative = zipf();
+        tagsByBookmark = new int[BOOKMARKS + 1][];
+        List<Object[]> bookmarks = new ArrayList<>();
+        List<Object[]> links = new ArrayList<>();
+        int rows = 0;
+        for (int id = 1; id <= BOOKMARKS; id++) {
+            String url = "https://tag-filter-" + id + ".example.com";
+            Timestamp created = Timestamp.valueOf(createdAt(id));
+            bookmarks.add(new Object[] { id, url, UrlHash.of(url), "Bookmark " + id, created });
+            tagsByBookmark[id] = distinctTags(new SplittableRandom(id), cumulative);
+            for (int tag : tagsByBookmark[id]) {
+                links.add(new Object[] { id, tag });
+            }
+            if (bookmarks.size() == 10_000 || id == BOOKMARKS) {
+                jdbcTemplate.batchUpdate(
+                    "INSERT INTO bookmarks (id, url, url_hash, title, created_at) VALUES (?, ?, ?, ?, ?)", bookmarks);
+                jdbcTemplate.batchUpdate("INSERT INTO bookmark_tags (bookmark_id, tag_id) VALUES (?, ?)", links);
+                rows += links.size();
+                bookmarks.clear();
+                links.clear();
+            }
+        }
+        return rows;
+    }
+
+    // The first bookmark ids in the order of the pages, computed from the generated tags
+    private List<Long> expected(Case filterCase, Comparator<Long> order, int limit) {
+        int[] required = ranks(filterCase.tags());
+        int[] excluded = ranks(filterCase.exclude());
+        boolean any = "any".equals(filterCase.mode());
+        Predicate<int[]> matches = tags -> {
+            long found = Arrays.stream(required).filter(tag -> contains(tags, tag)).count();
+            boolean included = required.length == 0 || (any ? found > 0 : found == required.length);
+            return included && Arrays.stream(excluded).noneMatch(tag -> contains(tags, tag));
+        };
+        return IntStream.rangeClosed(1, BOOKMARKS)
+            .filter(id -> matches.test(tagsByBookmark[id]))
+            .mapToObj(id -> (long) id)
+            .sorted(order)
+            .limit(limit)
+            .toList();
+    }
+
+    private static String report(String name, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return String.format("%-28s p50 %7.2f ms, p99 %7.2f ms", name, sorted[sorted.length / 2] / 1_000_000.0,
+            sorted[(int) Math.ceil(sorted.length * 0.99) - 1] / 1_000_000.0);
+    }
+
+    // Unique and not in id order, so that the cursor order differs from the offset order
+    private static LocalDateTime createdAt(long id) {
+        return BASE.plusSeconds(id * 7_919 % BOOKMARKS);
+    }
+
+    private static double[] zipf() {
+        double[] cumulative = new double[TAGS];
+        double sum = 0;
+        for (int rank = 1; rank <= TAGS; rank++) {
+            sum += 1.0 / rank;
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < TAGS; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int[] distinctTags(SplittableRandom random, double[] cumulative) {
+        int[] tags = new int[TAGS_PER_BOOKMARK];
+        for (int count = 0; count < TAGS_PER_BOOKMARK;) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            int rank = Math.min(index < 0 ? -index - 1 : index, TAGS - 1) + 1;
+            if (!contains(Arrays.copyOf(tags, count), rank)) {
+                tags[count++] = rank;
+            }
+        }
+        return tags;
+    }
+
+    private static int[] ranks(String names) {
+        if (names == null) {
+            return new int[0];
+        }
+        return Arrays.stream(names.split(",")).mapToInt(name -> Integer.parseInt(name.substring("tag-".length())))
+            .toArray();
+    }
+
+    private static boolean contains(int[] tags, int tag) {
+        for (int candidate : tags) {
+            if (candidate == tag) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Case(String name, String tags, String mode, String exclude) {
+    }
+}
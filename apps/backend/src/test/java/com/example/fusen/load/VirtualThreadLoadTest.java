@@ -0,0 +1,154 @@
+package com.example.fusen.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.fusen.FusenApplication;
+
+/**
+ * Compares the platform-thread and virtual-thread modes under many slow clients.
+ * Each slow client trickles its request body, holding a request-processing thread while the
+ * controller reads it, and fast clients measure the throughput that is left for everyone else.
+ *
+ * Run with: ./mvnw test -Dtest=VirtualThreadLoadTest -Dfusen.loadtest=true
+ */
+@EnabledIfSystemProperty(named = "fusen.loadtest", matches = "true")
+@DisplayName("Virtual Thread Load Test")
+class VirtualThreadLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadLoadTest.class);
+
+    private static final int SLOW_CLIENTS = Integer.getInteger("fusen.loadtest.slow-clients", 1000);
+    private static final int FAST_CLIENTS = 20;
+    private static final Duration SLOW_BODY_DURATION = Duration.ofSeconds(5);
+
+    @Test
+    @DisplayName("Should serve more fast requests with virtual threads under slow clients")
+    void shouldServeMoreFastRequestsWithVirtualThreadsUnderSlowClients() throws Exception {
+        // When
+        LoadResult platform = run(false);
+        LoadResult virtual = run(true);
+
+        // Then
+        log.info("platform threads: {}", platform);
+        log.info("virtual threads:  {}", virtual);
+        assertThat(virtual.slowCompleted()).isEqualTo(SLOW_CLIENTS);
+        assertThat(virtual.fastPerSecond()).isGreaterThan(platform.fastPerSecond());
+    }
+
+    private LoadResult run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(FusenApplication.class)
+                .profiles("test")
+                .properties(
+                    "server.port=0",
+                    "spring.threads.virtual.enabled=" + virtualThreads,
+                    "spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+                    "spring.jpa.show-sql=false",
+                    "logging.level.com.example.fusen=WARN",
+                    "logging.level.com.example.fusen.load=INFO",
+                    "logging.level.org.seasar.doma=WARN")
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return load(port, mode);
+        }
+    }
+
+    private LoadResult load(int port, String mode) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        HttpRequest fastRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/bookmarks"))
+            .timeout(Duration.ofSeconds(30))
+            .GET()
+            .build();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger fastCompleted = new AtomicInteger();
+        AtomicInteger slowCompleted = new AtomicInteger();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> slow = new ArrayList<>();
+            for (int i = 0; i < SLOW_CLIENTS; i++) {
+                int index = i;
+                slow.add(clients.submit(() -> {
+                    if (slowPost(port, "https://slow-" + mode + "-" + index + ".example.com") == 201) {
+                        slowCompleted.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            // Let the slow clients occupy the server before measuring
+            Thread.sleep(1000);
+            long start = System.nanoTime();
+            for (int i = 0; i < FAST_CLIENTS; i++) {
+                clients.submit(() -> {
+                    while (running.get()) {
+                        if (client.send(fastRequest, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                            fastCompleted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (Future<?> future : slow) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            running.set(false);
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            return new LoadResult(slowCompleted.get(), fastCompleted.get() / seconds);
+        }
+    }
+
+    // Sends the headers immediately and the JSON body one byte at a time over SLOW_BODY_DURATION
+    private int slowPost(int port, String url) throws Exception {
+        byte[] body = ("{\"url\":\"" + url + "\",\"title\":\"slow\"}").getBytes(StandardCharsets.UTF_8);
+        long pause = SLOW_BODY_DURATION.toMillis() / body.length;
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setSoTimeout(120_000);
+            OutputStream out = socket.getOutputStream();
+            out.write(("POST /api/v1/bookmarks HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\n"
+                + "Content-Length: " + body.length + "\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            for (byte b : body) {
+                out.write(b);
+                out.flush();
+                Thread.sleep(pause);
+            }
+            InputStream in = socket.getInputStream();
+            String statusLine = new String(in.readNBytes(12), StandardCharsets.US_ASCII);
+            return Integer.parseInt(statusLine.substring(9, 12));
+        }
+    }
+
+    private record LoadResult(int slowCompleted, double fastPerSecond) {
+        @Override
+        public String toString() {
+            return String.format("slow clients completed=%d/%d, fast requests/s=%.1f",
+                slowCompleted, SLOW_CLIENTS, fastPerSecond);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.fusen.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.seasar.doma.jdbc.PreparedSql;
+import org.seasar.doma.jdbc.Sql;
+import org.seasar.doma.jdbc.SqlKind;
+import org.seasar.doma.jdbc.SqlLogType;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("MetricsJdbcLogger Tests")
+class MetricsJdbcLoggerTest {
+
+    private static final String DAO_CLASS = "com.example.fusen.dao.BookmarkDaoImpl";
+
+    private SimpleMeterRegistry registry;
+    private MetricsJdbcLogger jdbcLogger;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        jdbcLogger = new MetricsJdbcLogger(registry);
+    }
+
+    @Test
+    @DisplayName("Should time DAO methods by DAO, method and outcome")
+    void shouldTimeDaoMethodsByDaoMethodAndOutcome() {
+        // When
+        jdbcLogger.logDaoMethodEntering(DAO_CLASS, "findById", 1L);
+        jdbcLogger.logDaoMethodExiting(DAO_CLASS, "findById", null);
+        jdbcLogger.logDaoMethodEntering(DAO_CLASS, "insert");
+        jdbcLogger.logDaoMethodThrowing(DAO_CLASS, "insert", new RuntimeException("duplicate"));
+
+        // Then
+        Timer success = registry.get(MetricsJdbcLogger.DAO_TIMER)
+            .tags("dao", "BookmarkDao", "method", "findById", "outcome", "success").timer();
+        Timer error = registry.get(MetricsJdbcLogger.DAO_TIMER)
+            .tags("dao", "BookmarkDao", "method", "insert", "outcome", "error").timer();
+        assertThat(success.count()).isEqualTo(1);
+        assertThat(error.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should count SQL statements per request")
+    void shouldCountSqlStatementsPerRequest() {
+        // Given
+        String rawSql = "select * from bookmarks order by id";
+        Sql<?> sql = new PreparedSql(SqlKind.SELECT, rawSql, rawSql, null, List.of(), SqlLogType.FORMATTED);
+
+        // When
+        jdbcLogger.logSql(DAO_CLASS, "findAll", sql);
+        jdbcLogger.beginRequest();
+        jdbcLogger.logSql(DAO_CLASS, "findAll", sql);
+        jdbcLogger.logSql(DAO_CLASS, "findAll", sql);
+        RequestSqlStats stats = jdbcLogger.endRequest();
+
+        // Then
+        assertThat(stats.getStatements()).isEqualTo(2);
+        assertThat(jdbcLogger.endRequest().getStatements()).isZero();
+        assertThat(registry.get(MetricsJdbcLogger.SQL_COUNTER)
+            .tags("dao", "BookmarkDao", "method", "findAll", "kind", "SELECT").counter().count())
+            .isEqualTo(3.0);
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.fusen.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.function.LongFunction;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.seasar.doma.internal.jdbc.sql.BasicInParameter;
+import org.seasar.doma.jdbc.PreparedSql;
+import org.seasar.doma.jdbc.Sql;
+import org.seasar.doma.jdbc.SqlKind;
+import org.seasar.doma.jdbc.SqlLogType;
+import org.seasar.doma.wrapper.LongWrapper;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.example.fusen.exception.SqlBudgetExceededException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+
+@DisplayName("SqlStatementMetricsFilter Tests")
+class SqlStatementMetricsFilterTest {
+
+    private static final String DAO_CLASS = "com.example.fusen.dao.BookmarkTagDaoImpl";
+    private static final String FIND_TAGS_PATH =
+        "META-INF/com/example/fusen/dao/BookmarkTagDao/findTagsByBookmarkId.sql";
+
+    private SimpleMeterRegistry registry;
+    private MetricsJdbcLogger jdbcLogger;
+    private LongFunction<Sql<?>> findTags;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        jdbcLogger = new MetricsJdbcLogger(registry);
+        findTags = bookmarkId -> sql(SqlKind.SELECT, FIND_TAGS_PATH, bookmarkId);
+    }
+
+    @Test
+    @DisplayName("Should set SQL count header on responses without body")
+    void shouldSetSqlCountHeaderOnResponsesWithoutBody() throws Exception {
+        // Given
+        SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(jdbcLogger, registry, 20, 3, true, true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("DELETE", "/api/v1/bookmarks/1"), response,
+            executing(findTags, 2));
+
+        // Then
+        assertThat(response.getHeader(SqlStatementMetricsFilter.SQL_COUNT_HEADER)).isEqualTo("2");
+        assertThat(registry.get(SqlStatementMetricsFilter.REQUEST_SQL_SUMMARY).summary().totalAmount())
+            .isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Should fail when the same SQL repeats more than allowed")
+    void shouldFailWhenSameSqlRepeatsMoreThanAllowed() {
+        // Given
+        SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(jdbcLogger, registry, 20, 3, true, true);
+
+        // When & Then
+        assertThatThrownBy(() -> filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/bookmarks"),
+                new MockHttpServletResponse(), executing(findTags, 10)))
+            .isInstanceOf(SqlBudgetExceededException.class)
+            .hasMessageContaining("the same SQL ran with 10 different parameter sets (possible N+1)")
+            .hasMessageContaining("findTagsByBookmarkId.sql");
+    }
+
+    @Test
+    @DisplayName("Should not count re-running the same SQL with the same parameters as N+1")
+    void shouldNotCountRerunningTheSameSqlWithTheSameParametersAsNPlusOne() throws Exception {
+        // Given
+        SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(jdbcLogger, registry, 20, 3, true, true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/bookmarks"), response,
+            executing(bookmarkId -> sql(SqlKind.SELECT, FIND_TAGS_PATH, 1L), 10));
+
+        // Then
+        assertThat(response.getHeader(SqlStatementMetricsFilter.SQL_COUNT_HEADER)).isEqualTo("10");
+    }
+
+    @Test
+    @DisplayName("Should fail when statements exceed the budget")
+    void shouldFailWhenStatementsExceedBudget() {
+        // Given
+        SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(jdbcLogger, registry, 1, 3, true, true);
+
+        // When & Then
+        assertThatThrownBy(() -> filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/bookmarks"),
+                new MockHttpServletResponse(), executing(findTags, 2)))
+            .isInstanceOf(SqlBudgetExceededException.class)
+            .hasMessageContaining("2 SQL statements exceed the budget of 1");
+    }
+
+    @Test
+    @DisplayName("Should skip the budget for handlers marked as exempt")
+    void shouldSkipBudgetForHandlersMarkedAsExempt() throws Exception {
+        // Given
+        SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(jdbcLogger, registry, 1, 3, true, true);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/bookmarks/import");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+            new HandlerMethod(new BulkHandler(), BulkHandler.class.getMethod("importAll")));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, executing(findTags, 10));
+
+        // Then
+        assertThat(response.getHeader(SqlStatementMetricsFilter.SQL_COUNT_HEADER)).isEqualTo("10");
+    }
+
+    @Test
+    @DisplayName("Should count a batch as one statement and only warn when not failing")
+    void shouldCountBatchAsOneStatementAndOnlyWarnWhenNotFailing() throws Exception {
+        // Given
+        SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(jdbcLogger, registry, 1, 0, false, true);
+        Sql<?> batchInsert = sql(SqlKind.BATCH_INSERT, null, 1L);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/bookmarks"), response, (request, res) -> {
+            jdbcLogger.logDaoMethodEntering(DAO_CLASS, "insertAll");
+            for (int i = 0; i < 5; i++) {
+                jdbcLogger.logSql(DAO_CLASS, "insertAll", batchInsert);
+            }
+            jdbcLogger.logDaoMethodExiting(DAO_CLASS, "insertAll", null);
+        });
+
+        // Then
+        assertThat(response.getHeader(SqlStatementMetricsFilter.SQL_COUNT_HEADER)).isEqualTo("1");
+    }
+
+    @Test
+    @DisplayName("Should not set SQL headers unless debug headers are enabled")
+    void shouldNotSetSqlHeadersUnlessDebugHeadersAreEnabled() throws Exception {
+        // Given
+        SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(jdbcLogger, registry, 20, 3, true, false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("DELETE", "/api/v1/bookmarks/1"), response,
+            executing(findTags, 2));
+
+        // Then
+        assertThat(response.getHeader(SqlStatementMetricsFilter.SQL_COUNT_HEADER)).isNull();
+        assertThat(response.getHeader(SqlStatementMetricsFilter.SQL_TIME_HEADER)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should fail before the body is written")
+    void shouldFailBeforeTheBodyIsWritten() {
+        // Given
+        SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(jdbcLogger, registry, 1, 3, true, true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When & Then
+        assertThatThrownBy(() -> filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/bookmarks"), response,
+                (request, res) -> {
+                    executing(findTags, 2).doFilter(request, res);
+                    // SqlStatsResponseBodyAdvice
+                    ((Runnable) request.getAttribute(SqlStatementMetricsFilter.BEFORE_COMMIT_ATTRIBUTE)).run();
+                    res.getWriter().write("[]");
+                    res.flushBuffer();
+                }))
+            .isInstanceOf(SqlBudgetExceededException.class);
+        assertThat(response.isCommitted()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should only warn when the response was committed without the advice")
+    void shouldOnlyWarnWhenTheResponseWasCommittedWithoutTheAdvice() throws Exception {
+        // Given
+        SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(jdbcLogger, registry, 1, 3, true, true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/export"), response, (request, res) -> {
+            executing(findTags, 2).doFilter(request, res);
+            res.flushBuffer();
+        });
+
+        // Then
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(response.getHeader(SqlStatementMetricsFilter.SQL_COUNT_HEADER)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should cap the parameter sets tracked per SQL")
+    void shouldCapTheParameterSetsTrackedPerSql() {
+        // Given
+        SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(jdbcLogger, registry, 100_000, 3, true, true);
+
+        // When & Then
+        assertThatThrownBy(() -> filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/bookmarks"),
+                new MockHttpServletResponse(), executing(findTags, RequestSqlStats.MAX_PARAMETER_SETS * 2)))
+            .isInstanceOf(SqlBudgetExceededException.class)
+            .hasMessageContaining("the same SQL ran with at least " + RequestSqlStats.MAX_PARAMETER_SETS
+                + " different parameter sets");
+    }
+
+    @Test
+    @DisplayName("Should not track parameter sets for handlers marked as exempt")
+    void shouldNotTrackParameterSetsForHandlersMarkedAsExempt() throws Exception {
+        // Given
+        RequestSqlStats stats = jdbcLogger.beginRequest(() -> true);
+
+        // When
+        executing(findTags, 10).doFilter(new MockHttpServletRequest("POST", "/api/v1/bookmarks/import"),
+            new MockHttpServletResponse());
+        jdbcLogger.endRequest();
+
+        // Then
+        assertThat(stats.getStatements()).isEqualTo(10);
+        assertThat(stats.mostRepeated()).isEmpty();
+    }
+
+    // bookmarkIdを0, 1, 2...と変えながらDAOを呼ぶ
+    private FilterChain executing(LongFunction<Sql<?>> sql, int times) {
+        return (request, response) -> {
+            for (long i = 0; i < times; i++) {
+                jdbcLogger.logDaoMethodEntering(DAO_CLASS, "findTagsByBookmarkId", i);
+                jdbcLogger.logSql(DAO_CLASS, "findTagsByBookmarkId", sql.apply(i));
+                jdbcLogger.logDaoMethodExiting(DAO_CLASS, "findTagsByBookmarkId", null);
+            }
+        };
+    }
+
+    private Sql<?> sql(SqlKind kind, String sqlFilePath, long bookmarkId) {
+        String rawSql = "select * from bookmark_tags where bookmark_id = ?";
+        return new PreparedSql(kind, rawSql, rawSql, sqlFilePath,
+            List.of(new BasicInParameter<>(() -> new LongWrapper(bookmarkId))), SqlLogType.FORMATTED);
+    }
+
+    static class BulkHandler {
+        @SqlBudgetExempt
+        public void importAll() {
+        }
+    }
+}
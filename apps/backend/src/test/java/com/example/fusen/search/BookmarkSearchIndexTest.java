@@ -0,0 +1,257 @@
+package com.example.fusen.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.fusen.TestDataBuilder;
+import com.example.fusen.cache.BookmarkChangePoller;
+import com.example.fusen.dao.BookmarkChangeDao;
+import com.example.fusen.dao.BookmarkDao;
+import com.example.fusen.entity.Bookmark;
+import com.example.fusen.service.BookmarkService;
+
+/**
+ * Runs without a test-managed transaction because the index applies local writes after commit
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("BookmarkSearchIndex Integration Tests")
+class BookmarkSearchIndexTest {
+
+    private static final List<String> URLS = List.of(
+        "https://search-local.example.com",
+        "https://search-remote.example.com",
+        "https://search-rollback.example.com",
+        "https://search-build.example.com",
+        "https://search-tokyo.example.com",
+        "https://search-osaka.example.com",
+        "https://search-segment-created.example.com",
+        "https://search-segment-deleted.example.com",
+        "https://search-segment-unlogged.example.com");
+
+    @Autowired
+    private BookmarkSearchIndex searchIndex;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private BookmarkDao bookmarkDao;
+
+    @Autowired
+    private BookmarkChangeDao bookmarkChangeDao;
+
+    @Autowired
+    private ObjectProvider<BookmarkChangePoller> changePoller;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        URLS.forEach(url -> bookmarkDao.findByUrl(url).ifPresent(bookmark -> {
+            bookmarkDao.deleteById(bookmark.getId(), null);
+            searchIndex.changed(List.of(bookmark.getId()));
+        }));
+    }
+
+    @Test
+    @DisplayName("Should follow local creates, updates and deletes once committed")
+    void shouldFollowLocalCreatesUpdatesAndDeletesOnceCommitted() {
+        // Given
+        Bookmark created = bookmarkService.create(TestDataBuilder.bookmark()
+            .url("https://search-local.example.com")
+            .title("Zeppelin airships")
+            .description("History of rigid airships")
+            .build());
+
+        // When & Then
+        assertThat(bookmarkService.search("zeppelin", 10)).extracting(Bookmark::getId)
+            .containsExactly(created.getId());
+
+        Bookmark edited = bookmarkService.findById(created.getId());
+        edited.setTitle("Blimp airships");
+        edited.setVersion(null);
+        bookmarkService.update(edited);
+        assertThat(searchIndex.search("zeppelin", 10)).isEmpty();
+        assertThat(searchIndex.search("blimp", 10)).containsExactly(created.getId());
+
+        bookmarkService.delete(created.getId(), null);
+        assertThat(searchIndex.search("blimp", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should find Japanese text by character bigrams")
+    void shouldFindJapaneseTextByCharacterBigrams() {
+        // Given
+        Bookmark tokyo = bookmarkService.create(TestDataBuilder.bookmark()
+            .url("https://search-tokyo.example.com")
+            .title("東京のおすすめカフェ")
+            .description("ｼﾌﾞﾔの喫茶店まとめ")
+            .build());
+        Bookmark osaka = bookmarkService.create(TestDataBuilder.bookmark()
+            .url("https://search-osaka.example.com")
+            .title("大阪のラーメン屋")
+            .build());
+
+        // When & Then
+        assertThat(searchIndex.search("東京 カフェ", 10)).first().isEqualTo(tokyo.getId());
+        assertThat(searchIndex.search("東京 カフェ", 10)).doesNotContain(osaka.getId());
+        assertThat(searchIndex.search("シブヤ", 10)).containsExactly(tokyo.getId());
+        assertThat(searchIndex.search("ラーメン", 10)).containsExactly(osaka.getId());
+    }
+
+    @Test
+    @DisplayName("Should find a misspelled title or domain with the fuzzy search")
+    void shouldFindAMisspelledTitleOrDomainWithTheFuzzySearch() {
+        // Given
+        Bookmark created = bookmarkService.create(TestDataBuilder.bookmark()
+            .url("https://search-local.example.com")
+            .title("Quarkus getting started")
+            .build());
+
+        // When & Then
+        assertThat(bookmarkService.fuzzySearch("quarcus", 10)).extracting(Bookmark::getId)
+            .containsExactly(created.getId());
+        assertThat(searchIndex.fuzzySearch("serch-locl", 10)).containsExactly(created.getId());
+        assertThat(searchIndex.search("quarcus", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not index a create that was rolled back")
+    void shouldNotIndexACreateThatWasRolledBack() {
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            bookmarkService.create(TestDataBuilder.bookmark()
+                .url("https://search-rollback.example.com")
+                .title("Quokka")
+                .build());
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertThat(searchIndex.search("quokka", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reload bookmarks changed by another instance")
+    void shouldReloadBookmarksChangedByAnotherInstance() {
+        // Given: written directly, as another instance would
+        Bookmark bookmark = TestDataBuilder.bookmark()
+            .url("https://search-remote.example.com")
+            .title("Axolotl care")
+            .build();
+        bookmarkDao.insert(bookmark);
+        assertThat(searchIndex.search("axolotl", 10)).isEmpty();
+
+        // When
+        searchIndex.changed(List.of(bookmark.getId()));
+
+        // Then
+        assertThat(searchIndex.search("axolotl care", 10)).containsExactly(bookmark.getId());
+
+        // When: deleted on the other instance
+        bookmarkDao.deleteById(bookmark.getId(), null);
+        searchIndex.changed(List.of(bookmark.getId()));
+
+        // Then
+        assertThat(searchIndex.search("axolotl", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should index existing bookmarks when built")
+    void shouldIndexExistingBookmarksWhenBuilt() {
+        // Given
+        Bookmark bookmark = TestDataBuilder.bookmark()
+            .url("https://search-build.example.com")
+            .title("Narwhal migration")
+            .build();
+        bookmarkDao.insert(bookmark);
+
+        // When
+        searchIndex.build();
+
+        // Then
+        assertThat(searchIndex.search("narwhal", 10)).containsExactly(bookmark.getId());
+        assertThat(searchIndex.search("search-build", 10)).contains(bookmark.getId());
+    }
+
+    @Test
+    @DisplayName("Should restore from a written segment and replay only the changes made since")
+    void shouldRestoreFromAWrittenSegmentAndReplayOnlyTheChangesMadeSince(@TempDir Path directory) throws IOException {
+        // Given: a segment written right after the first build
+        Bookmark deleted = bookmarkService.create(TestDataBuilder.bookmark()
+            .url("https://search-segment-deleted.example.com")
+            .title("Capybara habitat")
+            .build());
+        persistentIndex(directory).build();
+        assertThat(segmentFiles(directory)).hasSize(1);
+
+        // Written directly without a change record, so only a full build would find it
+        bookmarkDao.insert(TestDataBuilder.bookmark()
+            .url("https://search-segment-unlogged.example.com")
+            .title("Capybara diet")
+            .build());
+        Bookmark created = bookmarkService.create(TestDataBuilder.bookmark()
+            .url("https://search-segment-created.example.com")
+            .title("Capybara swimming")
+            .build());
+        bookmarkService.delete(deleted.getId(), null);
+
+        // When
+        BookmarkSearchIndex restored = persistentIndex(directory);
+        restored.build();
+
+        // Then
+        assertThat(restored.search("capybara", 10)).containsExactly(created.getId());
+        assertThat(restored.fuzzySearch("capybara swiming", 10)).containsExactly(created.getId());
+    }
+
+    @Test
+    @DisplayName("Should rebuild from the database when no segment can be read")
+    void shouldRebuildFromTheDatabaseWhenNoSegmentCanBeRead(@TempDir Path directory) throws IOException {
+        // Given
+        Files.writeString(directory.resolve("segment-999999999999999.seg"), "not a segment");
+        Bookmark bookmark = TestDataBuilder.bookmark()
+            .url("https://search-segment-unlogged.example.com")
+            .title("Capybara diet")
+            .build();
+        bookmarkDao.insert(bookmark);
+
+        // When
+        BookmarkSearchIndex rebuilt = persistentIndex(directory);
+        rebuilt.build();
+
+        // Then
+        assertThat(rebuilt.search("capybara", 10)).containsExactly(bookmark.getId());
+        assertThat(segmentFiles(directory)).hasSize(1)
+            .noneMatch(file -> file.getFileName().toString().equals("segment-999999999999999.seg"));
+    }
+
+    private BookmarkSearchIndex persistentIndex(Path directory) {
+        return new BookmarkSearchIndex(bookmarkDao, bookmarkChangeDao, changePoller, directory.toString(), 10_000,
+            Duration.ofDays(1));
+    }
+
+    private static List<Path> segmentFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.fusen.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("InvertedIndex Tests")
+class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex();
+    }
+
+    @Nested
+    @DisplayName("Ranking Tests")
+    class RankingTests {
+
+        @Test
+        @DisplayName("Should rank documents matching the rarer term higher")
+        void shouldRankDocumentsMatchingTheRarerTermHigher() {
+            // Given
+            index.put(1, 1, List.of("java", "tutorial"));
+            index.put(2, 1, List.of("java", "spring"));
+            index.put(3, 1, List.of("java", "news"));
+
+            // When
+            List<InvertedIndex.Hit> hits = index.search(List.of("java", "spring"), 10);
+
+            // Then
+            assertThat(hits).extracting(InvertedIndex.Hit::bookmarkId).containsExactly(2L, 3L, 1L);
+            assertThat(hits.get(0).score()).isGreaterThan(hits.get(1).score());
+        }
+
+        @Test
+        @DisplayName("Should rank the shorter of two otherwise equal documents higher")
+        void shouldRankTheShorterOfTwoOtherwiseEqualDocumentsHigher() {
+            // Given
+            index.put(1, 1, List.of("java", "a", "b", "c", "d", "e"));
+            index.put(2, 1, List.of("java", "a"));
+            index.put(3, 1, List.of("python"));
+
+            // When & Then
+            assertThat(index.search(List.of("java"), 10)).extracting(InvertedIndex.Hit::bookmarkId)
+                .containsExactly(2L, 1L);
+        }
+
+        @Test
+        @DisplayName("Should keep only the top k hits")
+        void shouldKeepOnlyTheTopKHits() {
+            // Given
+            for (long id = 1; id <= 50; id++) {
+                index.put(id, 1, id % 10 == 0 ? List.of("java", "java") : List.of("java", "other"));
+            }
+
+            // When
+            List<InvertedIndex.Hit> hits = index.search(List.of("java"), 5);
+
+            // Then: the five with two occurrences, newest first among equal scores
+            assertThat(hits).extracting(InvertedIndex.Hit::bookmarkId).containsExactly(50L, 40L, 30L, 20L, 10L);
+        }
+
+        @Test
+        @DisplayName("Should decode postings with large gaps and frequencies")
+        void shouldDecodePostingsWithLargeGapsAndFrequencies() {
+            // Given: gaps and frequencies that need more than one varint byte
+            for (long id = 1; id <= 20_000; id++) {
+                index.put(id, 1, List.of("filler"));
+            }
+            index.put(20_001, 1, List.of("rare"));
+            index.put(20_002, 1, List.of("filler"));
+            index.put(20_003, 1, Collections.nCopies(300, "rare"));
+
+            // When
+            List<InvertedIndex.Hit> hits = index.search(List.of("rare", "filler"), 3);
+
+            // Then
+            assertThat(hits).extracting(InvertedIndex.Hit::bookmarkId).containsExactly(20_003L, 20_001L, 20_002L);
+        }
+
+        @Test
+        @DisplayName("Should return nothing for unknown terms")
+        void shouldReturnNothingForUnknownTerms() {
+            index.put(1, 1, List.of("java"));
+
+            assertThat(index.search(List.of("cobol"), 10)).isEmpty();
+            assertThat(index.search(List.of("java"), 0)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Update Tests")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("Should replace the terms of an updated document")
+        void shouldReplaceTheTermsOfAnUpdatedDocument() {
+            // Given
+            index.put(1, 1, List.of("java"));
+
+            // When
+            boolean replaced = index.put(1, 2, List.of("kotlin"));
+
+            // Then
+            assertThat(replaced).isTrue();
+            assertThat(index.search(List.of("java"), 10)).isEmpty();
+            assertThat(index.search(List.of("kotlin"), 10)).extracting(InvertedIndex.Hit::bookmarkId)
+                .containsExactly(1L);
+            assertThat(index.size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should ignore a version older than the indexed one")
+        void shouldIgnoreAVersionOlderThanTheIndexedOne() {
+            // Given
+            index.put(1, 3, List.of("new"));
+
+            // When
+            boolean replaced = index.put(1, 2, List.of("old"));
+
+            // Then
+            assertThat(replaced).isFalse();
+            assertThat(index.isCurrent(1, 3)).isTrue();
+            assertThat(index.search(List.of("old"), 10)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should drop removed documents from results and statistics")
+        void shouldDropRemovedDocumentsFromResultsAndStatistics() {
+            // Given
+            index.put(1, 1, List.of("java"));
+            index.put(2, 1, List.of("java"));
+
+            // When
+            boolean removed = index.remove(1);
+
+            // Then
+            assertThat(removed).isTrue();
+            assertThat(index.remove(1)).isFalse();
+            assertThat(index.size()).isEqualTo(1);
+            assertThat(index.search(List.of("java"), 10)).extracting(InvertedIndex.Hit::bookmarkId)
+                .containsExactly(2L);
+        }
+
+        @Test
+        @DisplayName("Should keep results intact across compaction")
+        void shouldKeepResultsIntactAcrossCompaction() {
+            // Given: enough updates to leave more dead ordinals than live ones
+            for (long id = 1; id <= 100; id++) {
+                index.put(id, 1, List.of("java", "v1"));
+            }
+            for (int version = 2; version <= 40; version++) {
+                for (long id = 1; id <= 100; id++) {
+                    index.put(id, version, List.of("java", "v" + version));
+                }
+            }
+
+            // When
+            List<InvertedIndex.Hit> hits = index.search(List.of("v40"), 200);
+
+            // Then
+            assertThat(hits).hasSize(100);
+            assertThat(index.search(List.of("v1"), 200)).isEmpty();
+            // Postings emptied by earlier compactions are gone
+            assertThat(index.terms()).isLessThan(41);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.fusen.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("Segment Tests")
+class SegmentTest {
+
+    @TempDir
+    private Path directory;
+
+    private InvertedIndex index;
+    private TrigramIndex trigrams;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex();
+        trigrams = new TrigramIndex();
+    }
+
+    private void put(long id, long version, String title, String url) {
+        List<String> tokens = TextAnalyzer.analyze(title);
+        TextAnalyzer.analyzeUrl(url, tokens);
+        if (index.put(id, version, tokens)) {
+            trigrams.put(id, TextAnalyzer.normalize(title + " " + TextAnalyzer.stripUrl(url)));
+        }
+    }
+
+    // 書き出したセグメントを基底とする索引に差し替える
+    private Segment writeAndReopen(long checkpoint) throws IOException {
+        Segment segment = Segment.open(SegmentWriter.write(directory, checkpoint, index.snapshot(), trigrams.snapshot()));
+        index = new InvertedIndex(segment);
+        trigrams = new TrigramIndex(segment);
+        return segment;
+    }
+
+    private List<Long> search(String query) {
+        return index.search(TextAnalyzer.analyze(query), 10).stream().map(InvertedIndex.Hit::bookmarkId).toList();
+    }
+
+    private List<Long> fuzzySearch(String query) {
+        return trigrams.search(query, 10).stream().map(TrigramIndex.Hit::bookmarkId).toList();
+    }
+
+    @Nested
+    @DisplayName("Round Trip Tests")
+    class RoundTripTests {
+
+        @Test
+        @DisplayName("Should search a written segment exactly like the in-memory index")
+        void shouldSearchAWrittenSegmentExactlyLikeTheInMemoryIndex() throws IOException {
+            // Given
+            put(10, 1, "Spring Boot reference", "https://docs.spring.io/spring-boot");
+            put(20, 1, "Spring Framework reference", "https://docs.spring.io/spring-framework");
+            put(30, 1, "東京のおすすめカフェ", "https://example.com/tokyo");
+            List<InvertedIndex.Hit> expected = index.search(TextAnalyzer.analyze("spring reference"), 10);
+            List<TrigramIndex.Hit> expectedFuzzy = trigrams.search("sprnig framework", 10);
+
+            // When
+            Segment segment = writeAndReopen(42);
+
+            // Then
+            assertThat(segment.checkpoint()).isEqualTo(42);
+            assertThat(segment.documents()).isEqualTo(3);
+            assertThat(index.search(TextAnalyzer.analyze("spring reference"), 10)).isEqualTo(expected);
+            assertThat(trigrams.search("sprnig framework", 10)).isEqualTo(expectedFuzzy);
+            assertThat(search("カフェ")).containsExactly(30L);
+            assertThat(index.size()).isEqualTo(3);
+            assertThat(trigrams.size()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Should look up documents by id and keep their versions")
+        void shouldLookUpDocumentsByIdAndKeepTheirVersions() throws IOException {
+            // Given
+            put(300, 3, "Third", "https://example.com/3");
+            put(100, 1, "First", "https://example.com/1");
+            put(200, 2, "Second", "https://example.com/2");
+
+            // When
+            Segment segment = writeAndReopen(1);
+
+            // Then
+            int ordinal = segment.ordinalOf(200);
+            assertThat(segment.bookmarkId(ordinal)).isEqualTo(200);
+            assertThat(segment.version(ordinal)).isEqualTo(2);
+            assertThat(segment.text(ordinal)).isEqualTo("second example com 2");
+            assertThat(segment.ordinalOf(150)).isEqualTo(-1);
+            assertThat(index.isCurrent(200, 2)).isTrue();
+            assertThat(index.isCurrent(200, 3)).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Update Tests")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("Should follow updates and removals of documents in the segment")
+        void shouldFollowUpdatesAndRemovalsOfDocumentsInTheSegment() throws IOException {
+            // Given
+            put(1, 1, "Elasticsearch guide", "https://example.com/es");
+            put(2, 1, "Solr guide", "https://example.com/solr");
+            writeAndReopen(1);
+
+            // When
+            put(1, 2, "OpenSearch guide", "https://example.com/es");
+            put(1, 1, "Elasticsearch guide", "https://example.com/es");
+            assertThat(index.remove(2)).isTrue();
+            trigrams.remove(2);
+
+            // Then
+            assertThat(search("elasticsearch")).isEmpty();
+            assertThat(search("opensearch")).containsExactly(1L);
+            assertThat(search("solr")).isEmpty();
+            assertThat(fuzzySearch("opensearh")).containsExactly(1L);
+            assertThat(fuzzySearch("elasticsearh")).isEmpty();
+            assertThat(index.remove(2)).isFalse();
+            assertThat(index.size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should merge the segment and the changes made since into a new segment")
+        void shouldMergeTheSegmentAndTheChangesMadeSinceIntoANewSegment() throws IOException {
+            // Given
+            for (long id = 1; id <= 100; id++) {
+                put(id, 1, "release " + id + " notes", "https://example.com/" + id);
+            }
+            writeAndReopen(1);
+            for (long id = 1; id <= 100; id += 2) {
+                put(id, 2, "patch " + id + " notes", "https://example.com/" + id);
+            }
+            index.remove(100);
+            trigrams.remove(100);
+
+            // When
+            Segment merged = writeAndReopen(2);
+
+            // Then
+            assertThat(merged.documents()).isEqualTo(99);
+            assertThat(search("release")).hasSize(10).allMatch(id -> id % 2 == 0 && id != 100);
+            assertThat(search("patch 41")).first().isEqualTo(41L);
+            assertThat(fuzzySearch("pach 41 notes")).first().isEqualTo(41L);
+            assertThat(index.isCurrent(41, 2)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a truncated file")
+    void shouldRejectATruncatedFile() throws IOException {
+        // Given
+        put(1, 1, "GitHub", "https://github.com");
+        Path file = SegmentWriter.write(directory, 1, index.snapshot(), trigrams.snapshot());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 1);
+        }
+
+        // When & Then
+        assertThatThrownBy(() -> Segment.open(file)).isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.fusen.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("TextAnalyzer Tests")
+class TextAnalyzerTest {
+
+    @Test
+    @DisplayName("Should split on non-alphanumerics and lowercase")
+    void shouldSplitOnNonAlphanumericsAndLowercase() {
+        assertThat(TextAnalyzer.analyze("Spring Boot 3.4: Getting-Started!"))
+            .containsExactly("spring", "boot", "3", "4", "getting", "started");
+    }
+
+    @Test
+    @DisplayName("Should drop the scheme and www from URLs")
+    void shouldDropTheSchemeAndWwwFromUrls() {
+        // Given
+        List<String> tokens = new ArrayList<>();
+
+        // When
+        TextAnalyzer.analyzeUrl("https://www.Example.com/docs/index.html?q=java", tokens);
+
+        // Then
+        assertThat(tokens).containsExactly("example", "com", "docs", "index", "html", "q", "java");
+    }
+
+    @Test
+    @DisplayName("Should skip overlong tokens and null text")
+    void shouldSkipOverlongTokensAndNullText() {
+        assertThat(TextAnalyzer.analyze("a" + "x".repeat(TextAnalyzer.MAX_TOKEN_LENGTH) + " b"))
+            .containsExactly("b");
+        assertThat(TextAnalyzer.analyze(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should split CJK runs into overlapping bigrams")
+    void shouldSplitCjkRunsIntoOverlappingBigrams() {
+        assertThat(TextAnalyzer.analyze("東京のカフェ")).containsExactly("東京", "京の", "のカ", "カフ", "フェ");
+        assertThat(TextAnalyzer.analyze("서울 맛집")).containsExactly("서울", "맛집");
+    }
+
+    @Test
+    @DisplayName("Should keep Latin words whole next to CJK text")
+    void shouldKeepLatinWordsWholeNextToCjkText() {
+        assertThat(TextAnalyzer.analyze("Java入門、第2版・茶"))
+            .containsExactly("java", "入門", "第", "2", "版", "茶");
+    }
+
+    @Test
+    @DisplayName("Should fold full-width and half-width forms")
+    void shouldFoldFullWidthAndHalfWidthForms() {
+        assertThat(TextAnalyzer.analyze("ＳＰＲＩＮＧ　ｂｏｏｔ１２３")).containsExactly("spring", "boot123");
+        assertThat(TextAnalyzer.analyze("ｺｰﾋｰ")).isEqualTo(TextAnalyzer.analyze("コーヒー"))
+            .containsExactly("コー", "ーヒ", "ヒー");
+        assertThat(TextAnalyzer.analyze("ｶﾞｲﾄﾞ")).containsExactly("ガイ", "イド");
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.fusen.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("TrigramIndex Tests")
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+    }
+
+    private void put(long id, String title, String url) {
+        index.put(id, TextAnalyzer.normalize(title + " " + TextAnalyzer.stripUrl(url)));
+    }
+
+    @Nested
+    @DisplayName("Search Tests")
+    class SearchTests {
+
+        @Test
+        @DisplayName("Should find titles and domains despite typos")
+        void shouldFindTitlesAndDomainsDespiteTypos() {
+            // Given
+            put(1, "Let's build something", "https://github.com");
+            put(2, "Spring Framework reference", "https://docs.spring.io/spring-framework/reference");
+            put(3, "Kotlin docs", "https://kotlinlang.org/docs");
+
+            // When & Then
+            assertThat(index.search("githb", 10)).extracting(TrigramIndex.Hit::bookmarkId).containsExactly(1L);
+            assertThat(index.search("sprnig framwork", 10)).extracting(TrigramIndex.Hit::bookmarkId)
+                .containsExactly(2L);
+            assertThat(index.search("ＫＯＴＬＩＮＧ", 10)).extracting(TrigramIndex.Hit::bookmarkId)
+                .containsExactly(3L);
+        }
+
+        @Test
+        @DisplayName("Should rank closer matches first")
+        void shouldRankCloserMatchesFirst() {
+            // Given
+            put(1, "Postgres tuning", "https://example.com/1");
+            put(2, "Postgre tuning", "https://example.com/2");
+            put(3, "Postgres tunning", "https://example.com/3");
+
+            // When
+            List<TrigramIndex.Hit> hits = index.search("postgres tuning", 10);
+
+            // Then
+            assertThat(hits).extracting(TrigramIndex.Hit::bookmarkId).containsExactly(1L, 3L, 2L);
+            assertThat(hits).extracting(TrigramIndex.Hit::distance).containsExactly(0, 1, 1);
+        }
+
+        @Test
+        @DisplayName("Should return nothing for short or distant queries")
+        void shouldReturnNothingForShortOrDistantQueries() {
+            put(1, "GitHub", "https://github.com");
+
+            assertThat(index.search("gi", 10)).isEmpty();
+            assertThat(index.search("gitlab", 10)).isEmpty();
+            assertThat(index.search("github", 0)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should agree with a full scan over documents sharing a trigram")
+        void shouldAgreeWithAFullScanOverDocumentsSharingATrigram() {
+            // Given: random strings over a small alphabet so that near misses are common
+            SplittableRandom random = new SplittableRandom(7);
+            List<String> texts = new ArrayList<>();
+            for (long id = 1; id <= 2_000; id++) {
+                String text = randomText(random, 12 + random.nextInt(20));
+                texts.add(text);
+                index.put(id, text);
+            }
+
+            for (int i = 0; i < 200; i++) {
+                // When
+                String source = texts.get(random.nextInt(texts.size()));
+                int start = random.nextInt(source.length() - 8);
+                String query = mutate(random, source.substring(start, start + 6 + random.nextInt(3)));
+                List<TrigramIndex.Hit> hits = index.search(query, 10_000);
+
+                // Then
+                int maxEdits = TrigramIndex.maxEdits(query.length());
+                List<Long> expected = new ArrayList<>();
+                for (int id = 1; id <= texts.size(); id++) {
+                    String text = texts.get(id - 1);
+                    if (sharesTrigram(query, text)
+                        && TrigramIndex.substringDistance(query, text, maxEdits) <= maxEdits) {
+                        expected.add((long) id);
+                    }
+                }
+                assertThat(hits).extracting(TrigramIndex.Hit::bookmarkId).as(query)
+                    .containsExactlyInAnyOrderElementsOf(expected);
+                assertThat(hits).isSortedAccordingTo(Comparator.comparingInt(TrigramIndex.Hit::distance));
+            }
+        }
+
+        private static boolean sharesTrigram(String query, String text) {
+            for (int i = 0; i + 3 <= query.length(); i++) {
+                if (text.contains(query.substring(i, i + 3))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static String randomText(SplittableRandom random, int length) {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < length; i++) {
+                text.append((char) ('a' + random.nextInt(6)));
+            }
+            return text.toString();
+        }
+
+        private static String mutate(SplittableRandom random, String text) {
+            StringBuilder mutated = new StringBuilder(text);
+            mutated.setCharAt(random.nextInt(mutated.length()), (char) ('a' + random.nextInt(6)));
+            return mutated.toString();
+        }
+    }
+
+    @Nested
+    @DisplayName("Update Tests")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("Should follow updates and removals")
+        void shouldFollowUpdatesAndRemovals() {
+            // Given
+            put(1, "Elasticsearch guide", "https://example.com/es");
+
+            // When
+            put(1, "OpenSearch guide", "https://example.com/es");
+
+            // Then
+            assertThat(index.search("elasticsearch", 10)).isEmpty();
+            assertThat(index.search("opensearch", 10)).extracting(TrigramIndex.Hit::bookmarkId)
+                .containsExactly(1L);
+
+            assertThat(index.remove(1)).isTrue();
+            assertThat(index.search("opensearch", 10)).isEmpty();
+            assertThat(index.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should keep results intact across compaction")
+        void shouldKeepResultsIntactAcrossCompaction() {
+            // Given
+            for (int version = 1; version <= 30; version++) {
+                for (long id = 1; id <= 100; id++) {
+                    index.put(id, "release " + version + " notes " + id);
+                }
+            }
+
+            // When & Then
+            assertThat(index.search("release 30 notes 42", 10)).extracting(TrigramIndex.Hit::bookmarkId)
+                .first().isEqualTo(42L);
+            assertThat(index.search("release 29 notes", 200)).allMatch(hit -> hit.distance() > 0);
+            assertThat(index.size()).isEqualTo(100);
+        }
+    }
+
+    @Test
+    @DisplayName("Should compute the distance to the closest substring")
+    void shouldComputeTheDistanceToTheClosestSubstring() {
+        assertThat(TrigramIndex.substringDistance("github", "the github com", 3)).isZero();
+        assertThat(TrigramIndex.substringDistance("githb", "github com", 3)).isEqualTo(1);
+        assertThat(TrigramIndex.substringDistance("gtihub", "github com", 3)).isEqualTo(2);
+        assertThat(TrigramIndex.substringDistance("bitbucket", "github com", 2)).isEqualTo(3);
+        assertThat(TrigramIndex.substringDistance("東京カフエ", "東京のカフェ", 3)).isEqualTo(2);
+        // Patterns longer than 64 characters fall back to the table
+        assertThat(TrigramIndex.substringDistance("ab".repeat(40), "x" + "ab".repeat(39) + "b", 3)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.fusen.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.fusen.TestDataBuilder;
+import com.example.fusen.dao.BookmarkDao;
+import com.example.fusen.entity.Bookmark;
+import com.example.fusen.exception.DuplicateUrlException;
+
+/**
+ * Runs without a test-managed transaction so that each create commits on its own connection.
+ * The losers are rejected by the unique index on url_hash, not by a locking read
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("BookmarkService Concurrency Tests")
+class BookmarkServiceConcurrencyTest {
+
+    private static final int THREAD_COUNT = 8;
+    private static final String URL = "https://concurrent-create.example.com";
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private BookmarkDao bookmarkDao;
+
+    @AfterEach
+    void tearDown() {
+        bookmarkDao.findByUrl(URL).ifPresent(bookmark -> bookmarkDao.deleteById(bookmark.getId(), null));
+    }
+
+    @Test
+    @DisplayName("Should let exactly one of parallel identical creates win")
+    void shouldLetExactlyOneOfParallelIdenticalCreatesWin() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            results.add(executor.submit(() -> {
+                Bookmark bookmark = TestDataBuilder.bookmark().url(URL).build();
+                start.await();
+                try {
+                    bookmarkService.create(bookmark);
+                    return true;
+                } catch (DuplicateUrlException e) {
+                    return false;
+                }
+            }));
+        }
+
+        // When
+        start.countDown();
+        int created = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                created++;
+            }
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(created).isEqualTo(1);
+        assertThat(bookmarkDao.findByUrl(URL)).isPresent();
+    }
+}
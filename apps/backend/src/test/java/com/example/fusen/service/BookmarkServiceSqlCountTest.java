@@ -0,0 +1,119 @@
+package com.example.fusen.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.fusen.BaseTest;
+import com.example.fusen.SqlCountingJdbcLogger;
+import com.example.fusen.TestDataBuilder;
+import com.example.fusen.dao.BookmarkDao;
+import com.example.fusen.dao.BookmarkTagDao;
+import com.example.fusen.dao.TagDao;
+import com.example.fusen.dto.TagFilter;
+import com.example.fusen.entity.Bookmark;
+import com.example.fusen.entity.Tag;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@Import(BookmarkServiceSqlCountTest.SqlCountingConfig.class)
+@DisplayName("BookmarkService SQL Statement Count Tests")
+class BookmarkServiceSqlCountTest extends BaseTest {
+
+    private static final int BOOKMARK_COUNT = 20;
+
+    @TestConfiguration
+    static class SqlCountingConfig {
+        @Bean
+        @Primary
+        SqlCountingJdbcLogger jdbcLogger() {
+            return new SqlCountingJdbcLogger();
+        }
+    }
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private BookmarkDao bookmarkDao;
+
+    @Autowired
+    private TagDao tagDao;
+
+    @Autowired
+    private BookmarkTagDao bookmarkTagDao;
+
+    @Autowired
+    private SqlCountingJdbcLogger jdbcLogger;
+
+    @BeforeEach
+    void setUp() {
+        Tag java = TestDataBuilder.tag().name("sql-count-java").build();
+        Tag spring = TestDataBuilder.tag().name("sql-count-spring").build();
+        tagDao.insert(java);
+        tagDao.insert(spring);
+
+        for (int i = 0; i < BOOKMARK_COUNT; i++) {
+            Bookmark bookmark = TestDataBuilder.bookmark()
+                .url("https://sql-count-" + i + ".example.com")
+                .title("SQL Count " + i)
+                .build();
+            bookmarkDao.insert(bookmark);
+            bookmarkTagDao.insertBookmarkTag(bookmark.getId(), java.getId());
+            bookmarkTagDao.insertBookmarkTag(bookmark.getId(), spring.getId());
+        }
+        jdbcLogger.reset();
+    }
+
+    @Test
+    @DisplayName("Should issue two statements per page regardless of page size")
+    void shouldIssueTwoStatementsPerPageRegardlessOfPageSize() {
+        // When
+        List<Bookmark> smallPage = bookmarkService.findAll(5, 0);
+        int smallPageCount = jdbcLogger.getCount();
+        jdbcLogger.reset();
+        List<Bookmark> largePage = bookmarkService.findAll(BOOKMARK_COUNT, 0);
+        int largePageCount = jdbcLogger.getCount();
+
+        // Then
+        assertThat(smallPage).hasSize(5);
+        assertThat(largePage).hasSize(BOOKMARK_COUNT);
+        assertThat(largePage).allSatisfy(bookmark -> assertThat(bookmark.getTags()).hasSize(2));
+        assertThat(smallPageCount).isEqualTo(2);
+        assertThat(largePageCount).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should filter a page by tags with at most three statements regardless of page size")
+    void shouldFilterAPageByTagsWithAtMostThreeStatementsRegardlessOfPageSize() {
+        // Given
+        TagFilter filter = TagFilter.parse("sql-count-java,sql-count-spring", "all", "sql-count-kotlin");
+
+        // When
+        List<Bookmark> smallPage = bookmarkService.findByTags(filter, 5, 0);
+        int smallPageCount = jdbcLogger.getCount();
+        jdbcLogger.reset();
+        List<Bookmark> largePage = bookmarkService.findByTags(filter, BOOKMARK_COUNT, 0);
+        int largePageCount = jdbcLogger.getCount();
+
+        // Then: tag names, the page and the tags of the page
+        assertThat(smallPage).hasSize(5);
+        assertThat(largePage).hasSize(BOOKMARK_COUNT);
+        assertThat(largePage).allSatisfy(bookmark -> assertThat(bookmark.getTags()).hasSize(2));
+        assertThat(smallPageCount).isLessThanOrEqualTo(3);
+        assertThat(largePageCount).isEqualTo(smallPageCount);
+    }
+}
@@ -3,13 +3,20 @@ package com.example.fusen.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
@@ -23,18 +30,30 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.seasar.doma.jdbc.SelectOptions;
+import org.springframework.dao.DuplicateKeyException;
 
 import com.example.fusen.TestDataBuilder;
+import com.example.fusen.cache.BookmarkCache;
+import com.example.fusen.cache.TagCache;
+import com.example.fusen.dao.BookmarkChangeDao;
 import com.example.fusen.dao.BookmarkDao;
 import com.example.fusen.dao.BookmarkTagDao;
 import com.example.fusen.dao.TagDao;
+import com.example.fusen.dto.BookmarkCursor;
+import com.example.fusen.dto.TagFilter;
 import com.example.fusen.entity.Bookmark;
+import com.example.fusen.entity.BookmarkChange;
+import com.example.fusen.entity.BookmarkTag;
 import com.example.fusen.entity.Tag;
 import com.example.fusen.exception.BookmarkNotFoundException;
 import com.example.fusen.exception.DuplicateUrlException;
 import com.example.fusen.exception.InvalidUrlException;
+import com.example.fusen.exception.VersionConflictException;
+import com.example.fusen.search.BookmarkSearchIndex;
+import com.example.fusen.util.UrlHash;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("BookmarkService Tests")
@@ -49,6 +68,18 @@ class BookmarkServiceTest {
     @Mock
     private BookmarkTagDao bookmarkTagDao;
 
+    @Mock
+    private BookmarkChangeDao bookmarkChangeDao;
+
+    @Mock
+    private BookmarkSearchIndex bookmarkSearchIndex;
+
+    @Spy
+    private TagCache tagCache = new TagCache(100);
+
+    @Spy
+    private BookmarkCache bookmarkCache = new BookmarkCache(1_000_000, Duration.ofMinutes(10));
+
     @InjectMocks
     private BookmarkService bookmarkService;
 
@@ -75,19 +106,44 @@ class BookmarkServiceTest {
                 TestDataBuilder.bookmark().id(1L).build(),
                 TestDataBuilder.bookmark().id(2L).build()
             );
-            List<Tag> tags = Arrays.asList(testTag);
+            List<BookmarkTag> bookmarkTags = Arrays.asList(
+                BookmarkTag.builder().bookmarkId(1L).tagId(10L).tagName("java").build(),
+                BookmarkTag.builder().bookmarkId(1L).tagId(11L).tagName("spring").build(),
+                BookmarkTag.builder().bookmarkId(2L).tagId(10L).tagName("java").build()
+            );
 
             when(bookmarkDao.findAll(any(SelectOptions.class))).thenReturn(bookmarks);
-            when(bookmarkTagDao.findTagsByBookmarkId(anyLong())).thenReturn(tags);
+            when(bookmarkTagDao.findTagsByBookmarkIds(Arrays.asList(1L, 2L))).thenReturn(bookmarkTags);
 
             // When
             List<Bookmark> result = bookmarkService.findAll(limit, offset);
 
             // Then
             assertThat(result).hasSize(2);
-            assertThat(result.get(0).getTags()).containsExactly(testTag);
+            assertThat(result.get(0).getTags()).extracting(Tag::getName)
+                .containsExactlyInAnyOrder("java", "spring");
+            assertThat(result.get(1).getTags()).extracting(Tag::getName)
+                .containsExactly("java");
             verify(bookmarkDao).findAll(any(SelectOptions.class));
-            verify(bookmarkTagDao, times(2)).findTagsByBookmarkId(anyLong());
+            verify(bookmarkTagDao).findTagsByBookmarkIds(Arrays.asList(1L, 2L));
+            verify(bookmarkTagDao, never()).findTagsByBookmarkId(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should return empty tags for bookmarks without tags")
+        void shouldReturnEmptyTagsForBookmarksWithoutTags() {
+            // Given
+            List<Bookmark> bookmarks = Arrays.asList(TestDataBuilder.bookmark().id(1L).build());
+
+            when(bookmarkDao.findAll(any(SelectOptions.class))).thenReturn(bookmarks);
+            when(bookmarkTagDao.findTagsByBookmarkIds(Arrays.asList(1L))).thenReturn(Arrays.asList());
+
+            // When
+            List<Bookmark> result = bookmarkService.findAll(10, 0);
+
+            // Then
+            assertThat(result).hasSize(1);
+            assertThat(result.get(0).getTags()).isEmpty();
         }
 
         @Test
@@ -101,7 +157,137 @@ class BookmarkServiceTest {
 
             // Then
             assertThat(result).isEmpty();
-            verify(bookmarkTagDao, never()).findTagsByBookmarkId(anyLong());
+            verify(bookmarkTagDao, never()).findTagsByBookmarkIds(anyList());
+        }
+    }
+
+    @Nested
+    @DisplayName("findAllAfter Tests")
+    class FindAllAfterTests {
+
+        @Test
+        @DisplayName("Should return first page when cursor is null")
+        void shouldReturnFirstPageWhenCursorIsNull() {
+            // Given
+            List<Bookmark> bookmarks = Arrays.asList(TestDataBuilder.bookmark().id(2L).build());
+
+            when(bookmarkDao.findAllAfter(isNull(), isNull(), any(SelectOptions.class))).thenReturn(bookmarks);
+            when(bookmarkTagDao.findTagsByBookmarkIds(Arrays.asList(2L))).thenReturn(Arrays.asList());
+
+            // When
+            List<Bookmark> result = bookmarkService.findAllAfter(null, 10);
+
+            // Then
+            assertThat(result).hasSize(1);
+            verify(bookmarkDao).findAllAfter(isNull(), isNull(), any(SelectOptions.class));
+        }
+
+        @Test
+        @DisplayName("Should seek after cursor position")
+        void shouldSeekAfterCursorPosition() {
+            // Given
+            LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+            BookmarkCursor cursor = new BookmarkCursor(createdAt, 5L);
+
+            when(bookmarkDao.findAllAfter(eq(createdAt), eq(5L), any(SelectOptions.class))).thenReturn(Arrays.asList());
+
+            // When
+            List<Bookmark> result = bookmarkService.findAllAfter(cursor, 10);
+
+            // Then
+            assertThat(result).isEmpty();
+            verify(bookmarkTagDao, never()).findTagsByBookmarkIds(anyList());
+        }
+    }
+
+    @Nested
+    @DisplayName("findByTags Tests")
+    class FindByTagsTests {
+
+        @Test
+        @DisplayName("Should resolve tag names with one query and load tags of the page in one batch")
+        void shouldResolveTagNamesWithOneQueryAndLoadTagsOfThePageInOneBatch() {
+            // Given
+            tagCache.putAfterCommit(TestDataBuilder.tag().id(10L).name("java").build());
+            Tag spring = TestDataBuilder.tag().id(11L).name("spring").build();
+            Tag kotlin = TestDataBuilder.tag().id(12L).name("kotlin").build();
+            TagFilter filter = TagFilter.parse("java,spring", "all", "kotlin");
+            List<Bookmark> bookmarks = Arrays.asList(
+                TestDataBuilder.bookmark().id(1L).build(),
+                TestDataBuilder.bookmark().id(2L).build()
+            );
+
+            when(tagDao.findByNames(eq(List.of("kotlin", "spring")), any(SelectOptions.class)))
+                .thenReturn(List.of(spring, kotlin));
+            when(bookmarkDao.findByTags(eq(List.of(10L, 11L)), eq(true), eq(List.of(12L)), eq(false), isNull(), isNull(),
+                any(SelectOptions.class)))
+                .thenReturn(bookmarks);
+            when(bookmarkTagDao.findTagsByBookmarkIds(Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(
+                BookmarkTag.builder().bookmarkId(1L).tagId(10L).tagName("java").build(),
+                BookmarkTag.builder().bookmarkId(1L).tagId(11L).tagName("spring").build()
+            ));
+
+            // When
+            List<Bookmark> result = bookmarkService.findByTags(filter, 10, 0);
+
+            // Then
+            assertThat(result).hasSize(2);
+            assertThat(result.get(0).getTags()).extracting(Tag::getName).containsExactlyInAnyOrder("java", "spring");
+            assertThat(result.get(1).getTags()).isEmpty();
+            assertThat(tagCache.get("spring")).contains(spring);
+            verify(tagDao, times(1)).findByNames(anyList(), any(SelectOptions.class));
+        }
+
+        @Test
+        @DisplayName("Should return nothing without querying bookmarks when a required tag does not exist")
+        void shouldReturnNothingWithoutQueryingBookmarksWhenARequiredTagDoesNotExist() {
+            // Given
+            tagCache.putAfterCommit(TestDataBuilder.tag().id(10L).name("java").build());
+            when(tagDao.findByNames(eq(List.of("unknown")), any(SelectOptions.class))).thenReturn(List.of());
+
+            // When
+            List<Bookmark> result = bookmarkService.findByTags(TagFilter.parse("java,unknown", null, null), 10, 0);
+
+            // Then
+            assertThat(result).isEmpty();
+            verify(bookmarkDao, never()).findByTags(anyList(), anyBoolean(), anyList(), anyBoolean(), any(), any(),
+                any(SelectOptions.class));
+        }
+
+        @Test
+        @DisplayName("Should ignore unknown tags in any mode and in the exclusions")
+        void shouldIgnoreUnknownTagsInAnyModeAndInTheExclusions() {
+            // Given
+            tagCache.putAfterCommit(TestDataBuilder.tag().id(10L).name("java").build());
+            when(tagDao.findByNames(eq(List.of("unknown", "unused")), any(SelectOptions.class))).thenReturn(List.of());
+            when(bookmarkDao.findByTags(eq(List.of(10L)), eq(false), eq(List.of()), eq(false), isNull(), isNull(),
+                any(SelectOptions.class)))
+                .thenReturn(List.of());
+
+            // When
+            List<Bookmark> result = bookmarkService.findByTags(TagFilter.parse("java,unknown", "any", "unused"), 10, 0);
+
+            // Then
+            assertThat(result).isEmpty();
+            verify(bookmarkTagDao, never()).findTagsByBookmarkIds(anyList());
+        }
+
+        @Test
+        @DisplayName("Should use a semi-join instead of grouping for a single required tag")
+        void shouldUseASemiJoinInsteadOfGroupingForASingleRequiredTag() {
+            // Given
+            LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+            tagCache.putAfterCommit(TestDataBuilder.tag().id(10L).name("java").build());
+            when(bookmarkDao.findByTags(eq(List.of(10L)), eq(false), eq(List.of()), eq(true), eq(createdAt), eq(5L),
+                any(SelectOptions.class))).thenReturn(List.of());
+
+            // When
+            List<Bookmark> result = bookmarkService.findByTagsAfter(TagFilter.parse("java", "all", null),
+                new BookmarkCursor(createdAt, 5L), 10);
+
+            // Then
+            assertThat(result).isEmpty();
+            verify(tagDao, never()).findByNames(anyList(), any(SelectOptions.class));
         }
     }
 
@@ -145,6 +331,94 @@ class BookmarkServiceTest {
             verify(bookmarkDao).findById(bookmarkId);
             verify(bookmarkTagDao, never()).findTagsByBookmarkId(anyLong());
         }
+
+        @Test
+        @DisplayName("Should serve repeated reads from the cache")
+        void shouldServeRepeatedReadsFromTheCache() {
+            // Given
+            Long bookmarkId = 1L;
+            testBookmark.setId(bookmarkId);
+
+            when(bookmarkDao.findById(bookmarkId)).thenReturn(Optional.of(testBookmark));
+            when(bookmarkTagDao.findTagsByBookmarkId(bookmarkId)).thenReturn(List.of(testTag));
+
+            // When
+            Bookmark first = bookmarkService.findById(bookmarkId);
+            Bookmark second = bookmarkService.findById(bookmarkId);
+
+            // Then
+            assertThat(second).isEqualTo(first).isNotSameAs(first);
+            verify(bookmarkDao, times(1)).findById(bookmarkId);
+            verify(bookmarkTagDao, times(1)).findTagsByBookmarkId(bookmarkId);
+            assertThat(bookmarkCache.stats().hits()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should reload after the bookmark is deleted")
+        void shouldReloadAfterTheBookmarkIsDeleted() {
+            // Given
+            Long bookmarkId = 1L;
+            testBookmark.setId(bookmarkId);
+
+            when(bookmarkDao.findById(bookmarkId)).thenReturn(Optional.of(testBookmark), Optional.empty());
+            when(bookmarkTagDao.findTagsByBookmarkId(bookmarkId)).thenReturn(List.of(testTag));
+            when(bookmarkDao.deleteById(bookmarkId, null)).thenReturn(1);
+            bookmarkService.findById(bookmarkId);
+
+            // When
+            bookmarkService.delete(bookmarkId, null);
+
+            // Then
+            assertThatThrownBy(() -> bookmarkService.findById(bookmarkId))
+                .isInstanceOf(BookmarkNotFoundException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("findVersionById Tests")
+    class FindVersionByIdTests {
+
+        @Test
+        @DisplayName("Should answer from the cache without querying")
+        void shouldAnswerFromTheCacheWithoutQuerying() {
+            // Given
+            testBookmark.setId(1L);
+            testBookmark.setVersion(3L);
+            bookmarkCache.putAfterCommit(testBookmark, bookmarkCache.generation());
+
+            // When
+            Long version = bookmarkService.findVersionById(1L);
+
+            // Then
+            assertThat(version).isEqualTo(3L);
+            verify(bookmarkDao, never()).findVersionById(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should read only the version column on a cache miss")
+        void shouldReadOnlyTheVersionColumnOnCacheMiss() {
+            // Given
+            when(bookmarkDao.findVersionById(1L)).thenReturn(Optional.of(5L));
+
+            // When
+            Long version = bookmarkService.findVersionById(1L);
+
+            // Then
+            assertThat(version).isEqualTo(5L);
+            verify(bookmarkDao, never()).findById(anyLong());
+            verify(bookmarkTagDao, never()).findTagsByBookmarkId(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should throw BookmarkNotFoundException when bookmark not found")
+        void shouldThrowBookmarkNotFoundExceptionWhenBookmarkNotFound() {
+            // Given
+            when(bookmarkDao.findVersionById(999L)).thenReturn(Optional.empty());
+
+            // When & Then
+            assertThatThrownBy(() -> bookmarkService.findVersionById(999L))
+                .isInstanceOf(BookmarkNotFoundException.class);
+        }
     }
 
     @Nested
@@ -155,20 +429,24 @@ class BookmarkServiceTest {
         @DisplayName("Should create bookmark successfully")
         void shouldCreateBookmarkSuccessfully() {
             // Given
+            testTag.setId(1L);
             Set<Tag> tags = new HashSet<>(Arrays.asList(testTag));
             testBookmark.setTags(tags);
 
-            when(bookmarkDao.existsByUrl(testBookmark.getUrl())).thenReturn(false);
-            when(tagDao.findByName(testTag.getName())).thenReturn(Optional.of(testTag));
+            when(tagDao.findByNames(eq(List.of(testTag.getName())), any(SelectOptions.class)))
+                .thenReturn(List.of(testTag));
 
             // When
             Bookmark result = bookmarkService.create(testBookmark);
 
             // Then
             assertThat(result).isEqualTo(testBookmark);
-            verify(bookmarkDao).existsByUrl(testBookmark.getUrl());
+            verify(bookmarkDao, never()).existsByUrl(anyString());
             verify(bookmarkDao).insert(testBookmark);
-            verify(bookmarkTagDao).insertBookmarkTag(testBookmark.getId(), testTag.getId());
+            verify(bookmarkTagDao).insertAll(List.of(
+                BookmarkTag.builder().bookmarkId(testBookmark.getId()).tagId(1L).build()));
+            verify(bookmarkTagDao, never()).insertBookmarkTag(any(), any());
+            verify(bookmarkSearchIndex).indexAfterCommit(List.of(testBookmark));
         }
 
         @Test
@@ -178,29 +456,128 @@ class BookmarkServiceTest {
             Set<Tag> tags = new HashSet<>(Arrays.asList(testTag));
             testBookmark.setTags(tags);
 
-            when(bookmarkDao.existsByUrl(testBookmark.getUrl())).thenReturn(false);
-            when(tagDao.findByName(testTag.getName())).thenReturn(Optional.empty());
+            Tag createdTag = TestDataBuilder.tag().id(9L).name(testTag.getName()).build();
+
+            when(tagDao.findByNames(eq(List.of(testTag.getName())), any(SelectOptions.class)))
+                .thenReturn(List.of(createdTag));
+
+            // When
+            Bookmark result = bookmarkService.create(testBookmark);
+
+            // Then
+            verify(tagDao).insertIfAbsent(List.of(testTag.getName()));
+            assertThat(result.getTags()).containsExactly(createdTag);
+        }
+
+        @Test
+        @DisplayName("Should resolve all missing tags with two statements")
+        void shouldResolveAllMissingTagsWithTwoStatements() {
+            // Given
+            Set<Tag> tags = new HashSet<>(Arrays.asList(new Tag("spring"), new Tag("java"), new Tag("doma")));
+            testBookmark.setTags(tags);
+            List<String> sortedNames = List.of("doma", "java", "spring");
+
+            when(tagDao.findByNames(eq(sortedNames), any(SelectOptions.class))).thenReturn(List.of(
+                TestDataBuilder.tag().id(1L).name("doma").build(),
+                TestDataBuilder.tag().id(2L).name("java").build(),
+                TestDataBuilder.tag().id(3L).name("spring").build()));
+
+            // When
+            Bookmark result = bookmarkService.create(testBookmark);
+
+            // Then
+            assertThat(result.getTags()).extracting(Tag::getId).containsExactlyInAnyOrder(1L, 2L, 3L);
+            verify(tagDao, times(1)).insertIfAbsent(sortedNames);
+            verify(tagDao, times(1)).findByNames(eq(sortedNames), any(SelectOptions.class));
+            verify(tagDao, never()).findByName(anyString());
+            verify(tagDao, never()).insert(any(Tag.class));
+        }
+
+        @Test
+        @DisplayName("Should insert all tag relationships in one batch")
+        void shouldInsertAllTagRelationshipsInOneBatch() {
+            // Given
+            testBookmark.setId(7L);
+            Set<Tag> tags = new HashSet<>();
+            for (long i = 1; i <= 5; i++) {
+                Tag tag = TestDataBuilder.tag().id(i).name("tag-" + i).build();
+                tagCache.putAfterCommit(tag);
+                tags.add(new Tag("tag-" + i));
+            }
+            testBookmark.setTags(tags);
+
+
+            // When
+            bookmarkService.create(testBookmark);
+
+            // Then
+            verify(bookmarkTagDao, times(1)).insertAll(argThat(bookmarkTags -> bookmarkTags.size() == 5));
+            verify(bookmarkTagDao, never()).insertBookmarkTag(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should skip batch insert when bookmark has no tags")
+        void shouldSkipBatchInsertWhenBookmarkHasNoTags() {
+            // Given
+
+            // When
+            bookmarkService.create(testBookmark);
+
+            // Then
+            verify(bookmarkTagDao, never()).insertAll(anyList());
+        }
+
+        @Test
+        @DisplayName("Should resolve cached tags without querying the database")
+        void shouldResolveCachedTagsWithoutQueryingTheDatabase() {
+            // Given
+            Tag cachedTag = TestDataBuilder.tag().id(5L).name("cached").build();
+            tagCache.putAfterCommit(cachedTag);
+            testBookmark.setTags(new HashSet<>(Arrays.asList(new Tag("cached"))));
+
+
+            // When
+            Bookmark result = bookmarkService.create(testBookmark);
+
+            // Then
+            assertThat(result.getTags()).containsExactly(cachedTag);
+            verify(tagDao, never()).insertIfAbsent(anyList());
+            verify(tagDao, never()).findByNames(anyList(), any(SelectOptions.class));
+            verify(bookmarkTagDao).insertAll(List.of(
+                BookmarkTag.builder().bookmarkId(testBookmark.getId()).tagId(5L).build()));
+        }
+
+        @Test
+        @DisplayName("Should cache tags resolved from the database")
+        void shouldCacheTagsResolvedFromTheDatabase() {
+            // Given
+            testTag.setId(3L);
+            testBookmark.setTags(new HashSet<>(Arrays.asList(testTag)));
+
+            when(tagDao.findByNames(eq(List.of(testTag.getName())), any(SelectOptions.class)))
+                .thenReturn(List.of(testTag));
 
             // When
             bookmarkService.create(testBookmark);
 
             // Then
-            verify(tagDao).insert(testTag);
+            assertThat(tagCache.get(testTag.getName())).contains(testTag);
         }
 
         @Test
         @DisplayName("Should throw DuplicateUrlException when URL already exists")
         void shouldThrowDuplicateUrlExceptionWhenUrlAlreadyExists() {
             // Given
-            when(bookmarkDao.existsByUrl(testBookmark.getUrl())).thenReturn(true);
+            when(bookmarkDao.insert(testBookmark)).thenThrow(new DuplicateKeyException("duplicate"));
 
             // When & Then
             assertThatThrownBy(() -> bookmarkService.create(testBookmark))
                 .isInstanceOf(DuplicateUrlException.class)
                 .hasMessageContaining("Bookmark with URL already exists: " + testBookmark.getUrl());
 
-            verify(bookmarkDao).existsByUrl(testBookmark.getUrl());
-            verify(bookmarkDao, never()).insert(any(Bookmark.class));
+            verify(bookmarkDao, never()).existsByUrl(anyString());
+            verify(tagDao, never()).insertIfAbsent(anyList());
+            verify(bookmarkTagDao, never()).insertAll(anyList());
         }
 
         @Test
@@ -219,32 +596,213 @@ class BookmarkServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("importBatch Tests")
+    class ImportBatchTests {
+
+        @Test
+        @DisplayName("Should skip registered URLs and write the rest with one batch per table")
+        void shouldSkipRegisteredUrlsAndWriteTheRestWithOneBatchPerTable() {
+            // Given
+            Bookmark registered = TestDataBuilder.bookmark().url("https://registered.example.com").build();
+            Bookmark fresh = TestDataBuilder.bookmark().url("https://fresh.example.com")
+                .addTag(new Tag("java")).build();
+            Tag java = TestDataBuilder.tag().id(10L).name("java").build();
+
+            when(bookmarkDao.findUrlsByUrlHashes(anyList())).thenReturn(List.of("https://registered.example.com"));
+            when(bookmarkDao.insertAll(anyList())).thenAnswer(invocation -> {
+                List<Bookmark> inserted = invocation.getArgument(0);
+                inserted.get(0).setId(5L);
+                return new int[] { 1 };
+            });
+            when(tagDao.findByNames(eq(List.of("java")), any(SelectOptions.class))).thenReturn(List.of(java));
+
+            // When
+            List<Bookmark> duplicates = bookmarkService.importBatch(List.of(registered, fresh));
+
+            // Then
+            assertThat(duplicates).containsExactly(registered);
+            assertThat(fresh.getTags()).containsExactly(java);
+            verify(bookmarkDao).insertAll(List.of(fresh));
+            verify(bookmarkTagDao).insertAll(argThat(links -> links.size() == 1
+                && links.get(0).getBookmarkId().equals(5L) && links.get(0).getTagId().equals(10L)));
+            verify(bookmarkChangeDao).insertAll(argThat(changes -> changes.size() == 1
+                && changes.get(0).getChangeType() == BookmarkChange.Type.CREATED));
+            verify(bookmarkChangeDao).incrementCollectionVersion();
+            verify(bookmarkDao, never()).insert(any(Bookmark.class));
+            verify(bookmarkSearchIndex).indexAfterCommit(List.of(fresh));
+        }
+
+        @Test
+        @DisplayName("Should write nothing when every URL is already registered")
+        void shouldWriteNothingWhenEveryUrlIsAlreadyRegistered() {
+            // Given
+            Bookmark registered = TestDataBuilder.bookmark().url("https://registered.example.com").build();
+            when(bookmarkDao.findUrlsByUrlHashes(anyList())).thenReturn(List.of("https://registered.example.com"));
+
+            // When
+            List<Bookmark> duplicates = bookmarkService.importBatch(List.of(registered));
+
+            // Then
+            assertThat(duplicates).containsExactly(registered);
+            verify(bookmarkDao, never()).insertAll(anyList());
+            verify(bookmarkChangeDao, never()).insertAll(anyList());
+            verify(bookmarkChangeDao, never()).incrementCollectionVersion();
+            verify(bookmarkSearchIndex, never()).indexAfterCommit(anyList());
+        }
+
+        @Test
+        @DisplayName("Should write a URL whose url_hash is shared only by another URL")
+        void shouldWriteAUrlWhoseUrlHashIsSharedOnlyByAnotherUrl() {
+            // Given
+            Bookmark fresh = TestDataBuilder.bookmark().url("https://fresh.example.com").build();
+            when(bookmarkDao.findUrlsByUrlHashes(anyList())).thenReturn(List.of("https://colliding.example.com"));
+
+            // When
+            List<Bookmark> duplicates = bookmarkService.importBatch(List.of(fresh));
+
+            // Then
+            assertThat(duplicates).isEmpty();
+            verify(bookmarkDao).insertAll(List.of(fresh));
+        }
+
+        @Test
+        @DisplayName("Should fail the chunk when a URL was registered after the check")
+        void shouldFailTheChunkWhenAUrlWasRegisteredAfterTheCheck() {
+            // Given
+            Bookmark fresh = TestDataBuilder.bookmark().url("https://fresh.example.com").build();
+            when(bookmarkDao.insertAll(anyList())).thenThrow(new DuplicateKeyException("duplicate"));
+
+            // When & Then
+            assertThatThrownBy(() -> bookmarkService.importBatch(List.of(fresh)))
+                .isInstanceOf(DuplicateKeyException.class);
+            verify(bookmarkChangeDao, never()).insertAll(anyList());
+        }
+    }
+
     @Nested
     @DisplayName("update Tests")
     class UpdateTests {
 
+        private Bookmark currentBookmark;
+
+        @BeforeEach
+        void setUpCurrentBookmark() {
+            currentBookmark = TestDataBuilder.bookmark()
+                .id(1L)
+                .url("https://example.com")
+                .title("Current Title")
+                .description("Example Description")
+                .version(1L)
+                .build();
+        }
+
         @Test
         @DisplayName("Should update bookmark successfully")
         void shouldUpdateBookmarkSuccessfully() {
             // Given
             Long bookmarkId = 1L;
             testBookmark.setId(bookmarkId);
+            testTag.setId(2L);
             Set<Tag> tags = new HashSet<>(Arrays.asList(testTag));
             testBookmark.setTags(tags);
 
-            when(bookmarkDao.findById(bookmarkId)).thenReturn(Optional.of(testBookmark));
-            when(bookmarkDao.findByUrl(testBookmark.getUrl())).thenReturn(Optional.empty());
-            when(tagDao.findByName(testTag.getName())).thenReturn(Optional.of(testTag));
+            when(bookmarkDao.findByIdOrUrl(bookmarkId, testBookmark.getUrl())).thenReturn(List.of(currentBookmark));
+            when(bookmarkTagDao.findTagIdsByBookmarkId(bookmarkId)).thenReturn(List.of());
+            when(tagDao.findByNames(eq(List.of(testTag.getName())), any(SelectOptions.class)))
+                .thenReturn(List.of(testTag));
+            when(bookmarkDao.update(testBookmark)).thenReturn(1);
 
             // When
             Bookmark result = bookmarkService.update(testBookmark);
 
             // Then
             assertThat(result).isEqualTo(testBookmark);
-            verify(bookmarkDao).findById(bookmarkId);
+            assertThat(result.getCreatedAt()).isEqualTo(currentBookmark.getCreatedAt());
+            assertThat(result.getVersion()).isEqualTo(2L);
+            verify(bookmarkDao).findByIdOrUrl(bookmarkId, testBookmark.getUrl());
+            verify(bookmarkDao, never()).findById(anyLong());
+            verify(bookmarkDao, never()).findByUrl(anyString());
+            verify(bookmarkDao).update(testBookmark);
+            verify(bookmarkTagDao, never()).deleteByBookmarkId(anyLong());
+            verify(bookmarkTagDao).insertAll(List.of(
+                BookmarkTag.builder().bookmarkId(bookmarkId).tagId(2L).build()));
+            verify(bookmarkSearchIndex).indexAfterCommit(List.of(testBookmark));
+        }
+
+        @Test
+        @DisplayName("Should throw DuplicateUrlException when the new URL is registered after the check")
+        void shouldThrowDuplicateUrlExceptionWhenTheNewUrlIsRegisteredAfterTheCheck() {
+            // Given
+            Long bookmarkId = 1L;
+            testBookmark.setId(bookmarkId);
+            testBookmark.setUrl("https://changed.example.com");
+
+            when(bookmarkDao.findByIdOrUrl(bookmarkId, testBookmark.getUrl())).thenReturn(List.of(currentBookmark));
+            when(bookmarkTagDao.findTagIdsByBookmarkId(bookmarkId)).thenReturn(List.of());
+            when(bookmarkDao.update(testBookmark)).thenThrow(new DuplicateKeyException("duplicate"));
+
+            // When & Then
+            assertThatThrownBy(() -> bookmarkService.update(testBookmark))
+                .isInstanceOf(DuplicateUrlException.class)
+                .hasMessageContaining("Bookmark with URL already exists: https://changed.example.com");
+            verify(bookmarkChangeDao, never()).insert(any(BookmarkChange.class));
+            verify(bookmarkSearchIndex, never()).indexAfterCommit(anyList());
+        }
+
+        @Test
+        @DisplayName("Should only insert and delete changed tag links")
+        void shouldOnlyInsertAndDeleteChangedTagLinks() {
+            // Given
+            Long bookmarkId = 1L;
+            testBookmark.setId(bookmarkId);
+            testBookmark.setTitle(currentBookmark.getTitle());
+            Tag kept = TestDataBuilder.tag().id(10L).name("kept").build();
+            Tag added = TestDataBuilder.tag().id(11L).name("added").build();
+            tagCache.putAfterCommit(kept);
+            tagCache.putAfterCommit(added);
+            testBookmark.setTags(new HashSet<>(Arrays.asList(new Tag("kept"), new Tag("added"))));
+
+            when(bookmarkDao.findByIdOrUrl(bookmarkId, testBookmark.getUrl())).thenReturn(List.of(currentBookmark));
+            when(bookmarkTagDao.findTagIdsByBookmarkId(bookmarkId)).thenReturn(List.of(10L, 12L));
+            when(bookmarkDao.update(testBookmark)).thenReturn(1);
+
+            // When
+            bookmarkService.update(testBookmark);
+
+            // Then
             verify(bookmarkDao).update(testBookmark);
-            verify(bookmarkTagDao).deleteByBookmarkId(bookmarkId);
-            verify(bookmarkTagDao).insertBookmarkTag(bookmarkId, testTag.getId());
+            verify(bookmarkTagDao).deleteByBookmarkIdAndTagIds(bookmarkId, List.of(12L));
+            verify(bookmarkTagDao).insertAll(List.of(
+                BookmarkTag.builder().bookmarkId(bookmarkId).tagId(11L).build()));
+            verify(bookmarkTagDao, never()).deleteByBookmarkId(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should skip all writes when nothing changed")
+        void shouldSkipAllWritesWhenNothingChanged() {
+            // Given
+            Long bookmarkId = 1L;
+            testBookmark.setId(bookmarkId);
+            testBookmark.setTitle(currentBookmark.getTitle());
+            Tag kept = TestDataBuilder.tag().id(10L).name("kept").build();
+            tagCache.putAfterCommit(kept);
+            testBookmark.setTags(new HashSet<>(Arrays.asList(new Tag("kept"))));
+
+            when(bookmarkDao.findByIdOrUrl(bookmarkId, testBookmark.getUrl())).thenReturn(List.of(currentBookmark));
+            when(bookmarkTagDao.findTagIdsByBookmarkId(bookmarkId)).thenReturn(List.of(10L));
+
+            // When
+            Bookmark result = bookmarkService.update(testBookmark);
+
+            // Then
+            assertThat(result.getUpdatedAt()).isEqualTo(currentBookmark.getUpdatedAt());
+            assertThat(result.getTags()).containsExactly(kept);
+            verify(bookmarkDao, never()).update(any(Bookmark.class));
+            verify(bookmarkTagDao, never()).deleteByBookmarkIdAndTagIds(anyLong(), anyList());
+            verify(bookmarkTagDao, never()).insertAll(anyList());
+            verify(bookmarkChangeDao, never()).insert(any(BookmarkChange.class));
+            verify(bookmarkSearchIndex, never()).indexAfterCommit(anyList());
         }
 
         @Test
@@ -254,14 +812,14 @@ class BookmarkServiceTest {
             Long bookmarkId = 999L;
             testBookmark.setId(bookmarkId);
 
-            when(bookmarkDao.findById(bookmarkId)).thenReturn(Optional.empty());
+            when(bookmarkDao.findByIdOrUrl(bookmarkId, testBookmark.getUrl())).thenReturn(List.of());
 
             // When & Then
             assertThatThrownBy(() -> bookmarkService.update(testBookmark))
                 .isInstanceOf(BookmarkNotFoundException.class)
                 .hasMessageContaining("Bookmark not found with id: " + bookmarkId);
 
-            verify(bookmarkDao).findById(bookmarkId);
+            verify(bookmarkDao).findByIdOrUrl(bookmarkId, testBookmark.getUrl());
             verify(bookmarkDao, never()).update(any(Bookmark.class));
         }
 
@@ -274,8 +832,8 @@ class BookmarkServiceTest {
             testBookmark.setId(bookmarkId);
             Bookmark existingBookmark = TestDataBuilder.bookmark().id(existingBookmarkId).build();
 
-            when(bookmarkDao.findById(bookmarkId)).thenReturn(Optional.of(testBookmark));
-            when(bookmarkDao.findByUrl(testBookmark.getUrl())).thenReturn(Optional.of(existingBookmark));
+            when(bookmarkDao.findByIdOrUrl(bookmarkId, testBookmark.getUrl()))
+                .thenReturn(List.of(currentBookmark, existingBookmark));
 
             // When & Then
             assertThatThrownBy(() -> bookmarkService.update(testBookmark))
@@ -284,6 +842,107 @@ class BookmarkServiceTest {
 
             verify(bookmarkDao, never()).update(any(Bookmark.class));
         }
+
+        @Test
+        @DisplayName("Should throw VersionConflictException when bookmark changed after the read")
+        void shouldThrowVersionConflictExceptionWhenBookmarkChangedAfterTheRead() {
+            // Given
+            Long bookmarkId = 1L;
+            testBookmark.setId(bookmarkId);
+
+            when(bookmarkDao.findByIdOrUrl(bookmarkId, testBookmark.getUrl())).thenReturn(List.of(currentBookmark));
+            when(bookmarkTagDao.findTagIdsByBookmarkId(bookmarkId)).thenReturn(List.of());
+            when(bookmarkDao.update(testBookmark)).thenReturn(0);
+
+            // When & Then
+            assertThatThrownBy(() -> bookmarkService.update(testBookmark))
+                .isInstanceOf(VersionConflictException.class);
+
+            verify(bookmarkTagDao, never()).insertAll(anyList());
+        }
+
+        @Test
+        @DisplayName("Should update without reading first when version is specified")
+        void shouldUpdateWithoutReadingFirstWhenVersionIsSpecified() {
+            // Given
+            Long bookmarkId = 1L;
+            testBookmark.setId(bookmarkId);
+            testBookmark.setVersion(1L);
+            testBookmark.setUpdatedAt(null);
+            LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+
+            when(bookmarkDao.update(testBookmark)).thenReturn(1);
+            when(bookmarkTagDao.findTagIdsByBookmarkId(bookmarkId)).thenReturn(List.of());
+            when(bookmarkDao.findCreatedAtById(bookmarkId)).thenReturn(Optional.of(createdAt));
+
+            // When
+            Bookmark result = bookmarkService.update(testBookmark);
+
+            // Then
+            assertThat(result).isSameAs(testBookmark);
+            assertThat(result.getVersion()).isEqualTo(2L);
+            assertThat(result.getCreatedAt()).isEqualTo(createdAt);
+            assertThat(result.getUpdatedAt()).isNotNull();
+            verify(bookmarkDao, never()).findByIdOrUrl(anyLong(), anyString());
+            verify(bookmarkDao, never()).findById(anyLong());
+            verify(bookmarkSearchIndex).indexAfterCommit(List.of(testBookmark));
+        }
+
+        @Test
+        @DisplayName("Should take createdAt from the cache after a versioned update")
+        void shouldTakeCreatedAtFromTheCacheAfterAVersionedUpdate() {
+            // Given
+            Long bookmarkId = 1L;
+            currentBookmark.setId(bookmarkId);
+            currentBookmark.setCreatedAt(LocalDateTime.of(2024, 1, 1, 10, 0, 0));
+            bookmarkCache.putAfterCommit(currentBookmark, bookmarkCache.generation());
+            testBookmark.setId(bookmarkId);
+            testBookmark.setVersion(1L);
+
+            when(bookmarkDao.update(testBookmark)).thenReturn(1);
+            when(bookmarkTagDao.findTagIdsByBookmarkId(bookmarkId)).thenReturn(List.of());
+
+            // When
+            Bookmark result = bookmarkService.update(testBookmark);
+
+            // Then
+            assertThat(result.getCreatedAt()).isEqualTo(currentBookmark.getCreatedAt());
+            verify(bookmarkDao, never()).findCreatedAtById(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should throw VersionConflictException when If-Match version is stale")
+        void shouldThrowVersionConflictExceptionWhenIfMatchVersionIsStale() {
+            // Given
+            Long bookmarkId = 1L;
+            testBookmark.setId(bookmarkId);
+            testBookmark.setVersion(1L);
+            currentBookmark.setVersion(2L);
+
+            when(bookmarkDao.update(testBookmark)).thenReturn(0);
+            when(bookmarkDao.findById(bookmarkId)).thenReturn(Optional.of(currentBookmark));
+
+            // When & Then
+            assertThatThrownBy(() -> bookmarkService.update(testBookmark))
+                .isInstanceOf(VersionConflictException.class);
+
+            verify(bookmarkTagDao, never()).findTagIdsByBookmarkId(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should throw DuplicateUrlException when versioned update hits unique constraint")
+        void shouldThrowDuplicateUrlExceptionWhenVersionedUpdateHitsUniqueConstraint() {
+            // Given
+            testBookmark.setId(1L);
+            testBookmark.setVersion(1L);
+
+            when(bookmarkDao.update(testBookmark)).thenThrow(new DuplicateKeyException("duplicate"));
+
+            // When & Then
+            assertThatThrownBy(() -> bookmarkService.update(testBookmark))
+                .isInstanceOf(DuplicateUrlException.class);
+            verify(bookmarkChangeDao, never()).insert(any(BookmarkChange.class));
+        }
     }
 
     @Nested
@@ -295,17 +954,20 @@ class BookmarkServiceTest {
         void shouldDeleteBookmarkSuccessfully() {
             // Given
             Long bookmarkId = 1L;
-            testBookmark.setId(bookmarkId);
 
-            when(bookmarkDao.findById(bookmarkId)).thenReturn(Optional.of(testBookmark));
+            when(bookmarkDao.deleteById(bookmarkId, null)).thenReturn(1);
 
             // When
-            bookmarkService.delete(bookmarkId);
+            bookmarkService.delete(bookmarkId, null);
 
             // Then
-            verify(bookmarkDao).findById(bookmarkId);
-            verify(bookmarkTagDao).deleteByBookmarkId(bookmarkId);
-            verify(bookmarkDao).delete(testBookmark);
+            verify(bookmarkDao).deleteById(bookmarkId, null);
+            verify(bookmarkDao, never()).findById(anyLong());
+            verify(bookmarkTagDao, never()).deleteByBookmarkId(anyLong());
+            verify(bookmarkChangeDao).insert(argThat(change -> change.getBookmarkId().equals(bookmarkId)
+                && change.getChangeType() == BookmarkChange.Type.DELETED));
+            verify(bookmarkChangeDao).incrementCollectionVersion();
+            verify(bookmarkSearchIndex).removeAfterCommit(bookmarkId);
         }
 
         @Test
@@ -314,16 +976,45 @@ class BookmarkServiceTest {
             // Given
             Long bookmarkId = 999L;
 
-            when(bookmarkDao.findById(bookmarkId)).thenReturn(Optional.empty());
+            when(bookmarkDao.deleteById(bookmarkId, null)).thenReturn(0);
 
             // When & Then
-            assertThatThrownBy(() -> bookmarkService.delete(bookmarkId))
+            assertThatThrownBy(() -> bookmarkService.delete(bookmarkId, null))
                 .isInstanceOf(BookmarkNotFoundException.class)
                 .hasMessageContaining("Bookmark not found with id: " + bookmarkId);
 
-            verify(bookmarkDao).findById(bookmarkId);
-            verify(bookmarkTagDao, never()).deleteByBookmarkId(anyLong());
-            verify(bookmarkDao, never()).delete(any(Bookmark.class));
+            verify(bookmarkDao, never()).findById(anyLong());
+            verify(bookmarkSearchIndex, never()).removeAfterCommit(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should throw VersionConflictException when version does not match")
+        void shouldThrowVersionConflictExceptionWhenVersionDoesNotMatch() {
+            // Given
+            Long bookmarkId = 1L;
+            testBookmark.setId(bookmarkId);
+            testBookmark.setVersion(3L);
+
+            when(bookmarkDao.deleteById(bookmarkId, 2L)).thenReturn(0);
+            when(bookmarkDao.findById(bookmarkId)).thenReturn(Optional.of(testBookmark));
+
+            // When & Then
+            assertThatThrownBy(() -> bookmarkService.delete(bookmarkId, 2L))
+                .isInstanceOf(VersionConflictException.class);
+        }
+
+        @Test
+        @DisplayName("Should throw BookmarkNotFoundException when versioned delete targets missing bookmark")
+        void shouldThrowBookmarkNotFoundExceptionWhenVersionedDeleteTargetsMissingBookmark() {
+            // Given
+            Long bookmarkId = 999L;
+
+            when(bookmarkDao.deleteById(bookmarkId, 1L)).thenReturn(0);
+            when(bookmarkDao.findById(bookmarkId)).thenReturn(Optional.empty());
+
+            // When & Then
+            assertThatThrownBy(() -> bookmarkService.delete(bookmarkId, 1L))
+                .isInstanceOf(BookmarkNotFoundException.class);
         }
     }
 
@@ -129,6 +129,23 @@ class GlobalExceptionHandlerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Spring MVC Exception Handling")
+    class SpringMvcExceptionTests {
+
+        @Test
+        @DisplayName("Should return 415 with proper error response for unsupported content type")
+        void shouldReturn415WithProperErrorResponseForUnsupportedContentType() throws Exception {
+            // When & Then
+            mockMvc.perform(post("/test/validation")
+                .contentType(MediaType.APPLICATION_XML)
+                .content("<name>test</name>"))
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.errorCode", is("UNSUPPORTED_MEDIA_TYPE")));
+        }
+    }
+
     @Nested
     @DisplayName("Generic Exception Handling")
     class GenericExceptionTests {
@@ -0,0 +1,25 @@
+package com.example.fusen.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("UrlHash Tests")
+class UrlHashTest {
+
+    @Test
+    @DisplayName("Should take the first 8 bytes of SHA-256 as a signed long")
+    void shouldTakeFirst8BytesOfSha256AsSignedLong() {
+        // SHA-256("abc") = ba7816bf8f01cfea...
+        assertThat(UrlHash.of("abc")).isEqualTo(0xba7816bf8f01cfeaL);
+    }
+
+    @Test
+    @DisplayName("Should hash the UTF-8 bytes of the URL")
+    void shouldHashUtf8BytesOfUrl() {
+        assertThat(UrlHash.of("https://example.com/日本語"))
+            .isEqualTo(UrlHash.of("https://example.com/日本語"))
+            .isNotEqualTo(UrlHash.of("https://example.com/"));
+    }
+}
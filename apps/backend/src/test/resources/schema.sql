@@ -1,13 +1,18 @@
 -- Test database schema for H2
 CREATE TABLE bookmarks (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    url VARCHAR(2048) NOT NULL UNIQUE,
+    url VARCHAR(2048) NOT NULL,
+    url_hash BIGINT NOT NULL,
     title VARCHAR(255) NOT NULL,
     description TEXT,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 1
 );
 
+CREATE UNIQUE INDEX uk_bookmarks_url_hash ON bookmarks (url_hash);
+CREATE INDEX idx_bookmarks_created_at_id ON bookmarks (created_at, id);
+
 CREATE TABLE tags (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     name VARCHAR(100) NOT NULL UNIQUE,
@@ -21,4 +26,63 @@ CREATE TABLE bookmark_tags (
     PRIMARY KEY (bookmark_id, tag_id),
     FOREIGN KEY (bookmark_id) REFERENCES bookmarks(id) ON DELETE CASCADE,
     FOREIGN KEY (tag_id) REFERENCES tags(id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE INDEX idx_bookmark_tags_tag_id_bookmark_id ON bookmark_tags (tag_id, bookmark_id);
+
+CREATE TABLE bookmark_changes (
+    seq BIGINT AUTO_INCREMENT PRIMARY KEY,
+    bookmark_id BIGINT NOT NULL,
+    change_type VARCHAR(16) NOT NULL,
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_bookmark_changes_changed_at ON bookmark_changes (changed_at);
+
+CREATE TABLE bookmark_collection_version (
+    id TINYINT PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+INSERT INTO bookmark_collection_version (id, version) VALUES (1, 0);
+
+CREATE TABLE scheduled_locks (
+    name VARCHAR(64) PRIMARY KEY,
+    locked_until TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO scheduled_locks (name) VALUES ('prune-bookmark-changes');
+
+CREATE TABLE jobs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    job_type VARCHAR(16) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    format VARCHAR(16),
+    gzip BOOLEAN NOT NULL DEFAULT FALSE,
+    file_path VARCHAR(1024),
+    processed BIGINT NOT NULL DEFAULT 0,
+    succeeded BIGINT NOT NULL DEFAULT 0,
+    duplicates BIGINT NOT NULL DEFAULT 0,
+    failed BIGINT NOT NULL DEFAULT 0,
+    checkpoint BIGINT NOT NULL DEFAULT 0,
+    checkpoint_offset BIGINT NOT NULL DEFAULT 0,
+    error_message VARCHAR(1024),
+    cancel_requested BOOLEAN NOT NULL DEFAULT FALSE,
+    owner VARCHAR(255),
+    heartbeat_at TIMESTAMP NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP NULL,
+    finished_at TIMESTAMP NULL
+);
+
+CREATE INDEX idx_jobs_status ON jobs (status);
+
+CREATE TABLE job_errors (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    job_id BIGINT NOT NULL,
+    line BIGINT NOT NULL,
+    url VARCHAR(2048),
+    error_code VARCHAR(32) NOT NULL,
+    message VARCHAR(1024),
+    FOREIGN KEY (job_id) REFERENCES jobs(id) ON DELETE CASCADE
+);
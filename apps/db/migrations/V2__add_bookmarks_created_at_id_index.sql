@@ -0,0 +1,2 @@
+-- 一覧の新しい順キーセットページング (ORDER BY created_at DESC, id DESC) 用
+CREATE INDEX idx_bookmarks_created_at_id ON bookmarks (created_at, id);
@@ -0,0 +1,2 @@
+-- 楽観的排他制御 (If-Match / ETag) 用のバージョン番号。既存行は 1 から始める
+ALTER TABLE bookmarks ADD COLUMN version BIGINT NOT NULL DEFAULT 1;
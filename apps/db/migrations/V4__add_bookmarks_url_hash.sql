@@ -0,0 +1,12 @@
+-- URLの一意性と検索を固定長のハッシュで行う (SHA-256 先頭8バイトの符号付き64bit整数, UrlHash.of と同じ値)
+ALTER TABLE bookmarks ADD COLUMN url_hash BIGINT NULL AFTER url;
+
+UPDATE bookmarks SET url_hash = CAST(CONV(LEFT(SHA2(url, 256), 16), 16, -10) AS SIGNED);
+
+ALTER TABLE bookmarks MODIFY COLUMN url_hash BIGINT NOT NULL;
+
+-- 別のURLとのハッシュの衝突 (2^-64) は重複URLとして扱う。検索は url_hash で絞り込んだうえで url も比較する
+CREATE UNIQUE INDEX uk_bookmarks_url_hash ON bookmarks (url_hash);
+
+-- url列のUNIQUE制約で自動作成されたプレフィックスインデックスは不要になる
+ALTER TABLE bookmarks DROP INDEX url;
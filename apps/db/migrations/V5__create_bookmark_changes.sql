@@ -0,0 +1,11 @@
+-- ブックマークの変更履歴。各インスタンスがseqの昇順にポーリングし、ローカルのキャッシュを無効化する
+-- bookmarksの削除後も行を残すため外部キーは張らない
+CREATE TABLE bookmark_changes (
+    seq BIGINT AUTO_INCREMENT PRIMARY KEY,
+    bookmark_id BIGINT NOT NULL,
+    change_type VARCHAR(16) NOT NULL,
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- 保持期間を過ぎた行の削除用
+CREATE INDEX idx_bookmark_changes_changed_at ON bookmark_changes (changed_at);
@@ -0,0 +1,38 @@
+-- 非同期ジョブ (一括登録・エクスポートなど)。進捗とチェックポイントを保存し、再起動後や他のインスタンスで続きから再開する
+CREATE TABLE jobs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    job_type VARCHAR(16) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    format VARCHAR(16),
+    gzip BOOLEAN NOT NULL DEFAULT FALSE,
+    -- 一括登録は受け付けたリクエストボディ、エクスポートは出力先のファイル
+    file_path VARCHAR(1024),
+    processed BIGINT NOT NULL DEFAULT 0,
+    succeeded BIGINT NOT NULL DEFAULT 0,
+    duplicates BIGINT NOT NULL DEFAULT 0,
+    failed BIGINT NOT NULL DEFAULT 0,
+    -- 再開位置。一括登録は読み終えたレコード数、エクスポートは書き出し済みの最後のidとそのときのファイルサイズ
+    checkpoint BIGINT NOT NULL DEFAULT 0,
+    checkpoint_offset BIGINT NOT NULL DEFAULT 0,
+    error_message VARCHAR(1024),
+    cancel_requested BOOLEAN NOT NULL DEFAULT FALSE,
+    -- 実行中のインスタンスと、その生存確認の時刻
+    owner VARCHAR(255),
+    heartbeat_at TIMESTAMP NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP NULL,
+    finished_at TIMESTAMP NULL
+);
+
+-- 未完了のジョブの検索用
+CREATE INDEX idx_jobs_status ON jobs (status);
+
+CREATE TABLE job_errors (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    job_id BIGINT NOT NULL,
+    line BIGINT NOT NULL,
+    url VARCHAR(2048),
+    error_code VARCHAR(32) NOT NULL,
+    message VARCHAR(1024),
+    FOREIGN KEY (job_id) REFERENCES jobs(id) ON DELETE CASCADE
+);
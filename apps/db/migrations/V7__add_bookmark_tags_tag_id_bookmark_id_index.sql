@@ -0,0 +1,4 @@
+-- タグでの絞り込み (GET /api/v1/bookmarks?tags=) 用。tag_idから該当するbookmark_idをインデックスだけで読む
+-- tag_idの外部キーはこのインデックスでも満たされるが、外部キー制約のために自動作成されたtag_idのインデックスは
+-- MySQLが削除するとは限らない。名前は制約の定義によって異なるため、ここでは削除しない (SHOW INDEX で確認して個別に削除する)
+CREATE INDEX idx_bookmark_tags_tag_id_bookmark_id ON bookmark_tags (tag_id, bookmark_id);
@@ -0,0 +1,8 @@
+-- 一覧のETag用のカウンター (1行のみ)。ブックマークを変更するトランザクションの最後に1加算する
+-- 一覧の取得ごとに変更履歴を集計せずに済み、保持期間を過ぎた変更履歴を削除しても値が変わらない
+CREATE TABLE bookmark_collection_version (
+    id TINYINT PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+INSERT INTO bookmark_collection_version (id, version) VALUES (1, 0);
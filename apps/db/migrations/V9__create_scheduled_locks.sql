@@ -0,0 +1,8 @@
+-- 全インスタンスでスケジュールされる処理を1台だけで実行するためのロック。locked_untilが過ぎた行を条件付きUPDATEで取った
+-- インスタンスが実行する (行はロックごとにあらかじめ登録しておく)
+CREATE TABLE scheduled_locks (
+    name VARCHAR(64) PRIMARY KEY,
+    locked_until TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO scheduled_locks (name) VALUES ('prune-bookmark-changes');